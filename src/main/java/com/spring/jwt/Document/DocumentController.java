@@ -1,21 +1,30 @@
 package com.spring.jwt.Document;
 
+import com.spring.jwt.Document.Service.DocumentProcessingJobService;
 import com.spring.jwt.Document.domain.DocumentMetadata;
 import com.spring.jwt.Enums.DocumentType;
+import com.spring.jwt.Enums.ThumbnailSize;
 import com.spring.jwt.config.DocumentProperties;
+import com.spring.jwt.download.RangedDownloadWriter;
+import com.spring.jwt.download.RawContentNegotiation;
 import com.spring.jwt.dto.DocumentDetailResponseDTO;
+import com.spring.jwt.dto.DocumentJobResponseDTO;
 import com.spring.jwt.dto.DocumentResponseDTO;
 import com.spring.jwt.dto.PaginatedDocumentResponseDTO;
 import com.spring.jwt.utils.ApiResponse;
 import com.spring.jwt.utils.SecurityUtil;
+import com.spring.jwt.ratelimit.QuotaCost;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -23,6 +32,8 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,6 +48,8 @@ public class DocumentController
 
         private final DocumentService documentService;
         private final DocumentProperties documentProperties;
+        private final RangedDownloadWriter rangedDownloadWriter;
+        private final DocumentProcessingJobService documentProcessingJobService;
 
         @Operation(summary = "Upload a document", description = "Upload a document file with automatic compression and validation. Supports PDF, JPEG, PNG, and WEBP formats up to 15MB.")
         @ApiResponses(value =
@@ -50,6 +63,7 @@ public class DocumentController
                         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401",
                                 description = "Unauthorized")
                 })
+        @QuotaCost(value = QuotaCost.HEAVY, bucket = QuotaCost.UPLOADS)
         @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
         public ResponseEntity<ApiResponse<DocumentResponseDTO>> uploadDocument
                 (
@@ -72,6 +86,89 @@ public class DocumentController
                                 .body(ApiResponse.success("Document uploaded successfully", response));
         }
 
+        /**
+         * Upload a document for background processing
+         *
+         * Business Logic:
+         * 1. Validate permissions and the file, and spool it to disk
+         * 2. Queue a processing job and answer 202 with its status URL
+         * 3. Compression and storage run on the processing pool; poll the job for the result
+         */
+        @Operation(summary = "Upload a document asynchronously", description = "Validate and queue a document for compression. Returns 202 with a job to poll at the Location URL; 503 with Retry-After when the processing queue is full.")
+        @QuotaCost(value = QuotaCost.HEAVY, bucket = QuotaCost.UPLOADS)
+        @PostMapping(value = "/upload/async", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+        public ResponseEntity<ApiResponse<DocumentJobResponseDTO>> uploadDocumentAsync
+                (
+                        @Parameter(description = "Document file to upload", required = true)
+                        @RequestParam("file") MultipartFile file,
+                        @Parameter(description = "Type of document being uploaded", required = true)
+                        @RequestParam("documentType") DocumentType documentType,
+                        @Parameter(description = "Optional description for the document")
+                        @RequestParam(value = "description", required = false) String description
+                )
+        {
+
+                Long userId = SecurityUtil.getCurrentUserId();
+                log.info("Async upload request: user={}, type={}, file={}, size={}KB",
+                                userId, documentType, file.getOriginalFilename(), file.getSize() / 1024);
+
+                DocumentJobResponseDTO job = documentProcessingJobService.submitUpload(userId, file, documentType, description);
+
+                return accepted(job);
+        }
+
+        /**
+         * Replace a document's file with background processing
+         */
+        @Operation(summary = "Replace document file asynchronously", description = "Queue a new file for an existing document. Returns 202 with a job to poll at the Location URL.")
+        @QuotaCost(value = QuotaCost.HEAVY, bucket = QuotaCost.UPLOADS)
+        @PutMapping(value = "/{documentId}/async", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+        public ResponseEntity<ApiResponse<DocumentJobResponseDTO>> updateDocumentAsync
+        (
+                        @Parameter(description = "Document ID to update", required = true)
+                        @PathVariable Integer documentId,
+                        @Parameter(description = "New file", required = true)
+                        @RequestParam("file") MultipartFile file,
+                        @Parameter(description = "New description (optional)")
+                        @RequestParam(value = "description", required = false) String description
+        )
+        {
+
+                Long userId = SecurityUtil.getCurrentUserId();
+                log.info("Async update request: user={}, documentId={}, file={}", userId, documentId,
+                                file.getOriginalFilename());
+
+                DocumentJobResponseDTO job = documentProcessingJobService.submitUpdate(userId, documentId, file, description);
+
+                return accepted(job);
+        }
+
+        /**
+         * Poll an asynchronous upload
+         */
+        @Operation(summary = "Get processing job", description = "Status of an asynchronous upload: QUEUED, PROCESSING, DONE (with documentId) or FAILED (with errorMessage)")
+        @QuotaCost(QuotaCost.LIGHT)
+        @GetMapping("/jobs/{jobId}")
+        public ResponseEntity<ApiResponse<DocumentJobResponseDTO>> getProcessingJob
+        (
+                        @Parameter(description = "Job ID", required = true)
+                        @PathVariable String jobId)
+        {
+
+                Long userId = SecurityUtil.getCurrentUserId();
+
+                DocumentJobResponseDTO job = documentProcessingJobService.getJob(userId, jobId);
+
+                return ResponseEntity.ok(ApiResponse.success("Processing job retrieved", job));
+        }
+
+        private static ResponseEntity<ApiResponse<DocumentJobResponseDTO>> accepted(DocumentJobResponseDTO job)
+        {
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                                .location(URI.create("/api/v1/documents/jobs/" + job.getJobId()))
+                                .body(ApiResponse.success("Document accepted for processing", job));
+        }
+
         @Operation(summary = "Upload a document", description = "Upload a document file with automatic compression and validation. Supports PDF, JPEG, PNG, and WEBP formats up to 15MB.")
         @ApiResponses(value =
                 {
@@ -84,6 +181,7 @@ public class DocumentController
                         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401",
                                 description = "Unauthorized")
                 })
+        @QuotaCost(value = QuotaCost.HEAVY, bucket = QuotaCost.UPLOADS)
         @PostMapping(value = "/uploadByUser", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
         public ResponseEntity<ApiResponse<DocumentResponseDTO>> uploadDocumentUserId
                 (
@@ -118,6 +216,7 @@ public class DocumentController
          * 4. Return appropriate response
          */
         @Operation(summary = "Replace existing document", description = "Replace an existing document of the same type or create new if doesn't exist")
+        @QuotaCost(value = QuotaCost.HEAVY, bucket = QuotaCost.UPLOADS)
         @PostMapping(value = "/replace", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
         public ResponseEntity<ApiResponse<DocumentResponseDTO>> replaceDocument
         (
@@ -140,23 +239,35 @@ public class DocumentController
          * Business Logic:
          * 1. Validate user ownership of document
          * 2. Retrieve document with binary data
-         * 3. Convert binary data to Base64 for JSON response
+         * 3. Stream binary data as Base64 into the JSON response
          * 4. Return complete document information
+         * Clients preferring application/octet-stream get the raw file instead
          */
-        @Operation(summary = "Get document by ID", description = "Retrieve a specific document by its ID including the file data (Base64 encoded)")
+        @Operation(summary = "Get document by ID", description = "Retrieve a specific document by its ID including the file data (Base64 encoded). Send Accept: application/octet-stream to receive the raw file.")
+        @QuotaCost(QuotaCost.MEDIUM)
         @GetMapping("/{documentId}")
         public ResponseEntity<ApiResponse<DocumentDetailResponseDTO>> getDocumentById
         (
                         @Parameter(description = "Document ID", required = true)
-                        @PathVariable Integer documentId)
+                        @PathVariable Integer documentId,
+                        HttpServletRequest request,
+                        HttpServletResponse response) throws IOException
         {
 
                 Long userId = SecurityUtil.getCurrentUserId();
                 log.debug("Get document request: user={}, documentId={}", userId, documentId);
 
-                DocumentDetailResponseDTO response = documentService.getDocumentById(userId, documentId);
+                if (RawContentNegotiation.prefersRaw(request)) {
+                        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                        rangedDownloadWriter.write(request, response, documentService.getDocumentDownload(userId, documentId));
+                        return null;
+                }
+
+                DocumentDetailResponseDTO document = documentService.getDocumentById(userId, documentId);
 
-                return ResponseEntity.ok(ApiResponse.success("Document retrieved successfully", response));
+                return ResponseEntity.ok()
+                        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                        .body(ApiResponse.success("Document retrieved successfully", document));
         }
 
 
@@ -187,6 +298,59 @@ public class DocumentController
                 }
         }
 
+        /**
+         * Download the document file
+         *
+         * Business Logic:
+         * 1. Validate user ownership
+         * 2. Answer If-None-Match with 304 when the client holds the same content
+         * 3. Stream the stored file, or the requested byte range of it
+         */
+        @Operation(summary = "Download document file", description = "Download the stored file. Supports ETag revalidation (If-None-Match) and single byte ranges (Range, If-Range).")
+        @QuotaCost(QuotaCost.MEDIUM)
+        @GetMapping("/{documentId}/download")
+        public void downloadDocument
+        (
+                        @Parameter(description = "Document ID", required = true)
+                        @PathVariable Integer documentId,
+                        HttpServletRequest request,
+                        HttpServletResponse response) throws IOException
+        {
+
+                Long userId = SecurityUtil.getCurrentUserId();
+                log.debug("Download request: user={}, documentId={}", userId, documentId);
+
+                rangedDownloadWriter.write(request, response, documentService.getDocumentDownload(userId, documentId));
+        }
+
+        /**
+         * Download a thumbnail of an image document
+         *
+         * Business Logic:
+         * 1. Validate user ownership
+         * 2. Serve the precomputed 128px or 512px JPEG, generating it for older uploads
+         * 3. Answer If-None-Match with 304 when the client holds the same rendition
+         */
+        @Operation(summary = "Download document thumbnail", description = "JPEG rendition of an image document that fits within size x size pixels (128 or 512). Supports ETag revalidation.")
+        @QuotaCost(QuotaCost.LIGHT)
+        @GetMapping("/{documentId}/thumbnail")
+        public void downloadThumbnail
+        (
+                        @Parameter(description = "Document ID", required = true)
+                        @PathVariable Integer documentId,
+                        @Parameter(description = "Bounding box in pixels: 128 or 512")
+                        @RequestParam(defaultValue = "128") int size,
+                        HttpServletRequest request,
+                        HttpServletResponse response) throws IOException
+        {
+
+                Long userId = SecurityUtil.getCurrentUserId();
+                ThumbnailSize thumbnailSize = ThumbnailSize.ofPixels(size);
+
+                rangedDownloadWriter.write(request, response,
+                                documentService.getDocumentThumbnail(userId, documentId, thumbnailSize));
+        }
+
         /**
          * Get document by type for current user
          *
@@ -194,21 +358,32 @@ public class DocumentController
          * 1. Find document of specific type for user
          * 2. Return document with file data
          * 3. Useful for retrieving specific document types (e.g., profile photo)
+         * Clients preferring application/octet-stream get the raw file instead
          */
-        @Operation(summary = "Get document by type", description = "Retrieve a document by its type for the current user")
+        @Operation(summary = "Get document by type", description = "Retrieve a document by its type for the current user. Send Accept: application/octet-stream to receive the raw file.")
         @GetMapping("/type/{documentType}")
         public ResponseEntity<ApiResponse<DocumentDetailResponseDTO>> getDocumentByType
         (
                         @Parameter(description = "Document type", required = true)
-                        @PathVariable DocumentType documentType)
+                        @PathVariable DocumentType documentType,
+                        HttpServletRequest request,
+                        HttpServletResponse response) throws IOException
         {
 
                 Long userId = SecurityUtil.getCurrentUserId();
                 log.debug("Get by type request: user={}, type={}", userId, documentType);
 
-                DocumentDetailResponseDTO response = documentService.getDocumentByType(userId, documentType);
+                if (RawContentNegotiation.prefersRaw(request)) {
+                        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                        rangedDownloadWriter.write(request, response, documentService.getDocumentDownloadByType(userId, documentType));
+                        return null;
+                }
+
+                DocumentDetailResponseDTO document = documentService.getDocumentByType(userId, documentType);
 
-                return ResponseEntity.ok(ApiResponse.success("Document retrieved successfully", response));
+                return ResponseEntity.ok()
+                        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                        .body(ApiResponse.success("Document retrieved successfully", document));
         }
 
         /**
@@ -302,6 +477,7 @@ public class DocumentController
          * 4. Save changes and return updated document
          */
         @Operation(summary = "Update document", description = "Update an existing document's file and/or description")
+        @QuotaCost(value = QuotaCost.HEAVY, bucket = QuotaCost.UPLOADS)
         @PutMapping(value = "/{documentId}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
         public ResponseEntity<ApiResponse<DocumentResponseDTO>> updateDocument
         (
@@ -0,0 +1,93 @@
+package com.spring.jwt.Document;
+
+import com.spring.jwt.Enums.ProcessingJobStatus;
+import com.spring.jwt.entity.DocumentProcessingJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface DocumentProcessingJobRepository extends JpaRepository<DocumentProcessingJob, String> {
+
+    Optional<DocumentProcessingJob> findByJobIdAndUserId(String jobId, Long userId);
+
+    /**
+     * Move a queued job to PROCESSING for the instance that runs it
+     * @return 0 if the job is no longer queued
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DocumentProcessingJob j SET j.status = :processing, j.ownerInstance = :owner, " +
+            "j.heartbeatAt = :now, j.updatedAt = :now " +
+            "WHERE j.jobId = :jobId AND j.status = :queued")
+    int claim(@Param("jobId") String jobId,
+              @Param("queued") ProcessingJobStatus queued,
+              @Param("processing") ProcessingJobStatus processing,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now);
+
+    /**
+     * Mark a job DONE, only while it is still PROCESSING
+     * @return 0 if the job was failed in the meantime
+     */
+    @Modifying
+    @Query("UPDATE DocumentProcessingJob j SET j.status = :done, j.documentId = :documentId, j.updatedAt = :now " +
+            "WHERE j.jobId = :jobId AND j.status = :processing")
+    int complete(@Param("jobId") String jobId,
+                 @Param("processing") ProcessingJobStatus processing,
+                 @Param("done") ProcessingJobStatus done,
+                 @Param("documentId") Integer documentId,
+                 @Param("now") LocalDateTime now);
+
+    /**
+     * Mark a job FAILED unless it already finished
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DocumentProcessingJob j SET j.status = :failed, j.errorMessage = :message, j.updatedAt = :now " +
+            "WHERE j.jobId = :jobId AND j.status IN :active")
+    int fail(@Param("jobId") String jobId,
+             @Param("active") Collection<ProcessingJobStatus> active,
+             @Param("failed") ProcessingJobStatus failed,
+             @Param("message") String message,
+             @Param("now") LocalDateTime now);
+
+    /**
+     * Show that the owner is still alive for each of its unfinished jobs
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DocumentProcessingJob j SET j.heartbeatAt = :now " +
+            "WHERE j.ownerInstance = :owner AND j.status IN :active")
+    int heartbeat(@Param("owner") String owner,
+                  @Param("active") Collection<ProcessingJobStatus> active,
+                  @Param("now") LocalDateTime now);
+
+    /**
+     * Fail unfinished jobs of other instances that have sent no heartbeat since the cutoff,
+     * i.e. whose owner stopped. Rows written before owners were recorded fall back to updatedAt.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DocumentProcessingJob j SET j.status = :failed, j.errorMessage = :message, j.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE j.status IN :active AND (j.ownerInstance IS NULL OR j.ownerInstance <> :owner) " +
+            "AND COALESCE(j.heartbeatAt, j.updatedAt) < :cutoff")
+    int failStale(@Param("active") Collection<ProcessingJobStatus> active,
+                  @Param("failed") ProcessingJobStatus failed,
+                  @Param("message") String message,
+                  @Param("owner") String owner,
+                  @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DocumentProcessingJob j WHERE j.status IN :finished AND j.updatedAt < :cutoff")
+    int deleteFinished(@Param("finished") Collection<ProcessingJobStatus> finished,
+                       @Param("cutoff") LocalDateTime cutoff);
+}
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,11 +19,33 @@ public interface DocumentRepository extends JpaRepository<Document, Integer> {
     @Query("SELECT d FROM Document d WHERE d.user.id = :userId AND d.documentType = :documentType")
     Optional<Document> findByUserIdAndDocumentType(@Param("userId") Long userId, @Param("documentType") DocumentType documentType);
 
-    @Query("SELECT d FROM Document d WHERE d.user.id = :userId ORDER BY d.uploadedAt DESC")
-    List<Document> findByUserIdOrderByUploadedAtDesc(@Param("userId") Long userId);
+    /**
+     * Column list of {@link DocumentSummary}; none of these queries touch the document content
+     */
+    String SUMMARY_SELECT = "SELECT d.documentId AS documentId, d.documentType AS documentType, " +
+            "d.fileName AS fileName, d.description AS description, d.fileSize AS fileSize, " +
+            "d.contentType AS contentType, d.user.id AS userId, d.uploadedAt AS uploadedAt, " +
+            "d.updatedAt AS updatedAt FROM Document d ";
 
-    @Query("SELECT d FROM Document d WHERE d.user.id = :userId ORDER BY d.uploadedAt DESC")
-    Page<Document> findDocumentsByUserIdWithPagination(@Param("userId") Long userId, Pageable pageable);
+    @Query(SUMMARY_SELECT + "WHERE d.documentId = :documentId")
+    Optional<DocumentSummary> findSummaryById(@Param("documentId") Integer documentId);
+
+    @Query(SUMMARY_SELECT + "WHERE d.user.id = :userId ORDER BY d.uploadedAt DESC")
+    List<DocumentSummary> findSummariesByUserId(@Param("userId") Long userId);
+
+    @Query(value = SUMMARY_SELECT + "WHERE d.user.id = :userId ORDER BY d.uploadedAt DESC",
+            countQuery = "SELECT COUNT(d) FROM Document d WHERE d.user.id = :userId")
+    Page<DocumentSummary> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE d.user.id = :userId AND d.documentType IN :documentTypes")
+    List<DocumentSummary> findSummariesByUserIdAndDocumentTypeIn(@Param("userId") Long userId,
+                                                                @Param("documentTypes") List<DocumentType> documentTypes);
+
+    /**
+     * Owner and type of a document, all an access check needs
+     */
+    @Query("SELECT d.user.id AS userId, d.documentType AS documentType FROM Document d WHERE d.documentId = :documentId")
+    Optional<DocumentOwnership> findOwnershipById(@Param("documentId") Integer documentId);
 
     @Query("SELECT d FROM Document d WHERE d.user.id = :userId ORDER BY d.uploadedAt DESC")
     List<Document> findDocumentsByUserId(@Param("userId") Long userId);
@@ -33,9 +56,47 @@ public interface DocumentRepository extends JpaRepository<Document, Integer> {
     @Query("SELECT COUNT(d) FROM Document d WHERE d.user.id = :userId")
     long countByUserId(@Param("userId") Long userId);
 
-    @Query("SELECT d FROM Document d WHERE d.user.id = :userId AND d.documentType IN :documentTypes")
-    List<Document> findByUserIdAndDocumentTypeIn(@Param("userId") Long userId, @Param("documentTypes") List<DocumentType> documentTypes);
+    /**
+     * Processed content of earlier uploads of the same file for the same document type
+     */
+    @Query("SELECT d.contentHash AS contentHash, d.fileSize AS fileSize FROM Document d " +
+            "WHERE d.sourceHash = :sourceHash AND d.documentType = :documentType AND d.contentHash IS NOT NULL")
+    List<ProcessedContent> findProcessedContent(@Param("sourceHash") String sourceHash,
+                                                @Param("documentType") DocumentType documentType,
+                                                Pageable pageable);
 
     @Query("DELETE FROM Document d WHERE d.user.id = :userId AND d.documentType = :documentType")
     void deleteByUserIdAndDocumentType(@Param("userId") Long userId, @Param("documentType") DocumentType documentType);
+
+    interface DocumentSummary {
+        Integer getDocumentId();
+
+        DocumentType getDocumentType();
+
+        String getFileName();
+
+        String getDescription();
+
+        Long getFileSize();
+
+        String getContentType();
+
+        Long getUserId();
+
+        LocalDateTime getUploadedAt();
+
+        LocalDateTime getUpdatedAt();
+    }
+
+    interface DocumentOwnership {
+        Long getUserId();
+
+        DocumentType getDocumentType();
+    }
+
+    interface ProcessedContent {
+        String getContentHash();
+
+        Long getFileSize();
+    }
 }
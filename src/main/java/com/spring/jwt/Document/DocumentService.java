@@ -2,6 +2,8 @@ package com.spring.jwt.Document;
 
 import com.spring.jwt.Document.domain.DocumentMetadata;
 import com.spring.jwt.Enums.DocumentType;
+import com.spring.jwt.Enums.ThumbnailSize;
+import com.spring.jwt.download.DownloadContent;
 import com.spring.jwt.dto.DocumentDetailResponseDTO;
 import com.spring.jwt.dto.DocumentResponseDTO;
 import com.spring.jwt.dto.PaginatedDocumentResponseDTO;
@@ -149,4 +151,34 @@ public interface DocumentService {
          */
         byte[] downloadDocument(Long userId, Integer documentId);
 
+        /**
+         * Locate a document's stored file for a streamed download
+         * Security: Validates user ownership before allowing download
+         *
+         * @param userId     the user ID (for authorization)
+         * @param documentId the document ID
+         * @return the stored file with its content hash, type and name
+         */
+        DownloadContent getDocumentDownload(Long userId, Integer documentId);
+
+        /**
+         * Locate the stored file of the user's document of the given type for a streamed download
+         *
+         * @param userId       the user ID
+         * @param documentType the document type
+         * @return the stored file with its content hash, type and name
+         */
+        DownloadContent getDocumentDownloadByType(Long userId, DocumentType documentType);
+
+        /**
+         * Locate a precomputed thumbnail of an image document
+         * Security: Validates user ownership before allowing download
+         *
+         * @param userId     the user ID (for authorization)
+         * @param documentId the document ID
+         * @param size       the rendition size
+         * @return the stored JPEG rendition with its content hash
+         */
+        DownloadContent getDocumentThumbnail(Long userId, Integer documentId, ThumbnailSize size);
+
 }
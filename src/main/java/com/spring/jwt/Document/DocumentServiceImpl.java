@@ -2,12 +2,16 @@ package com.spring.jwt.Document;
 
 import com.spring.jwt.Document.Service.DocumentSecurityService;
 import com.spring.jwt.Document.Service.DocumentServiceHelper;
-import com.spring.jwt.Document.Service.FileProcessingService;
+import com.spring.jwt.Document.Service.FileIngestionService;
 import com.spring.jwt.Document.Service.FileValidationService;
 import com.spring.jwt.Document.domain.DocumentMetadata;
-import com.spring.jwt.Document.domain.FileProcessingResult;
+import com.spring.jwt.Document.domain.IngestedFile;
+import com.spring.jwt.Document.domain.StoredContent;
 import com.spring.jwt.Enums.DocumentType;
+import com.spring.jwt.Enums.ThumbnailSize;
+import com.spring.jwt.blob.BlobStore;
 import com.spring.jwt.config.DocumentProperties;
+import com.spring.jwt.download.DownloadContent;
 import com.spring.jwt.dto.DocumentDetailResponseDTO;
 import com.spring.jwt.dto.DocumentResponseDTO;
 import com.spring.jwt.dto.PaginatedDocumentResponseDTO;
@@ -15,8 +19,10 @@ import com.spring.jwt.entity.Document;
 import com.spring.jwt.entity.User;
 import com.spring.jwt.exception.DocumentNotFoundException;
 import com.spring.jwt.exception.DocumentProcessingException;
+import com.spring.jwt.exception.InvalidDocumentException;
 import com.spring.jwt.exception.UnauthorizedAccessException;
 import com.spring.jwt.mapper.DocumentResponseMapper;
+import com.spring.jwt.thumbnail.ThumbnailService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +32,9 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,10 +46,12 @@ public class DocumentServiceImpl implements DocumentService {
     private final DocumentRepository documentRepository;
     private final DocumentResponseMapper documentResponseMapper;
     private final FileValidationService fileValidationService;
-    private final FileProcessingService fileProcessingService;
+    private final FileIngestionService fileIngestionService;
     private final DocumentSecurityService documentSecurityService;
     private final DocumentProperties documentProperties;
     private final DocumentServiceHelper documentServiceHelper;
+    private final BlobStore blobStore;
+    private final ThumbnailService thumbnailService;
 
     @Override
     @Transactional
@@ -68,23 +79,26 @@ public class DocumentServiceImpl implements DocumentService {
                             userId, documentType));
         }
 
-        try {
+        try (IngestedFile ingested = fileIngestionService.ingest(file)) {
             long startTime = System.currentTimeMillis();
 
-            FileProcessingResult fileProcessingResult = fileProcessingService
-                    .processFile(file, documentType)
-                    .join();
+            fileValidationService.validateIngestedFile(ingested, documentType);
+
+            StoredContent content = documentServiceHelper.storeContent(ingested, documentType);
 
             Document document = documentServiceHelper.createDocumentEntity(user, file, documentType, description,
-                    fileProcessingResult);
+                    content);
             Document savedDocument = documentRepository.save(document);
 
             long totalTime = System.currentTimeMillis() - startTime;
             log.info("Document '{}' uploaded successfully for user {} with ID {} in {}ms ({})",
                     file.getOriginalFilename(), userId, savedDocument.getDocumentId(), totalTime,
-                    fileProcessingResult.getProcessingSummary());
+                    content.getSummary());
             return documentResponseMapper.toResponseDTO(savedDocument)
                     .orElseThrow(() -> new DocumentProcessingException("Failed to map saved document to DTO"));
+        } catch (InvalidDocumentException e)
+        {
+            throw e;
         } catch (Exception e)
         {
             log.error("Document upload failed for user {}: {}", userId, e.getMessage(), e);
@@ -124,7 +138,7 @@ public class DocumentServiceImpl implements DocumentService {
         log.debug("Fetching all documents for user {}", userId);
         documentServiceHelper.validateUserId(userId);
 
-        List<Document> documents = documentRepository.findByUserIdOrderByUploadedAtDesc(userId);
+        List<DocumentRepository.DocumentSummary> documents = documentRepository.findSummariesByUserId(userId);
         return documentResponseMapper.toResponseDTOList(documents);
     }
 
@@ -139,11 +153,13 @@ public class DocumentServiceImpl implements DocumentService {
             return getAllDocumentsByUserId(userId);
         }
 
-        List<Document> documents = documentRepository.findByUserIdAndDocumentTypeIn(userId, documentTypes);
+        List<DocumentRepository.DocumentSummary> documents =
+                documentRepository.findSummariesByUserIdAndDocumentTypeIn(userId, documentTypes);
         return documentResponseMapper.toResponseDTOList(documents);
     }
 
     @Override
+    @Transactional
     public DocumentResponseDTO updateDocument(Long userId, Integer documentId, MultipartFile file,
             String description)
     {
@@ -160,16 +176,18 @@ public class DocumentServiceImpl implements DocumentService {
 
         try {
             boolean fileUpdated = false;
+            String replacedHash = null;
 
             if (file != null && !file.isEmpty())
             {
                 fileValidationService.validateFileForDocumentType(file, existingDocument.getDocumentType());
 
-                FileProcessingResult processingResult = fileProcessingService
-                        .processFile(file, existingDocument.getDocumentType())
-                        .join();
+                try (IngestedFile ingested = fileIngestionService.ingest(file)) {
+                    fileValidationService.validateIngestedFile(ingested, existingDocument.getDocumentType());
 
-                documentServiceHelper.updateDocumentFileData(existingDocument, file, processingResult);
+                    StoredContent content = documentServiceHelper.storeContent(ingested, existingDocument.getDocumentType());
+                    replacedHash = documentServiceHelper.updateDocumentFileData(existingDocument, file, content);
+                }
                 fileUpdated = true;
             }
             if (description != null && !description.trim().isEmpty())
@@ -177,12 +195,17 @@ public class DocumentServiceImpl implements DocumentService {
                 existingDocument.setDescription(description.trim());
             }
             Document updatedDocument = documentRepository.save(existingDocument);
+            if (replacedHash != null) {
+                blobStore.release(replacedHash);
+            }
 
             log.info("Document {} updated successfully for user {} (file updated: {})",
                     documentId, userId, fileUpdated);
 
             return documentResponseMapper.toResponseDTO(updatedDocument)
                     .orElseThrow(() -> new DocumentProcessingException("Failed to map updated document to DTO"));
+        } catch (InvalidDocumentException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Document update failed for user {}: {}", userId, e.getMessage(), e);
             throw new DocumentProcessingException("Failed to update document: " + e.getMessage(), e);
@@ -203,17 +226,22 @@ public class DocumentServiceImpl implements DocumentService {
         }
         Document document = getDocumentEntityById(documentId);
         documentRepository.delete(document);
+        releaseContent(document);
 
         log.info("Document {} deleted successfully for user {}", documentId, userId);
     }
 
     @Override
+    @Transactional
     public void deleteDocumentByType(Long userId, DocumentType documentType)
     {
         log.info("Deleting document of type {} for user {}", documentType, userId);
         documentServiceHelper.validateUserId(userId);
 
-        documentRepository.deleteByUserIdAndDocumentType(userId, documentType);
+        documentRepository.findByUserIdAndDocumentType(userId, documentType).ifPresent(document -> {
+            documentRepository.delete(document);
+            releaseContent(document);
+        });
         log.info("Document of type {} deleted successfully for user {}", documentType, userId);
     }
 
@@ -236,8 +264,7 @@ public class DocumentServiceImpl implements DocumentService {
 
         try {
             documentSecurityService.validateDocumentOwnership(userId, documentId);
-            Document document = getDocumentEntityById(documentId);
-            return Optional.of(DocumentMetadata.from(document));
+            return documentRepository.findSummaryById(documentId).map(DocumentMetadata::from);
         } catch (DocumentNotFoundException | UnauthorizedAccessException e)
         {
             log.warn("Cannot fetch document metadata: {}", e.getMessage());
@@ -254,7 +281,7 @@ public class DocumentServiceImpl implements DocumentService {
         documentServiceHelper.validatePaginationParameters(page, size, documentProperties.getDatabase().getBatchSize());
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<Document> documentPage = documentRepository.findDocumentsByUserIdWithPagination(userId, pageable);
+        Page<DocumentRepository.DocumentSummary> documentPage = documentRepository.findSummariesByUserId(userId, pageable);
 
         return documentResponseMapper.toPaginatedResponseDTO(documentPage);
     }
@@ -286,16 +313,93 @@ public class DocumentServiceImpl implements DocumentService {
 
         Document document = getDocumentEntityById(documentId);
 
-        if (document.getFileData() == null || document.getFileData().length == 0)
+        if (document.getContentHash() == null)
         {
             throw new DocumentProcessingException(
                     String.format("Document %d has no file data", documentId));
         }
 
-        log.debug("Document downloaded: id={}, size={}KB",
-                documentId, document.getFileData().length / 1024);
+        byte[] data = readStoredContent(document);
+        log.debug("Document downloaded: id={}, size={}KB", documentId, data.length / 1024);
+        return data;
+    }
+
+    @Override
+    public DownloadContent getDocumentDownload(Long userId, Integer documentId)
+    {
+        documentSecurityService.validateDocumentOwnership(userId, documentId);
+
+        return toDownloadContent(getDocumentEntityById(documentId));
+    }
+
+    @Override
+    public DownloadContent getDocumentDownloadByType(Long userId, DocumentType documentType)
+    {
+        documentServiceHelper.validateUserId(userId);
+
+        Document document = documentRepository.findByUserIdAndDocumentType(userId, documentType)
+                .orElseThrow(() -> new DocumentNotFoundException(
+                        String.format("Document of type %s not found for user %d", documentType, userId)));
+
+        return toDownloadContent(document);
+    }
+
+    @Override
+    @Transactional
+    public DownloadContent getDocumentThumbnail(Long userId, Integer documentId, ThumbnailSize size)
+    {
+        documentSecurityService.validateDocumentOwnership(userId, documentId);
+
+        Document document = getDocumentEntityById(documentId);
+        String contentType = document.getContentType();
+
+        if (document.getContentHash() == null || contentType == null || !contentType.startsWith("image/"))
+        {
+            throw new DocumentNotFoundException(
+                    String.format("Document %d has no thumbnail", documentId));
+        }
+
+        return thumbnailService.getOrCreate(document.getContentHash(), size, () -> readStoredContent(document))
+                .orElseThrow(() -> new DocumentNotFoundException(
+                        String.format("Document %d has no thumbnail", documentId)));
+    }
+
+    private byte[] readStoredContent(Document document)
+    {
+        try (InputStream in = blobStore.open(document.getContentHash())) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new DocumentProcessingException(
+                    String.format("Failed to read file data of document %d", document.getDocumentId()), e);
+        }
+    }
 
-        return document.getFileData();
+    private DownloadContent toDownloadContent(Document document)
+    {
+        String hash = document.getContentHash();
+
+        if (hash == null)
+        {
+            throw new DocumentProcessingException(
+                    String.format("Document %d has no file data", document.getDocumentId()));
+        }
+
+        Path file = blobStore.localPath(hash);
+        if (file != null)
+        {
+            return DownloadContent.ofFile(file, blobStore.size(hash), hash,
+                    document.getContentType(), document.getFileName());
+        }
+        return DownloadContent.ofStream(() -> blobStore.open(hash), blobStore.size(hash), hash,
+                document.getContentType(), document.getFileName());
+    }
+
+    private void releaseContent(Document document)
+    {
+        if (document.getContentHash() != null)
+        {
+            blobStore.release(document.getContentHash());
+        }
     }
 
     private Document getDocumentEntityById(Integer documentId)
@@ -0,0 +1,46 @@
+package com.spring.jwt.Document.Service;
+
+import com.spring.jwt.Enums.DocumentType;
+import com.spring.jwt.dto.DocumentJobResponseDTO;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Service interface for asynchronous document uploads
+ * Validates and spools the upload on the request thread, then compresses and stores it
+ * on the document processing pool while the client polls the job
+ */
+public interface DocumentProcessingJobService
+{
+
+    /**
+     * Accept a new document for background processing
+     *
+     * @param userId       the user ID
+     * @param file         the uploaded file
+     * @param documentType the document type
+     * @param description  optional description
+     * @return the queued job
+     */
+    DocumentJobResponseDTO submitUpload(Long userId, MultipartFile file, DocumentType documentType,
+                                        String description);
+
+    /**
+     * Accept a replacement file for an existing document for background processing
+     *
+     * @param userId      the user ID (for authorization)
+     * @param documentId  the document whose file is replaced
+     * @param file        the new file
+     * @param description optional new description
+     * @return the queued job
+     */
+    DocumentJobResponseDTO submitUpdate(Long userId, Integer documentId, MultipartFile file, String description);
+
+    /**
+     * Current state of one of the user's jobs
+     *
+     * @param userId the user ID (for authorization)
+     * @param jobId  the job ID
+     * @return the job, with the document ID once it is DONE
+     */
+    DocumentJobResponseDTO getJob(Long userId, String jobId);
+}
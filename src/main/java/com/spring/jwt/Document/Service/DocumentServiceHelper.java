@@ -1,13 +1,19 @@
 package com.spring.jwt.Document.Service;
 
+import com.spring.jwt.Document.DocumentRepository;
 import com.spring.jwt.Document.domain.FileProcessingResult;
+import com.spring.jwt.Document.domain.IngestedFile;
+import com.spring.jwt.Document.domain.StoredContent;
 import com.spring.jwt.Enums.DocumentType;
+import com.spring.jwt.blob.BlobStore;
 import com.spring.jwt.entity.Document;
 import com.spring.jwt.entity.User;
 import com.spring.jwt.exception.UserNotFoundExceptions;
 import com.spring.jwt.repository.UserRepository;
+import com.spring.jwt.thumbnail.ThumbnailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -22,6 +28,10 @@ public class DocumentServiceHelper
 {
 
     private final UserRepository userRepository;
+    private final DocumentRepository documentRepository;
+    private final FileProcessingService fileProcessingService;
+    private final BlobStore blobStore;
+    private final ThumbnailService thumbnailService;
 
     /**
      * Validate upload input parameters
@@ -66,28 +76,100 @@ public class DocumentServiceHelper
      * Create document entity from upload data
      */
     public Document createDocumentEntity(User user, MultipartFile file, DocumentType documentType,
-                                       String description, FileProcessingResult processingResult)
+                                       String description, StoredContent content)
+    {
+        return createDocumentEntity(user, file.getOriginalFilename(), file.getContentType(), documentType,
+                description, content);
+    }
+
+    /**
+     * Create document entity for an upload whose multipart request has already completed
+     */
+    public Document createDocumentEntity(User user, String fileName, String contentType, DocumentType documentType,
+                                         String description, StoredContent content)
     {
         return Document.builder()
                 .documentType(documentType)
-                .fileName(file.getOriginalFilename())
+                .fileName(fileName)
                 .description(description != null ? description.trim() : null)
-                .fileSize(processingResult.getProcessedSize())
-                .contentType(file.getContentType())
-                .fileData(processingResult.getProcessedData())
+                .fileSize(content.getSize())
+                .contentType(contentType)
+                .contentHash(content.getContentHash())
+                .sourceHash(content.getSourceHash())
                 .user(user)
                 .build();
     }
 
     /**
      * Update document file data with new file information
+     *
+     * @return hash of the content the document pointed at before, for the caller to release
+     */
+    public String updateDocumentFileData(Document document, MultipartFile file, StoredContent content)
+    {
+        return updateDocumentFileData(document, file.getOriginalFilename(), file.getContentType(), content);
+    }
+
+    /**
+     * Point the document at new content; file name and type are those recorded with the upload
+     *
+     * @return hash of the content the document pointed at before, for the caller to release
+     */
+    public String updateDocumentFileData(Document document, String fileName, String contentType,
+                                         StoredContent content)
+    {
+        String previousHash = document.getContentHash();
+        document.setFileName(fileName);
+        document.setFileSize(content.getSize());
+        document.setContentType(contentType);
+        document.setContentHash(content.getContentHash());
+        document.setSourceHash(content.getSourceHash());
+        return previousHash;
+    }
+
+    /**
+     * Store the processed upload, reusing the processed content of an identical earlier upload
+     * of the same document type instead of compressing it again. Images also get their
+     * thumbnails, which the reused content already has.
+     *
+     * @return the stored content, holding one blob reference for the caller's document row
      */
-    public void updateDocumentFileData(Document document, MultipartFile file, FileProcessingResult processingResult)
+    public StoredContent storeContent(IngestedFile ingested, DocumentType documentType)
+    {
+        for (DocumentRepository.ProcessedContent previous : documentRepository.findProcessedContent(
+                ingested.getSha256(), documentType, PageRequest.of(0, 1)))
+        {
+            if (blobStore.retain(previous.getContentHash()))
+            {
+                return StoredContent.builder()
+                        .contentHash(previous.getContentHash())
+                        .sourceHash(ingested.getSha256())
+                        .size(previous.getFileSize())
+                        .summary("DEDUPLICATED: reused processed content " + previous.getContentHash())
+                        .build();
+            }
+        }
+
+        FileProcessingResult result = fileProcessingService.processFile(ingested, documentType).join();
+        String contentHash = blobStore.put(result.getProcessedData());
+        if (isImage(ingested))
+        {
+            thumbnailService.generate(contentHash, result.getProcessedData());
+        }
+        return StoredContent.builder()
+                .contentHash(contentHash)
+                .sourceHash(ingested.getSha256())
+                .size(result.getProcessedSize())
+                .summary(result.getProcessingSummary())
+                .build();
+    }
+
+    private boolean isImage(IngestedFile ingested)
     {
-        document.setFileName(file.getOriginalFilename());
-        document.setFileSize(processingResult.getProcessedSize());
-        document.setContentType(file.getContentType());
-        document.setFileData(processingResult.getProcessedData());
+        String contentType = ingested.getDetectedContentType() != null
+                ? ingested.getDetectedContentType()
+                : ingested.getDeclaredContentType();
+        return contentType != null && contentType.startsWith("image/");
     }
 
     /**
@@ -0,0 +1,22 @@
+package com.spring.jwt.Document.Service;
+
+import com.spring.jwt.Document.domain.IngestedFile;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Service interface for reading uploads off the request
+ * Streams each multipart part exactly once
+ */
+public interface FileIngestionService {
+
+    /**
+     * Spool the uploaded file to temporary storage, computing its size, SHA-256
+     * and magic-byte content type on the way
+     *
+     * @param file the uploaded file
+     * @return the spooled file; the caller closes it to release the temporary storage
+     * @throws com.spring.jwt.exception.InvalidDocumentException if the file exceeds the maximum size
+     * @throws com.spring.jwt.exception.DocumentProcessingException if the upload cannot be read
+     */
+    IngestedFile ingest(MultipartFile file);
+}
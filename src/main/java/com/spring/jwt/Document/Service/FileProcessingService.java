@@ -1,6 +1,7 @@
 package com.spring.jwt.Document.Service;
 
 import com.spring.jwt.Document.domain.FileProcessingResult;
+import com.spring.jwt.Document.domain.IngestedFile;
 import com.spring.jwt.Enums.DocumentType;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -21,6 +22,16 @@ public interface FileProcessingService {
      */
     CompletableFuture<FileProcessingResult> processFile(MultipartFile file, DocumentType documentType);
 
+    /**
+     * Process an upload already spooled by the ingestion service. Runs on the calling thread,
+     * which is already a document processing worker, so it never waits behind its own pool's queue
+     * 
+     * @param file the ingested upload
+     * @param documentType the target document type
+     * @return completed future containing processing result
+     */
+    CompletableFuture<FileProcessingResult> processFile(IngestedFile file, DocumentType documentType);
+
     /**
      * Process image file with compression and optimization
      * 
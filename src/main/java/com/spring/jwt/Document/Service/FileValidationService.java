@@ -1,5 +1,6 @@
 package com.spring.jwt.Document.Service;
 
+import com.spring.jwt.Document.domain.IngestedFile;
 import com.spring.jwt.Enums.DocumentType;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -26,6 +27,15 @@ public interface FileValidationService {
      */
     void validateFileForDocumentType(MultipartFile file, DocumentType documentType);
 
+    /**
+     * Validate the spooled content against the declared type and size limits
+     * 
+     * @param file the ingested upload
+     * @param documentType the target document type
+     * @throws com.spring.jwt.exception.InvalidDocumentException if the content does not match its declared type
+     */
+    void validateIngestedFile(IngestedFile file, DocumentType documentType);
+
     /**
      * Check if file type is supported
      * 
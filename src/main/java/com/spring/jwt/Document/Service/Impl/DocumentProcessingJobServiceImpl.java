@@ -0,0 +1,392 @@
+package com.spring.jwt.Document.Service.Impl;
+
+import com.spring.jwt.Document.DocumentProcessingJobRepository;
+import com.spring.jwt.Document.DocumentRepository;
+import com.spring.jwt.Document.Service.DocumentProcessingJobService;
+import com.spring.jwt.Document.Service.DocumentSecurityService;
+import com.spring.jwt.Document.Service.DocumentServiceHelper;
+import com.spring.jwt.Document.Service.FileIngestionService;
+import com.spring.jwt.Document.Service.FileValidationService;
+import com.spring.jwt.Document.domain.IngestedFile;
+import com.spring.jwt.Document.domain.StoredContent;
+import com.spring.jwt.Enums.DocumentType;
+import com.spring.jwt.Enums.ProcessingJobStatus;
+import com.spring.jwt.blob.BlobStore;
+import com.spring.jwt.config.DocumentProperties;
+import com.spring.jwt.dto.DocumentJobResponseDTO;
+import com.spring.jwt.entity.Document;
+import com.spring.jwt.entity.DocumentProcessingJob;
+import com.spring.jwt.exception.DocumentAlreadyExistsException;
+import com.spring.jwt.exception.DocumentNotFoundException;
+import com.spring.jwt.exception.DocumentProcessingException;
+import com.spring.jwt.exception.DocumentProcessingUnavailableException;
+import com.spring.jwt.exception.InvalidDocumentException;
+import com.spring.jwt.exception.ResourceNotFoundException;
+import com.spring.jwt.exception.UnauthorizedAccessException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Asynchronous upload pipeline.
+ *
+ * The request thread does only the cheap work: permission checks, one pass spooling the upload
+ * to disk with its hash and sniffed type, and inserting a QUEUED job. Compression and the blob
+ * store write run on the bounded document processing pool, outside any transaction. Only the
+ * final step, inserting the document or swapping its content hash and marking the job DONE,
+ * runs in a short transaction, so no connection is held while an image is being encoded.
+ *
+ * Every job records the instance that queued it, and that instance keeps a heartbeat on its
+ * unfinished jobs. Only jobs whose owner stopped sending heartbeats are failed as stale, and a
+ * job only becomes DONE if it is still PROCESSING, so a job failed in the meantime stays FAILED.
+ */
+@Service
+@Slf4j
+public class DocumentProcessingJobServiceImpl implements DocumentProcessingJobService, DisposableBean
+{
+
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final String INTERRUPTED_MESSAGE = "Processing was interrupted; please upload the file again";
+    private static final EnumSet<ProcessingJobStatus> ACTIVE =
+            EnumSet.of(ProcessingJobStatus.QUEUED, ProcessingJobStatus.PROCESSING);
+    private static final EnumSet<ProcessingJobStatus> FINISHED =
+            EnumSet.of(ProcessingJobStatus.DONE, ProcessingJobStatus.FAILED);
+
+    private final DocumentProcessingJobRepository jobRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentServiceHelper documentServiceHelper;
+    private final DocumentSecurityService documentSecurityService;
+    private final FileValidationService fileValidationService;
+    private final FileIngestionService fileIngestionService;
+    private final DocumentProperties documentProperties;
+    private final BlobStore blobStore;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public DocumentProcessingJobServiceImpl(
+            DocumentProcessingJobRepository jobRepository,
+            DocumentRepository documentRepository,
+            DocumentServiceHelper documentServiceHelper,
+            DocumentSecurityService documentSecurityService,
+            FileValidationService fileValidationService,
+            FileIngestionService fileIngestionService,
+            DocumentProperties documentProperties,
+            BlobStore blobStore,
+            @Qualifier("documentProcessingExecutor") ThreadPoolTaskExecutor executor,
+            PlatformTransactionManager transactionManager)
+    {
+        this.jobRepository = jobRepository;
+        this.documentRepository = documentRepository;
+        this.documentServiceHelper = documentServiceHelper;
+        this.documentSecurityService = documentSecurityService;
+        this.fileValidationService = fileValidationService;
+        this.fileIngestionService = fileIngestionService;
+        this.documentProperties = documentProperties;
+        this.blobStore = blobStore;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public DocumentJobResponseDTO submitUpload(Long userId, MultipartFile file, DocumentType documentType,
+                                               String description)
+    {
+        documentServiceHelper.validateUploadInputs(userId, file, documentType);
+        documentServiceHelper.validateUserId(userId);
+
+        fileValidationService.validateFileForDocumentType(file, documentType);
+
+        if (!documentSecurityService.allowsMultipleUploads(documentType)
+                && documentRepository.existsByUserIdAndDocumentType(userId, documentType))
+        {
+            throw new DocumentAlreadyExistsException(
+                    String.format("Document type %s already exists for user %d", documentType, userId));
+        }
+
+        if (!documentSecurityService.canUploadDocument(userId, documentType))
+        {
+            throw new UnauthorizedAccessException(
+                    String.format("User %d is not authorized to upload document type %s", userId, documentType));
+        }
+
+        return submit(userId, null, file, documentType, description);
+    }
+
+    @Override
+    public DocumentJobResponseDTO submitUpdate(Long userId, Integer documentId, MultipartFile file,
+                                               String description)
+    {
+        if (file == null || file.isEmpty())
+        {
+            throw new IllegalArgumentException("File cannot be empty");
+        }
+
+        if (!documentSecurityService.canModifyDocument(userId, documentId))
+        {
+            throw new UnauthorizedAccessException(
+                    String.format("User %d is not authorized to modify document %d", userId, documentId));
+        }
+
+        DocumentType documentType = documentRepository.findOwnershipById(documentId)
+                .map(DocumentRepository.DocumentOwnership::getDocumentType)
+                .orElseThrow(() -> new DocumentNotFoundException("Document not found with ID: " + documentId));
+
+        fileValidationService.validateFileForDocumentType(file, documentType);
+
+        return submit(userId, documentId, file, documentType, description);
+    }
+
+    @Override
+    public DocumentJobResponseDTO getJob(Long userId, String jobId)
+    {
+        return jobRepository.findByJobIdAndUserId(jobId, userId)
+                .map(this::toResponseDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Processing job not found: " + jobId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.document.processing.heartbeat-interval-ms:60000}")
+    public void heartbeat()
+    {
+        try {
+            jobRepository.heartbeat(instanceId, ACTIVE, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh processing job heartbeats: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Fail jobs left behind by a stopped instance and drop finished jobs past their retention
+     */
+    @Scheduled(fixedDelayString = "${app.document.processing.cleanup-interval-ms:300000}")
+    public void expireJobs()
+    {
+        DocumentProperties.ProcessingConfig processing = documentProperties.getProcessing();
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            int failed = jobRepository.failStale(ACTIVE, ProcessingJobStatus.FAILED, INTERRUPTED_MESSAGE,
+                    instanceId, now.minusMinutes(processing.getStaleJobMinutes()));
+            int deleted = jobRepository.deleteFinished(FINISHED, now.minusHours(processing.getJobRetentionHours()));
+            if (failed > 0 || deleted > 0) {
+                log.info("Processing jobs expired: {} marked failed, {} deleted", failed, deleted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to expire processing jobs: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Runs before the pool shuts down: jobs still waiting in its queue are failed and their
+     * spooled files deleted, since they would otherwise be dropped with the files left behind
+     */
+    @Override
+    public void destroy()
+    {
+        List<Runnable> pending = new ArrayList<>();
+        executor.getThreadPoolExecutor().getQueue().drainTo(pending);
+        for (Runnable runnable : pending) {
+            if (runnable instanceof ProcessingTask task) {
+                task.abandon();
+            }
+        }
+        if (!pending.isEmpty()) {
+            log.info("Abandoned {} queued processing jobs at shutdown", pending.size());
+        }
+    }
+
+    private DocumentJobResponseDTO submit(Long userId, Integer documentId, MultipartFile file,
+                                          DocumentType documentType, String description)
+    {
+        IngestedFile ingested = fileIngestionService.ingest(file);
+        boolean handedOff = false;
+        try {
+            fileValidationService.validateIngestedFile(ingested, documentType);
+
+            LocalDateTime now = LocalDateTime.now();
+            DocumentProcessingJob job = jobRepository.save(DocumentProcessingJob.builder()
+                    .jobId(UUID.randomUUID().toString())
+                    .userId(userId)
+                    .documentId(documentId)
+                    .documentType(documentType)
+                    .fileName(ingested.getOriginalFilename())
+                    .contentType(ingested.getDeclaredContentType())
+                    .description(description != null && !description.trim().isEmpty() ? description.trim() : null)
+                    .status(ProcessingJobStatus.QUEUED)
+                    .ownerInstance(instanceId)
+                    .heartbeatAt(now)
+                    .build());
+
+            try {
+                executor.execute(new ProcessingTask(job.getJobId(), ingested));
+                handedOff = true;
+            } catch (TaskRejectedException e) {
+                jobRepository.delete(job);
+                throw new DocumentProcessingUnavailableException("Document processing queue is full",
+                        documentProperties.getProcessing().getRetryAfterSeconds());
+            }
+
+            log.info("Queued processing job {} for user {} ({}, {} bytes)",
+                    job.getJobId(), userId, documentType, ingested.getSize());
+            return toResponseDTO(job);
+        } finally {
+            if (!handedOff) {
+                ingested.close();
+            }
+        }
+    }
+
+    private void process(String jobId, IngestedFile ingested)
+    {
+        try (ingested) {
+            DocumentProcessingJob job = jobRepository.findById(jobId).orElse(null);
+            if (job == null || job.getStatus() != ProcessingJobStatus.QUEUED) {
+                return;
+            }
+            if (jobRepository.claim(jobId, ProcessingJobStatus.QUEUED, ProcessingJobStatus.PROCESSING,
+                    instanceId, LocalDateTime.now()) == 0) {
+                return;
+            }
+
+            long startTime = System.currentTimeMillis();
+            StoredContent content = documentServiceHelper.storeContent(ingested, job.getDocumentType());
+
+            Integer documentId;
+            try {
+                documentId = transactionTemplate.execute(status -> complete(job, content));
+            } catch (RuntimeException e) {
+                blobStore.release(content.getContentHash());
+                throw e;
+            }
+
+            log.info("Processing job {} finished in {}ms: document {} ({})", jobId,
+                    System.currentTimeMillis() - startTime, documentId, content.getSummary());
+        } catch (Exception e) {
+            log.warn("Processing job {} failed: {}", jobId, e.getMessage(), e);
+            fail(jobId, e);
+        }
+    }
+
+    /**
+     * Runs in the final transaction: insert the document or point it at the new content,
+     * and mark the job DONE. A job that is no longer PROCESSING rolls the transaction back.
+     */
+    private Integer complete(DocumentProcessingJob job, StoredContent content)
+    {
+        Document document;
+        if (job.getDocumentId() == null)
+        {
+            if (!documentSecurityService.allowsMultipleUploads(job.getDocumentType())
+                    && documentRepository.existsByUserIdAndDocumentType(job.getUserId(), job.getDocumentType()))
+            {
+                throw new DocumentAlreadyExistsException(
+                        String.format("Document type %s already exists for user %d",
+                                job.getDocumentType(), job.getUserId()));
+            }
+            document = documentServiceHelper.createDocumentEntity(
+                    documentServiceHelper.getUserById(job.getUserId()),
+                    job.getFileName(), job.getContentType(), job.getDocumentType(), job.getDescription(), content);
+            document = documentRepository.save(document);
+        } else
+        {
+            document = documentRepository.findById(job.getDocumentId())
+                    .orElseThrow(() -> new DocumentNotFoundException(
+                            "Document not found with ID: " + job.getDocumentId()));
+            String replacedHash = documentServiceHelper.updateDocumentFileData(
+                    document, job.getFileName(), job.getContentType(), content);
+            if (job.getDescription() != null)
+            {
+                document.setDescription(job.getDescription());
+            }
+            document = documentRepository.save(document);
+            if (replacedHash != null)
+            {
+                blobStore.release(replacedHash);
+            }
+        }
+
+        if (jobRepository.complete(job.getJobId(), ProcessingJobStatus.PROCESSING, ProcessingJobStatus.DONE,
+                document.getDocumentId(), LocalDateTime.now()) == 0)
+        {
+            throw new DocumentProcessingException("Processing job " + job.getJobId() + " is no longer running");
+        }
+        return document.getDocumentId();
+    }
+
+    private void fail(String jobId, Exception cause)
+    {
+        String message = cause instanceof InvalidDocumentException
+                || cause instanceof DocumentProcessingException
+                || cause instanceof DocumentAlreadyExistsException
+                || cause instanceof DocumentNotFoundException
+                ? cause.getMessage()
+                : "Document processing failed";
+        if (message == null) {
+            message = "Document processing failed";
+        } else if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+        try {
+            jobRepository.fail(jobId, ACTIVE, ProcessingJobStatus.FAILED, message, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.error("Could not record failure of processing job {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    /**
+     * A queued job together with its spooled file, so the file can be deleted if the job never runs
+     */
+    private final class ProcessingTask implements Runnable
+    {
+        private final String jobId;
+        private final IngestedFile ingested;
+
+        ProcessingTask(String jobId, IngestedFile ingested)
+        {
+            this.jobId = jobId;
+            this.ingested = ingested;
+        }
+
+        @Override
+        public void run()
+        {
+            process(jobId, ingested);
+        }
+
+        void abandon()
+        {
+            ingested.close();
+            try {
+                jobRepository.fail(jobId, ACTIVE, ProcessingJobStatus.FAILED, INTERRUPTED_MESSAGE, LocalDateTime.now());
+            } catch (RuntimeException e) {
+                log.warn("Could not record abandoned processing job {}: {}", jobId, e.getMessage());
+            }
+        }
+    }
+
+    private DocumentJobResponseDTO toResponseDTO(DocumentProcessingJob job)
+    {
+        return DocumentJobResponseDTO.builder()
+                .jobId(job.getJobId())
+                .status(job.getStatus())
+                .documentType(job.getDocumentType())
+                .fileName(job.getFileName())
+                .documentId(job.getDocumentId())
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .build();
+    }
+}
@@ -3,8 +3,6 @@ package com.spring.jwt.Document.Service.Impl;
 import com.spring.jwt.Document.DocumentRepository;
 import com.spring.jwt.Document.Service.DocumentSecurityService;
 import com.spring.jwt.Enums.DocumentType;
-import com.spring.jwt.entity.Document;
-import com.spring.jwt.exception.DocumentNotFoundException;
 import com.spring.jwt.exception.UnauthorizedAccessException;
 import com.spring.jwt.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -52,19 +50,7 @@ public class DocumentSecurityServiceImpl implements DocumentSecurityService {
     public boolean canAccessDocument(Long userId, Integer documentId) {
         log.debug("Checking access permission for user {} and document {}", userId, documentId);
 
-        try {
-            Document document = findDocumentById(documentId);
-            boolean canAccess = document.getUser().getUserId().equals(userId);
-
-            if (!canAccess) {
-                log.warn("Access denied: Document {} does not belong to user {}", documentId, userId);
-            }
-
-            return canAccess;
-        } catch (DocumentNotFoundException e) {
-            log.warn("Access denied: Document {} not found", documentId);
-            return false;
-        }
+        return findOwnedDocument(userId, documentId) != null;
     }
 
     @Override
@@ -74,22 +60,17 @@ public class DocumentSecurityServiceImpl implements DocumentSecurityService {
 
     @Override
     public boolean canDeleteDocument(Long userId, Integer documentId) {
-        if (!canAccessDocument(userId, documentId)) {
+        DocumentRepository.DocumentOwnership document = findOwnedDocument(userId, documentId);
+        if (document == null) {
             return false;
         }
 
-        try {
-            Document document = findDocumentById(documentId);
-            DocumentType documentType = document.getDocumentType();
-
-            if (RESTRICTED_DOCUMENT_TYPES.contains(documentType)) {
-                log.warn("Deletion restricted for document type: {}", documentType);
-            }
-
-            return true;
-        } catch (DocumentNotFoundException e) {
-            return false;
+        DocumentType documentType = document.getDocumentType();
+        if (RESTRICTED_DOCUMENT_TYPES.contains(documentType)) {
+            log.warn("Deletion restricted for document type: {}", documentType);
         }
+
+        return true;
     }
 
     @Override
@@ -108,9 +89,19 @@ public class DocumentSecurityServiceImpl implements DocumentSecurityService {
     }
 
 
-    private Document findDocumentById(Integer documentId) {
-        return documentRepository.findById(documentId)
-                .orElseThrow(() -> new DocumentNotFoundException(
-                        "Document not found with ID: " + documentId));
+    /**
+     * Owner and type of the document if it belongs to the user, read without loading the entity
+     */
+    private DocumentRepository.DocumentOwnership findOwnedDocument(Long userId, Integer documentId) {
+        DocumentRepository.DocumentOwnership document = documentRepository.findOwnershipById(documentId).orElse(null);
+        if (document == null) {
+            log.warn("Access denied: Document {} not found", documentId);
+            return null;
+        }
+        if (!document.getUserId().equals(userId)) {
+            log.warn("Access denied: Document {} does not belong to user {}", documentId, userId);
+            return null;
+        }
+        return document;
     }
 }
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.spring.jwt.Document.Service.Impl;
+
+import com.spring.jwt.Document.Service.FileIngestionService;
+import com.spring.jwt.Document.domain.IngestedFile;
+import com.spring.jwt.config.DocumentProperties;
+import com.spring.jwt.exception.DocumentProcessingException;
+import com.spring.jwt.exception.InvalidDocumentException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Streams the multipart part through a fixed-size buffer into a temporary file, updating the
+ * size, the SHA-256 digest and the leading bytes used for content sniffing as it goes.
+ * Heap use per upload is the copy buffer, whatever the size of the file.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FileIngestionServiceImpl implements FileIngestionService
+{
+
+    private static final int SNIFF_LENGTH = 12;
+
+    private final DocumentProperties documentProperties;
+
+    @Override
+    public IngestedFile ingest(MultipartFile file)
+    {
+        long maxSize = documentProperties.getFileSize().getMaxFileSizeBytes();
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[documentProperties.getIngest().getBufferSizeBytes()];
+        byte[] head = new byte[SNIFF_LENGTH];
+        int headLength = 0;
+        long size = 0;
+
+        Path path = createTempFile();
+        try (InputStream in = file.getInputStream();
+             OutputStream out = Files.newOutputStream(path))
+        {
+            int read;
+            while ((read = in.read(buffer)) != -1)
+            {
+                size += read;
+                if (size > maxSize)
+                {
+                    throw new InvalidDocumentException(
+                            String.format("File size exceeds maximum allowed size (%d bytes / %dMB)",
+                                    maxSize, documentProperties.getMaxFileSizeMB()));
+                }
+                if (headLength < SNIFF_LENGTH)
+                {
+                    int n = Math.min(read, SNIFF_LENGTH - headLength);
+                    System.arraycopy(buffer, 0, head, headLength, n);
+                    headLength += n;
+                }
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException e)
+        {
+            deleteQuietly(path);
+            log.error("Failed to read upload {}", file.getOriginalFilename(), e);
+            throw new DocumentProcessingException("Failed to read uploaded file: " + e.getMessage(), e);
+        } catch (RuntimeException e)
+        {
+            deleteQuietly(path);
+            throw e;
+        }
+
+        String detectedContentType = sniff(head, headLength);
+        log.debug("Ingested {}: {} bytes, detected {}", file.getOriginalFilename(), size, detectedContentType);
+        return new IngestedFile(path, file.getOriginalFilename(), file.getContentType(), detectedContentType,
+                size, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * Content type from the file signature: JPEG, PNG, WEBP or PDF
+     */
+    static String sniff(byte[] head, int length)
+    {
+        if (length >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF)
+        {
+            return "image/jpeg";
+        }
+        if (length >= 8 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G'
+                && head[4] == '\r' && head[5] == '\n' && head[6] == 0x1A && head[7] == '\n')
+        {
+            return "image/png";
+        }
+        if (length >= 12 && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P')
+        {
+            return "image/webp";
+        }
+        if (length >= 5 && head[0] == '%' && head[1] == 'P' && head[2] == 'D' && head[3] == 'F' && head[4] == '-')
+        {
+            return "application/pdf";
+        }
+        return null;
+    }
+
+    private Path createTempFile()
+    {
+        try {
+            String tempDir = documentProperties.getIngest().getTempDir();
+            if (StringUtils.hasText(tempDir))
+            {
+                Path dir = Files.createDirectories(Paths.get(tempDir));
+                return Files.createTempFile(dir, "upload-", ".part");
+            }
+            return Files.createTempFile("upload-", ".part");
+        } catch (IOException e)
+        {
+            throw new DocumentProcessingException("Failed to create temporary upload file: " + e.getMessage(), e);
+        }
+    }
+
+    private static void deleteQuietly(Path path)
+    {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e)
+        {
+            log.warn("Could not delete spooled upload {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static MessageDigest sha256()
+    {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.spring.jwt.Document.Service.Impl;
 
 import com.spring.jwt.Document.Service.FileProcessingService;
 import com.spring.jwt.Document.domain.FileProcessingResult;
+import com.spring.jwt.Document.domain.IngestedFile;
 import com.spring.jwt.Enums.DocumentType;
 import com.spring.jwt.config.DocumentProperties;
 import com.spring.jwt.exception.DocumentProcessingException;
@@ -62,6 +63,36 @@ public class FileProcessingServiceImpl implements FileProcessingService {
         }
     }
 
+    @Override
+    public CompletableFuture<FileProcessingResult> processFile(IngestedFile file, DocumentType documentType) {
+        try {
+            log.debug("Processing file: {} for document type: {}", file.getOriginalFilename(), documentType);
+
+            String contentType = file.getDeclaredContentType();
+            if (!documentProperties.isSupportedFileType(contentType)) {
+                throw new DocumentProcessingException("Unsupported file type for processing: " + contentType);
+            }
+
+            byte[] processedData = imageOptimizationService.processDocument(file.getPath(), file.getSize(),
+                    contentType, documentType.name());
+
+            FileProcessingResult result = FileProcessingResult.builder()
+                    .processedData(processedData)
+                    .originalSize(file.getSize())
+                    .processedSize((long) processedData.length)
+                    .processingType("UNIFIED_COMPRESSION")
+                    .processingDetails("Stratgey: SMART_COMPRESSION")
+                    .build();
+
+            log.info("File processing completed: {}", result.getProcessingSummary());
+            return CompletableFuture.completedFuture(result);
+
+        } catch (IOException e) {
+            log.error("Failed to process file: {}", file.getOriginalFilename(), e);
+            throw new DocumentProcessingException("Failed to process file: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     @Async("documentProcessingExecutor")
     public CompletableFuture<FileProcessingResult> processImage(byte[] fileData, DocumentType documentType) {
@@ -1,6 +1,7 @@
 package com.spring.jwt.Document.Service.Impl;
 
 import com.spring.jwt.Document.Service.FileValidationService;
+import com.spring.jwt.Document.domain.IngestedFile;
 import com.spring.jwt.Enums.DocumentType;
 import com.spring.jwt.config.DocumentProperties;
 import com.spring.jwt.exception.InvalidDocumentException;
@@ -43,6 +44,41 @@ public class FileValidationServiceImpl implements FileValidationService
         validateDocumentTypeSpecificRules(file, documentType);
     }
 
+    @Override
+    public void validateIngestedFile(IngestedFile file, DocumentType documentType)
+    {
+        if (!isFileSizeValid(file.getSize()))
+        {
+            throw new InvalidDocumentException(
+                    String.format("File size (%d bytes) must be between 1 and %d bytes",
+                            file.getSize(), getMaxFileSizeBytes()));
+        }
+
+        String detected = file.getDetectedContentType();
+        if (detected == null || !isSupportedFileType(detected))
+        {
+            throw new InvalidDocumentException("File content is not a supported image or PDF");
+        }
+        if (!detected.equals(normalizeContentType(file.getDeclaredContentType())))
+        {
+            throw new InvalidDocumentException(
+                    String.format("File content (%s) does not match its declared type (%s)",
+                            detected, file.getDeclaredContentType()));
+        }
+
+        if (documentType == DocumentType.PROFILE_PHOTO)
+        {
+            long maxProfilePhotoSize = documentProperties.getImage().getProfilePhotoMaxSizeKb() * 1024
+                    * documentProperties.getImage().getProfilePhotoInputMultiplier();
+            if (file.getSize() > maxProfilePhotoSize)
+            {
+                throw new InvalidDocumentException(
+                        String.format("Profile photo is too large. Maximum recommended size before compression: %dMB",
+                                maxProfilePhotoSize / (1024 * 1024)));
+            }
+        }
+    }
+
     @Override
     public boolean isSupportedFileType(String contentType)
     {
@@ -64,6 +100,11 @@ public class FileValidationServiceImpl implements FileValidationService
         return documentProperties.getFileSize().getMaxFileSizeBytes();
     }
 
+    private static String normalizeContentType(String contentType)
+    {
+        return "image/jpg".equals(contentType) ? "image/jpeg" : contentType;
+    }
+
     private void validateFileNotNull(MultipartFile file)
     {
         if (file == null)
@@ -1,6 +1,8 @@
 package com.spring.jwt.Document.Service.Impl;
 
+import com.spring.jwt.Document.Service.FileIngestionService;
 import com.spring.jwt.Document.Service.FileProcessingService;
+import com.spring.jwt.Document.domain.IngestedFile;
 import com.spring.jwt.utils.ImageOptimizationService;
 import com.spring.jwt.Document.domain.FileProcessingResult;
 import com.spring.jwt.Enums.DocumentType;
@@ -28,16 +30,25 @@ public class OptimizedFileProcessingServiceImpl implements FileProcessingService
 
     private final DocumentProperties documentProperties;
     private final ImageOptimizationService imageOptimizationService;
+    private final FileIngestionService fileIngestionService;
 
     @Override
     public CompletableFuture<FileProcessingResult> processFile(MultipartFile file, DocumentType documentType)
+    {
+        try (IngestedFile ingested = fileIngestionService.ingest(file))
+        {
+            return processFile(ingested, documentType);
+        }
+    }
+
+    @Override
+    public CompletableFuture<FileProcessingResult> processFile(IngestedFile file, DocumentType documentType)
     {
         try {
             long startTime = System.currentTimeMillis();
 
-            byte[] originalData = file.getBytes();
-            String contentType = file.getContentType();
-            long originalSize = originalData.length;
+            String contentType = file.getDeclaredContentType();
+            long originalSize = file.getSize();
 
             if ("application/pdf".equals(contentType))
             {
@@ -61,7 +72,7 @@ public class OptimizedFileProcessingServiceImpl implements FileProcessingService
                         file.getOriginalFilename());
 
                 FileProcessingResult result = FileProcessingResult.builder()
-                        .processedData(originalData)
+                        .processedData(file.readAllBytes())
                         .originalSize(originalSize)
                         .processedSize(originalSize)
                         .processingType("NO_PROCESSING")
@@ -75,8 +86,8 @@ public class OptimizedFileProcessingServiceImpl implements FileProcessingService
 
             if (documentProperties.isSupportedFileType(contentType))
             {
-                byte[] processedData = imageOptimizationService.processDocument(originalData, contentType,
-                        documentType.name());
+                byte[] processedData = imageOptimizationService.processDocument(file.getPath(), originalSize,
+                        contentType, documentType.name());
                 long processedSize = processedData.length;
 
                 result = FileProcessingResult.builder()
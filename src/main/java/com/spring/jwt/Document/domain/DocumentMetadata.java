@@ -1,5 +1,6 @@
 package com.spring.jwt.Document.domain;
 
+import com.spring.jwt.Document.DocumentRepository;
 import com.spring.jwt.Enums.DocumentType;
 import com.spring.jwt.entity.Document;
 import lombok.Builder;
@@ -56,6 +57,24 @@ public class DocumentMetadata {
                 .build();
     }
 
+    /**
+     * Factory method to create metadata from a summary row, without loading the entity
+     */
+    public static DocumentMetadata from(DocumentRepository.DocumentSummary summary)
+    {
+        return DocumentMetadata.builder()
+                .documentId(summary.getDocumentId())
+                .documentType(summary.getDocumentType())
+                .fileName(summary.getFileName())
+                .description(summary.getDescription())
+                .fileSize(summary.getFileSize())
+                .contentType(summary.getContentType())
+                .userId(summary.getUserId())
+                .uploadedAt(summary.getUploadedAt())
+                .updatedAt(summary.getUpdatedAt())
+                .build();
+    }
+
     /**
      * Check if the document is an image file
      *
@@ -0,0 +1,67 @@
+package com.spring.jwt.Document.domain;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * An uploaded file spooled to a temporary file in a single pass over the multipart part.
+ * Size, SHA-256 and the content type sniffed from the leading bytes are computed during that
+ * pass, so later stages read the spooled copy instead of holding the upload on the heap.
+ * Closing it deletes the temporary file.
+ */
+@Getter
+@Slf4j
+public final class IngestedFile implements AutoCloseable
+{
+
+    private final Path path;
+    private final String originalFilename;
+    private final String declaredContentType;
+
+    /**
+     * MIME type recognised from the magic bytes, or null when the signature is unknown
+     */
+    private final String detectedContentType;
+
+    private final long size;
+    private final String sha256;
+
+    public IngestedFile(Path path, String originalFilename, String declaredContentType,
+                        String detectedContentType, long size, String sha256)
+    {
+        this.path = path;
+        this.originalFilename = originalFilename;
+        this.declaredContentType = declaredContentType;
+        this.detectedContentType = detectedContentType;
+        this.size = size;
+        this.sha256 = sha256;
+    }
+
+    public InputStream openStream() throws IOException
+    {
+        return Files.newInputStream(path);
+    }
+
+    /**
+     * Loads the spooled content; only for stages that still need the whole file in memory
+     */
+    public byte[] readAllBytes() throws IOException
+    {
+        return Files.readAllBytes(path);
+    }
+
+    @Override
+    public void close()
+    {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled upload {}: {}", path, e.getMessage());
+        }
+    }
+}
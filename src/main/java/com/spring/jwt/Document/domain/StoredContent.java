@@ -0,0 +1,31 @@
+package com.spring.jwt.Document.domain;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.NonNull;
+
+/**
+ * Processed upload held in the blob store, with one reference taken for the document row
+ */
+@Data
+@Builder
+public class StoredContent {
+
+    @NonNull
+    private final String contentHash;
+
+    /**
+     * SHA-256 of the file as uploaded
+     */
+    @NonNull
+    private final String sourceHash;
+
+    @NonNull
+    private final Long size;
+
+    /**
+     * Processing summary for logging, or a note that an earlier result was reused
+     */
+    @NonNull
+    private final String summary;
+}
@@ -5,6 +5,7 @@ import com.spring.jwt.entity.User;
 import com.spring.jwt.exception.BaseException;
 import com.spring.jwt.exception.ResourceNotFoundException;
 import com.spring.jwt.repository.UserRepository;
+import com.spring.jwt.service.security.PrincipalCache;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -23,6 +24,7 @@ public class EmployeeServiceImpl implements EmployeeService {
 
     private final EmployeeRepository employeeRepository;
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
 
 
@@ -83,6 +85,7 @@ public class EmployeeServiceImpl implements EmployeeService {
             user.setAccountLocked(accountLocked);
 
             employeeRepository.save(employee); // cascades to User
+            principalCache.evict(user.getEmail());
 
             return mapToResponse(employee);
 
@@ -212,6 +215,7 @@ public class EmployeeServiceImpl implements EmployeeService {
         employee.getUser().setAccountLocked(accountLocked);
 
         employeeRepository.save(employee);
+        principalCache.evict(employee.getUser().getEmail());
 
         return mapToResponse(employee);
     }
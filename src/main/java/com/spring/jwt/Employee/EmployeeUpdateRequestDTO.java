@@ -1,10 +1,12 @@
 package com.spring.jwt.Employee;
 
+import com.spring.jwt.sanitize.NoSanitize;
 import lombok.Data;
 
 @Data
 public class EmployeeUpdateRequestDTO {
 
+    @NoSanitize
     private String email;
     private String phone;
     private String companyName;
@@ -2,6 +2,7 @@ package com.spring.jwt.EmployeeAttendance;
 
 import com.spring.jwt.Enums.AttendanceStatus;
 import com.spring.jwt.dto.BaseResponseDTO2;
+import com.spring.jwt.ratelimit.QuotaCost;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -19,6 +20,7 @@ public class EmployeeAttendanceController {
     private final EmployeeAttendanceService attendanceService;
 
     // ================= MARK ATTENDANCE =================
+    @QuotaCost(QuotaCost.LIGHT)
     @PostMapping("/mark")
     public ResponseEntity<BaseResponseDTO2<EmployeeAttendanceDTO>>
     markAttendance(@Valid @RequestBody EmployeeAttendanceDTO dto) {
@@ -62,6 +64,7 @@ public class EmployeeAttendanceController {
     }
 
     // ================= MY ATTENDANCE =================
+    @QuotaCost(QuotaCost.LIGHT)
     @GetMapping("/me")
     public ResponseEntity<BaseResponseDTO2<Page<EmployeeAttendanceDTO>>>
     getMyAttendance(Pageable pageable) {
@@ -170,6 +173,7 @@ public class EmployeeAttendanceController {
     }
 
     // ================= FULL MONTH REPORT =================
+    @QuotaCost(QuotaCost.MEDIUM)
     @GetMapping("/me/monthly-report")
     public ResponseEntity<BaseResponseDTO2<EmployeeMonthlyAttendanceReportDTO>>
     monthlyReport(
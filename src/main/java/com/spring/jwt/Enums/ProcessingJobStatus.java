@@ -0,0 +1,8 @@
+package com.spring.jwt.Enums;
+
+public enum ProcessingJobStatus {
+    QUEUED,
+    PROCESSING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,28 @@
+package com.spring.jwt.Enums;
+
+/**
+ * Fixed renditions generated for uploaded images; each fits within a square of the given side
+ */
+public enum ThumbnailSize {
+    THUMBNAIL(128),
+    PREVIEW(512);
+
+    private final int pixels;
+
+    ThumbnailSize(int pixels) {
+        this.pixels = pixels;
+    }
+
+    public int getPixels() {
+        return pixels;
+    }
+
+    public static ThumbnailSize ofPixels(int pixels) {
+        for (ThumbnailSize size : values()) {
+            if (size.pixels == pixels) {
+                return size;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported thumbnail size " + pixels + ", expected 128 or 512");
+    }
+}
@@ -1,13 +1,18 @@
 package com.spring.jwt.FarmerLabReport;
 
 import com.spring.jwt.EmployeeFarmerSurvey.BaseResponseDTO1;
+import com.spring.jwt.download.RangedDownloadWriter;
+import com.spring.jwt.ratelimit.QuotaCost;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+
 /**
  * REST controller for managing Farmer Lab Reports.
  *
@@ -33,9 +38,11 @@ import org.springframework.web.multipart.MultipartFile;
 public class FarmerLabReportController {
 
     private final FarmerLabReportService labReportService;
+    private final RangedDownloadWriter rangedDownloadWriter;
 
     /* ===================== UPLOAD ===================== */
 
+    @QuotaCost(value = QuotaCost.HEAVY, bucket = QuotaCost.UPLOADS)
     @PostMapping(
             value = "/upload/{surveyId}",
             consumes = MediaType.MULTIPART_FORM_DATA_VALUE
@@ -93,6 +100,7 @@ public class FarmerLabReportController {
 
     /* ===================== UPDATE ===================== */
 
+    @QuotaCost(value = QuotaCost.HEAVY, bucket = QuotaCost.UPLOADS)
     @PatchMapping(
             value = "/update/{surveyId}",
             consumes = MediaType.MULTIPART_FORM_DATA_VALUE
@@ -132,21 +140,25 @@ public class FarmerLabReportController {
 
     /* ===================== DOWNLOAD ===================== */
 
+    /**
+     * Streams the PDF with a strong ETag; a matching If-None-Match is answered
+     * with 304 from the stored hash alone, and a Range header with 206.
+     */
     @GetMapping(
             value = "/download/{surveyId}",
             produces = MediaType.APPLICATION_PDF_VALUE
     )
-    public ResponseEntity<byte[]> download(@PathVariable Long surveyId) {
+    public void download(
+            @PathVariable Long surveyId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
 
-        byte[] pdf = labReportService.downloadLabReport(surveyId);
+        String hash = labReportService.getLabReportHash(surveyId);
+        if (hash != null && rangedDownloadWriter.notModified(request, response, hash)) {
+            return;
+        }
 
-        return ResponseEntity.ok()
-                .header(
-                        HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=lab-report-" + surveyId + ".pdf"
-                )
-                .contentType(MediaType.APPLICATION_PDF)
-                .body(pdf);
+        rangedDownloadWriter.write(request, response, labReportService.getLabReportDownload(surveyId));
     }
 
 }
@@ -15,6 +15,12 @@ public interface FarmerLabReportRepository extends JpaRepository<FarmerLabReport
 
     Optional<FarmerLabReport> findBySurvey_SurveyId(Long surveyId);
 
+    @Query("""
+        SELECT r.contentHash FROM FarmerLabReport r
+        WHERE r.survey.surveyId = :surveyId
+    """)
+    Optional<String> findContentHashBySurveyId(@Param("surveyId") Long surveyId);
+
     @Transactional
     @Modifying
     @Query("""
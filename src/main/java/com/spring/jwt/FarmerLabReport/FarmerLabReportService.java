@@ -1,5 +1,6 @@
 package com.spring.jwt.FarmerLabReport;
 
+import com.spring.jwt.download.DownloadContent;
 import com.spring.jwt.exception.DocumentAlreadyExistsException;
 import com.spring.jwt.exception.ResourceNotFoundException;
 import org.springframework.web.multipart.MultipartFile;
@@ -129,4 +130,25 @@ public interface FarmerLabReportService {
      * @throws ResourceNotFoundException if no lab report exists for the survey
      */
     byte[] downloadLabReport(Long surveyId);
+
+    /**
+     * Returns the content hash of the lab report for the given survey ID,
+     * without loading the PDF.
+     *
+     * @param surveyId the unique identifier of the survey
+     * @return the SHA-256 of the PDF, or {@code null} if there is no report
+     *         or its hash has not been computed yet
+     */
+    String getLabReportHash(Long surveyId);
+
+    /**
+     * Loads the lab report PDF associated with the given survey ID for a
+     * download with ETag and range support.
+     *
+     * @param surveyId the unique identifier of the survey
+     * @return the PDF content with its hash, content type and file name
+     *
+     * @throws ResourceNotFoundException if no lab report exists for the survey
+     */
+    DownloadContent getLabReportDownload(Long surveyId);
 }
@@ -1,6 +1,7 @@
 package com.spring.jwt.FarmerLabReport;
 
 import com.spring.jwt.EmployeeFarmerSurvey.EmployeeFarmerSurveyRepository;
+import com.spring.jwt.download.DownloadContent;
 import com.spring.jwt.entity.EmployeeFarmerSurvey;
 import com.spring.jwt.entity.FarmerLabReport;
 import com.spring.jwt.exception.DocumentAlreadyExistsException;
@@ -8,10 +9,14 @@ import com.spring.jwt.exception.ResourceNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 
 @Service
 @RequiredArgsConstructor
@@ -44,7 +49,9 @@ public class FarmerLabReportServiceImpl implements FarmerLabReportService {
             report.setSurvey(survey);
 
             // ✅ SAVE DIRECTLY AS BLOB
-            report.setPdfUrl(file.getBytes());
+            byte[] pdf = file.getBytes();
+            report.setPdfUrl(pdf);
+            report.setContentHash(sha256(pdf));
 
             report.setUploadedAt(LocalDateTime.now());
 
@@ -97,7 +104,9 @@ public class FarmerLabReportServiceImpl implements FarmerLabReportService {
 
         try {
             // ✅ UPDATE BLOB
-            report.setPdfUrl(file.getBytes());
+            byte[] pdf = file.getBytes();
+            report.setPdfUrl(pdf);
+            report.setContentHash(sha256(pdf));
             report.setUploadedAt(LocalDateTime.now());
 
             FarmerLabReport updated = labReportRepository.save(report);
@@ -138,6 +147,33 @@ public class FarmerLabReportServiceImpl implements FarmerLabReportService {
         return report.getPdfUrl();
     }
 
+    @Override
+    public String getLabReportHash(Long surveyId) {
+        return labReportRepository.findContentHashBySurveyId(surveyId).orElse(null);
+    }
+
+    @Override
+    @Transactional
+    public DownloadContent getLabReportDownload(Long surveyId) {
+
+        FarmerLabReport report = labReportRepository.findBySurvey_SurveyId(surveyId)
+                .orElseThrow(() ->
+                        new ResourceNotFoundException("Lab report not found for survey ID: " + surveyId));
+
+        // Reports stored before the hash column existed get it on first download
+        if (report.getContentHash() == null) {
+            report.setContentHash(sha256(report.getPdfUrl()));
+            labReportRepository.save(report);
+        }
+
+        return DownloadContent.ofBytes(
+                report.getPdfUrl(),
+                report.getContentHash(),
+                MediaType.APPLICATION_PDF_VALUE,
+                "lab-report-" + surveyId + ".pdf"
+        );
+    }
+
     /* ===================== VALIDATIONS ===================== */
 
     private void validateSurveyId(Long surveyId) {
@@ -163,6 +199,14 @@ public class FarmerLabReportServiceImpl implements FarmerLabReportService {
         }
     }
 
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     /* ===================== DTO MAPPERS ===================== */
 
 
@@ -2,12 +2,19 @@ package com.spring.jwt.FarmerSelfieEmployeeFarmerSurvey;
 
 import com.spring.jwt.EmployeeFarmerSurvey.BaseResponseDTO1;
 import com.spring.jwt.Enums.PhotoType;
+import com.spring.jwt.Enums.ThumbnailSize;
+import com.spring.jwt.download.RangedDownloadWriter;
+import com.spring.jwt.ratelimit.QuotaCost;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+
 /**
  * REST Controller responsible for handling Farmer Selfie operations
  * related to Employee Farmer Survey.
@@ -17,6 +24,7 @@ import org.springframework.web.multipart.MultipartFile;
  *  - Fetching selfie details by selfie ID
  *  - Fetching selfie details by survey ID
  *  - Updating (patching) the selfie image only
+ *  - Downloading 128px / 512px thumbnails of the selfie
  *
  * All responses are wrapped using BaseResponseDTO1 for consistency
  * across the application.
@@ -32,6 +40,11 @@ public class FarmerSelfieEmployeeFarmerSurveyController {
      */
     private final FarmerSelfieEmployeeFarmerSurveyService selfieService;
 
+    /**
+     * Writes thumbnails with ETag revalidation.
+     */
+    private final RangedDownloadWriter rangedDownloadWriter;
+
 
     /**
      * Upload a farmer selfie for a specific survey and photo type.
@@ -45,6 +58,7 @@ public class FarmerSelfieEmployeeFarmerSurveyController {
      * HTTP Method: POST
      * URL: /api/v1/farmer-selfie/upload
      */
+    @QuotaCost(value = QuotaCost.HEAVY, bucket = QuotaCost.UPLOADS)
     @PostMapping("/upload")
     public ResponseEntity<BaseResponseDTO1<FarmerSelfieResponseUploadDTO>> uploadSelfie(
 
@@ -196,6 +210,32 @@ public class FarmerSelfieEmployeeFarmerSurveyController {
     }
 
 
+    /**
+     * Download a thumbnail of the selfie.
+     *
+     * Use case:
+     * - Survey lists and galleries on field devices that only need a small preview
+     *
+     * HTTP Method: GET
+     * URL: /api/v1/farmer-selfie/{selfieId}/thumbnail?size=128
+     */
+    @QuotaCost(QuotaCost.LIGHT)
+    @GetMapping("/{selfieId}/thumbnail")
+    public void getThumbnail(
+
+            // Unique ID of the selfie
+            @PathVariable Long selfieId,
+
+            // Bounding box in pixels: 128 or 512
+            @RequestParam(defaultValue = "128") int size,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        rangedDownloadWriter.write(request, response,
+                selfieService.getThumbnail(selfieId, ThumbnailSize.ofPixels(size)));
+    }
+
+
     /**
      * Update (replace) selfie image.
      *
@@ -207,6 +247,7 @@ public class FarmerSelfieEmployeeFarmerSurveyController {
      * HTTP Method: PATCH
      * URL: /api/v1/farmer-selfie/{selfieId}
      */
+    @QuotaCost(value = QuotaCost.HEAVY, bucket = QuotaCost.UPLOADS)
     @PatchMapping("/{selfieId}")
     public ResponseEntity<BaseResponseDTO1<FarmerSelfieResponseDTO>> updateSelfieImage(
 
@@ -40,4 +40,10 @@ public interface FarmerSelfieEmployeeFarmerSurveyRepository
     void deleteBySurveyId(@Param("surveyId") Long surveyId);
 
     List<FarmerSelfieEmployeeFarmerSurvey> findBySurvey_SurveyId(Long surveyId);
+
+    @Query("""
+        SELECT f.contentHash FROM FarmerSelfieEmployeeFarmerSurvey f
+        WHERE f.farmerSelfieEmployeeFarmerSurveyId = :selfieId
+    """)
+    Optional<String> findContentHashBySelfieId(@Param("selfieId") Long selfieId);
 }
@@ -1,6 +1,8 @@
 package com.spring.jwt.FarmerSelfieEmployeeFarmerSurvey;
 
 import com.spring.jwt.Enums.PhotoType;
+import com.spring.jwt.Enums.ThumbnailSize;
+import com.spring.jwt.download.DownloadContent;
 import org.springframework.web.multipart.MultipartFile;
 
 public interface  FarmerSelfieEmployeeFarmerSurveyService {
@@ -15,4 +17,6 @@ public interface  FarmerSelfieEmployeeFarmerSurveyService {
 
     FarmerSelfieResponseDTO updateSelfieImage(Long selfieId, MultipartFile file);
 
+    DownloadContent getThumbnail(Long selfieId, ThumbnailSize size);
+
 }
@@ -3,10 +3,13 @@ package com.spring.jwt.FarmerSelfieEmployeeFarmerSurvey;
 import com.spring.jwt.EmployeeFarmerSurvey.EmployeeFarmerSurveyRepository;
 import com.spring.jwt.Enums.FormStatus;
 import com.spring.jwt.Enums.PhotoType;
+import com.spring.jwt.Enums.ThumbnailSize;
+import com.spring.jwt.download.DownloadContent;
 import com.spring.jwt.entity.EmployeeFarmerSurvey;
 import com.spring.jwt.entity.FarmerSelfieEmployeeFarmerSurvey;
 import com.spring.jwt.exception.DocumentAlreadyExistsException;
 import com.spring.jwt.exception.ResourceNotFoundException;
+import com.spring.jwt.thumbnail.ThumbnailService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,6 +31,7 @@ import java.util.Base64;
  *
  * Design Notes:
  *  - Base64 image is stored directly in DB
+ *  - 128px and 512px thumbnails are generated on upload and kept in the blob store
  *  - One selfie per survey is enforced
  *  - Survey status is activated once selfie is uploaded
  *  - All write operations are transactional
@@ -48,6 +52,11 @@ public class FarmerSelfieEmployeeFarmerSurveyServiceImpl
      */
     private final EmployeeFarmerSurveyRepository surveyRepository;
 
+    /**
+     * Generates and serves selfie thumbnails
+     */
+    private final ThumbnailService thumbnailService;
+
 
     /**
      * Upload a farmer selfie image for a given survey.
@@ -89,7 +98,7 @@ public class FarmerSelfieEmployeeFarmerSurveyServiceImpl
         FarmerSelfieEmployeeFarmerSurvey selfie = new FarmerSelfieEmployeeFarmerSurvey();
         selfie.setSurvey(survey);
         selfie.setPhotoType(photoType);
-        selfie.setImageUrl(encodeBase64(file));
+        storeImage(selfie, file);
         selfie.setTakenAt(LocalDateTime.now());
 
         FarmerSelfieEmployeeFarmerSurvey saved = selfieRepository.save(selfie);
@@ -200,13 +209,54 @@ public class FarmerSelfieEmployeeFarmerSurveyServiceImpl
                                 new ResourceNotFoundException(
                                         "Selfie not found with ID: " + selfieId));
 
-        selfie.setImageUrl(encodeBase64(file));
+        storeImage(selfie, file);
         selfie.setTakenAt(LocalDateTime.now());
 
         return mapToResponse(selfieRepository.save(selfie));
     }
 
 
+    /**
+     * Fetch a thumbnail of the selfie.
+     * Selfies uploaded before thumbnails existed get their content hash
+     * and thumbnails on the first request.
+     *
+     * @param selfieId ID of the selfie
+     * @param size     Rendition size
+     * @return         JPEG rendition with its content hash
+     */
+    @Override
+    @Transactional
+    public DownloadContent getThumbnail(Long selfieId, ThumbnailSize size) {
+
+        String contentHash = selfieRepository.findContentHashBySelfieId(selfieId)
+                .orElseGet(() -> backfillContentHash(selfieId));
+
+        return thumbnailService.getOrCreate(contentHash, size, () -> decodeImage(findSelfie(selfieId)))
+                .orElseThrow(() ->
+                        new ResourceNotFoundException(
+                                "Thumbnail not available for selfie ID: " + selfieId));
+    }
+
+    private String backfillContentHash(Long selfieId) {
+        FarmerSelfieEmployeeFarmerSurvey selfie = findSelfie(selfieId);
+        selfie.setContentHash(thumbnailService.generate(decodeImage(selfie)));
+        selfieRepository.save(selfie);
+        return selfie.getContentHash();
+    }
+
+    private FarmerSelfieEmployeeFarmerSurvey findSelfie(Long selfieId) {
+        return selfieRepository.findById(selfieId)
+                .orElseThrow(() ->
+                        new ResourceNotFoundException(
+                                "Selfie not found with ID: " + selfieId));
+    }
+
+    private byte[] decodeImage(FarmerSelfieEmployeeFarmerSurvey selfie) {
+        return Base64.getMimeDecoder().decode(selfie.getImageUrl());
+    }
+
+
     /**
      * Validate survey ID input.
      */
@@ -240,14 +290,17 @@ public class FarmerSelfieEmployeeFarmerSurveyServiceImpl
     }
 
     /**
-     * Convert MultipartFile to Base64 encoded string.
+     * Store the image as Base64 and generate its thumbnails, keyed by the content hash.
      */
-    private String encodeBase64(MultipartFile file) {
+    private void storeImage(FarmerSelfieEmployeeFarmerSurvey selfie, MultipartFile file) {
+        byte[] imageData;
         try {
-            return Base64.getEncoder().encodeToString(file.getBytes());
+            imageData = file.getBytes();
         } catch (IOException e) {
             throw new IllegalArgumentException("Failed to process image file", e);
         }
+        selfie.setImageUrl(Base64.getEncoder().encodeToString(imageData));
+        selfie.setContentHash(thumbnailService.generate(imageData));
     }
 
     /**
@@ -3,12 +3,19 @@ package com.spring.jwt.ProductPhoto;
 import com.spring.jwt.EmployeeFarmerSurvey.BaseResponseDTO1;
 import com.spring.jwt.Enums.ImageType;
 import com.spring.jwt.Enums.PhotoType;
+import com.spring.jwt.Enums.ThumbnailSize;
+import com.spring.jwt.download.RangedDownloadWriter;
+import com.spring.jwt.ratelimit.QuotaCost;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+
 /**
  * REST Controller responsible for handling Product Photo operations.
  *
@@ -17,6 +24,7 @@ import org.springframework.web.multipart.MultipartFile;
  * - Fetching photo details by image ID
  * - Fetching photo details by product ID
  * - Updating (patching) the product image only
+ * - Downloading 128px / 512px thumbnails of the photo
  *
  * All responses are wrapped using BaseResponseDTO1
  * for consistency across the application.
@@ -32,6 +40,11 @@ public class ProductPhotoController {
 
     private final ProductPhotoService productPhotoService;
 
+    /**
+     * Writes thumbnails with ETag revalidation.
+     */
+    private final RangedDownloadWriter rangedDownloadWriter;
+
     /**
      * Upload a product photo for a given product
      *
@@ -45,6 +58,7 @@ public class ProductPhotoController {
      * @param photo Multipart image file to be uploaded
      * @return Created ProductPhotoResponseUploadDTO
      */
+    @QuotaCost(value = QuotaCost.HEAVY, bucket = QuotaCost.UPLOADS)
     @PostMapping("/upload")
     public ResponseEntity<BaseResponseDTO1<ProductPhotoResponseUploadDTO>> uploadProductPhoto(
             @RequestParam Long productId,
@@ -108,6 +122,27 @@ public class ProductPhotoController {
 
     }
 
+    /**
+     * Download a thumbnail of the product photo.
+     *
+     * Use case:
+     * - Product lists and galleries that only need a small preview
+     *
+     * @param imageId Unique ID of the product image
+     * @param size Bounding box in pixels: 128 or 512
+     */
+    @QuotaCost(QuotaCost.LIGHT)
+    @GetMapping("/{imageId}/thumbnail")
+    public void getThumbnail(
+            @PathVariable Long imageId,
+            @RequestParam(defaultValue = "128") int size,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        rangedDownloadWriter.write(request, response,
+                productPhotoService.getThumbnail(imageId, ThumbnailSize.ofPixels(size)));
+    }
+
     /**
      * Update (replace) the product photo image.
      *
@@ -119,6 +154,7 @@ public class ProductPhotoController {
      * @param image New image file
      * @return Updated ProductPhotoResponseDTO
      */
+    @QuotaCost(value = QuotaCost.HEAVY, bucket = QuotaCost.UPLOADS)
     @PatchMapping("/{imageId}")
     public ResponseEntity<BaseResponseDTO1<ProductPhotoResponseDTO>> updateProductImage(
             @PathVariable Long imageId,
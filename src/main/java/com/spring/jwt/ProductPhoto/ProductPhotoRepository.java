@@ -3,6 +3,8 @@ package com.spring.jwt.ProductPhoto;
 
 import com.spring.jwt.entity.ProductImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -11,4 +13,7 @@ public interface ProductPhotoRepository extends JpaRepository<ProductImage, Long
     boolean existsByProduct_ProductId(Long productId);
 
     Optional<ProductImage> findByProduct_ProductId(Long productId);
+
+    @Query("SELECT p.contentHash FROM ProductImage p WHERE p.imageId = :imageId")
+    Optional<String> findContentHashByImageId(@Param("imageId") Long imageId);
 }
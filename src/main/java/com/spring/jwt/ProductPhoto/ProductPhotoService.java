@@ -3,6 +3,8 @@ package com.spring.jwt.ProductPhoto;
 
 import com.spring.jwt.Enums.ImageType;
 import com.spring.jwt.Enums.PhotoType;
+import com.spring.jwt.Enums.ThumbnailSize;
+import com.spring.jwt.download.DownloadContent;
 
 import org.springframework.web.multipart.MultipartFile;
 
@@ -16,4 +18,6 @@ public interface ProductPhotoService {
     ProductPhotoResponseDTO getPhotoByProductId(Long productId);
 
     ProductPhotoResponseDTO updateProductImage(Long imageId, MultipartFile file);
+
+    DownloadContent getThumbnail(Long imageId, ThumbnailSize size);
 }
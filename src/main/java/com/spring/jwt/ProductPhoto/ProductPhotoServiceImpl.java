@@ -2,11 +2,14 @@ package com.spring.jwt.ProductPhoto;
 
 import com.spring.jwt.Enums.ImageType;
 import com.spring.jwt.Enums.PhotoType;
+import com.spring.jwt.Enums.ThumbnailSize;
 import com.spring.jwt.Product.ProductRepository;
+import com.spring.jwt.download.DownloadContent;
 import com.spring.jwt.entity.Product;
 import com.spring.jwt.entity.ProductImage;
 import com.spring.jwt.exception.DocumentAlreadyExistsException;
 import com.spring.jwt.exception.ResourceNotFoundException;
+import com.spring.jwt.thumbnail.ThumbnailService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +28,7 @@ import java.util.Base64;
  *
  * Design Notes:
  * - Base64 image is stored directly in DB
+ * - 128px and 512px thumbnails are generated on upload and kept in the blob store
  * - One photo per product is enforced
  * - All write operations are transactional
  */
@@ -44,6 +48,11 @@ public class ProductPhotoServiceImpl implements ProductPhotoService {
      */
 
     private final ProductRepository productRepository;
+    /**
+     * Generates and serves the photo's thumbnails
+     */
+
+    private final ThumbnailService thumbnailService;
 
     /**
      * Upload a product photo.
@@ -83,7 +92,7 @@ public class ProductPhotoServiceImpl implements ProductPhotoService {
             ProductImage image = new ProductImage();
             image.setProduct(product);
             image.setImageType(photoType);
-            image.setImageUrl(encodeBase64(file));
+            storeImage(image, file);
             image.setUploadedAt(LocalDateTime.now());
             ProductImage saved = productPhotoRepository.save(image);
             long totalTime = System.currentTimeMillis() - startTime;
@@ -150,7 +159,7 @@ public class ProductPhotoServiceImpl implements ProductPhotoService {
                         )
                 );
         try {
-            image.setImageUrl(encodeBase64(file));
+            storeImage(image, file);
             image.setUploadedAt(LocalDateTime.now());
             return mapToResponse(productPhotoRepository.save(image));
         } catch (Exception e) {
@@ -161,6 +170,45 @@ public class ProductPhotoServiceImpl implements ProductPhotoService {
 
 
 
+    /**
+     * Thumbnail of a product photo. Photos uploaded before thumbnails existed get their
+     * content hash and thumbnails on the first request.
+     *
+     * @param imageId Image ID
+     * @param size Rendition size
+     * @return JPEG rendition with its content hash
+     */
+    @Override
+    @Transactional
+    public DownloadContent getThumbnail(Long imageId, ThumbnailSize size) {
+        String contentHash = productPhotoRepository.findContentHashByImageId(imageId)
+                .orElseGet(() -> backfillContentHash(imageId));
+        return thumbnailService.getOrCreate(contentHash, size, () -> decodeImage(findImage(imageId)))
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Thumbnail not available for product photo ID: " + imageId
+                        )
+                );
+    }
+
+    private String backfillContentHash(Long imageId) {
+        ProductImage image = findImage(imageId);
+        image.setContentHash(thumbnailService.generate(decodeImage(image)));
+        productPhotoRepository.save(image);
+        return image.getContentHash();
+    }
+
+    private ProductImage findImage(Long imageId) {
+        return productPhotoRepository.findById(imageId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Product photo not found with ID: " + imageId
+                        )
+                );
+    }
+
+    private byte[] decodeImage(ProductImage image) {
+        return Base64.getMimeDecoder().decode(image.getImageUrl());
+    }
+
     private void validateProductId(Long productId) {
         if (productId == null) {
             throw new IllegalArgumentException("Product ID must not be null");
@@ -183,16 +231,21 @@ public class ProductPhotoServiceImpl implements ProductPhotoService {
             );
         }
     }
-    private String encodeBase64(MultipartFile file) {
+    /**
+     * Stores the image as Base64 and generates its thumbnails, keyed by the content hash.
+     */
+    private void storeImage(ProductImage image, MultipartFile file) {
+        byte[] imageData;
         try {
-            return Base64.getEncoder()
-                    .encodeToString(file.getBytes());
+            imageData = file.getBytes();
         } catch (IOException e) {
             throw new IllegalArgumentException(
                     "Failed to process image file",
                     e
             );
         }
+        image.setImageUrl(Base64.getEncoder().encodeToString(imageData));
+        image.setContentHash(thumbnailService.generate(imageData));
     }
 
     /* =======================
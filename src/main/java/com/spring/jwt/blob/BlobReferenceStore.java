@@ -0,0 +1,83 @@
+package com.spring.jwt.blob;
+
+import com.spring.jwt.repository.BlobReferenceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Reference counts of stored content in the blob_references table.
+ * Counting joins the caller's transaction, so a document row and the reference it holds are
+ * committed or rolled back together. Collection locks the row, which makes a concurrent put of
+ * the same content wait until the file is gone and then write it again.
+ */
+@Component
+@Slf4j
+public class BlobReferenceStore {
+
+    private final BlobReferenceRepository blobReferenceRepository;
+
+    public BlobReferenceStore(BlobReferenceRepository blobReferenceRepository) {
+        this.blobReferenceRepository = blobReferenceRepository;
+    }
+
+    @Transactional
+    public void retain(String hash, long size) {
+        blobReferenceRepository.upsertReference(hash, size, System.currentTimeMillis());
+    }
+
+    /**
+     * @return false if there is no row for the content
+     */
+    @Transactional
+    public boolean retainExisting(String hash) {
+        return blobReferenceRepository.incrementIfPresent(hash, System.currentTimeMillis()) > 0;
+    }
+
+    @Transactional
+    public void release(String hash) {
+        if (blobReferenceRepository.decrement(hash, System.currentTimeMillis()) == 0) {
+            log.warn("Released blob {} that holds no references", hash);
+        }
+    }
+
+    public List<String> findUnreferenced(long cutoff, int limit) {
+        return blobReferenceRepository.findUnreferenced(cutoff, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Delete the row and the content while holding the row lock, if nothing references it
+     * @return true if the content was collected
+     */
+    @Transactional
+    public boolean collect(String hash, Runnable deleteContent) {
+        return blobReferenceRepository.findForUpdate(hash)
+                .filter(reference -> reference.getRefCount() == 0)
+                .map(reference -> {
+                    blobReferenceRepository.delete(reference);
+                    blobReferenceRepository.flush();
+                    deleteContent.run();
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    /**
+     * Delete content whose reference was rolled back, if no row for it has appeared since. The
+     * lookup locks the key, so a concurrent put of the same content waits and writes it again.
+     * Runs in its own transaction because the caller's has already completed.
+     * @return true if the content was deleted
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean discardIfUnreferenced(String hash, Runnable deleteContent) {
+        if (blobReferenceRepository.findForUpdate(hash).isPresent()) {
+            return false;
+        }
+        deleteContent.run();
+        return true;
+    }
+}
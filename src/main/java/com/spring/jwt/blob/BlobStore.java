@@ -0,0 +1,46 @@
+package com.spring.jwt.blob;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Content-addressed storage for file binaries. Content is identified by the lowercase hex
+ * SHA-256 of its bytes, so identical files are stored once; every row that points at content
+ * holds a reference, and content nobody references is eventually removed.
+ */
+public interface BlobStore {
+
+    /**
+     * Store the bytes unless identical content is already present, and take a reference to it
+     * @return Content hash
+     */
+    String put(byte[] data);
+
+    /**
+     * Same as {@link #put(byte[])} for a file whose SHA-256 is already known, without loading it
+     */
+    String put(Path source, String sha256);
+
+    /**
+     * Take another reference to stored content
+     * @return false if the content is not in the store
+     */
+    boolean retain(String hash);
+
+    /**
+     * Drop a reference taken by put or retain
+     */
+    void release(String hash);
+
+    boolean exists(String hash);
+
+    long size(String hash);
+
+    InputStream open(String hash);
+
+    /**
+     * The file holding the content, so it can be sent without reading it into memory
+     * @return null if this store does not keep content on the local filesystem
+     */
+    Path localPath(String hash);
+}
@@ -0,0 +1,78 @@
+package com.spring.jwt.blob;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves document binaries left in the old document.file_data MEDIUMBLOB column into the
+ * blob store. The column is made nullable first, if it is not already, so new uploads, which
+ * no longer write it, can be inserted; each migrated row then gets its content hash and its
+ * blob cleared. Rows are read in small batches, so at most one batch of binaries is in
+ * memory. Once the column is empty it can be dropped by hand.
+ */
+@Component
+@ConditionalOnProperty(name = "app.blob.migrate-legacy-documents", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class LegacyDocumentBlobMigration implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlobStore blobStore;
+    private final int batchSize;
+
+    public LegacyDocumentBlobMigration(
+            JdbcTemplate jdbcTemplate,
+            BlobStore blobStore,
+            @Value("${app.blob.migration-batch-size:20}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blobStore = blobStore;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> nullable = jdbcTemplate.queryForList(
+                "SELECT IS_NULLABLE FROM information_schema.COLUMNS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'document' AND COLUMN_NAME = 'file_data'",
+                String.class);
+        if (nullable.isEmpty()) {
+            return;
+        }
+        if (!"YES".equalsIgnoreCase(nullable.get(0))) {
+            jdbcTemplate.execute("ALTER TABLE document MODIFY file_data MEDIUMBLOB NULL");
+            log.info("Made document.file_data nullable");
+        }
+
+        int migrated = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT document_id, file_data FROM document " +
+                            "WHERE content_hash IS NULL AND file_data IS NOT NULL LIMIT ?", batchSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+            for (Map<String, Object> row : rows) {
+                Number documentId = (Number) row.get("document_id");
+                String hash = blobStore.put((byte[]) row.get("file_data"));
+                int updated = jdbcTemplate.update(
+                        "UPDATE document SET content_hash = ?, file_data = NULL " +
+                                "WHERE document_id = ? AND content_hash IS NULL", hash, documentId);
+                if (updated == 0) {
+                    blobStore.release(hash);
+                } else {
+                    migrated++;
+                }
+            }
+        }
+        if (migrated > 0) {
+            log.info("Moved {} legacy document binaries into the blob store", migrated);
+        }
+    }
+}
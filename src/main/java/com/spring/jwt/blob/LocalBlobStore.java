@@ -0,0 +1,275 @@
+package com.spring.jwt.blob;
+
+import com.spring.jwt.exception.BlobStoreException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Keeps content on the local filesystem at root/ab/cd/abcd..., named by its SHA-256.
+ * New content is written and synced to a temporary file under root/tmp and then renamed into
+ * place, so a reader never sees a partial file. The reference is taken before the file is
+ * checked; content whose count has stayed at zero for the grace period is collected by a
+ * scheduled sweep. A file written inside a transaction that then rolls back, taking its
+ * reference row with it, is deleted once the transaction completes.
+ */
+@Component
+@ConditionalOnProperty(name = "app.blob.store", havingValue = "local", matchIfMissing = true)
+@Slf4j
+public class LocalBlobStore implements BlobStore {
+
+    private final BlobReferenceStore references;
+    private final Path root;
+    private final Path tempDir;
+    private final long gracePeriodMillis;
+    private final int sweepBatchSize;
+
+    public LocalBlobStore(
+            BlobReferenceStore references,
+            @Value("${app.blob.root-dir:./data/blobs}") String rootDir,
+            @Value("${app.blob.grace-period-ms:3600000}") long gracePeriodMillis,
+            @Value("${app.blob.sweep-batch-size:500}") int sweepBatchSize) {
+        this.references = references;
+        this.root = Paths.get(rootDir).toAbsolutePath().normalize();
+        this.tempDir = root.resolve("tmp");
+        this.gracePeriodMillis = gracePeriodMillis;
+        this.sweepBatchSize = Math.max(1, sweepBatchSize);
+        try {
+            Files.createDirectories(tempDir);
+        } catch (IOException e) {
+            throw new BlobStoreException("Cannot create blob store directory " + root, e);
+        }
+        log.info("Local blob store at {}", root);
+    }
+
+    @Override
+    public String put(byte[] data) {
+        String hash = sha256(data);
+        references.retain(hash, data.length);
+        Path target = pathOf(hash);
+        if (!Files.exists(target)) {
+            writeAtomically(target, temp -> {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(data);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(true);
+                }
+            });
+            discardOnRollback(hash);
+        }
+        return hash;
+    }
+
+    @Override
+    public String put(Path source, String sha256) {
+        String hash = checkHash(sha256);
+        try {
+            references.retain(hash, Files.size(source));
+        } catch (IOException e) {
+            throw new BlobStoreException("Cannot read " + source, e);
+        }
+        Path target = pathOf(hash);
+        if (!Files.exists(target)) {
+            writeAtomically(target, temp -> {
+                Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+            });
+            discardOnRollback(hash);
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean retain(String hash) {
+        if (!references.retainExisting(checkHash(hash))) {
+            return false;
+        }
+        if (!Files.exists(pathOf(hash))) {
+            log.warn("Blob {} is referenced but missing on disk", hash);
+            references.release(hash);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void release(String hash) {
+        references.release(checkHash(hash));
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return Files.exists(pathOf(checkHash(hash)));
+    }
+
+    @Override
+    public long size(String hash) {
+        try {
+            return Files.size(pathOf(checkHash(hash)));
+        } catch (NoSuchFileException e) {
+            throw new BlobStoreException("Blob not found: " + hash);
+        } catch (IOException e) {
+            throw new BlobStoreException("Cannot read blob " + hash, e);
+        }
+    }
+
+    @Override
+    public InputStream open(String hash) {
+        try {
+            return Files.newInputStream(pathOf(checkHash(hash)));
+        } catch (NoSuchFileException e) {
+            throw new BlobStoreException("Blob not found: " + hash);
+        } catch (IOException e) {
+            throw new BlobStoreException("Cannot read blob " + hash, e);
+        }
+    }
+
+    @Override
+    public Path localPath(String hash) {
+        Path path = pathOf(checkHash(hash));
+        if (!Files.exists(path)) {
+            throw new BlobStoreException("Blob not found: " + hash);
+        }
+        return path;
+    }
+
+    /**
+     * Remove content that has had no references for the grace period
+     */
+    @Scheduled(fixedDelayString = "${app.blob.sweep-interval-ms:600000}")
+    public void sweep() {
+        List<String> candidates;
+        try {
+            candidates = references.findUnreferenced(System.currentTimeMillis() - gracePeriodMillis, sweepBatchSize);
+        } catch (RuntimeException e) {
+            log.warn("Failed to list unreferenced blobs: {}", e.getMessage());
+            return;
+        }
+        int collected = 0;
+        for (String hash : candidates) {
+            try {
+                if (references.collect(hash, () -> delete(hash))) {
+                    collected++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to collect blob {}: {}", hash, e.getMessage());
+            }
+        }
+        if (collected > 0) {
+            log.debug("Collected {} unreferenced blobs", collected);
+        }
+    }
+
+    /**
+     * The reference row of a file this call wrote only exists if the caller's transaction commits
+     */
+    private void discardOnRollback(String hash) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_ROLLED_BACK) {
+                    return;
+                }
+                try {
+                    if (references.discardIfUnreferenced(hash, () -> delete(hash))) {
+                        log.debug("Deleted blob {} after its transaction rolled back", hash);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Failed to delete blob {} after rollback: {}", hash, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void delete(String hash) {
+        try {
+            Files.deleteIfExists(pathOf(hash));
+        } catch (IOException e) {
+            throw new BlobStoreException("Cannot delete blob " + hash, e);
+        }
+    }
+
+    private void writeAtomically(Path target, ContentWriter writer) {
+        Path temp = null;
+        try {
+            Files.createDirectories(target.getParent());
+            temp = Files.createTempFile(tempDir, target.getFileName().toString(), ".tmp");
+            writer.write(temp);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new BlobStoreException("Cannot write blob " + target.getFileName(), e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("Could not delete temporary blob {}: {}", temp, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Two levels of fan-out keep directories small: ab/cd/abcd...
+     */
+    private Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static String checkHash(String hash) {
+        if (hash == null || hash.length() != 64) {
+            throw new BlobStoreException("Invalid content hash: " + hash);
+        }
+        for (int i = 0; i < hash.length(); i++) {
+            char c = hash.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                throw new BlobStoreException("Invalid content hash: " + hash);
+            }
+        }
+        return hash;
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ContentWriter {
+        void write(Path temp) throws IOException;
+    }
+}
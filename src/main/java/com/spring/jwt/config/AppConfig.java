@@ -3,7 +3,13 @@ package com.spring.jwt.config;
 import com.spring.jwt.config.filter.*;
 import com.spring.jwt.jwt.JwtConfig;
 import com.spring.jwt.jwt.JwtService;
+import com.spring.jwt.ratelimit.KeyedRateLimiter;
 import com.spring.jwt.repository.UserRepository;
+import com.spring.jwt.routing.AccessRule;
+import com.spring.jwt.routing.RouteClassifier;
+import com.spring.jwt.service.impl.AccountSecurityService;
+import com.spring.jwt.service.security.BoundedBCryptPasswordEncoder;
+import com.spring.jwt.service.security.PrincipalCache;
 import com.spring.jwt.service.security.UserDetailsServiceCustom;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
@@ -20,9 +26,7 @@ import org.springframework.security.config.annotation.authentication.builders.Au
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
@@ -81,20 +85,33 @@ public class AppConfig {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private AccountSecurityService accountSecurityService;
+
+    @Autowired
+    private BoundedBCryptPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private RouteClassifier routeClassifier;
+
+    @Autowired
+    private KeyedRateLimiter authenticationRateLimiter;
+
+    @Value("${app.rate-limiting.enabled:true}")
+    private boolean rateLimitingEnabled;
+
     @Value("${app.url.frontend:http://localhost:5173}")
     private String frontendUrl;
 
     @Value("#{'${app.cors.allowed-origins}'.split(',')}")
     private List<String> allowedOrigins;
 
-    @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     @Bean
     public UserDetailsServiceCustom userDetailsService() {
-        return new UserDetailsServiceCustom(userRepository);
+        return new UserDetailsServiceCustom(userRepository, principalCache);
     }
 
     @Bean
@@ -145,56 +162,18 @@ public class AppConfig {
                         .policy("camera=(), microphone=(), geolocation=()"))
         );
 
-        http.authorizeHttpRequests(authorize -> authorize
-                .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
-
-                .requestMatchers("/api/auth/**").permitAll()
-                .requestMatchers(jwtConfig.getUrl()).permitAll()
-                .requestMatchers(jwtConfig.getRefreshUrl()).permitAll()
-                .requestMatchers("/api/v1/survey/**").permitAll()
-                .requestMatchers("/api/v1/farmer-selfie/**").permitAll()
-                .requestMatchers(("/api/v1/farmer-form/**")).permitAll()
-
-                .requestMatchers("/api/auth/v1/register/**").permitAll()
-                .requestMatchers("/api/v1/users/password/**").permitAll()
-                .requestMatchers("/api/users/**").permitAll()
-
-                .requestMatchers("/api/v1/exam/**").permitAll()
-
-                .requestMatchers("/api/completeProfile/getProfile/**").permitAll()
-                .requestMatchers("/api/v1/complete-profile/public/**").permitAll()
-                .requestMatchers("/api/v1/interests/**").authenticated()
-
-                .requestMatchers(
-                        "/v2/api-docs",
-                        "/v3/api-docs",
-                        "/v*/a*-docs/**",
-                        "/swagger-resources",
-                        "/swagger-resources/**",
-                        "/configuration/ui",
-                        "/configuration/security",
-                        "/swagger-ui/**",
-                        "/webjars/**",
-                        "/swagger-ui.html"
-                ).permitAll()
-
-                .requestMatchers("/api/public/**").permitAll()
-                .requestMatchers("/user/**").permitAll()
-                .requestMatchers("/api/v1/documents/uploadByUser").permitAll()
-                .requestMatchers("/api/v1/documents/**").authenticated()
-                .requestMatchers("/api/v1/employeeFarmerSurveys/**").permitAll()
-                .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
-                .requestMatchers("/api/v1/**").permitAll()
-                .requestMatchers("/api/v1/farmer_selfie_Survey/**").permitAll()
-                .requestMatchers("/api/v1/lab_report/**").permitAll()
-                .requestMatchers("/api/v1/products/**").permitAll()
-                .requestMatchers("/api/v1/company-weekly-off/**").permitAll()
-                .requestMatchers("/api/v1/attendance/**").permitAll()
-                .requestMatchers("/api/v1/product-photo/**").permitAll()
-                .requestMatchers("/api/v1/employees/**").permitAll()
-                .requestMatchers("/api/v1/emp-documents").permitAll()
-
-                .anyRequest().authenticated());
+        http.authorizeHttpRequests(authorize -> {
+            authorize.requestMatchers(HttpMethod.OPTIONS, "/**").permitAll();
+            for (AccessRule rule : routeClassifier.getAccessRules()) {
+                var matched = authorize.requestMatchers(rule.patternArray());
+                switch (rule.access()) {
+                    case PERMIT_ALL -> matched.permitAll();
+                    case AUTHENTICATED -> matched.authenticated();
+                    case ROLE -> matched.hasRole(rule.role());
+                }
+            }
+            authorize.anyRequest().authenticated();
+        });
 
         log.debug("Configuring security filters");
         JwtTokenAuthenticationFilter jwtTokenFilter =
@@ -202,7 +181,7 @@ public class AppConfig {
                         jwtConfig,
                         jwtService,
                         userDetailsService(),
-                        activeSessionService
+                        routeClassifier
                 );
 
         JwtUsernamePasswordAuthenticationFilter loginFilter =
@@ -211,7 +190,9 @@ public class AppConfig {
                         jwtConfig,
                         jwtService,
                         userRepository,
-                        activeSessionService
+                        activeSessionService,
+                        accountSecurityService,
+                        rateLimitingEnabled ? authenticationRateLimiter : null
                 );
 
         JwtRefreshTokenFilter refreshTokenFilter =
@@ -267,8 +248,10 @@ public class AppConfig {
     @Bean
     public AuthenticationManager authenticationManager(HttpSecurity http) throws Exception {
         AuthenticationManagerBuilder builder = http.getSharedObject(AuthenticationManagerBuilder.class);
-        builder.userDetailsService(userDetailsService())
-                .passwordEncoder(passwordEncoder());
+        UserDetailsServiceCustom userDetailsService = userDetailsService();
+        builder.userDetailsService(userDetailsService)
+                .passwordEncoder(passwordEncoder)
+                .userDetailsPasswordManager(userDetailsService);
         return builder.build();
     }
 
@@ -0,0 +1,41 @@
+package com.spring.jwt.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executor for document compression. Processing is CPU-bound, so the pool is sized to the
+ * processors and fronted by a bounded queue; when the queue is full submissions are rejected
+ * rather than piling up, and callers answer 503 with Retry-After.
+ */
+@Configuration
+@EnableAsync
+@Slf4j
+public class DocumentProcessingConfig {
+
+    @Bean(name = "documentProcessingExecutor")
+    public ThreadPoolTaskExecutor documentProcessingExecutor(DocumentProperties documentProperties) {
+        DocumentProperties.ProcessingConfig processing = documentProperties.getProcessing();
+        int threads = processing.getPoolSize() > 0
+                ? processing.getPoolSize()
+                : Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(processing.getQueueCapacity());
+        executor.setThreadNamePrefix("document-process-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+
+        log.info("Document processing pool started: {} threads, queue capacity {}",
+                threads, processing.getQueueCapacity());
+        return executor;
+    }
+}
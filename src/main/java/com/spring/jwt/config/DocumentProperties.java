@@ -59,6 +59,18 @@ public class DocumentProperties
     @NotNull
     private DatabaseConfig database = new DatabaseConfig();
 
+    /**
+     * Upload ingestion configurations
+     */
+    @NotNull
+    private IngestConfig ingest = new IngestConfig();
+
+    /**
+     * Background processing of asynchronous uploads
+     */
+    @NotNull
+    private ProcessingConfig processing = new ProcessingConfig();
+
     @Data
     public static class FileSizeConfig
     {
@@ -95,6 +107,13 @@ public class DocumentProperties
         private float lowQuality = 0.75f;
         private float qualityStep = 0.05f;
 
+        // Size-targeted encoding searches quality in [minQuality, highQuality]
+        private float minQuality = 0.60f;
+        private double sizeTolerance = 0.10; // stop once within 10% below the target
+        @Min(1)
+        private int maxFullEncodes = 4;
+        private int maxDownscaleRounds = 2;
+
         @Min(1)
         private long maxSizeKb = 400;
 
@@ -128,6 +147,49 @@ public class DocumentProperties
         private boolean enableQueryCache = true;
     }
 
+    @Data
+    public static class IngestConfig
+    {
+        /**
+         * Directory for spooled uploads; blank uses java.io.tmpdir
+         */
+        private String tempDir = "";
+
+        @Min(1024)
+        private int bufferSizeBytes = 64 * 1024;
+    }
+
+    @Data
+    public static class ProcessingConfig
+    {
+        /**
+         * Worker threads; 0 uses one per available processor
+         */
+        @Min(0)
+        private int poolSize = 0;
+
+        /**
+         * Uploads waiting for a worker before new ones are refused with 503
+         */
+        @Min(1)
+        private int queueCapacity = 50;
+
+        @Min(1)
+        private long retryAfterSeconds = 5;
+
+        /**
+         * Queued or running jobs whose instance has sent no heartbeat for this long are marked FAILED
+         */
+        @Min(1)
+        private long staleJobMinutes = 30;
+
+        /**
+         * Finished jobs are deleted after this many hours
+         */
+        @Min(1)
+        private long jobRetentionHours = 24;
+    }
+
     /**
      * Utility methods for easy access and validation
      * These methods provide convenient access to configuration values
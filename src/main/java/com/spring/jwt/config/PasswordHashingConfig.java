@@ -0,0 +1,39 @@
+package com.spring.jwt.config;
+
+import com.spring.jwt.service.security.BoundedBCryptPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Password encoder configuration.
+ * BCrypt work runs on a dedicated bounded pool instead of servlet worker threads.
+ */
+@Configuration
+public class PasswordHashingConfig {
+
+    @Value("${app.security.password-hashing.strength:10}")
+    private int strength;
+
+    @Value("${app.security.password-hashing.pool-size:0}")
+    private int poolSize;
+
+    @Value("${app.security.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.security.password-hashing.max-wait-ms:3000}")
+    private long maxWaitMs;
+
+    @Value("${app.security.password-hashing.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
+    @Bean
+    public BoundedBCryptPasswordEncoder passwordEncoder(ObjectProvider<MeterRegistry> meterRegistry) {
+        BoundedBCryptPasswordEncoder encoder =
+                new BoundedBCryptPasswordEncoder(strength, poolSize, queueCapacity, maxWaitMs, retryAfterSeconds);
+        encoder.bindMetrics(meterRegistry.getIfAvailable());
+        return encoder;
+    }
+}
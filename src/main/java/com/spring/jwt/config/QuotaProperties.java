@@ -0,0 +1,39 @@
+package com.spring.jwt.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cost-weighted endpoint quotas, tracked per JWT subject
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.quota")
+public class QuotaProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Length of the sliding window in seconds
+     */
+    private int windowSeconds = 60;
+
+    /**
+     * Units per window for subjects whose roles have no entry in budgets
+     */
+    private int defaultBudget = 300;
+
+    /**
+     * Units per window by role name without the ROLE_ prefix; the largest matching budget applies
+     */
+    private Map<String, Integer> budgets = new HashMap<>();
+
+    /**
+     * Hard cap on (subject, endpoint) pairs held in memory
+     */
+    private int maxTrackedKeys = 65536;
+}
@@ -1,20 +1,21 @@
 package com.spring.jwt.config;
 
-import com.spring.jwt.exception.BaseException;
-import io.github.resilience4j.ratelimiter.RateLimiter;
-import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import com.spring.jwt.exception.RateLimitExceededException;
+import com.spring.jwt.ratelimit.KeyedRateLimiter;
+import com.spring.jwt.utils.ClientContext;
+import com.spring.jwt.utils.SecurityUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @Aspect
 @Component
@@ -22,40 +23,12 @@ import jakarta.servlet.http.HttpServletRequest;
 @RequiredArgsConstructor
 public class RateLimitingAspect {
 
-    private final RateLimiter authenticationRateLimiter;
-    private final RateLimiter apiRateLimiter;
+    private final KeyedRateLimiter authenticationRateLimiter;
+    private final KeyedRateLimiter apiRateLimiter;
 
     @Value("${app.rate-limiting.enabled:true}")
     private boolean rateLimitingEnabled;
 
-    @Around("execution(* com.spring.jwt.config.filter.JwtUsernamePasswordAuthenticationFilter.attemptAuthentication(..))")
-    public Object limitAuthentication(ProceedingJoinPoint joinPoint) throws Throwable {
-        if (!rateLimitingEnabled) {
-            return joinPoint.proceed();
-        }
-
-        String clientIp = getClientIp();
-        String key = "auth:" + clientIp;
-        log.debug("Rate limiting authentication request from IP: {}", clientIp);
-
-        try {
-            return authenticationRateLimiter.executeCheckedSupplier(() -> {
-                try {
-                    return joinPoint.proceed();
-                } catch (Throwable throwable) {
-                    if (throwable instanceof RuntimeException) {
-                        throw (RuntimeException) throwable;
-                    }
-                    throw new RuntimeException(throwable);
-                }
-            });
-        } catch (RequestNotPermitted e) {
-            log.warn("Rate limit exceeded for authentication request from IP: {}", clientIp);
-            throw new BaseException(String.valueOf(HttpStatus.TOO_MANY_REQUESTS.value()), 
-                    "Too many authentication attempts. Please try again later.");
-        }
-    }
-
     @Around("execution(* com.spring.jwt.service.UserService.handleForgotPassword(..)) || " +
             "execution(* com.spring.jwt.service.UserService.processPasswordUpdate(..))")
     public Object limitSensitiveOperations(ProceedingJoinPoint joinPoint) throws Throwable {
@@ -63,25 +36,14 @@ public class RateLimitingAspect {
             return joinPoint.proceed();
         }
 
-        String clientIp = getClientIp();
-        log.debug("Rate limiting sensitive operation from IP: {}", clientIp);
-
-        try {
-            return authenticationRateLimiter.executeCheckedSupplier(() -> {
-                try {
-                    return joinPoint.proceed();
-                } catch (Throwable throwable) {
-                    if (throwable instanceof RuntimeException) {
-                        throw (RuntimeException) throwable;
-                    }
-                    throw new RuntimeException(throwable);
-                }
-            });
-        } catch (RequestNotPermitted e) {
-            log.warn("Rate limit exceeded for sensitive operation from IP: {}", clientIp);
-            throw new BaseException(String.valueOf(HttpStatus.TOO_MANY_REQUESTS.value()), 
+        ServletRequestAttributes attributes = currentRequest();
+        if (attributes != null) {
+            String clientIp = ClientContext.from(attributes.getRequest()).getClientIp();
+            log.debug("Rate limiting sensitive operation from IP: {}", clientIp);
+            enforce(authenticationRateLimiter, clientIp, attributes,
                     "Too many requests. Please try again later.");
         }
+        return joinPoint.proceed();
     }
 
     @Around("execution(* com.spring.jwt.controller.*.*(..)) && " +
@@ -92,36 +54,53 @@ public class RateLimitingAspect {
             return joinPoint.proceed();
         }
 
-        String clientIp = getClientIp();
-        log.debug("Rate limiting API request from IP: {}", clientIp);
-
-        try {
-            return apiRateLimiter.executeCheckedSupplier(() -> {
-                try {
-                    return joinPoint.proceed();
-                } catch (Throwable throwable) {
-                    if (throwable instanceof RuntimeException) {
-                        throw (RuntimeException) throwable;
-                    }
-                    throw new RuntimeException(throwable);
-                }
-            });
-        } catch (RequestNotPermitted e) {
-            log.warn("Rate limit exceeded for API request from IP: {}", clientIp);
-            throw new BaseException(String.valueOf(HttpStatus.TOO_MANY_REQUESTS.value()), 
-                    "Too many requests. Please try again later.");
+        ServletRequestAttributes attributes = currentRequest();
+        if (attributes != null) {
+            String key = apiKey(attributes);
+            log.debug("Rate limiting API request for {}", key);
+            enforce(apiRateLimiter, key, attributes, "Too many requests. Please try again later.");
         }
+        return joinPoint.proceed();
     }
 
-    private String getClientIp() {
-        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes())
-                .getRequest();
-        
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
+    /**
+     * Authenticated callers are limited per user, so clients behind one NAT do not share a
+     * budget; anonymous callers are limited per IP.
+     */
+    private String apiKey(ServletRequestAttributes attributes) {
+        String username = SecurityUtil.getCurrentUsername();
+        if (username != null) {
+            return "user:" + username;
         }
-        
-        return request.getRemoteAddr();
+        return "ip:" + ClientContext.from(attributes.getRequest()).getClientIp();
+    }
+
+    private void enforce(KeyedRateLimiter limiter, String key, ServletRequestAttributes attributes,
+                         String message) {
+        int remaining = limiter.tryAcquire(key);
+
+        if (remaining == KeyedRateLimiter.REJECTED) {
+            log.warn("Rate limit exceeded for {}", key);
+            long retryAfterSeconds = toSeconds(limiter.millisUntilAvailable(key, 1, limiter.getLimit()));
+            throw new RateLimitExceededException(message, limiter.getLimit(), retryAfterSeconds);
+        }
+
+        long resetSeconds = toSeconds(limiter.millisUntilReset());
+
+        HttpServletResponse response = attributes.getResponse();
+        if (response != null && !response.isCommitted()) {
+            response.setHeader("RateLimit-Limit", String.valueOf(limiter.getLimit()));
+            response.setHeader("RateLimit-Remaining", String.valueOf(remaining));
+            response.setHeader("RateLimit-Reset", String.valueOf(resetSeconds));
+        }
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+
+    private ServletRequestAttributes currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes : null;
     }
-} 
\ No newline at end of file
+}
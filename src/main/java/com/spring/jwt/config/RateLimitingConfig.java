@@ -1,50 +1,41 @@
 package com.spring.jwt.config;
 
-import io.github.resilience4j.ratelimiter.RateLimiter;
-import io.github.resilience4j.ratelimiter.RateLimiterConfig;
-import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import com.spring.jwt.ratelimit.KeyedRateLimiter;
+import com.spring.jwt.ratelimit.RateLimiterFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Keyed, non-blocking limiters used by RateLimitingAspect and the login filter.
+ * Requests over the limit are rejected immediately; no request thread waits for a permit.
+ */
 @Configuration
 public class RateLimitingConfig {
 
-    @Value("${app.rate-limiting.enabled:true}")
-    private boolean rateLimitingEnabled;
-
     @Value("${app.rate-limiting.limit-for-period:200}")
     private int limitForPeriod;
 
     @Value("${app.rate-limiting.refresh-period:600}")
     private int refreshPeriod;
 
-    @Value("${app.rate-limiting.timeout-duration:3000}")
-    private int timeoutDuration;
+    @Value("${app.rate-limiting.max-tracked-clients:65536}")
+    private int maxTrackedClients;
 
     @Bean
-    public RateLimiter authenticationRateLimiter() {
-        RateLimiterConfig config = RateLimiterConfig.custom()
-                .limitRefreshPeriod(Duration.ofSeconds(refreshPeriod))
-                .limitForPeriod(limitForPeriod)
-                .timeoutDuration(Duration.ofSeconds(timeoutDuration))
-                .build();
-        
-        RateLimiterRegistry registry = RateLimiterRegistry.of(config);
-        return registry.rateLimiter("authenticationLimiter");
+    public KeyedRateLimiter authenticationRateLimiter(RateLimiterFactory rateLimiterFactory) {
+        return limiter(rateLimiterFactory, "rate.limiter.auth");
     }
-    
+
     @Bean
-    public RateLimiter apiRateLimiter() {
-        RateLimiterConfig config = RateLimiterConfig.custom()
-                .limitRefreshPeriod(Duration.ofSeconds(refreshPeriod))
-                .limitForPeriod(limitForPeriod)
-                .timeoutDuration(Duration.ofSeconds(timeoutDuration))
-                .build();
-        
-        RateLimiterRegistry registry = RateLimiterRegistry.of(config);
-        return registry.rateLimiter("apiLimiter");
+    public KeyedRateLimiter apiRateLimiter(RateLimiterFactory rateLimiterFactory) {
+        return limiter(rateLimiterFactory, "rate.limiter.api");
+    }
+
+    private KeyedRateLimiter limiter(RateLimiterFactory rateLimiterFactory, String name) {
+        return rateLimiterFactory.create(
+                name, limitForPeriod, TimeUnit.SECONDS.toMillis(refreshPeriod), maxTrackedClients);
     }
-} 
\ No newline at end of file
+}
@@ -1,5 +1,8 @@
 package com.spring.jwt.config;
 
+import com.spring.jwt.routing.Route;
+import com.spring.jwt.routing.RouteClassifier;
+import com.spring.jwt.routing.RouteTag;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,13 +31,33 @@ public class SecurityHeadersConfig {
 
     private static final SecureRandom RANDOM = new SecureRandom();
     private static final String CSP_NONCE_ATTRIBUTE = "cspNonce";
-    
+
+    private static final String CSP_PREFIX = "default-src 'self'; script-src 'self' 'nonce-";
+    private static final String CSP_MIDDLE = "' https://cdnjs.cloudflare.com https://cdn.jsdelivr.net; " +
+            "style-src 'self' 'nonce-";
+    private static final String CSP_SUFFIX = "' https://fonts.googleapis.com https://cdn.jsdelivr.net; " +
+            "img-src 'self' data:; " +
+            "font-src 'self' https://fonts.gstatic.com; " +
+            "connect-src 'self'; " +
+            "frame-src 'none'; " +
+            "object-src 'none'; " +
+            "base-uri 'self'; " +
+            "form-action 'self'; " +
+            "frame-ancestors 'none'; " +
+            "upgrade-insecure-requests;";
+
     /**
-     * Generates nonce values for CSP
+     * Generates nonce values for CSP on pages; API and static responses carry no inline scripts
      */
     @Bean
-    public OncePerRequestFilter cspNonceFilter() {
+    public OncePerRequestFilter cspNonceFilter(RouteClassifier routeClassifier) {
         return new OncePerRequestFilter() {
+            @Override
+            protected boolean shouldNotFilter(HttpServletRequest request) {
+                Route route = routeClassifier.classify(request);
+                return route.has(RouteTag.API) || route.has(RouteTag.STATIC);
+            }
+
             @Override
             protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                            FilterChain filterChain) throws ServletException, IOException {
@@ -56,20 +79,7 @@ public class SecurityHeadersConfig {
      * Creates a Content Security Policy with nonce
      */
     private String getContentSecurityPolicy(String nonce) {
-        return String.format(
-            "default-src 'self'; " +
-            "script-src 'self' 'nonce-%s' https://cdnjs.cloudflare.com https://cdn.jsdelivr.net; " +
-            "style-src 'self' 'nonce-%s' https://fonts.googleapis.com https://cdn.jsdelivr.net; " +
-            "img-src 'self' data:; " +
-            "font-src 'self' https://fonts.gstatic.com; " +
-            "connect-src 'self'; " +
-            "frame-src 'none'; " +
-            "object-src 'none'; " +
-            "base-uri 'self'; " +
-            "form-action 'self'; " +
-            "frame-ancestors 'none'; " +
-            "upgrade-insecure-requests;",
-            nonce, nonce);
+        return CSP_PREFIX + nonce + CSP_MIDDLE + nonce + CSP_SUFFIX;
     }
     
     /**
@@ -0,0 +1,136 @@
+package com.spring.jwt.config.aspect;
+
+import com.spring.jwt.config.QuotaProperties;
+import com.spring.jwt.exception.RateLimitExceededException;
+import com.spring.jwt.ratelimit.QuotaCost;
+import com.spring.jwt.ratelimit.KeyedRateLimiter;
+import com.spring.jwt.ratelimit.RateLimiterFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces {@link QuotaCost} on controller endpoints. Each authenticated subject gets one
+ * budget per window, sized by the subject's role, and every call spends the endpoint's
+ * declared cost from it; endpoints that name a bucket draw from that bucket's budget instead.
+ * Anonymous calls are left to the IP limiters.
+ */
+@Aspect
+@Component
+@Slf4j
+public class QuotaAspect {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private static final String DEFAULT_BUCKET = "*";
+
+    private final QuotaProperties quotaProperties;
+
+    private final RateLimiterFactory rateLimiterFactory;
+
+    private final Map<Method, EndpointQuota> endpointQuotas = new ConcurrentHashMap<>();
+
+    private KeyedRateLimiter limiter;
+
+    public QuotaAspect(QuotaProperties quotaProperties, RateLimiterFactory rateLimiterFactory) {
+        this.quotaProperties = quotaProperties;
+        this.rateLimiterFactory = rateLimiterFactory;
+    }
+
+    @PostConstruct
+    public void initLimiter() {
+        int largestBudget = quotaProperties.getBudgets().values().stream()
+                .mapToInt(Integer::intValue)
+                .reduce(quotaProperties.getDefaultBudget(), Math::max);
+        limiter = rateLimiterFactory.create(
+                "quota",
+                largestBudget,
+                TimeUnit.SECONDS.toMillis(quotaProperties.getWindowSeconds()),
+                quotaProperties.getMaxTrackedKeys());
+    }
+
+    @Around("@annotation(com.spring.jwt.ratelimit.QuotaCost) || @within(com.spring.jwt.ratelimit.QuotaCost)")
+    public Object enforceQuota(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!quotaProperties.isEnabled()) {
+            return joinPoint.proceed();
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserDetails principal)) {
+            return joinPoint.proceed();
+        }
+
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        EndpointQuota endpoint = endpointQuotas.computeIfAbsent(method, QuotaAspect::resolve);
+        int budget = budgetFor(principal);
+
+        String key = principal.getUsername() + '|' + endpoint.bucket();
+        int remaining = limiter.tryAcquire(key, endpoint.cost(), budget);
+        if (remaining == KeyedRateLimiter.REJECTED) {
+            log.warn("Quota exhausted for {} on {} (cost {}, budget {})",
+                    principal.getUsername(), endpoint.bucket(), endpoint.cost(), budget);
+            long retryAfterMillis = limiter.millisUntilAvailable(key, endpoint.cost(), budget);
+            throw new RateLimitExceededException("Quota exceeded for this operation. Please try again later.",
+                    budget, Math.max(1, (retryAfterMillis + 999) / 1000));
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletResponse response = servletAttributes.getResponse();
+            if (response != null && !response.isCommitted()) {
+                response.setHeader("X-Quota-Limit", String.valueOf(budget));
+                response.setHeader("X-Quota-Remaining", String.valueOf(remaining));
+            }
+        }
+        return joinPoint.proceed();
+    }
+
+    private int budgetFor(UserDetails principal) {
+        Map<String, Integer> budgets = quotaProperties.getBudgets();
+        int budget = -1;
+        for (GrantedAuthority authority : principal.getAuthorities()) {
+            String role = authority.getAuthority();
+            if (role.startsWith(ROLE_PREFIX)) {
+                role = role.substring(ROLE_PREFIX.length());
+            }
+            Integer roleBudget = budgets.get(role);
+            if (roleBudget != null && roleBudget > budget) {
+                budget = roleBudget;
+            }
+        }
+        return budget >= 0 ? budget : quotaProperties.getDefaultBudget();
+    }
+
+    private static EndpointQuota resolve(Method method) {
+        QuotaCost quotaCost = AnnotatedElementUtils.findMergedAnnotation(method, QuotaCost.class);
+        if (quotaCost == null) {
+            quotaCost = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), QuotaCost.class);
+        }
+        int cost = quotaCost != null ? Math.max(1, quotaCost.value()) : QuotaCost.LIGHT;
+        String bucket = quotaCost != null && !quotaCost.bucket().isEmpty()
+                ? quotaCost.bucket()
+                : DEFAULT_BUCKET;
+        return new EndpointQuota(bucket, cost);
+    }
+
+    private record EndpointQuota(String bucket, int cost) {
+    }
+}
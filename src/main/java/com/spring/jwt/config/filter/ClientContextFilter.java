@@ -0,0 +1,32 @@
+package com.spring.jwt.config.filter;
+
+import com.spring.jwt.utils.ClientContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Resolves the ClientContext ahead of the security filter chain so every
+ * downstream filter reads the same IP, user agent and fingerprint.
+ */
+@Component
+public class ClientContextFilter extends OncePerRequestFilter implements Ordered {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ClientContext.from(request);
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -30,6 +30,9 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private BCryptPasswordEncoder passwordEncoder;
+
     @Override
     public Authentication authenticate(Authentication authentication) throws AuthenticationException {
         log.info("Start actual authentication");
@@ -76,7 +79,6 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
         return auth;
     }
     private boolean passwordMatches(String rawPassword, String encodedPassword) {
-        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
         return passwordEncoder.matches(rawPassword, encodedPassword);
     }
     private List<GrantedAuthority> getAuthorities(List<Role> roles) {
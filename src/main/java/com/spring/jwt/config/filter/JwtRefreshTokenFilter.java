@@ -5,11 +5,11 @@ import com.spring.jwt.dto.RefreshTokenRequest;
 import com.spring.jwt.jwt.JwtConfig;
 import com.spring.jwt.jwt.JwtService;
 import com.spring.jwt.jwt.ActiveSessionService;
+import com.spring.jwt.jwt.ValidatedToken;
 import com.spring.jwt.service.security.UserDetailsCustom;
 import com.spring.jwt.service.security.UserDetailsServiceCustom;
 import com.spring.jwt.utils.BaseResponseDTO;
 import com.spring.jwt.utils.HelperUtils;
-import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -126,36 +126,33 @@ public class JwtRefreshTokenFilter extends AbstractAuthenticationProcessingFilte
 
             log.info("Validating refresh token...");
 
-            try {
-                Claims claims = jwtService.extractClaims(refreshToken);
-                String tokenType = claims.get(CLAIM_KEY_TOKEN_TYPE, String.class);
-                
-                if (TOKEN_TYPE_ACCESS.equals(tokenType)) {
-                    log.error("Attempting to use an access token for refresh. Please use a refresh token instead.");
-                    Cookie invalidCookie = new Cookie(REFRESH_TOKEN_COOKIE_NAME, "");
-                    invalidCookie.setMaxAge(0);
-                    invalidCookie.setPath("/");
-                    response.addCookie(invalidCookie);
-                    throw new BadCredentialsException("Access token used for refresh. Please use a refresh token.");
-                } else if (!TOKEN_TYPE_REFRESH.equals(tokenType)) {
-                    log.error("Invalid token type - not a refresh token");
-                    throw new BadCredentialsException("Invalid token type - not a refresh token");
-                }
-            } catch (BadCredentialsException e) {
-                throw e;
-            } catch (Exception e) {
-                log.error("Error validating token type: {}", e.getMessage());
+            String deviceFingerprint = jwtService.generateDeviceFingerprint(request);
+            ValidatedToken validatedToken = jwtService.validateToken(refreshToken, deviceFingerprint);
+
+            if (validatedToken.getClaims() == null) {
+                log.error("Error validating token type: {}", validatedToken.getStatus());
                 throw new BadCredentialsException("Invalid token format or structure");
             }
 
-            String deviceFingerprint = jwtService.generateDeviceFingerprint(request);
-            if (!jwtService.isValidToken(refreshToken, deviceFingerprint)) {
-                log.error("Expired or invalid refresh token");
+            String tokenType = validatedToken.getTokenType();
+            if (TOKEN_TYPE_ACCESS.equals(tokenType)) {
+                log.error("Attempting to use an access token for refresh. Please use a refresh token instead.");
+                Cookie invalidCookie = new Cookie(REFRESH_TOKEN_COOKIE_NAME, "");
+                invalidCookie.setMaxAge(0);
+                invalidCookie.setPath("/");
+                response.addCookie(invalidCookie);
+                throw new BadCredentialsException("Access token used for refresh. Please use a refresh token.");
+            } else if (!TOKEN_TYPE_REFRESH.equals(tokenType)) {
+                log.error("Invalid token type - not a refresh token");
+                throw new BadCredentialsException("Invalid token type - not a refresh token");
+            }
+
+            if (!validatedToken.isValid()) {
+                log.error("Expired or invalid refresh token: {}", validatedToken.getStatus());
                 throw new BadCredentialsException("Expired or invalid refresh token");
             }
 
-            Claims claims = jwtService.extractClaims(refreshToken);
-            String username = claims.getSubject();
+            String username = validatedToken.getSubject();
             log.info("Refresh token is valid for user: {}", username);
 
             RefreshTokenAuthentication auth = new RefreshTokenAuthentication(username, refreshToken);
@@ -215,11 +212,9 @@ public class JwtRefreshTokenFilter extends AbstractAuthenticationProcessingFilte
             String newRefreshToken = jwtService.generateRefreshToken(userDetails, deviceFingerprint);
 
             try {
-                String accessJti = jwtService.extractTokenId(newAccessToken);
-                String refreshJti = jwtService.extractTokenId(newRefreshToken);
-                activeSessionService.replaceActiveSession(username, accessJti, refreshJti,
-                        jwtService.extractClaims(newAccessToken).getExpiration().toInstant(),
-                        jwtService.extractClaims(newRefreshToken).getExpiration().toInstant());
+                activeSessionService.replaceActiveSession(username,
+                        jwtService.parseToken(newAccessToken),
+                        jwtService.parseToken(newRefreshToken));
             } catch (Exception e) {
                 log.warn("Failed to update active session on refresh: {}", e.getMessage());
             }
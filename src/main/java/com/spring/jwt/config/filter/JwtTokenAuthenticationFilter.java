@@ -1,14 +1,13 @@
 package com.spring.jwt.config.filter;
 
-import com.spring.jwt.jwt.ActiveSessionService;
 import com.spring.jwt.jwt.JwtConfig;
 import com.spring.jwt.jwt.JwtService;
+import com.spring.jwt.jwt.ValidatedToken;
+import com.spring.jwt.routing.Route;
+import com.spring.jwt.routing.RouteClassifier;
+import com.spring.jwt.routing.RouteTag;
 import com.spring.jwt.service.security.UserDetailsServiceCustom;
-import com.spring.jwt.utils.BaseResponseDTO;
-import com.spring.jwt.utils.HelperUtils;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.JwtException;
+import com.spring.jwt.utils.RejectionResponse;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -25,6 +24,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
@@ -34,10 +35,16 @@ public class JwtTokenAuthenticationFilter extends OncePerRequestFilter {
     private final JwtConfig jwtConfig;
     private final JwtService jwtService;
     private final UserDetailsServiceCustom userDetailsService;
-    private final ActiveSessionService activeSessionService;
+    private final RouteClassifier routeClassifier;
 
     private static final String ACCESS_TOKEN_COOKIE_NAME = "access_token";
 
+    private static final RejectionResponse ACCESS_TOKEN_REQUIRED_RESPONSE =
+            RejectionResponse.of(HttpStatus.UNAUTHORIZED.value(), "Access token required");
+    private static final RejectionResponse AUTHENTICATION_FAILED_RESPONSE =
+            RejectionResponse.of(HttpStatus.UNAUTHORIZED.value(), "Authentication failed");
+    private static final Map<String, RejectionResponse> INVALID_TOKEN_RESPONSES = invalidTokenResponses();
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -59,23 +66,23 @@ public class JwtTokenAuthenticationFilter extends OncePerRequestFilter {
         String token = getJwtFromRequest(request);
 
         try {
-            if (!jwtService.isValidToken(token)) {
-                handleInvalidToken(response, getSpecificInvalidReason(token, request));
+            ValidatedToken validatedToken = jwtService.validateToken(token, null);
+
+            if (!validatedToken.isValid()) {
+                handleInvalidToken(request, response, getSpecificInvalidReason(validatedToken, request));
                 return;
             }
 
-            Claims claims = jwtService.extractClaims(token);
-            String username = claims.getSubject();
-            Integer userId = claims.get("userId", Integer.class);
-            String tokenId = claims.getId();
-
-            if (!activeSessionService.isCurrentAccessToken(username, tokenId)) {
-                handleInvalidToken(response,
-                        "You are logged in on another device. Please logout from the other device to continue");
+            // Refresh tokens only renew sessions at the auth endpoints, never authenticate API calls
+            if (!validatedToken.isAccessToken()) {
+                ACCESS_TOKEN_REQUIRED_RESPONSE.write(request, response);
                 return;
             }
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = jwtService.extractPrincipal(validatedToken);
+            if (userDetails == null) {
+                userDetails = userDetailsService.loadUserByUsername(validatedToken.getSubject());
+            }
 
             UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(
@@ -84,35 +91,34 @@ public class JwtTokenAuthenticationFilter extends OncePerRequestFilter {
                             userDetails.getAuthorities()
                     );
 
-            authentication.setDetails(userId);
+            authentication.setDetails(validatedToken);
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
             filterChain.doFilter(request, response);
 
-        } catch (ExpiredJwtException ex) {
-            SecurityContextHolder.clearContext();
-            handleExpiredToken(response);
-
-        } catch (JwtException ex) {
-            SecurityContextHolder.clearContext();
-            handleInvalidToken(response, "Invalid JWT token");
-
         } catch (Exception ex) {
             SecurityContextHolder.clearContext();
-            handleAuthenticationException(response, ex);
+            handleAuthenticationException(request, response, ex);
         }
     }
+
+    /**
+     * One prebuilt rejection per validation status; validateToken reports failures through the
+     * status rather than by throwing
+     */
+    private static Map<String, RejectionResponse> invalidTokenResponses() {
+        Map<String, RejectionResponse> responses = new HashMap<>();
+        for (ValidatedToken.Status status : ValidatedToken.Status.values()) {
+            responses.put(status.getMessage(), RejectionResponse.of(HttpStatus.UNAUTHORIZED.value(), status.getMessage()));
+        }
+        return Map.copyOf(responses);
+    }
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
 
-        String path = request.getServletPath();
-
-        return path.equals("/jwt/login")
-                || path.equals(jwtConfig.getUrl())
-                || path.equals(jwtConfig.getRefreshUrl())
-                || path.startsWith("/api/auth/")
-                || path.startsWith("/swagger")
-                || path.startsWith("/v3/api-docs");
+        Route route = routeClassifier.classify(request);
+        return route.isPassThrough() || route.has(RouteTag.AUTH);
     }
 
     /**
@@ -142,71 +148,34 @@ public class JwtTokenAuthenticationFilter extends OncePerRequestFilter {
     /**
      * Detailed invalid token reason
      */
-    private String getSpecificInvalidReason(String token, HttpServletRequest request) {
-        try {
-            if (jwtService.isBlacklisted(token)) {
-                return "Token is revoked";
-            }
-
-            Claims claims = jwtService.extractClaims(token);
-            String tokenDfp = claims.get("dfp", String.class);
+    private String getSpecificInvalidReason(ValidatedToken validatedToken, HttpServletRequest request) {
+        if (validatedToken.getStatus() == ValidatedToken.Status.SESSION_REPLACED) {
+            // A token from another device reports a device mismatch rather than a replaced session
+            String tokenDfp = validatedToken.getDeviceFingerprint();
             String reqDfp = jwtService.generateDeviceFingerprint(request);
-
             if (StringUtils.hasText(tokenDfp) &&
                     StringUtils.hasText(reqDfp) &&
                     !tokenDfp.equals(reqDfp)) {
-                return "Device mismatch. Please login again.";
+                return ValidatedToken.Status.DEVICE_MISMATCH.getMessage();
             }
-
-            return "Invalid or expired token";
-
-        } catch (ExpiredJwtException e) {
-            return "Expired token";
-        } catch (JwtException e) {
-            return "Malformed or invalid token";
-        } catch (Exception e) {
-            return "Unauthorized";
         }
+        return validatedToken.getStatus().getMessage();
     }
 
-    private void handleInvalidToken(HttpServletResponse response, String message)
-            throws IOException {
-
-        BaseResponseDTO dto = new BaseResponseDTO();
-        dto.setCode(String.valueOf(HttpStatus.UNAUTHORIZED.value()));
-        dto.setMessage(message);
-
-        writeResponse(response, HttpStatus.UNAUTHORIZED, dto);
-    }
-
-    private void handleExpiredToken(HttpServletResponse response)
+    private void handleInvalidToken(HttpServletRequest request, HttpServletResponse response, String message)
             throws IOException {
 
-        BaseResponseDTO dto = new BaseResponseDTO();
-        dto.setCode(String.valueOf(HttpStatus.UNAUTHORIZED.value()));
-        dto.setMessage("Expired token");
-
-        writeResponse(response, HttpStatus.UNAUTHORIZED, dto);
+        RejectionResponse rejection = INVALID_TOKEN_RESPONSES.get(message);
+        if (rejection == null) {
+            rejection = RejectionResponse.of(HttpStatus.UNAUTHORIZED.value(), message);
+        }
+        rejection.write(request, response);
     }
 
-    private void handleAuthenticationException(HttpServletResponse response, Exception e)
+    private void handleAuthenticationException(HttpServletRequest request, HttpServletResponse response, Exception e)
             throws IOException {
 
-        BaseResponseDTO dto = new BaseResponseDTO();
-        dto.setCode(String.valueOf(HttpStatus.UNAUTHORIZED.value()));
-        dto.setMessage("Authentication failed");
-
-        writeResponse(response, HttpStatus.UNAUTHORIZED, dto);
-    }
-
-    private void writeResponse(HttpServletResponse response,
-                               HttpStatus status,
-                               BaseResponseDTO dto) throws IOException {
-
-        response.setStatus(status.value());
-        response.setContentType("application/json; charset=UTF-8");
-        response.getWriter().write(
-                HelperUtils.JSON_WRITER.writeValueAsString(dto)
-        );
+        log.debug("JWT authentication failed: {}", e.getMessage());
+        AUTHENTICATION_FAILED_RESPONSE.write(request, response);
     }
 }
@@ -2,14 +2,18 @@ package com.spring.jwt.config.filter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.spring.jwt.dto.LoginRequest;
-import com.spring.jwt.entity.User;
+import com.spring.jwt.exception.AuthenticationRateLimitedException;
 import com.spring.jwt.exception.BaseException;
+import com.spring.jwt.exception.PasswordHashingUnavailableException;
 import com.spring.jwt.jwt.JwtConfig;
 import com.spring.jwt.jwt.JwtService;
 import com.spring.jwt.jwt.ActiveSessionService;
+import com.spring.jwt.ratelimit.KeyedRateLimiter;
 import com.spring.jwt.repository.UserRepository;
+import com.spring.jwt.service.impl.AccountSecurityService;
 import com.spring.jwt.service.security.UserDetailsCustom;
 import com.spring.jwt.utils.BaseResponseDTO;
+import com.spring.jwt.utils.ClientContext;
 import com.spring.jwt.utils.HelperUtils;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -18,9 +22,12 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
@@ -43,6 +50,8 @@ public class JwtUsernamePasswordAuthenticationFilter extends AbstractAuthenticat
     private final UserRepository userRepository;
     private final JwtConfig jwtConfig;
     private final ActiveSessionService activeSessionService;
+    private final AccountSecurityService accountSecurityService;
+    private final KeyedRateLimiter authenticationRateLimiter;
 
     private static final String REFRESH_TOKEN_COOKIE_NAME = "refresh_token";
 
@@ -50,7 +59,9 @@ public class JwtUsernamePasswordAuthenticationFilter extends AbstractAuthenticat
                                                    JwtConfig jwtConfig,
                                                     JwtService jwtService,
                                                     UserRepository userRepository,
-                                                    ActiveSessionService activeSessionService){
+                                                    ActiveSessionService activeSessionService,
+                                                    AccountSecurityService accountSecurityService,
+                                                    KeyedRateLimiter authenticationRateLimiter){
         super(new AntPathRequestMatcher(jwtConfig.getUrl(), "POST"));
         setAuthenticationManager(manager);
         this.objectMapper = new ObjectMapper();
@@ -58,6 +69,8 @@ public class JwtUsernamePasswordAuthenticationFilter extends AbstractAuthenticat
         this.userRepository = userRepository;
         this.jwtConfig = jwtConfig;
         this.activeSessionService = activeSessionService;
+        this.accountSecurityService = accountSecurityService;
+        this.authenticationRateLimiter = authenticationRateLimiter;
     }
 
     @Override
@@ -72,11 +85,43 @@ public class JwtUsernamePasswordAuthenticationFilter extends AbstractAuthenticat
         LoginRequest loginRequest = objectMapper.readValue(request.getInputStream(), LoginRequest.class);
         log.info("End attempt to authentication");
 
-        return getAuthenticationManager()
-                .authenticate(new UsernamePasswordAuthenticationToken(
-                        loginRequest.getUsername(),
-                        loginRequest.getPassword(),
-                        Collections.emptyList()));
+        String username = loginRequest.getUsername();
+        checkRateLimit(request);
+        if (accountSecurityService.isAccountLocked(username)) {
+            throw new LockedException(AccountSecurityService.ACCOUNT_LOCKED_MESSAGE);
+        }
+
+        try {
+            return getAuthenticationManager()
+                    .authenticate(new UsernamePasswordAuthenticationToken(
+                            username,
+                            loginRequest.getPassword(),
+                            Collections.emptyList()));
+        } catch (BadCredentialsException | InternalAuthenticationServiceException e) {
+            if (!(e instanceof PasswordHashingUnavailableException)) {
+                accountSecurityService.recordFailedAttempt(username);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Counts the attempt against the client IP before any password is checked;
+     * a null limiter means rate limiting is disabled
+     */
+    private void checkRateLimit(HttpServletRequest request) {
+        if (authenticationRateLimiter == null) {
+            return;
+        }
+        String clientIp = ClientContext.from(request).getClientIp();
+        if (authenticationRateLimiter.tryAcquire(clientIp) == KeyedRateLimiter.REJECTED) {
+            log.warn("Authentication rate limit exceeded for {}", clientIp);
+            long retryAfterMillis = authenticationRateLimiter.millisUntilAvailable(
+                    clientIp, 1, authenticationRateLimiter.getLimit());
+            throw new AuthenticationRateLimitedException(
+                    "Too many authentication attempts. Please try again later.",
+                    Math.max(1, (retryAfterMillis + 999) / 1000));
+        }
     }
 
     @Override
@@ -93,15 +138,10 @@ public class JwtUsernamePasswordAuthenticationFilter extends AbstractAuthenticat
                     deviceFingerprint != null ? deviceFingerprint.substring(0, 8) + "..." : "none");
 
             try {
-                User user = userRepository.findByEmail(userDetailsCustom.getUsername());
-                if (user != null) {
-                    user.setLastLogin(LocalDateTime.now());
-                    user.setDeviceFingerprint(deviceFingerprint);
-                    user.setFailedLoginAttempts(0);
-//                    user.setAccountLocked(false);
-                    user.setAccountLockedUntil(null);
-                    userRepository.save(user);
-                    log.debug("Updated user login info and device fingerprint for user: {}", user.getEmail());
+                String email = userDetailsCustom.getUsername();
+                if (userRepository.recordSuccessfulLogin(email, LocalDateTime.now(), deviceFingerprint) > 0) {
+                    accountSecurityService.resetFailedAttempts(email);
+                    log.debug("Updated user login info and device fingerprint for user: {}", email);
                 }
             } catch (Exception e) {
                 log.error("Error saving device fingerprint: {}", e.getMessage(), e);
@@ -111,12 +151,9 @@ public class JwtUsernamePasswordAuthenticationFilter extends AbstractAuthenticat
             String refreshToken = jwtService.generateRefreshToken(userDetailsCustom, deviceFingerprint);
 
             try {
-                String accessJti = jwtService.extractTokenId(accessToken);
-                String refreshJti = jwtService.extractTokenId(refreshToken);
-                String username = userDetailsCustom.getUsername();
-                activeSessionService.replaceActiveSession(username, accessJti, refreshJti,
-                        jwtService.extractClaims(accessToken).getExpiration().toInstant(),
-                        jwtService.extractClaims(refreshToken).getExpiration().toInstant());
+                activeSessionService.replaceActiveSession(userDetailsCustom.getUsername(),
+                        jwtService.parseToken(accessToken),
+                        jwtService.parseToken(refreshToken));
             } catch (Exception e) {
                 log.warn("Failed to register active session: {}", e.getMessage());
             }
@@ -166,6 +203,30 @@ public class JwtUsernamePasswordAuthenticationFilter extends AbstractAuthenticat
 
     @Override
     protected void unsuccessfulAuthentication(HttpServletRequest request, HttpServletResponse response, AuthenticationException failed) throws IOException, ServletException {
+        if (failed instanceof PasswordHashingUnavailableException busy) {
+            BaseResponseDTO responseDTO = new BaseResponseDTO();
+            responseDTO.setCode(String.valueOf(HttpStatus.SERVICE_UNAVAILABLE.value()));
+            responseDTO.setMessage(busy.getMessage());
+
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(busy.getRetryAfterSeconds()));
+            response.setContentType("application/json; charset=UTF-8");
+            response.getWriter().write(HelperUtils.JSON_WRITER.writeValueAsString(responseDTO));
+            return;
+        }
+
+        if (failed instanceof AuthenticationRateLimitedException limited) {
+            BaseResponseDTO responseDTO = new BaseResponseDTO();
+            responseDTO.setCode(String.valueOf(HttpStatus.TOO_MANY_REQUESTS.value()));
+            responseDTO.setMessage(limited.getMessage());
+
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(limited.getRetryAfterSeconds()));
+            response.setContentType("application/json; charset=UTF-8");
+            response.getWriter().write(HelperUtils.JSON_WRITER.writeValueAsString(responseDTO));
+            return;
+        }
+
         BaseResponseDTO responseDTO = new BaseResponseDTO();
         responseDTO.setCode(String.valueOf(HttpStatus.UNAUTHORIZED.value()));
         responseDTO.setMessage(failed.getMessage());
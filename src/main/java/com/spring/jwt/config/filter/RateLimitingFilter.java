@@ -1,15 +1,24 @@
 package com.spring.jwt.config.filter;
 
+import com.spring.jwt.ratelimit.KeyedRateLimiter;
+import com.spring.jwt.utils.ClientContext;
+import com.spring.jwt.utils.RejectionResponse;
+import com.spring.jwt.ratelimit.RateLimiterFactory;
+import com.spring.jwt.routing.Route;
+import com.spring.jwt.routing.RouteClassifier;
+import com.spring.jwt.routing.RouteTag;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.Ordered;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -19,9 +28,19 @@ import java.util.concurrent.TimeUnit;
 public class RateLimitingFilter implements Filter, Ordered {
 
     private static final int STATUS_TOO_MANY_REQUESTS = 429;
+    private static final RejectionResponse RATE_LIMITED_RESPONSE = RejectionResponse.of(
+            STATUS_TOO_MANY_REQUESTS, Map.of("error", "Rate limit exceeded. Please try again later."));
+    private static final Set<String> UNLIMITED_AUTH_PATHS =
+            Set.of("/api/auth/login", "/api/auth/register", "/api/auth/refresh");
+
+    @Autowired
+    private RateLimiterFactory rateLimiterFactory;
+
+    @Autowired
+    private RouteClassifier routeClassifier;
+
+    private KeyedRateLimiter limiter;
 
-    private final Map<String, RequestCounter> requestCounts = new ConcurrentHashMap<>();
-    
     @Value("${app.rate-limiting.enabled:true}")
     private boolean rateLimitingEnabled;
 
@@ -30,6 +49,15 @@ public class RateLimitingFilter implements Filter, Ordered {
 
     @Value("${app.rate-limiting.refresh-period:60}")
     private int refreshPeriod;
+
+    @Value("${app.rate-limiting.max-tracked-clients:65536}")
+    private int maxTrackedClients;
+
+    @PostConstruct
+    public void initLimiter() {
+        limiter = rateLimiterFactory.create(
+                "rate.limiter.clients", limitForPeriod, TimeUnit.SECONDS.toMillis(refreshPeriod), maxTrackedClients);
+    }
     
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
@@ -48,8 +76,8 @@ public class RateLimitingFilter implements Filter, Ordered {
             return;
         }
 
-        String path = httpRequest.getRequestURI();
-        if (isPublicEndpoint(path)) {
+        Route route = routeClassifier.classify(httpRequest);
+        if (route.has(RouteTag.DOCS) || isPublicEndpoint(httpRequest.getRequestURI())) {
             chain.doFilter(request, response);
             return;
         }
@@ -57,9 +85,7 @@ public class RateLimitingFilter implements Filter, Ordered {
         String clientIp = getClientIp(httpRequest);
 
         if (isRateLimitExceeded(clientIp)) {
-            httpResponse.setStatus(STATUS_TOO_MANY_REQUESTS);
-            httpResponse.setContentType("application/json");
-            httpResponse.getWriter().write("{\"error\":\"Rate limit exceeded. Please try again later.\"}");
+            RATE_LIMITED_RESPONSE.write(httpRequest, httpResponse);
             return;
         }
 
@@ -85,70 +111,23 @@ public class RateLimitingFilter implements Filter, Ordered {
      * Checks if the request from the given IP exceeds the rate limit
      */
     private boolean isRateLimitExceeded(String clientIp) {
-        long now = System.currentTimeMillis();
-
-        RequestCounter counter = requestCounts.computeIfAbsent(clientIp, k -> new RequestCounter());
-
-        if (now - counter.getWindowStart() > TimeUnit.SECONDS.toMillis(refreshPeriod)) {
-            counter.reset(now);
-        }
-
-        counter.incrementCount();
-
-        return counter.getCount() > limitForPeriod;
+        return limiter.tryAcquire(clientIp) == KeyedRateLimiter.REJECTED;
     }
     
     /**
      * Gets the client IP address from the request
      */
     private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-        return request.getRemoteAddr();
+        return ClientContext.from(request).getClientIp();
     }
     
     /**
-     * Checks if the given path is a public endpoint that should not be rate limited
+     * Checks if the given path is a public endpoint that should not be rate limited.
+     * Password login and token refresh under /jwt stay limited per IP.
      */
     private boolean isPublicEndpoint(String path) {
-        return path.startsWith("/api/public/") || 
-               path.startsWith("/swagger-ui") || 
-               path.startsWith("/v3/api-docs") ||
+        return path.startsWith("/api/public/") ||
                path.startsWith("/h2-console") ||
-               path.equals("/api/auth/login") || 
-               path.equals("/api/auth/register") ||
-               path.equals("/api/auth/refresh");
-    }
-    
-    /**
-     * Class to track request counts in a time window
-     */
-    private static class RequestCounter {
-        private long windowStart;
-        private int count;
-        
-        public RequestCounter() {
-            this.windowStart = System.currentTimeMillis();
-            this.count = 0;
-        }
-        
-        public void reset(long timestamp) {
-            this.windowStart = timestamp;
-            this.count = 0;
-        }
-        
-        public void incrementCount() {
-            this.count++;
-        }
-        
-        public int getCount() {
-            return count;
-        }
-        
-        public long getWindowStart() {
-            return windowStart;
-        }
+               UNLIMITED_AUTH_PATHS.contains(path);
     }
-} 
\ No newline at end of file
+}
@@ -1,14 +1,16 @@
 package com.spring.jwt.config.filter;
 
+import com.spring.jwt.routing.RouteClassifier;
+import com.spring.jwt.sanitize.SqlInjectionSanitizer;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.Ordered;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.regex.Pattern;
 
 /**
  * Filter to protect against SQL injection attacks by sanitizing request parameters
@@ -16,6 +18,9 @@ import java.util.regex.Pattern;
 @Component
 public class SqlInjectionFilter implements Filter, Ordered {
 
+    @Autowired
+    private RouteClassifier routeClassifier;
+
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
@@ -25,7 +30,12 @@ public class SqlInjectionFilter implements Filter, Ordered {
             chain.doFilter(request, response);
             return;
         }
-        
+
+        if (routeClassifier.classify(httpRequest).isPassThrough()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
         SqlInjectionRequestWrapper wrappedRequest = new SqlInjectionRequestWrapper(httpRequest);
         chain.doFilter(wrappedRequest, response);
     }
@@ -49,35 +59,10 @@ public class SqlInjectionFilter implements Filter, Ordered {
      */
     private static class SqlInjectionRequestWrapper extends HttpServletRequestWrapper {
 
-        private static final Pattern[] SQL_INJECTION_PATTERNS = {
-            Pattern.compile("(?i)\\b(select|insert|update|delete|from|where|drop|alter|truncate|exec|union|create|table|into|procedure|schema)\\b.*?\\b(.*?)\\b"),
-            Pattern.compile("(?i)/\\*.*?\\*/|--.*?$"),
-            // SQL operators
-            Pattern.compile("(?i)\\b(and|or|not|like|between|in|is|null)\\b.*?\\b(.*?)\\b"),
-            // SQL functions
-            Pattern.compile("(?i)\\b(count|sum|avg|min|max)\\b.*?\\(.*?\\)"),
-            // Multiple statements
-            Pattern.compile(";.*?$"),
-            // Equals with quotes
-            Pattern.compile("'\\s*=\\s*'"),
-            // Always true conditions
-            Pattern.compile("'\\s*or\\s*'\\s*'\\s*=\\s*'"),
-            // Batched statements
-            Pattern.compile(";\\s*\\w+.*?"),
-            // UNION-based attacks
-            Pattern.compile("(?i)union\\s+all\\s+select"),
-            // Time-based blind attacks
-            Pattern.compile("(?i)sleep\\s*\\(\\s*\\d+\\s*\\)|benchmark\\s*\\("),
-            // Error-based attacks
-            Pattern.compile("(?i)extractvalue\\s*\\(|updatexml\\s*\\("),
-            // Stacked queries
-            Pattern.compile(";\\s*\\w+.*?"),
-            // Hex encoding
-            Pattern.compile("(?i)0x[0-9a-f]+")
-        };
-
         private Map<String, String[]> sanitizedParameterMap;
 
+        private final Map<String, String> sanitizedValues = new HashMap<>();
+
         public SqlInjectionRequestWrapper(HttpServletRequest request) {
             super(request);
         }
@@ -151,28 +136,14 @@ public class SqlInjectionFilter implements Filter, Ordered {
         }
 
         /**
-         * Sanitizes the given value to prevent SQL injection attacks
+         * Sanitizes the given value to prevent SQL injection attacks.
+         * Results are kept for the rest of the request, since the same parameter is usually read several times.
          */
         private String sanitize(String value) {
             if (value == null) {
                 return null;
             }
-
-            String sanitizedValue = value;
-            for (Pattern pattern : SQL_INJECTION_PATTERNS) {
-                sanitizedValue = pattern.matcher(sanitizedValue).replaceAll("INVALID");
-            }
-
-            sanitizedValue = sanitizedValue
-                .replaceAll("'", "")
-                .replaceAll("\"", "")
-                .replaceAll(";", "")
-                .replaceAll("--", "")
-                .replaceAll("/\\*", "")
-                .replaceAll("\\*/", "")
-                .replaceAll("#", "");
-            
-            return sanitizedValue;
+            return sanitizedValues.computeIfAbsent(value, SqlInjectionSanitizer::sanitize);
         }
     }
 } 
\ No newline at end of file
@@ -1,8 +1,13 @@
 package com.spring.jwt.config.filter;
 
+import com.spring.jwt.routing.Route;
+import com.spring.jwt.routing.RouteClassifier;
+import com.spring.jwt.routing.RouteTag;
+import com.spring.jwt.sanitize.XssSanitizer;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.Ordered;
 import org.springframework.stereotype.Component;
 
@@ -14,7 +19,6 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Pattern;
 
 /**
  * Filter to protect against XSS attacks by sanitizing request parameters and form data
@@ -27,6 +31,9 @@ public class XssFilter implements Filter, Ordered {
             "host", "connection", "content-length", "cookie", "accept-encoding", "accept-language"
     ));
 
+    @Autowired
+    private RouteClassifier routeClassifier;
+
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
@@ -37,14 +44,8 @@ public class XssFilter implements Filter, Ordered {
             return;
         }
         
-        String path = httpRequest.getRequestURI();
-
-        if (path.startsWith("/user/registerUser")) {
-            chain.doFilter(request, response);
-            return;
-        }
-
-        if (path.contains("swagger-ui") || path.contains("api-docs")) {
+        Route route = routeClassifier.classify(httpRequest);
+        if (route.isPassThrough() || route.has(RouteTag.AUTH)) {
             chain.doFilter(request, response);
             return;
         }
@@ -75,27 +76,10 @@ public class XssFilter implements Filter, Ordered {
      */
     private static class XssRequestWrapper extends HttpServletRequestWrapper {
 
-        private static final Pattern[] XSS_PATTERNS = {
-
-                Pattern.compile("<script>(.*?)</script>", Pattern.CASE_INSENSITIVE),
-                Pattern.compile("src[\r\n]*=[\r\n]*\\\'(.*?)\\\'", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-                Pattern.compile("src[\r\n]*=[\r\n]*\\\"(.*?)\\\"", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-                Pattern.compile("on\\w+\\s*=\\s*\".*?\"", Pattern.CASE_INSENSITIVE),
-                Pattern.compile("on\\w+\\s*=\\s*'.*?'", Pattern.CASE_INSENSITIVE),
-                Pattern.compile("javascript:", Pattern.CASE_INSENSITIVE),
-                Pattern.compile("expression\\(.*?\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-                Pattern.compile("behavior\\s*:\\s*url\\(.*?\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-                Pattern.compile("<.*?\\s+.*?\\s*=.*?>", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-                Pattern.compile("eval\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-                Pattern.compile("alert\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-                Pattern.compile("document\\.write\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-                Pattern.compile("document\\.cookie", Pattern.CASE_INSENSITIVE),
-                Pattern.compile("<iframe(.*?)>(.*?)</iframe>", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-                Pattern.compile("<form(.*?)>(.*?)</form>", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL)
-        };
-
         private Map<String, String[]> sanitizedParameterMap;
 
+        private final Map<String, String> sanitizedValues = new HashMap<>();
+
         public XssRequestWrapper(HttpServletRequest request) {
             super(request);
         }
@@ -174,26 +158,14 @@ public class XssFilter implements Filter, Ordered {
             };
         }
         /**
-         * Sanitizes the given value to prevent XSS attacks
+         * Sanitizes the given value to prevent XSS attacks.
+         * Results are kept for the rest of the request, since the same parameter is usually read several times.
          */
         private String sanitize(String value) {
             if (value == null) {
                 return null;
             }
-
-            String sanitizedValue = value;
-            for (Pattern pattern : XSS_PATTERNS) {
-                sanitizedValue = pattern.matcher(sanitizedValue).replaceAll("");
-            }
-            sanitizedValue = sanitizedValue
-                    .replaceAll("<", "&lt;")
-                    .replaceAll(">", "&gt;")
-                    .replaceAll("\"", "&quot;")
-                    .replaceAll("'", "&#x27;")
-                    .replaceAll("&", "&amp;")
-                    .replaceAll("/", "&#x2F;");
-
-            return sanitizedValue;
+            return sanitizedValues.computeIfAbsent(value, XssSanitizer::sanitize);
         }
     }
 } 
\ No newline at end of file
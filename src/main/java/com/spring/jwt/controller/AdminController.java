@@ -6,6 +6,7 @@ import com.spring.jwt.entity.Role;
 import com.spring.jwt.entity.User;
 import com.spring.jwt.repository.RoleRepository;
 import com.spring.jwt.repository.UserRepository;
+import com.spring.jwt.service.security.PrincipalCache;
 import com.spring.jwt.utils.BaseResponseDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,6 +31,7 @@ public class AdminController {
     private final RoleRepository roleRepository;
 //    private final ProductRepository productRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
 
     @PostMapping("/employees")
     public ResponseEntity<BaseResponseDTO> createEmployee(@RequestBody UserDTO userDTO) {
@@ -105,6 +107,7 @@ public class AdminController {
         }
 
         userRepository.save(user);
+        principalCache.evict(user.getEmail());
         return ResponseEntity.ok(new BaseResponseDTO("200", "Employee updated successfully", null));
     }
 
@@ -118,6 +121,7 @@ public class AdminController {
         user.setStatus(false);
 
         userRepository.save(user);
+        principalCache.evict(user.getEmail());
         return ResponseEntity.ok(new BaseResponseDTO("200", "Employee deactivated successfully", null));
     }
 
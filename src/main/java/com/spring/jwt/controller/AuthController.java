@@ -1,12 +1,13 @@
 package com.spring.jwt.controller;
 
 import com.spring.jwt.dto.LoginRequest;
-import com.spring.jwt.entity.User;
 import com.spring.jwt.exception.BaseException;
+import com.spring.jwt.exception.PasswordHashingUnavailableException;
 import com.spring.jwt.jwt.ActiveSessionService;
 import com.spring.jwt.jwt.JwtConfig;
 import com.spring.jwt.jwt.JwtService;
 import com.spring.jwt.repository.UserRepository;
+import com.spring.jwt.service.impl.AccountSecurityService;
 import com.spring.jwt.service.security.UserDetailsCustom;
 import com.spring.jwt.utils.BaseResponseDTO;
 import jakarta.servlet.http.Cookie;
@@ -14,6 +15,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -42,6 +44,7 @@ public class AuthController {
     private final JwtService jwtService;
     private final ActiveSessionService activeSessionService;
     private final UserRepository userRepository;
+    private final AccountSecurityService accountSecurityService;
 
     private static final String REFRESH_TOKEN_COOKIE_NAME = "refresh_token";
 
@@ -49,6 +52,8 @@ public class AuthController {
     public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest, HttpServletRequest request,
             HttpServletResponse response) {
         try {
+            accountSecurityService.checkAccountLock(loginRequest.getUsername());
+
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             loginRequest.getUsername(),
@@ -88,12 +93,20 @@ public class AuthController {
 
             return ResponseEntity.ok(responseData);
 
+        } catch (PasswordHashingUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(new BaseResponseDTO(String.valueOf(HttpStatus.SERVICE_UNAVAILABLE.value()),
+                            e.getMessage(), null));
         } catch (BadCredentialsException e) {
+            accountSecurityService.recordFailedAttempt(loginRequest.getUsername());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new BaseResponseDTO(String.valueOf(HttpStatus.UNAUTHORIZED.value()),
                             "Invalid username or password", null));
         } catch (BaseException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+            HttpStatus status = String.valueOf(HttpStatus.LOCKED.value()).equals(e.getCode())
+                    ? HttpStatus.LOCKED : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status)
                     .body(new BaseResponseDTO(e.getCode(), e.getMessage(), null));
         } catch (Exception e) {
             log.error("Login error", e);
@@ -105,14 +118,8 @@ public class AuthController {
 
     private void updateUserLoginStats(String email, String deviceFingerprint) {
         try {
-            User user = userRepository.findByEmail(email);
-            if (user != null) {
-                user.setLastLogin(LocalDateTime.now());
-                user.setDeviceFingerprint(deviceFingerprint);
-                user.setFailedLoginAttempts(0);
-                user.setAccountLocked(false);
-                user.setAccountLockedUntil(null);
-                userRepository.save(user);
+            if (userRepository.recordSuccessfulLogin(email, LocalDateTime.now(), deviceFingerprint) > 0) {
+                accountSecurityService.resetFailedAttempts(email);
             }
         } catch (Exception e) {
             log.error("Error updating user stats: {}", e.getMessage());
@@ -121,11 +128,9 @@ public class AuthController {
 
     private void registerResultingSession(String accessToken, String refreshToken, String username) {
         try {
-            String accessJti = jwtService.extractTokenId(accessToken);
-            String refreshJti = jwtService.extractTokenId(refreshToken);
-            activeSessionService.replaceActiveSession(username, accessJti, refreshJti,
-                    jwtService.extractClaims(accessToken).getExpiration().toInstant(),
-                    jwtService.extractClaims(refreshToken).getExpiration().toInstant());
+            activeSessionService.replaceActiveSession(username,
+                    jwtService.parseToken(accessToken),
+                    jwtService.parseToken(refreshToken));
         } catch (Exception e) {
             log.warn("Failed to register active session: {}", e.getMessage());
         }
@@ -0,0 +1,63 @@
+package com.spring.jwt.download;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * File bytes inside a JSON response. Serialized as the usual Base64 string, but the encoder
+ * reads the source stream straight into the generator's output buffer, so neither the raw
+ * bytes nor the encoded string is ever held in memory.
+ */
+@JsonSerialize(using = BinaryContent.Base64StreamSerializer.class)
+public final class BinaryContent {
+
+    private final DownloadContent.ContentOpener opener;
+    private final long length;
+
+    private BinaryContent(DownloadContent.ContentOpener opener, long length) {
+        this.opener = opener;
+        this.length = length;
+    }
+
+    /**
+     * @param length exact number of bytes the opened stream yields
+     */
+    public static BinaryContent of(DownloadContent.ContentOpener opener, long length) {
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Content too large to embed in JSON: " + length + " bytes");
+        }
+        return new BinaryContent(opener, length);
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public InputStream open() throws IOException {
+        return opener.open();
+    }
+
+    @Override
+    public String toString() {
+        return "BinaryContent[" + length + " bytes]";
+    }
+
+    public static final class Base64StreamSerializer extends StdSerializer<BinaryContent> {
+
+        public Base64StreamSerializer() {
+            super(BinaryContent.class);
+        }
+
+        @Override
+        public void serialize(BinaryContent value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            try (InputStream in = value.open()) {
+                gen.writeBinary(provider.getConfig().getBase64Variant(), in, (int) value.getLength());
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.spring.jwt.download;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * A file to be sent by {@link RangedDownloadWriter}: its SHA-256, which becomes the ETag, the
+ * headers to send, and exactly one source for the bytes. A file on disk is preferred, since
+ * it can be sent without copying through the heap.
+ */
+@Getter
+public final class DownloadContent {
+
+    private final String hash;
+    private final String contentType;
+    private final String fileName;
+    private final long length;
+    private final Path file;
+    private final byte[] data;
+    private final ContentOpener opener;
+
+    private DownloadContent(String hash, String contentType, String fileName, long length,
+                            Path file, byte[] data, ContentOpener opener) {
+        if (hash == null || hash.isEmpty()) {
+            throw new IllegalArgumentException("Download content needs a content hash");
+        }
+        this.hash = hash;
+        this.contentType = contentType;
+        this.fileName = fileName;
+        this.length = length;
+        this.file = file;
+        this.data = data;
+        this.opener = opener;
+    }
+
+    public static DownloadContent ofFile(Path file, long length, String hash, String contentType, String fileName) {
+        return new DownloadContent(hash, contentType, fileName, length, file, null, null);
+    }
+
+    public static DownloadContent ofBytes(byte[] data, String hash, String contentType, String fileName) {
+        return new DownloadContent(hash, contentType, fileName, data.length, null, data, null);
+    }
+
+    public static DownloadContent ofStream(ContentOpener opener, long length, String hash,
+                                           String contentType, String fileName) {
+        return new DownloadContent(hash, contentType, fileName, length, null, null, opener);
+    }
+
+    @FunctionalInterface
+    public interface ContentOpener {
+        InputStream open() throws IOException;
+    }
+}
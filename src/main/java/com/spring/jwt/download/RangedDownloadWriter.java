@@ -0,0 +1,233 @@
+package com.spring.jwt.download;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes file downloads directly to the servlet response with HTTP caching and range support.
+ *
+ * The ETag is the quoted content hash, so it is strong and identical for every copy of the same
+ * bytes; a matching If-None-Match gets a 304 without reading the content. A single byte range
+ * is answered with 206, an unsatisfiable one with 416; multi-range requests and a stale If-Range
+ * get the whole file. Files on disk are handed to Tomcat's sendfile when the connector offers
+ * it, and otherwise copied with FileChannel.transferTo, so they never pass through the heap.
+ */
+@Component
+@Slf4j
+public class RangedDownloadWriter {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Documents are private to their owner: caches may keep them only per user and must
+     * revalidate, which the ETag makes cheap
+     */
+    private static final String CACHE_CONTROL = "private, no-cache";
+    private static final String BYTES_UNIT = "bytes=";
+    private static final int COPY_BUFFER_SIZE = 16 * 1024;
+    private static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    private final long sendfileMinBytes;
+
+    public RangedDownloadWriter(@Value("${app.download.sendfile-min-bytes:49152}") long sendfileMinBytes) {
+        this.sendfileMinBytes = sendfileMinBytes;
+    }
+
+    /**
+     * Answers a conditional GET with 304 if the client already holds this content
+     * @return true if the response is complete
+     */
+    public boolean notModified(HttpServletRequest request, HttpServletResponse response, String hash) {
+        String etag = etagOf(hash);
+        if (!matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return false;
+        }
+        response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        return true;
+    }
+
+    public void write(HttpServletRequest request, HttpServletResponse response, DownloadContent content)
+            throws IOException {
+        if (notModified(request, response, content.getHash())) {
+            return;
+        }
+        String etag = etagOf(content.getHash());
+        long length = content.getLength();
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        if (content.getFileName() != null) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename(content.getFileName(), StandardCharsets.UTF_8)
+                    .build()
+                    .toString());
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && "GET".equals(request.getMethod())
+                && ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), etag)) {
+            ByteRange range = parseRange(rangeHeader, length);
+            if (range == UNSATISFIABLE) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setContentLength(0);
+                return;
+            }
+            if (range != null) {
+                start = range.start();
+                end = range.end();
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(content.getContentType());
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (content.getFile() != null) {
+            writeFile(request, response, content, start, count);
+        } else if (content.getData() != null) {
+            response.getOutputStream().write(content.getData(), (int) start, (int) count);
+        } else {
+            try (InputStream in = content.getOpener().open()) {
+                in.skipNBytes(start);
+                copy(in, response.getOutputStream(), count);
+            }
+        }
+    }
+
+    private void writeFile(HttpServletRequest request, HttpServletResponse response, DownloadContent content,
+                           long start, long count) throws IOException {
+        if (count >= sendfileMinBytes && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, content.getFile().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(content.getFile(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    throw new IOException("File " + content.getFile().getFileName() + " ended before the requested range");
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private static void copy(InputStream in, OutputStream out, long count) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(COPY_BUFFER_SIZE, count)];
+        long remaining = count;
+        while (remaining > 0) {
+            int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (read < 0) {
+                throw new IOException("Content ended before the requested range");
+            }
+            out.write(buffer, 0, read);
+            remaining -= read;
+        }
+    }
+
+    private static String etagOf(String hash) {
+        return "\"" + hash + "\"";
+    }
+
+    /**
+     * If-None-Match uses the weak comparison, so W/ prefixes are ignored
+     */
+    private static boolean matchesAny(String header, String etag) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If-Range needs a strong match; a date or an older tag means the range is ignored
+     */
+    private static boolean ifRangeMatches(String header, String etag) {
+        return header == null || header.trim().equals(etag);
+    }
+
+    /**
+     * @return the single range requested, {@link #UNSATISFIABLE}, or null to send the whole file
+     */
+    private static ByteRange parseRange(String header, long length) {
+        if (!header.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+            return null;
+        }
+        String spec = header.substring(BYTES_UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0 || spec.indexOf(',') >= 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || length == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, length - suffix), length - 1);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Long.parseLong(last);
+            if (start < 0 || end < start) {
+                return null;
+            }
+            if (start >= length) {
+                return UNSATISFIABLE;
+            }
+            return new ByteRange(start, Math.min(end, length - 1));
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed Range header: {}", header);
+            return null;
+        }
+    }
+
+    private record ByteRange(long start, long end) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.spring.jwt.download;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * Decides whether an endpoint that normally answers with JSON should send the raw file instead.
+ * Each representation gets the quality of the most specific Accept range that covers it; the
+ * file is sent when application/octet-stream scores higher, or equal but through a more
+ * specific range, as when it is listed next to a full wildcard. Without an Accept header, or when
+ * octet-stream is not mentioned, the answer is always JSON.
+ */
+public final class RawContentNegotiation {
+
+    private RawContentNegotiation() {
+    }
+
+    public static boolean prefersRaw(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || !accept.contains(MediaType.APPLICATION_OCTET_STREAM_VALUE)) {
+            return false;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        MediaType raw = mostSpecificMatch(accepted, MediaType.APPLICATION_OCTET_STREAM);
+        if (raw == null || raw.getQualityValue() == 0) {
+            return false;
+        }
+        MediaType json = mostSpecificMatch(accepted, MediaType.APPLICATION_JSON);
+        if (json == null || json.getQualityValue() < raw.getQualityValue()) {
+            return true;
+        }
+        return json.getQualityValue() == raw.getQualityValue() && specificity(raw) > specificity(json);
+    }
+
+    private static MediaType mostSpecificMatch(List<MediaType> accepted, MediaType target) {
+        MediaType best = null;
+        for (MediaType range : accepted) {
+            if (range.includes(target) && (best == null || specificity(range) > specificity(best))) {
+                best = range;
+            }
+        }
+        return best;
+    }
+
+    private static int specificity(MediaType range) {
+        if (range.isWildcardType()) {
+            return 0;
+        }
+        return range.isWildcardSubtype() ? 1 : 2;
+    }
+}
@@ -1,5 +1,6 @@
 package com.spring.jwt.dto;
 
+import com.spring.jwt.sanitize.NoSanitize;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -16,6 +17,7 @@ public class AdminRegistrationRequest {
     @NotBlank(message = "Email is required")
     @Email(message = "Please provide a valid email address")
     @Size(max = 100, message = "Email must not exceed 100 characters")
+    @NoSanitize
     private String email;
 
     @Schema(description = "Admin's mobile number", example = "1234567890")
@@ -29,10 +31,12 @@ public class AdminRegistrationRequest {
     @Size(min = 12, max = 128, message = "Admin password must be between 12 and 128 characters")
     @Pattern(regexp = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]{12,}$",
              message = "Admin password must contain at least one uppercase letter, one lowercase letter, one digit, and one special character")
+    @NoSanitize
     private String password;
 
     @Schema(description = "Password confirmation", example = "AdminSecurePass@123")
     @NotBlank(message = "Password confirmation is required")
+    @NoSanitize
     private String confirmPassword;
 
     @Schema(description = "Admin's first name", example = "Admin")
@@ -47,6 +51,7 @@ public class AdminRegistrationRequest {
 
     @Schema(description = "Admin registration secret key", example = "ADMIN_SECRET_KEY_2024")
     @NotBlank(message = "Admin secret key is required")
+    @NoSanitize
     private String adminSecretKey;
 
     @Schema(description = "Department or role description (optional)", example = "IT Administrator")
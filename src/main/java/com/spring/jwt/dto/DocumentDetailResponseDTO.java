@@ -1,6 +1,7 @@
 package com.spring.jwt.dto;
 
 import com.spring.jwt.Enums.DocumentType;
+import com.spring.jwt.download.BinaryContent;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,7 +20,12 @@ public class DocumentDetailResponseDTO {
     private String description;
     private Long fileSize;
     private String contentType;
-    private String fileData;
+
+    /**
+     * Serialized as a Base64 string, encoded while it is streamed from the blob store
+     */
+    private BinaryContent fileData;
+
     private LocalDateTime uploadedAt;
     private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.spring.jwt.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.spring.jwt.Enums.DocumentType;
+import com.spring.jwt.Enums.ProcessingJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DocumentJobResponseDTO {
+    private String jobId;
+    private ProcessingJobStatus status;
+    private DocumentType documentType;
+    private String fileName;
+    private Integer documentId;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
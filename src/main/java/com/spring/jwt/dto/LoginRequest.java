@@ -1,6 +1,7 @@
 package com.spring.jwt.dto;
 
 import com.fasterxml.jackson.annotation.JsonAlias;
+import com.spring.jwt.sanitize.NoSanitize;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
@@ -9,8 +10,10 @@ public class LoginRequest {
 
         @Schema(description = "Email of User", example = "example@example.com")
         @JsonAlias("email")
+        @NoSanitize
         private String username;
 
         @Schema(description = "Password to create an account", example = "Pass@1234")
+        @NoSanitize
         private String password;
 }
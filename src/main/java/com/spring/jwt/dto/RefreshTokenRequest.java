@@ -1,5 +1,6 @@
 package com.spring.jwt.dto;
 
+import com.spring.jwt.sanitize.NoSanitize;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -11,5 +12,6 @@ import lombok.NoArgsConstructor;
 public class RefreshTokenRequest {
     
     @NotBlank(message = "Refresh token cannot be blank")
+    @NoSanitize
     private String refreshToken;
 } 
\ No newline at end of file
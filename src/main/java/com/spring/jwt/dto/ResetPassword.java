@@ -1,5 +1,6 @@
 package com.spring.jwt.dto;
 
+import com.spring.jwt.sanitize.NoSanitize;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
@@ -13,6 +14,7 @@ public class ResetPassword {
     @Schema(
             description = "Token Used to Reset Password", example = "FMfcgzQZTMQRvrFrnvXhzrdmXQzShWXq"
     )
+    @NoSanitize
     private String token;
 
     @NotBlank(message = "Password is required")
@@ -22,11 +24,13 @@ public class ResetPassword {
     @Schema(
             description = "Password Entered for Resetting ", example = "Pass@1234"
     )
+    @NoSanitize
     private String password;
 
     @NotBlank(message = "Confirm password is required")
     @Schema(
             description = "Match it with Password Entered for Resetting ", example = "Pass@1234"
     )
+    @NoSanitize
     private String confirmPassword;
 }
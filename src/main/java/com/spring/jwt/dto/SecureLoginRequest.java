@@ -1,5 +1,6 @@
 package com.spring.jwt.dto;
 
+import com.spring.jwt.sanitize.NoSanitize;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -17,11 +18,13 @@ public class SecureLoginRequest {
     @Schema(description = "User's email address", example = "user@example.com")
     @NotBlank(message = "Email is required")
     @Email(message = "Please provide a valid email address")
+    @NoSanitize
     private String email;
 
     @Schema(description = "User's password", example = "SecurePass@123")
     @NotBlank(message = "Password is required")
     @Size(min = 8, max = 128, message = "Password must be between 8 and 128 characters")
+    @NoSanitize
     private String password;
 
     @Schema(description = "Device information for fingerprinting")
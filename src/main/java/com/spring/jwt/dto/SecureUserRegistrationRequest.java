@@ -1,5 +1,6 @@
 package com.spring.jwt.dto;
 
+import com.spring.jwt.sanitize.NoSanitize;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -16,6 +17,7 @@ public class SecureUserRegistrationRequest {
     @NotBlank(message = "Email is required")
     @Email(message = "Please provide a valid email address")
     @Size(max = 100, message = "Email must not exceed 100 characters")
+    @NoSanitize
     private String email;
 
     @Schema(description = "User's mobile number", example = "1234567890")
@@ -31,10 +33,12 @@ public class SecureUserRegistrationRequest {
             regexp = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*?&]).{8,}$",
             message = "Password must contain uppercase, lowercase, number & special character"
     )
+    @NoSanitize
     private String password;
 
     @Schema(description = "Password confirmation", example = "SecurePass@123")
     @NotBlank(message = "Confirm password is required")
+    @NoSanitize
     private String confirmPassword;
 
     @Schema(description = "User's first name", example = "John")
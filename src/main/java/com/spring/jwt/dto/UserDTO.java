@@ -2,6 +2,7 @@ package com.spring.jwt.dto;
 
 import com.spring.jwt.entity.Role;
 import com.spring.jwt.entity.User;
+import com.spring.jwt.sanitize.NoSanitize;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -19,12 +20,14 @@ public class UserDTO {
     private Long userId;
 
     @Schema(description = "Email of User", example = "example@example.com")
+    @NoSanitize
     private String email;
 
     @Schema(description = "Mobile Number", example = "9822222212")
     private Long mobileNumber;
 
     @Schema(description = "Password", example = "Pass@1234")
+    @NoSanitize
     private String password;
 
     private String firstName;
@@ -1,5 +1,6 @@
 package com.spring.jwt.dto;
 
+import com.spring.jwt.sanitize.NoSanitize;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Pattern;
@@ -15,6 +16,7 @@ public class UserUpdateRequest {
     @Schema(
             description = "Email of User", example = "example@example.com"
     )
+    @NoSanitize
     private String email;
 
     @Size(max = 255, message = "Address cannot exceed 255 characters")
@@ -0,0 +1,46 @@
+package com.spring.jwt.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Current access/refresh token pair per user, shared by all application nodes
+ */
+@Entity
+@Table(
+        name = "active_sessions",
+        indexes = {
+                @Index(name = "idx_active_sessions_change_version", columnList = "change_version"),
+                @Index(name = "idx_active_sessions_refresh_expiry", columnList = "refresh_expires_at")
+        }
+)
+@Data
+public class ActiveSession {
+
+    @Id
+    @Column(name = "username", length = 191)
+    private String username;
+
+    @Column(name = "access_token_id", length = 64)
+    private String accessTokenId;
+
+    @Column(name = "refresh_token_id", length = 64)
+    private String refreshTokenId;
+
+    @Column(name = "access_expires_at")
+    private Instant accessExpiresAt;
+
+    @Column(name = "refresh_expires_at")
+    private Instant refreshExpiresAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    /**
+     * Increases on every write; other nodes poll for rows above the last version they saw
+     */
+    @Column(name = "change_version", nullable = false)
+    private Long changeVersion;
+}
@@ -0,0 +1,38 @@
+package com.spring.jwt.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Reference count of one stored file, keyed by the SHA-256 of its content
+ */
+@Entity
+@Table(
+        name = "blob_references",
+        indexes = @Index(name = "idx_blob_references_unreferenced", columnList = "ref_count, updated_at")
+)
+@Data
+public class BlobReference {
+
+    /**
+     * Lowercase hex SHA-256 of the content
+     */
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    /**
+     * Rows pointing at the content; at zero the file is collected after a grace period
+     */
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    /**
+     * Epoch millis of the last reference change
+     */
+    @Column(name = "updated_at", nullable = false)
+    private long updatedAt;
+}
@@ -15,7 +15,9 @@ import java.time.LocalDateTime;
 @Table(name = "document",
         indexes = {
                 @Index(name = "idx_user_document_type", columnList = "user_id, document_type"),
-                @Index(name = "idx_user_id", columnList = "user_id")
+                @Index(name = "idx_user_id", columnList = "user_id"),
+                @Index(name = "idx_document_source_hash", columnList = "source_hash, document_type"),
+                @Index(name = "idx_document_content_hash", columnList = "content_hash")
         })
 @Data
 @Builder
@@ -43,9 +45,17 @@ public class Document {
     @Column(nullable = false, length = 100)
     private String contentType;
 
-    @Lob
-    @Column(columnDefinition = "MEDIUMBLOB", nullable = false)
-    private byte[] fileData;
+    /**
+     * SHA-256 of the stored (processed) content in the blob store
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    /**
+     * SHA-256 of the file as uploaded, used to reuse the processed content of identical uploads
+     */
+    @Column(name = "source_hash", length = 64)
+    private String sourceHash;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -0,0 +1,78 @@
+package com.spring.jwt.entity;
+
+import com.spring.jwt.Enums.DocumentType;
+import com.spring.jwt.Enums.ProcessingJobStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * An upload accepted for background processing. The spooled file lives only as long as the
+ * worker needs it; this row records where the job is and, once done, which document it produced.
+ */
+@Entity
+@Table(name = "document_processing_job",
+        indexes = {
+                @Index(name = "idx_processing_job_status_updated", columnList = "status, updated_at")
+        })
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DocumentProcessingJob {
+
+    @Id
+    @Column(length = 36)
+    private String jobId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Document whose file is being replaced, or the new document once the job is DONE
+     */
+    private Integer documentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private DocumentType documentType;
+
+    @Column(nullable = false, length = 255)
+    private String fileName;
+
+    @Column(nullable = false, length = 100)
+    private String contentType;
+
+    @Column(length = 500)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ProcessingJobStatus status;
+
+    @Column(length = 500)
+    private String errorMessage;
+
+    /**
+     * Instance whose pool holds the job; it refreshes heartbeatAt while the job is unfinished
+     */
+    @Column(name = "owner_instance", length = 36)
+    private String ownerInstance;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
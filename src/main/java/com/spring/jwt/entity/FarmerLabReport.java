@@ -27,5 +27,11 @@ public class FarmerLabReport {
     @Column(name = "pdf_url", columnDefinition = "LONGBLOB", nullable = false)
     private byte[] pdfUrl;
 
+    /**
+     * SHA-256 of pdfUrl, used as the download ETag without loading the PDF
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     private LocalDateTime uploadedAt = LocalDateTime.now();
 }
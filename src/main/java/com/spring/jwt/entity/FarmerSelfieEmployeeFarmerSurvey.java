@@ -14,6 +14,10 @@ import java.time.LocalDateTime;
                 @Index(
                         name = "idx_farmer_selfie_survey_id",
                         columnList = "survey_id"
+                ),
+                @Index(
+                        name = "idx_farmer_selfie_content_hash",
+                        columnList = "content_hash"
                 )
         },
         uniqueConstraints = {
@@ -34,6 +38,12 @@ public class FarmerSelfieEmployeeFarmerSurvey {
     @Column(columnDefinition = "LONGTEXT", nullable = false)
     private String imageUrl;
 
+    /**
+     * SHA-256 of the decoded image, the key of its thumbnails
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "survey_id", nullable = false)
     private EmployeeFarmerSurvey survey;
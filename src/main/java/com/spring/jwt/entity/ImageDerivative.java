@@ -0,0 +1,58 @@
+package com.spring.jwt.entity;
+
+import com.spring.jwt.Enums.ThumbnailSize;
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * A downscaled JPEG rendition of an uploaded image, keyed by the SHA-256 of the original.
+ * The rendition itself lives in the blob store and the row holds one reference to it; rows
+ * whose original no longer belongs to any document, product photo or selfie are collected.
+ */
+@Entity
+@Table(
+        name = "image_derivative",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_image_derivative_source_size",
+                columnNames = {"source_hash", "derivative_size"}
+        ),
+        indexes = @Index(name = "idx_image_derivative_created_at", columnList = "created_at")
+)
+@Data
+public class ImageDerivative {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long derivativeId;
+
+    /**
+     * Lowercase hex SHA-256 of the original image
+     */
+    @Column(name = "source_hash", length = 64, nullable = false)
+    private String sourceHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "derivative_size", length = 16, nullable = false)
+    private ThumbnailSize size;
+
+    /**
+     * Blob store hash of the rendition
+     */
+    @Column(name = "content_hash", length = 64, nullable = false)
+    private String contentHash;
+
+    @Column(name = "width", nullable = false)
+    private int width;
+
+    @Column(name = "height", nullable = false)
+    private int height;
+
+    @Column(name = "length", nullable = false)
+    private long length;
+
+    /**
+     * Epoch millis; young rows are left alone by collection while their owner commits
+     */
+    @Column(name = "created_at", nullable = false)
+    private long createdAt;
+}
@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "product_images",
         indexes = {
-                @Index(name = "idx_product_images_product_id", columnList = "product_id")
+                @Index(name = "idx_product_images_product_id", columnList = "product_id"),
+                @Index(name = "idx_product_images_content_hash", columnList = "content_hash")
         }
 )
 public class ProductImage {
@@ -25,6 +26,12 @@ public class ProductImage {
 
     private String imageUrl;
 
+    /**
+     * SHA-256 of the decoded image, the key of its thumbnails
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     private ImageType imageType;
 
     private LocalDateTime uploadedAt = LocalDateTime.now();
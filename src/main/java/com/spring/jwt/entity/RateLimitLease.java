@@ -0,0 +1,35 @@
+package com.spring.jwt.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Permits handed out for one limiter key in one window, shared by all application nodes
+ */
+@Entity
+@Table(
+        name = "rate_limit_leases",
+        indexes = @Index(name = "idx_rate_limit_leases_expires_at", columnList = "expires_at")
+)
+@Data
+public class RateLimitLease {
+
+    /**
+     * Limiter name, window number and key; long keys are hashed to fit the index
+     */
+    @Id
+    @Column(name = "lease_key", length = 191)
+    private String leaseKey;
+
+    /**
+     * Permits leased to nodes so far in this window
+     */
+    @Column(name = "granted", nullable = false)
+    private int granted;
+
+    /**
+     * Epoch millis after which the row is no longer needed
+     */
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+}
@@ -0,0 +1,22 @@
+package com.spring.jwt.exception;
+
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Thrown by the login filter when the client has used up its authentication attempts.
+ * Mapped to 429 with a Retry-After header. An AuthenticationException so the filter's
+ * failure handling answers it before any password is checked.
+ */
+public class AuthenticationRateLimitedException extends AuthenticationException {
+
+    private final long retryAfterSeconds;
+
+    public AuthenticationRateLimitedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,15 @@
+package com.spring.jwt.exception;
+
+/**
+ * Exception thrown when stored file content cannot be written, read or found
+ */
+public class BlobStoreException extends RuntimeException {
+
+    public BlobStoreException(String message) {
+        super(message);
+    }
+
+    public BlobStoreException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -5,6 +5,7 @@ import com.spring.jwt.config.DocumentProperties;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -12,6 +13,8 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartException;
 
+import java.time.LocalDateTime;
+
 /**
  * Specialized exception handler for document management APIs
  * 
@@ -113,5 +116,31 @@ public class DocumentExceptionHandler
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    /**
+     * Handle a full processing queue - the upload can be retried shortly
+     */
+    @ExceptionHandler(DocumentProcessingUnavailableException.class)
+    public ResponseEntity<ErrorResponseDTO> handleDocumentProcessingUnavailable
+    (
+            DocumentProcessingUnavailableException ex, HttpServletRequest request
+    )
+    {
+
+        log.warn("Document processing unavailable for request: {} {} - {}",
+                request.getMethod(), request.getRequestURI(), ex.getMessage());
+
+        ErrorResponseDTO error = ErrorResponseDTO.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .errorCode("SERVICE_BUSY")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .method(request.getMethod())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
 
-}
\ No newline at end of file
+}
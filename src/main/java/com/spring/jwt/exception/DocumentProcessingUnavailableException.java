@@ -0,0 +1,19 @@
+package com.spring.jwt.exception;
+
+/**
+ * Thrown when the document processing queue is full and an upload cannot be accepted.
+ * Mapped to 503 with a Retry-After header.
+ */
+public class DocumentProcessingUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public DocumentProcessingUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
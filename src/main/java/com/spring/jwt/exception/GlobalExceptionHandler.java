@@ -4,6 +4,7 @@ import com.spring.jwt.dto.ErrorResponseDTO;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -97,6 +98,32 @@ public class GlobalExceptionHandler {
                         .build());
     }
 
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<ErrorResponseDTO> handlePasswordHashingUnavailableException(
+            PasswordHashingUnavailableException ex, HttpServletRequest request) {
+        log.warn("Password hashing unavailable: {} - Path: {}", ex.getMessage(), request.getRequestURI());
+        ResponseEntity<ErrorResponseDTO> response = buildResponse(HttpStatus.SERVICE_UNAVAILABLE,
+                "SERVICE_BUSY", ex.getMessage(), request);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response.getBody());
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponseDTO> handleRateLimitExceededException(RateLimitExceededException ex,
+            HttpServletRequest request) {
+        log.warn("Rate limit exceeded: {} - Path: {}", ex.getMessage(), request.getRequestURI());
+        ResponseEntity<ErrorResponseDTO> response = buildResponse(HttpStatus.TOO_MANY_REQUESTS,
+                "RATE_LIMIT_EXCEEDED", ex.getMessage(), request);
+        String retryAfter = String.valueOf(ex.getRetryAfterSeconds());
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, retryAfter)
+                .header("RateLimit-Limit", String.valueOf(ex.getLimit()))
+                .header("RateLimit-Remaining", "0")
+                .header("RateLimit-Reset", retryAfter)
+                .body(response.getBody());
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponseDTO> handleIllegalArgumentException(IllegalArgumentException ex,
             HttpServletRequest request) {
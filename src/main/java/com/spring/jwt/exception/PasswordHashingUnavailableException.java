@@ -0,0 +1,23 @@
+package com.spring.jwt.exception;
+
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+
+/**
+ * Thrown when the password hashing pool is saturated and a hash or verification
+ * could not be scheduled in time. Mapped to 503 with a Retry-After header.
+ * Extends InternalAuthenticationServiceException so ProviderManager rethrows it
+ * immediately instead of trying the next provider.
+ */
+public class PasswordHashingUnavailableException extends InternalAuthenticationServiceException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,25 @@
+package com.spring.jwt.exception;
+
+/**
+ * Thrown when a keyed rate limiter rejects a request. Mapped to 429 with
+ * Retry-After and RateLimit-* headers.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final int limit;
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, int limit, long retryAfterSeconds) {
+        super(message);
+        this.limit = limit;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -6,43 +6,55 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @Slf4j
 public class ActiveSessionService {
 
-	private final Map<String, SessionInfo> usernameToSession = new ConcurrentHashMap<>();
+	private final SessionStore sessionStore;
+
+	public ActiveSessionService(SessionStore sessionStore) {
+		this.sessionStore = sessionStore;
+	}
 
 	public SessionInfo replaceActiveSession(String username, String newAccessTokenId, String newRefreshTokenId,
 			Instant accessExpiresAt, Instant refreshExpiresAt) {
 		if (username == null) {
 			return null;
 		}
-		SessionInfo previous = usernameToSession.put(username, new SessionInfo(newAccessTokenId, newRefreshTokenId, accessExpiresAt, refreshExpiresAt, Instant.now()));
+		SessionInfo previous = sessionStore.put(username, new SessionInfo(newAccessTokenId, newRefreshTokenId, accessExpiresAt, refreshExpiresAt, Instant.now()));
 		log.debug("Active session set for user: {} (access jti: {}, refresh jti: {})", username, shortId(newAccessTokenId), shortId(newRefreshTokenId));
 		return previous;
 	}
 
+	public SessionInfo replaceActiveSession(String username, ValidatedToken accessToken, ValidatedToken refreshToken) {
+		return replaceActiveSession(username, accessToken.getTokenId(), refreshToken.getTokenId(),
+				accessToken.getExpiresAt(), refreshToken.getExpiresAt());
+	}
+
+	/**
+	 * Check a parsed token against the active session, using the access or refresh id depending on its type
+	 */
+	public boolean isCurrentSession(ValidatedToken token) {
+		if (token.isRefreshToken()) {
+			return isCurrentRefreshToken(token.getSubject(), token.getTokenId());
+		}
+		return isCurrentAccessToken(token.getSubject(), token.getTokenId());
+	}
+
 	public boolean isCurrentAccessToken(String username, String tokenId) {
-		SessionInfo info = usernameToSession.get(username);
+		SessionInfo info = sessionStore.get(username);
 		return info != null && tokenId != null && tokenId.equals(info.getAccessTokenId());
 	}
 
 	public boolean isCurrentRefreshToken(String username, String tokenId) {
-		SessionInfo info = usernameToSession.get(username);
+		SessionInfo info = sessionStore.get(username);
 		return info != null && tokenId != null && tokenId.equals(info.getRefreshTokenId());
 	}
 
 	@Scheduled(fixedRate = 3600000)
 	public void cleanupExpiredSessions() {
-		Instant now = Instant.now();
-		usernameToSession.entrySet().removeIf(e -> {
-			SessionInfo s = e.getValue();
-			return (s.getRefreshExpiresAt() != null && s.getRefreshExpiresAt().isBefore(now))
-				|| (s.getAccessExpiresAt() != null && s.getAccessExpiresAt().isBefore(now));
-		});
+		sessionStore.removeExpired(Instant.now());
 	}
 
 	private String shortId(String id) {
@@ -57,6 +69,11 @@ public class ActiveSessionService {
 		private final Instant accessExpiresAt;
 		private final Instant refreshExpiresAt;
 		private final Instant updatedAt;
+
+		public boolean isExpired(Instant now) {
+			return (refreshExpiresAt != null && refreshExpiresAt.isBefore(now))
+				|| (accessExpiresAt != null && accessExpiresAt.isBefore(now));
+		}
 	}
 }
 
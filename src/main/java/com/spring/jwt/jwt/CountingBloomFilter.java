@@ -0,0 +1,116 @@
+package com.spring.jwt.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free counting Bloom filter with 4-bit counters packed sixteen to a long.
+ * Counters make removal possible so expired token ids stop occupying the filter.
+ * A counter that reaches 15 sticks there and is never decremented, which can only
+ * cause extra false positives, never false negatives.
+ */
+class CountingBloomFilter {
+
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long COUNTER_MAX = 0xFL;
+
+    private final AtomicLongArray counters;
+    private final int size;
+    private final int hashFunctions;
+
+    CountingBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        int n = Math.max(1, expectedInsertions);
+        double p = Math.min(Math.max(falsePositiveRate, 1e-9), 0.5);
+        long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        this.size = (int) Math.min(Integer.MAX_VALUE - COUNTERS_PER_WORD, Math.max(COUNTERS_PER_WORD, m));
+        this.hashFunctions = Math.max(1, (int) Math.round((double) size / n * Math.log(2)));
+        this.counters = new AtomicLongArray((size + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+    }
+
+    void add(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < hashFunctions; i++) {
+            update(index(hash, i), 1);
+        }
+    }
+
+    void remove(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < hashFunctions; i++) {
+            update(index(hash, i), -1);
+        }
+    }
+
+    boolean mightContain(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < hashFunctions; i++) {
+            int index = index(hash, i);
+            if (counter(counters.get(index / COUNTERS_PER_WORD), index) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Expected false positive probability for the given number of live entries
+     */
+    double expectedFalsePositiveRate(long entries) {
+        if (entries <= 0) {
+            return 0.0;
+        }
+        return Math.pow(1 - Math.exp(-(double) hashFunctions * entries / size), hashFunctions);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int hashFunctions() {
+        return hashFunctions;
+    }
+
+    private void update(int index, int delta) {
+        int word = index / COUNTERS_PER_WORD;
+        int shift = (index % COUNTERS_PER_WORD) * 4;
+        while (true) {
+            long current = counters.get(word);
+            long count = (current >>> shift) & COUNTER_MAX;
+            if (count == COUNTER_MAX || (delta < 0 && count == 0)) {
+                return;
+            }
+            long updated = delta > 0 ? current + (1L << shift) : current - (1L << shift);
+            if (counters.compareAndSet(word, current, updated)) {
+                return;
+            }
+        }
+    }
+
+    private static long counter(long word, int index) {
+        return (word >>> ((index % COUNTERS_PER_WORD) * 4)) & COUNTER_MAX;
+    }
+
+    private int index(long hash, int i) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int combined = h1 + i * h2;
+        return (combined & Integer.MAX_VALUE) % size;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with a murmur mix so both halves are usable
+     */
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
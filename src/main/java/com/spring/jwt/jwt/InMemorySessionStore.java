@@ -0,0 +1,30 @@
+package com.spring.jwt.jwt;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@ConditionalOnProperty(name = "app.security.session-store", havingValue = "memory", matchIfMissing = true)
+public class InMemorySessionStore implements SessionStore {
+
+	private final Map<String, ActiveSessionService.SessionInfo> usernameToSession = new ConcurrentHashMap<>();
+
+	@Override
+	public ActiveSessionService.SessionInfo put(String username, ActiveSessionService.SessionInfo session) {
+		return usernameToSession.put(username, session);
+	}
+
+	@Override
+	public ActiveSessionService.SessionInfo get(String username) {
+		return usernameToSession.get(username);
+	}
+
+	@Override
+	public void removeExpired(Instant now) {
+		usernameToSession.entrySet().removeIf(e -> e.getValue().isExpired(now));
+	}
+}
@@ -0,0 +1,157 @@
+package com.spring.jwt.jwt;
+
+import com.spring.jwt.entity.ActiveSession;
+import com.spring.jwt.repository.ActiveSessionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Database backed session store with a local near-cache.
+ * Writes go straight to the database and the cache; reads are served from the cache
+ * and fall back to the database on a miss. Sessions replaced on other nodes are picked
+ * up by polling for rows whose change version is above the highest one seen so far.
+ *
+ * The near-cache holds at most max-entries users and each entry for at most ttl-ms after it
+ * was loaded, so idle users age out; once full, further users are read from the database.
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.session-store", havingValue = "jdbc")
+@Slf4j
+public class JdbcSessionStore implements SessionStore {
+
+    private final ActiveSessionRepository activeSessionRepository;
+
+    private final Map<String, CachedSession> nearCache = new ConcurrentHashMap<>();
+
+    private final long clockSkewMillis;
+    private final int maxCachedSessions;
+    private final long cacheTtlMillis;
+
+    private volatile long lastSeenVersion;
+
+    public JdbcSessionStore(ActiveSessionRepository activeSessionRepository,
+            @Value("${app.security.session-store.clock-skew-ms:5000}") long clockSkewMillis,
+            @Value("${app.security.session-store.near-cache.max-entries:100000}") int maxCachedSessions,
+            @Value("${app.security.session-store.near-cache.ttl-ms:600000}") long cacheTtlMillis) {
+        this.activeSessionRepository = activeSessionRepository;
+        this.clockSkewMillis = clockSkewMillis;
+        this.maxCachedSessions = maxCachedSessions;
+        this.cacheTtlMillis = cacheTtlMillis;
+        this.lastSeenVersion = System.currentTimeMillis() - clockSkewMillis;
+    }
+
+    @Override
+    public ActiveSessionService.SessionInfo put(String username, ActiveSessionService.SessionInfo session) {
+        try {
+            return write(username, session);
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the row first; the retry updates it instead
+            log.debug("Concurrent session insert for user: {}, retrying", username);
+            return write(username, session);
+        }
+    }
+
+    @Override
+    public ActiveSessionService.SessionInfo get(String username) {
+        CachedSession cached = nearCache.get(username);
+        if (cached != null && !cached.isStale(System.currentTimeMillis(), cacheTtlMillis)) {
+            return cached.session();
+        }
+        return activeSessionRepository.findById(username)
+                .map(this::cache)
+                .orElse(null);
+    }
+
+    @Override
+    public void removeExpired(Instant now) {
+        long removed = activeSessionRepository.deleteByRefreshExpiresAtBeforeOrAccessExpiresAtBefore(now, now);
+        nearCache.entrySet().removeIf(e -> e.getValue().session().isExpired(now));
+        if (removed > 0) {
+            log.debug("Removed {} expired sessions from the session store", removed);
+        }
+    }
+
+    /**
+     * Pull sessions written by other nodes since the last poll
+     */
+    @Scheduled(fixedDelayString = "${app.security.session-store.poll-interval-ms:5000}")
+    public void pollChanges() {
+        // Versions come from each writer's clock, so look back far enough to cover skew between nodes
+        List<ActiveSession> changed = activeSessionRepository
+                .findByChangeVersionGreaterThanOrderByChangeVersionAsc(lastSeenVersion - clockSkewMillis);
+        long highest = lastSeenVersion;
+        for (ActiveSession row : changed) {
+            cache(row);
+            highest = Math.max(highest, row.getChangeVersion());
+        }
+        lastSeenVersion = highest;
+    }
+
+    /**
+     * Drop near-cache entries loaded longer than the TTL ago
+     */
+    @Scheduled(fixedRate = 60000)
+    public void evictStaleSessions() {
+        long now = System.currentTimeMillis();
+        nearCache.entrySet().removeIf(e -> e.getValue().isStale(now, cacheTtlMillis));
+    }
+
+    private ActiveSessionService.SessionInfo write(String username, ActiveSessionService.SessionInfo session) {
+        ActiveSession row = activeSessionRepository.findById(username).orElse(null);
+        ActiveSessionService.SessionInfo previous = row != null ? toSessionInfo(row) : null;
+        if (row == null) {
+            row = new ActiveSession();
+            row.setUsername(username);
+        }
+        long previousVersion = row.getChangeVersion() != null ? row.getChangeVersion() : 0L;
+        row.setAccessTokenId(session.getAccessTokenId());
+        row.setRefreshTokenId(session.getRefreshTokenId());
+        row.setAccessExpiresAt(session.getAccessExpiresAt());
+        row.setRefreshExpiresAt(session.getRefreshExpiresAt());
+        row.setUpdatedAt(session.getUpdatedAt());
+        row.setChangeVersion(Math.max(previousVersion + 1, System.currentTimeMillis()));
+
+        ActiveSession saved = activeSessionRepository.save(row);
+        CachedSession written = new CachedSession(session, saved.getChangeVersion(), System.currentTimeMillis());
+        if (nearCache.size() < maxCachedSessions) {
+            nearCache.put(username, written);
+        } else {
+            // Full: only refresh a user that is already cached, so it cannot serve the replaced session
+            nearCache.replace(username, written);
+        }
+        return previous;
+    }
+
+    private ActiveSessionService.SessionInfo cache(ActiveSession row) {
+        ActiveSessionService.SessionInfo session = toSessionInfo(row);
+        CachedSession incoming = new CachedSession(session, row.getChangeVersion(), System.currentTimeMillis());
+        if (nearCache.size() >= maxCachedSessions && !nearCache.containsKey(row.getUsername())) {
+            return session;
+        }
+        // Keep whichever copy is newer when a poll races a local write
+        CachedSession current = nearCache.merge(row.getUsername(), incoming,
+                (existing, candidate) -> candidate.version() >= existing.version() ? candidate : existing);
+        return current.session();
+    }
+
+    private ActiveSessionService.SessionInfo toSessionInfo(ActiveSession row) {
+        return new ActiveSessionService.SessionInfo(row.getAccessTokenId(), row.getRefreshTokenId(),
+                row.getAccessExpiresAt(), row.getRefreshExpiresAt(), row.getUpdatedAt());
+    }
+
+    private record CachedSession(ActiveSessionService.SessionInfo session, long version, long loadedAt) {
+
+        boolean isStale(long now, long ttlMillis) {
+            return now - loadedAt >= ttlMillis;
+        }
+    }
+}
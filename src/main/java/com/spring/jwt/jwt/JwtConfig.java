@@ -35,6 +35,21 @@ public class JwtConfig {
     @Value("${jwt.secret:3979244226452948404D6251655468576D5A7134743777217A25432A462D4A61}")
     private String secret;
 
+    @Value("${jwt.key-id:primary}")
+    private String keyId;
+
+    /**
+     * Keys still accepted for verification during rotation, as comma separated kid=secret pairs
+     */
+    @Value("${jwt.previous-keys:}")
+    private String previousKeys;
+
+    /**
+     * Key id, active or previous, that verifies tokens issued before kid stamping
+     */
+    @Value("${jwt.legacy-key-id:primary}")
+    private String legacyKeyId;
+
     @Value("${jwt.issuer:Ashutosh}")
     private String issuer;
 
@@ -44,6 +59,12 @@ public class JwtConfig {
     @Value("${jwt.device-fingerprinting-enabled:true}")
     private boolean deviceFingerprintingEnabled;
 
+    /**
+     * Build the Authentication from access token claims without loading the user
+     */
+    @Value("${jwt.claims-only-authentication:false}")
+    private boolean claimsOnlyAuthentication;
+
     @Value("${jwt.max-active-sessions:5}")
     private int maxActiveSessions;
 }
@@ -50,4 +50,26 @@ public interface JwtService {
      * @return true if the token is blacklisted
      */
     boolean isBlacklisted(String token);
+
+    /**
+     * Parse and verify the signature of a token once, without blacklist or session checks
+     * @param token The token to parse
+     * @return The parsed token, or a rejected token carrying the parse failure
+     */
+    ValidatedToken parseToken(String token);
+
+    /**
+     * Parse the token once and run the blacklist, device and active session checks on the result
+     * @param token The token to validate
+     * @param deviceFingerprint The fingerprint of the calling device, may be null
+     * @return The validated token with its verdict
+     */
+    ValidatedToken validateToken(String token, String deviceFingerprint);
+
+    /**
+     * Build the principal from access token claims when claims-only authentication is enabled
+     * @param validatedToken A token that passed validation
+     * @return The principal, or null when the user must be loaded from the database
+     */
+    UserDetailsCustom extractPrincipal(ValidatedToken validatedToken);
 }
@@ -0,0 +1,24 @@
+package com.spring.jwt.jwt;
+
+import java.time.Instant;
+
+/**
+ * Storage for the single active session of each user.
+ * Selected with app.security.session-store: "memory" (default) keeps sessions in
+ * this process, "jdbc" keeps them in the database so restarts and other nodes see them.
+ */
+public interface SessionStore {
+
+    /**
+     * Store the session for a user
+     * @return The session it replaced, or null
+     */
+    ActiveSessionService.SessionInfo put(String username, ActiveSessionService.SessionInfo session);
+
+    ActiveSessionService.SessionInfo get(String username);
+
+    /**
+     * Drop sessions whose access or refresh token expired before the given time
+     */
+    void removeExpired(Instant now);
+}
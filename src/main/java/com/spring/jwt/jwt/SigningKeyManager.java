@@ -0,0 +1,114 @@
+package com.spring.jwt.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.security.Key;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the HMAC keys used to sign and verify JWTs, derived once at startup.
+ * Tokens are stamped with a kid header and verified by a single prebuilt parser
+ * that picks the key by kid, so old and new keys overlap during rotation
+ * without trying each key in turn.
+ *
+ * Keys are rotated through configuration: set jwt.key-id and jwt.secret to the new key
+ * and list the old one in jwt.previous-keys until its tokens have expired. Tokens issued
+ * before kid stamping are verified with the key named by jwt.legacy-key-id.
+ */
+@Component
+@Slf4j
+public class SigningKeyManager {
+
+    private final JwtConfig jwtConfig;
+
+    private final Map<String, Key> verificationKeys = new ConcurrentHashMap<>();
+
+    private ActiveKey active;
+    private JwtParser parser;
+
+    public SigningKeyManager(JwtConfig jwtConfig) {
+        this.jwtConfig = jwtConfig;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (StringUtils.hasText(jwtConfig.getPreviousKeys())) {
+            for (String entry : jwtConfig.getPreviousKeys().split(",")) {
+                String[] parts = entry.trim().split("=", 2);
+                if (parts.length == 2 && StringUtils.hasText(parts[0]) && StringUtils.hasText(parts[1])) {
+                    verificationKeys.put(parts[0].trim(), deriveKey(parts[1].trim()));
+                } else if (StringUtils.hasText(entry)) {
+                    log.warn("Ignoring malformed entry in jwt.previous-keys");
+                }
+            }
+        }
+        activate(jwtConfig.getKeyId(), jwtConfig.getSecret());
+
+        this.parser = Jwts.parserBuilder()
+                .setAllowedClockSkewSeconds(jwtConfig.getAllowedClockSkewSeconds())
+                .setSigningKeyResolver(new KeyIdResolver())
+                .build();
+
+        log.info("JWT signing key '{}' active, {} key(s) accepted for verification",
+                active.keyId(), verificationKeys.size());
+    }
+
+    /**
+     * Thread-safe parser shared by all callers
+     */
+    public JwtParser getParser() {
+        return parser;
+    }
+
+    /**
+     * Key id and key used for signing, read together so the kid always names the signing key
+     */
+    public ActiveKey getActiveKey() {
+        return active;
+    }
+
+    public Key getSigningKey() {
+        return active.key();
+    }
+
+    private void activate(String keyId, String secret) {
+        Key key = deriveKey(secret);
+        verificationKeys.put(keyId, key);
+        this.active = new ActiveKey(keyId, key);
+    }
+
+    private Key deriveKey(String secret) {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+    }
+
+    private class KeyIdResolver extends SigningKeyResolverAdapter {
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            String keyId = header.getKeyId();
+            // Tokens issued before kid stamping were signed with the key in use back then
+            if (!StringUtils.hasText(keyId)) {
+                keyId = jwtConfig.getLegacyKeyId();
+            }
+            Key key = verificationKeys.get(keyId);
+            if (key == null) {
+                throw new SignatureException("Unknown signing key id: " + keyId);
+            }
+            return key;
+        }
+    }
+
+    public record ActiveKey(String keyId, Key key) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.spring.jwt.jwt;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel with one-second ticks.
+ * Each level has 64 slots and each slot of a level spans all 64 slots of the level
+ * below, so four levels cover about 194 days. Scheduling is O(1); on every tick only
+ * the entries due in that slot are touched, and entries in higher levels cascade
+ * down as their slot comes up. Delays beyond the wheel's range are parked in the
+ * last slot of the top level and rescheduled when it is reached.
+ */
+class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long RANGE = 1L << (SLOT_BITS * LEVELS);
+
+    private final List<List<ArrayDeque<Entry>>> levels = new ArrayList<>(LEVELS);
+    private final Consumer<String> onExpire;
+
+    private long currentTick;
+    private int size;
+
+    TimingWheel(long startEpochSecond, Consumer<String> onExpire) {
+        this.currentTick = startEpochSecond;
+        this.onExpire = onExpire;
+        for (int level = 0; level < LEVELS; level++) {
+            List<ArrayDeque<Entry>> slots = new ArrayList<>(SLOTS);
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots.add(new ArrayDeque<>());
+            }
+            levels.add(slots);
+        }
+    }
+
+    /**
+     * Schedule a key to expire at the given epoch second
+     * @return false if the time has already passed and nothing was scheduled
+     */
+    synchronized boolean schedule(String key, long expiryEpochSecond) {
+        if (expiryEpochSecond <= currentTick) {
+            return false;
+        }
+        insert(new Entry(key, expiryEpochSecond));
+        size++;
+        return true;
+    }
+
+    /**
+     * Advance the wheel to the given epoch second, expiring every entry that falls due
+     */
+    void advanceTo(long epochSecond) {
+        List<String> expired = new ArrayList<>();
+        synchronized (this) {
+            while (currentTick < epochSecond) {
+                currentTick++;
+                for (int level = LEVELS - 1; level > 0; level--) {
+                    if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                        cascade(level);
+                    }
+                }
+                ArrayDeque<Entry> due = levels.get(0).get((int) (currentTick & SLOT_MASK));
+                Entry entry;
+                while ((entry = due.poll()) != null) {
+                    if (entry.expiry <= currentTick) {
+                        expired.add(entry.key);
+                        size--;
+                    } else {
+                        insert(entry);
+                    }
+                }
+            }
+        }
+        expired.forEach(onExpire);
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private void cascade(int level) {
+        int slot = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        ArrayDeque<Entry> bucket = levels.get(level).get(slot);
+        Entry entry;
+        while ((entry = bucket.poll()) != null) {
+            insert(entry);
+        }
+    }
+
+    private void insert(Entry entry) {
+        long target = Math.min(entry.expiry, currentTick + RANGE - 1);
+        long delay = target - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delay >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((target >>> (SLOT_BITS * level)) & SLOT_MASK);
+        levels.get(level).get(slot).add(entry);
+    }
+
+    private record Entry(String key, long expiry) {
+    }
+}
@@ -1,7 +1,11 @@
 package com.spring.jwt.jwt;
 
 import com.spring.jwt.utils.SecurityAuditLogger;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import java.time.Instant;
@@ -9,11 +13,16 @@ import java.time.temporal.ChronoUnit;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Service to manage blacklisted tokens to prevent token reuse
  * This is a security feature used by major companies to prevent refresh token replay attacks
+ *
+ * Lookups go through a counting Bloom filter first, so the common case of a token that was
+ * never revoked is answered without touching the map. Entries leave the map and the filter
+ * through a timing wheel at their own expiry second instead of a periodic full scan.
  */
 @Service
 @Slf4j
@@ -22,11 +31,46 @@ public class TokenBlacklistService {
     @Autowired(required = false)
     private SecurityAuditLogger securityAuditLogger;
 
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
     private final Map<String, TokenInfo> blacklistedTokens = new ConcurrentHashMap<>();
 
+    private final CountingBloomFilter bloomFilter;
+
+    private final TimingWheel expiryWheel;
+
     private final AtomicInteger totalBlacklistedTokens = new AtomicInteger(0);
     private final AtomicInteger blacklistHits = new AtomicInteger(0);
-    
+    private final AtomicLong bloomPositives = new AtomicLong(0);
+    private final AtomicLong bloomFalsePositives = new AtomicLong(0);
+
+    public TokenBlacklistService(
+            @Value("${app.security.token-blacklist.expected-tokens:100000}") int expectedTokens,
+            @Value("${app.security.token-blacklist.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.bloomFilter = new CountingBloomFilter(expectedTokens, falsePositiveRate);
+        this.expiryWheel = new TimingWheel(Instant.now().getEpochSecond(), this::expire);
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        log.debug("Token blacklist bloom filter: {} counters, {} hash functions",
+                bloomFilter.size(), bloomFilter.hashFunctions());
+        if (meterRegistry == null) {
+            return;
+        }
+        Gauge.builder("token.blacklist.size", blacklistedTokens, Map::size)
+                .description("Revoked token ids currently held")
+                .register(meterRegistry);
+        Gauge.builder("token.blacklist.bloom.fpp.expected", this,
+                        service -> service.bloomFilter.expectedFalsePositiveRate(service.blacklistedTokens.size()))
+                .description("Expected Bloom filter false positive rate at the current size")
+                .register(meterRegistry);
+        Gauge.builder("token.blacklist.bloom.fpp.observed", this, TokenBlacklistService::observedFalsePositiveRate)
+                .description("Share of Bloom filter positives that were not in the blacklist")
+                .register(meterRegistry);
+    }
+
     /**
      * Add a token to the blacklist
      * @param tokenId The JWT ID (jti) to blacklist
@@ -38,7 +82,15 @@ public class TokenBlacklistService {
         log.debug("Blacklisting token: {}", tokenId);
         
         TokenInfo tokenInfo = new TokenInfo(expirationTime, username, reason, Instant.now());
-        blacklistedTokens.put(tokenId, tokenInfo);
+        blacklistedTokens.compute(tokenId, (id, previous) -> {
+            if (previous == null) {
+                bloomFilter.add(id);
+            }
+            return tokenInfo;
+        });
+        if (!expiryWheel.schedule(tokenId, expiryEpochSecond(expirationTime))) {
+            expire(tokenId);
+        }
         totalBlacklistedTokens.incrementAndGet();
 
         if (securityAuditLogger != null) {
@@ -61,42 +113,58 @@ public class TokenBlacklistService {
      * @return true if the token is blacklisted
      */
     public boolean isBlacklisted(String tokenId) {
-        boolean result = blacklistedTokens.containsKey(tokenId);
-        if (result) {
-            blacklistHits.incrementAndGet();
-            TokenInfo info = blacklistedTokens.get(tokenId);
+        if (tokenId == null || !bloomFilter.mightContain(tokenId)) {
+            return false;
+        }
+        bloomPositives.incrementAndGet();
 
-            if (info != null) {
-                info.incrementReuseAttempts();
+        TokenInfo info = blacklistedTokens.get(tokenId);
+        if (info == null) {
+            bloomFalsePositives.incrementAndGet();
+            return false;
+        }
 
-                log.warn("Attempted reuse of blacklisted token ID: {}, user: {}, blacklisted at: {}, reuse attempts: {}",
-                    maskTokenId(tokenId), info.getUsername(), info.getBlacklistedAt(), info.getReuseAttempts());
+        blacklistHits.incrementAndGet();
+        info.incrementReuseAttempts();
 
-                if (securityAuditLogger != null && info.getReuseAttempts() > 1) {
-                    securityAuditLogger.logTokenEvent("REUSE_ATTEMPT", info.getUsername(), maskTokenId(tokenId), false);
-                }
-            }
+        log.warn("Attempted reuse of blacklisted token ID: {}, user: {}, blacklisted at: {}, reuse attempts: {}",
+            maskTokenId(tokenId), info.getUsername(), info.getBlacklistedAt(), info.getReuseAttempts());
+
+        if (securityAuditLogger != null && info.getReuseAttempts() > 1) {
+            securityAuditLogger.logTokenEvent("REUSE_ATTEMPT", info.getUsername(), maskTokenId(tokenId), false);
         }
-        return result;
+        return true;
     }
     
     /**
-     * Clean up expired tokens from the blacklist every hour
+     * Advance the expiry wheel; only tokens expiring in the elapsed seconds are touched
      */
-    @Scheduled(fixedRate = 3600000)
+    @Scheduled(fixedRate = 1000)
     public void cleanupBlacklist() {
-        log.debug("Cleaning up token blacklist");
+        expiryWheel.advanceTo(Instant.now().getEpochSecond());
+    }
+
+    private void expire(String tokenId) {
         Instant now = Instant.now();
-        int initialSize = blacklistedTokens.size();
-        
-        blacklistedTokens.entrySet().removeIf(entry -> entry.getValue().getExpirationTime().isBefore(now));
-        
-        int removedCount = initialSize - blacklistedTokens.size();
-        if (removedCount > 0) {
-            log.info("Removed {} expired tokens from blacklist", removedCount);
+        TokenInfo info = blacklistedTokens.get(tokenId);
+        // Entries whose blacklisting was extended are rescheduled and skipped here
+        if (info != null && !info.getExpirationTime().isAfter(now)
+                && blacklistedTokens.remove(tokenId, info)) {
+            bloomFilter.remove(tokenId);
+            log.trace("Removed expired token from blacklist: {}", maskTokenId(tokenId));
         }
     }
-    
+
+    private long expiryEpochSecond(Instant expirationTime) {
+        // Round up so the entry never leaves before the token itself expires
+        return expirationTime.getEpochSecond() + (expirationTime.getNano() > 0 ? 1 : 0);
+    }
+
+    private double observedFalsePositiveRate() {
+        long positives = bloomPositives.get();
+        return positives == 0 ? 0.0 : (double) bloomFalsePositives.get() / positives;
+    }
+
     /**
      * Get statistics about the token blacklist
      */
@@ -117,6 +185,7 @@ public class TokenBlacklistService {
         if (info != null) {
             Instant newExpiration = info.getExpirationTime().plus(additionalHours, ChronoUnit.HOURS);
             info.setExpirationTime(newExpiration);
+            expiryWheel.schedule(tokenId, expiryEpochSecond(newExpiration));
             log.info("Extended blacklisting for token: {}, new expiration: {}", maskTokenId(tokenId), newExpiration);
         }
     }
@@ -136,7 +205,7 @@ public class TokenBlacklistService {
      * Information about a blacklisted token
      */
     private static class TokenInfo {
-        private Instant expirationTime;
+        private volatile Instant expirationTime;
         private final String username;
         private final String reason;
         private final Instant blacklistedAt;
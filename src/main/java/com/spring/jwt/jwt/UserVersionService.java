@@ -0,0 +1,63 @@
+package com.spring.jwt.jwt;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks users whose roles, password or lock state changed since their tokens were issued.
+ * Access tokens carry the user's version at issue time; a token with an older version
+ * than the one recorded here is rejected. Only bumped users are kept, and an entry is
+ * dropped once every token issued before the bump has expired.
+ *
+ * A version is the epoch millis of the bump (strictly increasing per user), not a counter,
+ * so it never goes backwards: after an entry is dropped, tokens issued since carry a version
+ * that any later bump still exceeds, and no token from before the bump is left to revive.
+ */
+@Service
+@Slf4j
+public class UserVersionService {
+
+    private final Map<String, VersionInfo> bumpedUsers = new ConcurrentHashMap<>();
+
+    private final JwtConfig jwtConfig;
+
+    public UserVersionService(JwtConfig jwtConfig) {
+        this.jwtConfig = jwtConfig;
+    }
+
+    public long currentVersion(String username) {
+        VersionInfo info = username != null ? bumpedUsers.get(username) : null;
+        return info != null ? info.version() : 0L;
+    }
+
+    public void bump(String username) {
+        if (username == null) {
+            return;
+        }
+        Instant now = Instant.now();
+        VersionInfo info = bumpedUsers.compute(username, (key, previous) -> new VersionInfo(
+                Math.max(now.toEpochMilli(), previous != null ? previous.version() + 1 : 1L), now));
+        log.debug("User version bumped for user: {} (version: {})", username, info.version());
+    }
+
+    public boolean isStale(String username, long tokenVersion) {
+        return tokenVersion < currentVersion(username);
+    }
+
+    /**
+     * Drops bumps older than the access token lifetime; every token they could reject has expired
+     */
+    @Scheduled(fixedRate = 3600000)
+    public void cleanupBumpedUsers() {
+        Instant cutoff = Instant.now().minusSeconds(jwtConfig.getExpiration());
+        bumpedUsers.entrySet().removeIf(e -> e.getValue().bumpedAt().isBefore(cutoff));
+    }
+
+    private record VersionInfo(long version, Instant bumpedAt) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.spring.jwt.jwt;
+
+import io.jsonwebtoken.Claims;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NonNull;
+
+import java.time.Instant;
+
+/**
+ * Result of parsing and verifying a JWT exactly once.
+ * The filter, session service and security utilities read claims and the
+ * validation verdict from this object instead of re-parsing the token.
+ */
+@Data
+@Builder(toBuilder = true)
+public class ValidatedToken {
+
+    @NonNull
+    private final Status status;
+
+    private final Claims claims;
+
+    private final String tokenId;
+
+    private final String subject;
+
+    private final Long userId;
+
+    private final String tokenType;
+
+    private final String deviceFingerprint;
+
+    private final Instant expiresAt;
+
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+
+    public boolean isAccessToken() {
+        return "access".equals(tokenType);
+    }
+
+    public boolean isRefreshToken() {
+        return "refresh".equals(tokenType);
+    }
+
+    public ValidatedToken withStatus(Status newStatus) {
+        return toBuilder().status(newStatus).build();
+    }
+
+    public static ValidatedToken rejected(Status status) {
+        return ValidatedToken.builder().status(status).build();
+    }
+
+    /**
+     * Validation verdict, with the message returned to the client on rejection
+     */
+    public enum Status {
+        VALID("Valid token"),
+        EXPIRED("Expired token"),
+        NOT_YET_VALID("Invalid or expired token"),
+        MALFORMED("Malformed or invalid token"),
+        REVOKED("Token is revoked"),
+        DEVICE_MISMATCH("Device mismatch. Please login again."),
+        SESSION_REPLACED("You are logged in on another device. Please logout from the other device to continue"),
+        USER_CHANGED("Your account was updated. Please login again.");
+
+        private final String message;
+
+        Status(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -6,11 +6,14 @@ import com.spring.jwt.jwt.JwtConfig;
 import com.spring.jwt.jwt.JwtService;
 import com.spring.jwt.jwt.TokenBlacklistService;
 import com.spring.jwt.jwt.ActiveSessionService;
+import com.spring.jwt.jwt.SigningKeyManager;
+import com.spring.jwt.jwt.UserVersionService;
+import com.spring.jwt.jwt.ValidatedToken;
 import com.spring.jwt.repository.UserRepository;
+import com.spring.jwt.service.security.PrincipalCache;
 import com.spring.jwt.service.security.UserDetailsCustom;
+import com.spring.jwt.utils.ClientContext;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
@@ -19,20 +22,13 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
-import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
 import javax.security.auth.login.AccountLockedException;
-import java.nio.charset.StandardCharsets;
 import java.security.Key;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -42,41 +38,40 @@ public class JwtServiceImpl implements JwtService {
     private static final String CLAIM_KEY_TOKEN_TYPE = "token_type";
     private static final String TOKEN_TYPE_ACCESS = "access";
     private static final String TOKEN_TYPE_REFRESH = "refresh";
+    private static final String CLAIM_KEY_USER_VERSION = "uv";
 
     private final UserRepository userRepository;
     private final JwtConfig jwtConfig;
-    private final UserDetailsService userDetailsService;
     private final TokenBlacklistService tokenBlacklistService;
     private final ActiveSessionService activeSessionService;
+    private final SigningKeyManager signingKeyManager;
+    private final UserVersionService userVersionService;
 
     @Autowired
-    public JwtServiceImpl(@Lazy UserDetailsService userDetailsService, 
-                          UserRepository userRepository, 
+    public JwtServiceImpl(UserRepository userRepository,
                           @Lazy JwtConfig jwtConfig,
                            TokenBlacklistService tokenBlacklistService,
-                           ActiveSessionService activeSessionService) {
-        this.userDetailsService = userDetailsService;
+                           ActiveSessionService activeSessionService,
+                           SigningKeyManager signingKeyManager,
+                           UserVersionService userVersionService) {
         this.userRepository = userRepository;
         this.jwtConfig = jwtConfig;
         this.tokenBlacklistService = tokenBlacklistService;
         this.activeSessionService = activeSessionService;
+        this.signingKeyManager = signingKeyManager;
+        this.userVersionService = userVersionService;
     }
 
     @Override
     public Claims extractClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setAllowedClockSkewSeconds(jwtConfig.getAllowedClockSkewSeconds())
-                .setSigningKey(getKey())
-                .build()
+        return signingKeyManager.getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
 
     @Override
-    public Key  getKey() {
-        byte[] key = Decoders.BASE64.decode(jwtConfig.getSecret());
-        return Keys.hmacShaKeyFor(key);
+    public Key getKey() {
+        return signingKeyManager.getSigningKey();
     }
 
     @Override
@@ -115,7 +110,10 @@ public class JwtServiceImpl implements JwtService {
                 userDetailsCustom.getUsername(), 
                 deviceFingerprint != null ? deviceFingerprint.substring(0, 8) + "..." : "none");
 
+        SigningKeyManager.ActiveKey signingKey = signingKeyManager.getActiveKey();
+
             JwtBuilder jwtBuilder = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.keyId())
                 .setSubject(userDetailsCustom.getUsername())
                 .setIssuer(jwtConfig.getIssuer())
                 .setAudience(jwtConfig.getAudience())
@@ -128,14 +126,16 @@ public class JwtServiceImpl implements JwtService {
         if (userDetailsCustom.getUserProfileId() != null) {
             jwtBuilder.claim("userProfileId", userDetailsCustom.getUserProfileId());
         }
-        
 
-        
+        if (jwtConfig.isClaimsOnlyAuthentication()) {
+            jwtBuilder.claim(CLAIM_KEY_USER_VERSION, userVersionService.currentVersion(userDetailsCustom.getUsername()));
+        }
+
         jwtBuilder.claim(CLAIM_KEY_TOKEN_TYPE, TOKEN_TYPE_ACCESS)
                 .setIssuedAt(Date.from(now))
                 .setNotBefore(Date.from(notBefore))
                 .setExpiration(Date.from(now.plusSeconds(jwtConfig.getExpiration())))
-                .signWith(getKey(), SignatureAlgorithm.HS256);
+                .signWith(signingKey.key(), SignatureAlgorithm.HS256);
 
         if (jwtConfig.isDeviceFingerprintingEnabled() && StringUtils.hasText(deviceFingerprint)) {
             jwtBuilder.claim(CLAIM_KEY_DEVICE_FINGERPRINT, deviceFingerprint);
@@ -157,7 +157,10 @@ public class JwtServiceImpl implements JwtService {
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList());
 
+        SigningKeyManager.ActiveKey signingKey = signingKeyManager.getActiveKey();
+
             JwtBuilder jwtBuilder = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.keyId())
                 .setSubject(userDetailsCustom.getUsername())
                 .setIssuer(jwtConfig.getIssuer())
                 .setId(UUID.randomUUID().toString())
@@ -174,7 +177,7 @@ public class JwtServiceImpl implements JwtService {
                 .setIssuedAt(Date.from(now))
                 .setNotBefore(Date.from(notBefore))
                 .setExpiration(Date.from(now.plusSeconds(jwtConfig.getRefreshExpiration())))
-                .signWith(getKey(), SignatureAlgorithm.HS256);
+                .signWith(signingKey.key(), SignatureAlgorithm.HS256);
 
         if (jwtConfig.isDeviceFingerprintingEnabled() && StringUtils.hasText(deviceFingerprint)) {
             jwtBuilder.claim(CLAIM_KEY_DEVICE_FINGERPRINT, deviceFingerprint);
@@ -212,33 +215,8 @@ public class JwtServiceImpl implements JwtService {
         if (request == null) {
             return null;
         }
-        
-        try {
-            String ip = request.getHeader("X-Forwarded-For");
-            if (ip != null && ip.contains(",")) {
-                ip = ip.split(",")[0].trim();
-            }
-            if (ip == null || ip.isBlank()) {
-                ip = request.getRemoteAddr();
-            }
-            String ua = request.getHeader("User-Agent");
-            String lang = request.getHeader("Accept-Language");
-            String enc = request.getHeader("Accept-Encoding");
-
-            StringBuilder deviceInfo = new StringBuilder();
-            deviceInfo.append(ua).append("|");
-            deviceInfo.append(ip).append("|");
-            deviceInfo.append(lang).append("|");
-            deviceInfo.append(enc);
-
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(deviceInfo.toString().getBytes(StandardCharsets.UTF_8));
-
-            return Base64.getEncoder().encodeToString(hash);
-        } catch (NoSuchAlgorithmException e) {
-            log.error("Error generating device fingerprint", e);
-            return null;
-        }
+
+        return ClientContext.from(request).getDeviceFingerprint();
     }
     
     @Override
@@ -264,94 +242,123 @@ public class JwtServiceImpl implements JwtService {
     
     @Override
     public boolean isValidToken(String token, String deviceFingerprint) {
+        ValidatedToken validated = validateToken(token, deviceFingerprint);
+        if (!validated.isValid()) {
+            log.debug("Token validation failed: {}", validated.getStatus());
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public ValidatedToken parseToken(String token) {
+        if (!StringUtils.hasText(token)) {
+            return ValidatedToken.rejected(ValidatedToken.Status.MALFORMED);
+        }
         try {
-            if (isBlacklisted(token)) {
-                log.warn("Token is blacklisted");
-                return false;
-            }
-            
-            final String username = extractUsername(token);
-            
-            if (StringUtils.isEmpty(username)) {
-                log.debug("Token validation failed: empty username");
-                return false;
-            }
-    
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            
-            if (ObjectUtils.isEmpty(userDetails)) {
-                log.debug("Token validation failed: user not found");
-                return false;
-            }
+            return toValidatedToken(extractClaims(token), ValidatedToken.Status.VALID);
+        } catch (ExpiredJwtException e) {
+            return toValidatedToken(e.getClaims(), ValidatedToken.Status.EXPIRED);
+        } catch (PrematureJwtException e) {
+            log.debug("Token not yet valid. Not before: {}", e.getClaims().getNotBefore());
+            return toValidatedToken(e.getClaims(), ValidatedToken.Status.NOT_YET_VALID);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token parsing failed: {}", e.getMessage());
+            return ValidatedToken.rejected(ValidatedToken.Status.MALFORMED);
+        }
+    }
 
-            Claims claims = extractAllClaims(token);
+    @Override
+    public ValidatedToken validateToken(String token, String deviceFingerprint) {
+        ValidatedToken parsed = parseToken(token);
+        if (!parsed.isValid()) {
+            return parsed;
+        }
 
-            Date nbf = claims.getNotBefore();
-            if (nbf != null && nbf.after(new Date())) {
-                log.debug("Token not yet valid. Current time: {}, Not before: {}", 
-                        new Date(), nbf);
-                return false;
-            }
-            if (jwtConfig.isDeviceFingerprintingEnabled()) {
-                String tokenDeviceFingerprint = claims.get(CLAIM_KEY_DEVICE_FINGERPRINT, String.class);
-                // If request supplied a fingerprint, enforce it matches the token's fingerprint
-                if (StringUtils.hasText(deviceFingerprint) && StringUtils.hasText(tokenDeviceFingerprint)
-                        && !tokenDeviceFingerprint.equals(deviceFingerprint)) {
-                    log.warn("Device fingerprint mismatch: token={}, request={}",
-                            tokenDeviceFingerprint.substring(0, 8) + "...",
-                            deviceFingerprint.substring(0, 8) + "...");
-                    return false;
-                }
-
-                // Enforce single active session: token fingerprint must match the one stored for the user
-//                try {
-//                    var user = userRepository.findByEmail(username);
-//                    if (user != null && StringUtils.hasText(user.getDeviceFingerprint())
-//                            && StringUtils.hasText(tokenDeviceFingerprint)
-//                            && !user.getDeviceFingerprint().equals(tokenDeviceFingerprint)) {
-//                        log.warn("Token fingerprint is no longer current for user: {}", username);
-//                        return false;
-//                    }
-//                } catch (Exception e) {
-//                    log.warn("Could not verify user's current device fingerprint: {}", e.getMessage());
-//                }
-            }
-            
-            // Enforce single active session: token must be the current active token for this user
-            try {
-                String tokenId = claims.getId();
-                if (StringUtils.hasText(tokenId) && !activeSessionService.isCurrentAccessToken(username, tokenId)) {
-                    log.warn("Access token is not current for user: {}", username);
-                    return false;
-                }
-            } catch (Exception e) {
-                log.warn("Could not verify active session: {}", e.getMessage());
+        if (!StringUtils.hasText(parsed.getSubject())) {
+            log.debug("Token validation failed: empty username");
+            return parsed.withStatus(ValidatedToken.Status.MALFORMED);
+        }
+
+        if (parsed.getTokenId() != null && tokenBlacklistService.isBlacklisted(parsed.getTokenId())) {
+            log.warn("Token is blacklisted");
+            return parsed.withStatus(ValidatedToken.Status.REVOKED);
+        }
+
+        if (jwtConfig.isDeviceFingerprintingEnabled()) {
+            String tokenDeviceFingerprint = parsed.getDeviceFingerprint();
+            // If request supplied a fingerprint, enforce it matches the token's fingerprint
+            if (StringUtils.hasText(deviceFingerprint) && StringUtils.hasText(tokenDeviceFingerprint)
+                    && !tokenDeviceFingerprint.equals(deviceFingerprint)) {
+                log.warn("Device fingerprint mismatch: token={}, request={}",
+                        tokenDeviceFingerprint.substring(0, 8) + "...",
+                        deviceFingerprint.substring(0, 8) + "...");
+                return parsed.withStatus(ValidatedToken.Status.DEVICE_MISMATCH);
             }
+        }
 
-            log.debug("Token validation successful for user: {}", username);
-            return true;
-        } catch (Exception e) {
-            log.debug("Token validation failed with exception: {}", e.getMessage());
-            return false;
+        Number userVersion = parsed.getClaims().get(CLAIM_KEY_USER_VERSION, Number.class);
+        if (userVersion != null && userVersionService.isStale(parsed.getSubject(), userVersion.longValue())) {
+            log.warn("Token was issued before the account of user {} changed", parsed.getSubject());
+            return parsed.withStatus(ValidatedToken.Status.USER_CHANGED);
+        }
+
+        // Enforce single active session: token must be the current token of its type for this user
+        if (StringUtils.hasText(parsed.getTokenId()) && !activeSessionService.isCurrentSession(parsed)) {
+            log.warn("Token is not current for user: {}", parsed.getSubject());
+            return parsed.withStatus(ValidatedToken.Status.SESSION_REPLACED);
         }
+
+        log.debug("Token validation successful for user: {}", parsed.getSubject());
+        return parsed;
     }
 
-    private String extractUsername(String token){
-        return extractClaims(token, Claims::getSubject);
+    @Override
+    public UserDetailsCustom extractPrincipal(ValidatedToken validatedToken) {
+        if (!jwtConfig.isClaimsOnlyAuthentication() || !validatedToken.isValid() || !validatedToken.isAccessToken()) {
+            return null;
+        }
+        Claims claims = validatedToken.getClaims();
+        List<?> authorities = claims.get("authorities", List.class);
+        if (authorities == null || validatedToken.getUserId() == null
+                || !claims.containsKey(CLAIM_KEY_USER_VERSION)) {
+            return null;
+        }
+
+        List<GrantedAuthority> grantedAuthorities = authorities.stream()
+                .map(authority -> PrincipalCache.internAuthority(String.valueOf(authority)))
+                .collect(Collectors.toList());
+        Number userProfileId = claims.get("userProfileId", Number.class);
+
+        return new UserDetailsCustom(
+                validatedToken.getSubject(),
+                null,
+                claims.get("firstname", String.class),
+                validatedToken.getUserId(),
+                userProfileId != null ? userProfileId.intValue() : null,
+                grantedAuthorities);
     }
 
-    private <T> T extractClaims(String token, Function<Claims, T> claimsTFunction){
-        final Claims claims = extractAllClaims(token);
-        return claimsTFunction.apply(claims);
+    private ValidatedToken toValidatedToken(Claims claims, ValidatedToken.Status status) {
+        Number userId = claims.get("userId", Number.class);
+        Date expiration = claims.getExpiration();
+        return ValidatedToken.builder()
+                .status(status)
+                .claims(claims)
+                .tokenId(claims.getId())
+                .subject(claims.getSubject())
+                .userId(userId != null ? userId.longValue() : null)
+                .tokenType(claims.get(CLAIM_KEY_TOKEN_TYPE, String.class))
+                .deviceFingerprint(claims.get(CLAIM_KEY_DEVICE_FINGERPRINT, String.class))
+                .expiresAt(expiration != null ? expiration.toInstant() : null)
+                .build();
     }
 
     private Claims extractAllClaims(String token){
         Claims claims;
 
         try {
-            claims = Jwts.parserBuilder()
-                    .setSigningKey(getKey())
-                    .build()
+            claims = signingKeyManager.getParser()
                     .parseClaimsJws(token)
                     .getBody();
         }catch (ExpiredJwtException e){
@@ -1,19 +1,25 @@
 package com.spring.jwt.mapper;
 
+import com.spring.jwt.Document.DocumentRepository;
+import com.spring.jwt.blob.BlobStore;
+import com.spring.jwt.download.BinaryContent;
 import com.spring.jwt.dto.DocumentDetailResponseDTO;
 import com.spring.jwt.dto.DocumentResponseDTO;
 import com.spring.jwt.dto.PaginatedDocumentResponseDTO;
 import com.spring.jwt.entity.Document;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Component
+@RequiredArgsConstructor
 public class DocumentResponseMapper {
 
+    private final BlobStore blobStore;
+
     /**
      * Convert Document entity to DocumentResponseDTO (without file data)
      * 
@@ -34,15 +40,35 @@ public class DocumentResponseMapper {
     }
 
     /**
-     * Convert Document entity to DocumentDetailResponseDTO (with file data)
+     * Convert a document summary row to DocumentResponseDTO
+     *
+     * @return Optional containing the DTO, or empty if summary is null
+     */
+    public Optional<DocumentResponseDTO> toResponseDTO(DocumentRepository.DocumentSummary summary) {
+        return Optional.ofNullable(summary)
+                .map(doc -> DocumentResponseDTO.builder()
+                        .documentId(doc.getDocumentId())
+                        .documentType(doc.getDocumentType())
+                        .fileName(doc.getFileName())
+                        .description(doc.getDescription())
+                        .fileSize(doc.getFileSize())
+                        .contentType(doc.getContentType())
+                        .uploadedAt(doc.getUploadedAt())
+                        .updatedAt(doc.getUpdatedAt())
+                        .build());
+    }
+
+    /**
+     * Convert Document entity to DocumentDetailResponseDTO (with file data, streamed on serialization)
      * 
      * @return Optional containing the detail DTO, or empty if document is null
      */
     public Optional<DocumentDetailResponseDTO> toDetailResponseDTO(Document document) {
         return Optional.ofNullable(document)
                 .map(doc -> {
-                    String base64FileData = doc.getFileData() != null
-                            ? Base64.getEncoder().encodeToString(doc.getFileData())
+                    String hash = doc.getContentHash();
+                    BinaryContent fileData = hash != null
+                            ? BinaryContent.of(() -> blobStore.open(hash), blobStore.size(hash))
                             : null;
 
                     return DocumentDetailResponseDTO.builder()
@@ -52,7 +78,7 @@ public class DocumentResponseMapper {
                             .description(doc.getDescription())
                             .fileSize(doc.getFileSize())
                             .contentType(doc.getContentType())
-                            .fileData(base64FileData)
+                            .fileData(fileData)
                             .uploadedAt(doc.getUploadedAt())
                             .updatedAt(doc.getUpdatedAt())
                             .build();
@@ -60,10 +86,10 @@ public class DocumentResponseMapper {
     }
 
     /**
-     * Convert list of Document entities to list of DocumentResponseDTOs
+     * Convert list of document summaries to list of DocumentResponseDTOs
      * Uses streams and flatMap to filter out null documents
      */
-    public List<DocumentResponseDTO> toResponseDTOList(List<Document> documents) {
+    public List<DocumentResponseDTO> toResponseDTOList(List<DocumentRepository.DocumentSummary> documents) {
         return Optional.ofNullable(documents)
                 .map(docs -> docs.stream()
                         .map(this::toResponseDTO)
@@ -77,11 +103,11 @@ public class DocumentResponseMapper {
      * Centralizes pagination metadata mapping following Single Responsibility
      * Principle
      * 
-     * @param documentPage Spring Data Page containing documents
+     * @param documentPage Spring Data Page containing document summaries
      * @return Paginated response DTO with all pagination metadata
      */
     public PaginatedDocumentResponseDTO toPaginatedResponseDTO(
-            org.springframework.data.domain.Page<Document> documentPage) {
+            org.springframework.data.domain.Page<DocumentRepository.DocumentSummary> documentPage) {
         List<DocumentResponseDTO> documents = toResponseDTOList(documentPage.getContent());
 
         return PaginatedDocumentResponseDTO.builder()
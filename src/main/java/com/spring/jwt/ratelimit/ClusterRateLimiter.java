@@ -0,0 +1,352 @@
+package com.spring.jwt.ratelimit;
+
+import com.spring.jwt.utils.ClientContext;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-window limiter whose budget is shared by every node through {@link RateLimitLeaseStore}.
+ *
+ * A node leases permits for a key in batches and spends them from a local atomic counter, so
+ * most requests never leave the JVM. Batches are only ever leased on a bounded background
+ * pool, never on the request thread: when a key's local permits run low the next batch is
+ * requested. A key that is cold or ran dry before its renewal landed may borrow up to one
+ * batch, counted by the per-node fallback limiter; the borrowed permits are added to the next
+ * lease request, so the shared row is charged for them and they are deducted from what the
+ * node receives. The cluster total can therefore only overshoot the budget by what nodes
+ * borrowed while the last permits of a window were being leased. Permits still held locally
+ * when the window rolls over are discarded.
+ *
+ * If the store is unreachable, requests are counted by the per-node sliding-window limiter
+ * until a lease succeeds again, so an outage degrades to local limits rather than failing open.
+ */
+@Slf4j
+class ClusterRateLimiter implements KeyedRateLimiter {
+
+    private static final int MAX_LEASE_KEY_LENGTH = 191;
+
+    private final String name;
+    private final int limit;
+    private final long windowMillis;
+    private final int batchSize;
+    private final int maxTrackedKeys;
+    private final RateLimitLeaseStore store;
+    private final Executor renewalExecutor;
+    private final SlidingWindowRateLimiter fallback;
+    // Local leases count windows from here, so 1-second windows still fit an int
+    private final long baseWindow;
+
+    private volatile boolean storeAvailable = true;
+
+    private final Map<String, LocalLease> leases = new ConcurrentHashMap<>();
+
+    private final LongAdder leaseCalls = new LongAdder();
+    private final LongAdder leaseFailures = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    ClusterRateLimiter(String name, int limit, long windowMillis, int batchSize, int maxTrackedKeys,
+                       RateLimitLeaseStore store, Executor renewalExecutor) {
+        this.name = name;
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.store = store;
+        this.renewalExecutor = renewalExecutor;
+        this.fallback = new SlidingWindowRateLimiter(limit, windowMillis, maxTrackedKeys);
+        this.baseWindow = System.currentTimeMillis() / windowMillis - 1;
+    }
+
+    @Override
+    public int tryAcquire(CharSequence key) {
+        return tryAcquire(key, 1, limit);
+    }
+
+    @Override
+    public int tryAcquire(CharSequence key, int permits, int budget) {
+        long window = System.currentTimeMillis() / windowMillis;
+        String leaseId = key.toString();
+        LocalLease lease = leases.get(leaseId);
+        if (lease == null) {
+            if (leases.size() >= maxTrackedKeys) {
+                // Over capacity: count locally rather than grow without bound
+                return fallback.tryAcquire(key, permits, budget);
+            }
+            lease = leases.computeIfAbsent(leaseId, k -> new LocalLease());
+        }
+
+        int local = localWindow(window);
+        int remaining = lease.take(local, permits);
+        if (remaining < 0) {
+            if (lease.isExhausted(local)) {
+                rejections.increment();
+                return REJECTED;
+            }
+            int batch = Math.max(permits, batchFor(budget));
+            renewInBackground(leaseId, lease, window, batch, budget);
+            if (!storeAvailable) {
+                return fallback.tryAcquire(key, permits, budget);
+            }
+            // Cold or drained key: borrow until the lease lands, charged to that lease
+            if (!lease.borrow(local, permits, batch)) {
+                rejections.increment();
+                return REJECTED;
+            }
+            int result = fallback.tryAcquire(key, permits, budget);
+            if (result == REJECTED) {
+                lease.repay(local, permits);
+            }
+            return result;
+        }
+        if (remaining <= lowWatermark(budget)) {
+            renewInBackground(leaseId, lease, window, batchFor(budget), budget);
+        }
+        return remaining;
+    }
+
+    @Override
+    public long millisUntilReset() {
+        return windowMillis - (System.currentTimeMillis() % windowMillis);
+    }
+
+    /**
+     * A key whose shared budget is spent waits for the window to roll over; any other
+     * rejection came from the fallback, which knows when its permits free up
+     */
+    @Override
+    public long millisUntilAvailable(CharSequence key, int permits, int budget) {
+        long now = System.currentTimeMillis();
+        LocalLease lease = leases.get(key.toString());
+        if (lease != null && lease.isExhausted(localWindow(now / windowMillis))) {
+            return windowMillis - (now % windowMillis);
+        }
+        return fallback.millisUntilAvailable(key, permits, budget);
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    SlidingWindowRateLimiter getFallback() {
+        return fallback;
+    }
+
+    int trackedKeys() {
+        return leases.size();
+    }
+
+    long leaseCalls() {
+        return leaseCalls.sum();
+    }
+
+    long leaseFailures() {
+        return leaseFailures.sum();
+    }
+
+    long rejections() {
+        return rejections.sum();
+    }
+
+    /**
+     * Drop local leases from windows that have already rolled over
+     */
+    void evictStale(long now) {
+        int window = localWindow(now / windowMillis);
+        leases.entrySet().removeIf(e -> e.getValue().isStale(window));
+    }
+
+    /**
+     * At most one lease per key is in flight; once the pool's queue is full, keys keep counting
+     * locally instead of queueing more work for the store
+     */
+    private void renewInBackground(String leaseId, LocalLease lease, long window, int requested, int budget) {
+        if (lease.isExhausted(localWindow(window)) || !lease.renewing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            renewalExecutor.execute(() -> {
+                try {
+                    lease(leaseId, lease, window, requested, budget);
+                } catch (RuntimeException e) {
+                    leaseFailed(e);
+                } finally {
+                    lease.renewing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            lease.renewing.set(false);
+        }
+    }
+
+    private void lease(String leaseId, LocalLease lease, long window, int requested, int budget) {
+        leaseCalls.increment();
+        int local = localWindow(window);
+        int borrowed = lease.takeBorrowed(local);
+        int granted;
+        try {
+            granted = store.lease(leaseKey(leaseId, window), requested + borrowed, budget, (window + 2) * windowMillis);
+        } catch (RuntimeException e) {
+            lease.repay(local, -borrowed);
+            throw e;
+        }
+        storeAvailable = true;
+        if (granted > borrowed) {
+            lease.add(local, granted - borrowed);
+        }
+        if (granted < requested + borrowed) {
+            // The row has handed out the whole budget for this window
+            lease.markExhausted(local);
+        }
+    }
+
+    private void leaseFailed(RuntimeException e) {
+        storeAvailable = false;
+        leaseFailures.increment();
+        log.warn("Rate limit lease for {} failed, counting locally: {}", name, e.getMessage());
+    }
+
+    /**
+     * A batch is at most an eighth of the budget so one node cannot hoard a small limit
+     */
+    private int batchFor(int budget) {
+        return Math.max(1, Math.min(batchSize, budget / 8));
+    }
+
+    private int lowWatermark(int budget) {
+        return batchFor(budget) / 2;
+    }
+
+    private int localWindow(long window) {
+        return (int) (window - baseWindow);
+    }
+
+    private String leaseKey(String leaseId, long window) {
+        String leaseKey = name + ':' + window + ':' + leaseId;
+        if (leaseKey.length() <= MAX_LEASE_KEY_LENGTH) {
+            return leaseKey;
+        }
+        return name + ':' + window + ":#" + HexFormat.of().formatHex(ClientContext.sha256(leaseId));
+    }
+
+    /**
+     * Permits this node holds for one key and permits it borrowed while waiting for them, each
+     * packed as window (high 32 bits, counted from the limiter's base window) and count (low 32 bits)
+     */
+    private static final class LocalLease {
+
+        private final AtomicLong state = new AtomicLong(pack(-1, 0));
+        private final AtomicLong borrowed = new AtomicLong(pack(-1, 0));
+        private final AtomicBoolean renewing = new AtomicBoolean();
+        private volatile int exhaustedWindow = -1;
+
+        /**
+         * @return permits left after taking, or -1 if not enough are held
+         */
+        int take(int window, int permits) {
+            while (true) {
+                long current = state.get();
+                if (windowOf(current) != window) {
+                    state.compareAndSet(current, pack(window, 0));
+                    continue;
+                }
+                int available = countOf(current);
+                if (available < permits) {
+                    return -1;
+                }
+                if (state.compareAndSet(current, pack(window, available - permits))) {
+                    return available - permits;
+                }
+            }
+        }
+
+        void add(int window, int permits) {
+            while (true) {
+                long current = state.get();
+                long next;
+                if (windowOf(current) == window) {
+                    next = pack(window, countOf(current) + permits);
+                } else if (windowOf(current) < window) {
+                    next = pack(window, permits);
+                } else {
+                    // Lease arrived after the window rolled over; its permits are gone
+                    return;
+                }
+                if (state.compareAndSet(current, next)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * @return false if that would take the borrowed permits past the limit
+         */
+        boolean borrow(int window, int permits, int limit) {
+            while (true) {
+                long current = borrowed.get();
+                int count = windowOf(current) == window ? countOf(current) : 0;
+                if (count + permits > limit) {
+                    return false;
+                }
+                if (borrowed.compareAndSet(current, pack(window, count + permits))) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Give back borrowed permits that were not used; a negative count restores ones taken for a lease
+         */
+        void repay(int window, int permits) {
+            while (true) {
+                long current = borrowed.get();
+                if (windowOf(current) != window) {
+                    return;
+                }
+                if (borrowed.compareAndSet(current, pack(window, Math.max(0, countOf(current) - permits)))) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * @return permits borrowed in the window, which the caller now charges to a lease
+         */
+        int takeBorrowed(int window) {
+            long previous = borrowed.getAndSet(pack(window, 0));
+            return windowOf(previous) == window ? countOf(previous) : 0;
+        }
+
+        void markExhausted(int window) {
+            exhaustedWindow = window;
+        }
+
+        boolean isExhausted(int window) {
+            return exhaustedWindow == window;
+        }
+
+        boolean isStale(int window) {
+            return windowOf(state.get()) < window && windowOf(borrowed.get()) < window && !renewing.get();
+        }
+
+        private static long pack(int window, int count) {
+            return ((long) window << 32) | (count & 0xFFFFFFFFL);
+        }
+
+        private static int windowOf(long state) {
+            return (int) (state >>> 32);
+        }
+
+        private static int countOf(long state) {
+            return (int) state;
+        }
+    }
+}
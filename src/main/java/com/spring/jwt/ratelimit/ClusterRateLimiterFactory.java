@@ -0,0 +1,106 @@
+package com.spring.jwt.ratelimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds {@link ClusterRateLimiter}s that share one bounded renewal pool, and cleans up
+ * expired lease rows and local leases for all of them.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limiting.store", havingValue = "jdbc")
+@Slf4j
+public class ClusterRateLimiterFactory implements RateLimiterFactory, DisposableBean {
+
+    private final RateLimitLeaseStore store;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final ThreadPoolExecutor renewalExecutor;
+
+    private final List<ClusterRateLimiter> limiters = new CopyOnWriteArrayList<>();
+
+    public ClusterRateLimiterFactory(
+            RateLimitLeaseStore store,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.rate-limiting.lease.batch-size:20}") int batchSize,
+            @Value("${app.rate-limiting.lease.renewal-threads:2}") int renewalThreads,
+            @Value("${app.rate-limiting.lease.renewal-queue-capacity:1024}") int renewalQueueCapacity) {
+        this.store = store;
+        this.meterRegistry = meterRegistry.getIfAvailable();
+        this.batchSize = batchSize;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        int threads = Math.max(1, renewalThreads);
+        this.renewalExecutor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, renewalQueueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "rate-limit-lease-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public KeyedRateLimiter create(String name, int limit, long windowMillis, int maxTrackedKeys) {
+        ClusterRateLimiter limiter = new ClusterRateLimiter(
+                name, limit, windowMillis, batchSize, maxTrackedKeys, store, renewalExecutor);
+        limiters.add(limiter);
+        bindMetrics(limiter, name);
+        return limiter;
+    }
+
+    /**
+     * Remove lease rows whose window has passed and local leases for rolled-over windows
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limiting.lease.cleanup-interval-ms:60000}")
+    public void removeExpired() {
+        long now = System.currentTimeMillis();
+        limiters.forEach(limiter -> limiter.evictStale(now));
+        try {
+            store.removeExpired(now);
+        } catch (RuntimeException e) {
+            log.warn("Failed to remove expired rate limit leases: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        renewalExecutor.shutdownNow();
+    }
+
+    private void bindMetrics(ClusterRateLimiter limiter, String name) {
+        if (meterRegistry == null) {
+            return;
+        }
+        limiter.getFallback().bindMetrics(meterRegistry, name + ".fallback");
+        Gauge.builder(name + ".tracked", limiter, ClusterRateLimiter::trackedKeys)
+                .description("Keys this node currently holds leased permits for")
+                .register(meterRegistry);
+        FunctionCounter.builder(name + ".leases", limiter, ClusterRateLimiter::leaseCalls)
+                .description("Lease requests sent to the shared store")
+                .register(meterRegistry);
+        FunctionCounter.builder(name + ".lease.failures", limiter, ClusterRateLimiter::leaseFailures)
+                .description("Lease requests that failed and fell back to local counting")
+                .register(meterRegistry);
+        FunctionCounter.builder(name + ".rejected", limiter, ClusterRateLimiter::rejections)
+                .description("Requests rejected by the limiter")
+                .register(meterRegistry);
+    }
+}
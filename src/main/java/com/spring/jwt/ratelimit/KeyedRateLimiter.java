@@ -0,0 +1,40 @@
+package com.spring.jwt.ratelimit;
+
+/**
+ * Per-key request limiter. Implementations never block the calling thread.
+ */
+public interface KeyedRateLimiter {
+
+    /**
+     * Returned by tryAcquire when the request is over the limit
+     */
+    int REJECTED = -1;
+
+    /**
+     * Counts one request for the key.
+     *
+     * @return permits left in the current window after this request, or {@link #REJECTED}
+     */
+    int tryAcquire(CharSequence key);
+
+    /**
+     * Counts a weighted request for the key against a caller-supplied budget, for limiters
+     * shared by callers with different budgets.
+     *
+     * @return permits left in the current window after this request, or {@link #REJECTED}
+     */
+    int tryAcquire(CharSequence key, int permits, int budget);
+
+    /**
+     * Milliseconds until the current window rolls over
+     */
+    long millisUntilReset();
+
+    /**
+     * Milliseconds until the key could be granted the given permits against the budget, i.e.
+     * when enough of what it has already spent leaves the window; 0 if it could be now
+     */
+    long millisUntilAvailable(CharSequence key, int permits, int budget);
+
+    int getLimit();
+}
@@ -0,0 +1,24 @@
+package com.spring.jwt.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "app.rate-limiting.store", havingValue = "memory", matchIfMissing = true)
+public class LocalRateLimiterFactory implements RateLimiterFactory {
+
+    private final MeterRegistry meterRegistry;
+
+    public LocalRateLimiterFactory(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry.getIfAvailable();
+    }
+
+    @Override
+    public KeyedRateLimiter create(String name, int limit, long windowMillis, int maxTrackedKeys) {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(limit, windowMillis, maxTrackedKeys);
+        limiter.bindMetrics(meterRegistry, name);
+        return limiter;
+    }
+}
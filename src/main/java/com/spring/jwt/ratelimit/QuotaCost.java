@@ -0,0 +1,35 @@
+package com.spring.jwt.ratelimit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares how many quota units an endpoint consumes per call.
+ * Each authenticated subject has one budget per window, sized by role (see app.quota.budgets),
+ * shared by every endpoint that does not name its own bucket.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QuotaCost {
+
+    int LIGHT = 1;
+    int MEDIUM = 5;
+    int HEAVY = 20;
+
+    /**
+     * Bucket for file uploads, so a burst of them cannot starve the subject's light calls
+     */
+    String UPLOADS = "uploads";
+
+    /**
+     * Units consumed per call
+     */
+    int value() default LIGHT;
+
+    /**
+     * Endpoints sharing a bucket name draw from their own budget; empty means the subject's shared one
+     */
+    String bucket() default "";
+}
@@ -0,0 +1,51 @@
+package com.spring.jwt.ratelimit;
+
+import com.spring.jwt.entity.RateLimitLease;
+import com.spring.jwt.repository.RateLimitLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Hands out permits from the shared rate_limit_leases table.
+ * Each call locks one window row, so concurrent leases for the same key from different
+ * nodes are serialised by the database and their total never exceeds the budget.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limiting.store", havingValue = "jdbc")
+@Slf4j
+public class RateLimitLeaseStore {
+
+    private final RateLimitLeaseRepository rateLimitLeaseRepository;
+
+    public RateLimitLeaseStore(RateLimitLeaseRepository rateLimitLeaseRepository) {
+        this.rateLimitLeaseRepository = rateLimitLeaseRepository;
+    }
+
+    /**
+     * Lease up to the requested number of permits for a window row
+     * @return Permits granted, 0 once the window's budget is spent
+     */
+    @Transactional
+    public int lease(String leaseKey, int requested, int budget, long expiresAt) {
+        rateLimitLeaseRepository.insertIfAbsent(leaseKey, expiresAt);
+        RateLimitLease lease = rateLimitLeaseRepository.findForUpdate(leaseKey).orElse(null);
+        if (lease == null) {
+            // Purged between the insert and the lock; the caller's window has already expired
+            return 0;
+        }
+        int granted = Math.max(0, Math.min(requested, budget - lease.getGranted()));
+        if (granted > 0) {
+            lease.setGranted(lease.getGranted() + granted);
+        }
+        return granted;
+    }
+
+    public void removeExpired(long now) {
+        int removed = rateLimitLeaseRepository.deleteExpired(now);
+        if (removed > 0) {
+            log.debug("Removed {} expired rate limit leases", removed);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.spring.jwt.ratelimit;
+
+/**
+ * Creates the application's keyed limiters.
+ * Selected with app.rate-limiting.store: "memory" (default) counts in this process only,
+ * "jdbc" shares each limit across all nodes through the rate_limit_leases table.
+ */
+public interface RateLimiterFactory {
+
+    /**
+     * @param name           metric prefix, also namespaces the limiter's keys in shared storage
+     * @param limit          permits per window
+     * @param windowMillis   window length
+     * @param maxTrackedKeys upper bound on keys held in memory
+     */
+    KeyedRateLimiter create(String name, int limit, long windowMillis, int maxTrackedKeys);
+}
@@ -0,0 +1,339 @@
+package com.spring.jwt.ratelimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-memory sliding-window limiter keyed by client.
+ *
+ * Keys are hashed into a set-associative table of 8-way buckets allocated once at startup,
+ * so the number of tracked clients is hard-capped and a request allocates nothing. Each slot
+ * packs its window into one long (key tag, window id, current and previous window counts)
+ * that is updated with CAS. The estimate for a key is the usual sliding-window approximation:
+ * previous count weighted by the unelapsed part of the window, plus the current count.
+ *
+ * When a bucket is full, a slot whose window has lapsed is reused first; otherwise the slot
+ * with the lowest hit frequency is evicted and its neighbours' frequencies are halved, which
+ * gives an approximate LFU that still ages out clients that were busy long ago.
+ */
+public class SlidingWindowRateLimiter implements KeyedRateLimiter {
+
+    private static final int WAYS = 8;
+    private static final int SPIN_ATTEMPTS = 8;
+    private static final int MAX_ATTEMPTS = 64;
+    private static final long RESERVED = Long.MIN_VALUE;
+    private static final int MAX_COUNT = 0xFFFF;
+    private static final int MAX_FREQUENCY = 1 << 20;
+
+    private final int limit;
+    private final long windowMillis;
+    private final int bucketMask;
+
+    private final AtomicLongArray keys;
+    private final AtomicLongArray states;
+    private final AtomicIntegerArray frequencies;
+
+    private final AtomicInteger tracked = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    public SlidingWindowRateLimiter(int limit, long windowMillis, int maxTrackedKeys) {
+        if (limit <= 0 || windowMillis <= 0) {
+            throw new IllegalArgumentException("limit and window must be positive");
+        }
+        this.limit = Math.min(limit, MAX_COUNT);
+        this.windowMillis = windowMillis;
+
+        int buckets = Integer.highestOneBit(Math.max(1, (maxTrackedKeys + WAYS - 1) / WAYS));
+        this.bucketMask = buckets - 1;
+        int slots = buckets * WAYS;
+        this.keys = new AtomicLongArray(slots);
+        this.states = new AtomicLongArray(slots);
+        this.frequencies = new AtomicIntegerArray(slots);
+    }
+
+    @Override
+    public int tryAcquire(CharSequence key) {
+        return tryAcquire(key, 1, limit);
+    }
+
+    @Override
+    public int tryAcquire(CharSequence key, int permits, int budget) {
+        int cappedBudget = Math.min(budget, MAX_COUNT);
+        long now = System.currentTimeMillis();
+        long hash = hash(key);
+        int base = (int) (hash & bucketMask) * WAYS;
+        int window = (int) ((now / windowMillis) & 0xFFFF);
+        double previousWeight = 1.0 - (double) (now % windowMillis) / windowMillis;
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            int slot = find(hash, base);
+            if (slot < 0) {
+                misses.increment();
+                slot = claim(hash, base, window);
+                if (slot < 0) {
+                    // Another thread is publishing a slot in this bucket; it is two stores away
+                    if (attempt < SPIN_ATTEMPTS) {
+                        Thread.onSpinWait();
+                    } else {
+                        Thread.yield();
+                    }
+                    continue;
+                }
+            } else {
+                hits.increment();
+            }
+
+            int result = update(slot, tag(hash), window, previousWeight, permits, cappedBudget);
+            if (result != Integer.MIN_VALUE) {
+                if (result == REJECTED) {
+                    rejections.increment();
+                }
+                return result;
+            }
+        }
+        // Persistent contention on one bucket; fail open rather than spin
+        return 0;
+    }
+
+    @Override
+    public long millisUntilReset() {
+        return windowMillis - (System.currentTimeMillis() % windowMillis);
+    }
+
+    /**
+     * Solves the sliding-window estimate for the moment the previous window's weight has
+     * decayed enough to fit the permits, in this window or, if the current count alone is too
+     * high, in the next one when that count becomes the previous
+     */
+    @Override
+    public long millisUntilAvailable(CharSequence key, int permits, int budget) {
+        int cappedBudget = Math.min(budget, MAX_COUNT);
+        long now = System.currentTimeMillis();
+        long hash = hash(key);
+        int slot = find(hash, (int) (hash & bucketMask) * WAYS);
+        if (slot < 0) {
+            return 0;
+        }
+        long state = states.get(slot);
+        if (tagOf(state) != tag(hash)) {
+            return 0;
+        }
+
+        int window = (int) ((now / windowMillis) & 0xFFFF);
+        int delta = (window - windowOf(state)) & 0xFFFF;
+        int current = delta == 0 ? currentOf(state) : 0;
+        int previous = delta == 0 ? previousOf(state) : delta == 1 ? currentOf(state) : 0;
+        long elapsed = now % windowMillis;
+
+        int headroom = cappedBudget - permits - current;
+        if (headroom >= 0) {
+            return decayMillis(previous, headroom, elapsed);
+        }
+        if (cappedBudget < permits) {
+            // Never fits; report when nothing is counted for the key any more
+            return 2 * windowMillis - elapsed;
+        }
+        return windowMillis - elapsed + decayMillis(current, cappedBudget - permits, 0);
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    public int capacity() {
+        return keys.length();
+    }
+
+    public int trackedKeys() {
+        return tracked.get();
+    }
+
+    public double hitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    public void bindMetrics(MeterRegistry meterRegistry, String name) {
+        if (meterRegistry == null) {
+            return;
+        }
+        Gauge.builder(name + ".tracked", this, SlidingWindowRateLimiter::trackedKeys)
+                .description("Clients currently held by the limiter")
+                .register(meterRegistry);
+        Gauge.builder(name + ".hit.ratio", this, SlidingWindowRateLimiter::hitRatio)
+                .description("Share of lookups that found the client already tracked")
+                .register(meterRegistry);
+        FunctionCounter.builder(name + ".evictions", evictions, LongAdder::sum)
+                .description("Tracked clients evicted to make room for new ones")
+                .register(meterRegistry);
+        FunctionCounter.builder(name + ".rejected", rejections, LongAdder::sum)
+                .description("Requests rejected by the limiter")
+                .register(meterRegistry);
+    }
+
+    private int find(long hash, int base) {
+        for (int i = base; i < base + WAYS; i++) {
+            if (keys.get(i) == hash) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Takes a slot in the bucket for the key: an empty one, then one whose window has
+     * lapsed, then the least frequently hit. The slot is reserved while its state is reset
+     * so no reader sees the key before its window. Returns -1 if another thread is
+     * claiming in the same bucket and the caller should look the key up again.
+     */
+    private int claim(long hash, int base, int window) {
+        int victim = -1;
+        int victimFrequency = Integer.MAX_VALUE;
+        for (int i = base; i < base + WAYS; i++) {
+            long current = keys.get(i);
+            if (current == 0L) {
+                if (keys.compareAndSet(i, 0L, RESERVED)) {
+                    tracked.incrementAndGet();
+                    publish(i, hash, window);
+                    return i;
+                }
+                return -1;
+            }
+            if (current == hash || current == RESERVED) {
+                return -1;
+            }
+            int frequency = isLapsed(states.get(i), window) ? 0 : frequencies.get(i);
+            if (frequency < victimFrequency) {
+                victim = i;
+                victimFrequency = frequency;
+            }
+        }
+
+        long evicted = keys.get(victim);
+        if (evicted == RESERVED || !keys.compareAndSet(victim, evicted, RESERVED)) {
+            return -1;
+        }
+        evictions.increment();
+        publish(victim, hash, window);
+        for (int i = base; i < base + WAYS; i++) {
+            if (i != victim) {
+                frequencies.set(i, frequencies.get(i) >>> 1);
+            }
+        }
+        return victim;
+    }
+
+    private void publish(int slot, long hash, int window) {
+        frequencies.set(slot, 0);
+        states.set(slot, pack(tag(hash), window, 0, 0));
+        keys.set(slot, hash);
+    }
+
+    /**
+     * CAS loop on the slot state. Returns Integer.MIN_VALUE when the slot was handed to
+     * another key in the meantime and the caller should look it up again.
+     */
+    private int update(int slot, int tag, int window, double previousWeight, int permits, int budget) {
+        while (true) {
+            long state = states.get(slot);
+            if (tagOf(state) != tag) {
+                return Integer.MIN_VALUE;
+            }
+
+            int current;
+            int previous;
+            int delta = (window - windowOf(state)) & 0xFFFF;
+            if (delta == 0) {
+                current = currentOf(state);
+                previous = previousOf(state);
+            } else if (delta == 1) {
+                current = 0;
+                previous = currentOf(state);
+            } else {
+                current = 0;
+                previous = 0;
+            }
+
+            double estimate = previous * previousWeight + current;
+            if (estimate + permits > budget) {
+                return REJECTED;
+            }
+
+            long next = pack(tag, window, Math.min(current + permits, MAX_COUNT), previous);
+            if (states.compareAndSet(slot, state, next)) {
+                int frequency = frequencies.get(slot);
+                if (frequency < MAX_FREQUENCY) {
+                    frequencies.compareAndSet(slot, frequency, frequency + 1);
+                }
+                return (int) (budget - (estimate + permits));
+            }
+        }
+    }
+
+    /**
+     * Time from elapsed until count * (1 - elapsed / window) is at most headroom
+     */
+    private long decayMillis(int count, int headroom, long elapsed) {
+        if (count <= headroom) {
+            return 0;
+        }
+        long due = (long) Math.ceil((1.0 - (double) headroom / count) * windowMillis);
+        return Math.max(0, due - elapsed);
+    }
+
+    private static boolean isLapsed(long state, int window) {
+        return ((window - windowOf(state)) & 0xFFFF) > 1;
+    }
+
+    private static long pack(int tag, int window, int current, int previous) {
+        return ((long) tag << 48) | ((long) window << 32) | ((long) current << 16) | previous;
+    }
+
+    private static int tagOf(long state) {
+        return (int) (state >>> 48) & 0xFFFF;
+    }
+
+    private static int windowOf(long state) {
+        return (int) (state >>> 32) & 0xFFFF;
+    }
+
+    private static int currentOf(long state) {
+        return (int) (state >>> 16) & 0xFFFF;
+    }
+
+    private static int previousOf(long state) {
+        return (int) state & 0xFFFF;
+    }
+
+    private static int tag(long hash) {
+        return (int) (hash >>> 48) & 0xFFFF;
+    }
+
+    /**
+     * FNV-1a over the characters with a murmur finaliser; never returns the empty or reserved markers
+     */
+    private static long hash(CharSequence key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == 0L || h == RESERVED ? 1L : h;
+    }
+}
@@ -0,0 +1,20 @@
+package com.spring.jwt.repository;
+
+import com.spring.jwt.entity.ActiveSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ActiveSessionRepository extends JpaRepository<ActiveSession, String> {
+
+    List<ActiveSession> findByChangeVersionGreaterThanOrderByChangeVersionAsc(Long changeVersion);
+
+    @Modifying
+    @Transactional
+    long deleteByRefreshExpiresAtBeforeOrAccessExpiresAtBefore(Instant refreshCutoff, Instant accessCutoff);
+}
@@ -0,0 +1,44 @@
+package com.spring.jwt.repository;
+
+import com.spring.jwt.entity.BlobReference;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BlobReferenceRepository extends JpaRepository<BlobReference, String> {
+
+    /**
+     * Creates the row with one reference, or adds a reference to an existing one
+     */
+    @Modifying
+    @Query(value = "INSERT INTO blob_references (content_hash, size, ref_count, updated_at) " +
+            "VALUES (:contentHash, :size, 1, :now) " +
+            "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, updated_at = :now", nativeQuery = true)
+    int upsertReference(@Param("contentHash") String contentHash, @Param("size") long size, @Param("now") long now);
+
+    @Modifying
+    @Query("UPDATE BlobReference b SET b.refCount = b.refCount + 1, b.updatedAt = :now " +
+            "WHERE b.contentHash = :contentHash")
+    int incrementIfPresent(@Param("contentHash") String contentHash, @Param("now") long now);
+
+    @Modifying
+    @Query("UPDATE BlobReference b SET b.refCount = b.refCount - 1, b.updatedAt = :now " +
+            "WHERE b.contentHash = :contentHash AND b.refCount > 0")
+    int decrement(@Param("contentHash") String contentHash, @Param("now") long now);
+
+    @Query("SELECT b.contentHash FROM BlobReference b WHERE b.refCount = 0 AND b.updatedAt < :cutoff")
+    List<String> findUnreferenced(@Param("cutoff") long cutoff, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM BlobReference b WHERE b.contentHash = :contentHash")
+    Optional<BlobReference> findForUpdate(@Param("contentHash") String contentHash);
+}
@@ -0,0 +1,45 @@
+package com.spring.jwt.repository;
+
+import com.spring.jwt.Enums.ThumbnailSize;
+import com.spring.jwt.entity.ImageDerivative;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ImageDerivativeRepository extends JpaRepository<ImageDerivative, Long> {
+
+    Optional<ImageDerivative> findBySourceHashAndSize(String sourceHash, ThumbnailSize size);
+
+    @Query("SELECT d.size FROM ImageDerivative d WHERE d.sourceHash = :sourceHash")
+    List<ThumbnailSize> findSizesBySourceHash(@Param("sourceHash") String sourceHash);
+
+    /**
+     * Creates the row unless a concurrent upload of the same original already did
+     * @return 1 if inserted, 0 if the row existed
+     */
+    @Modifying
+    @Query(value = "INSERT INTO image_derivative " +
+            "(source_hash, derivative_size, content_hash, width, height, length, created_at) " +
+            "VALUES (:sourceHash, :size, :contentHash, :width, :height, :length, :now) " +
+            "ON DUPLICATE KEY UPDATE derivative_id = derivative_id", nativeQuery = true)
+    int insertIfAbsent(@Param("sourceHash") String sourceHash, @Param("size") String size,
+                       @Param("contentHash") String contentHash, @Param("width") int width,
+                       @Param("height") int height, @Param("length") long length, @Param("now") long now);
+
+    /**
+     * Renditions whose original is no longer referenced by any document, product photo or selfie
+     */
+    @Query("SELECT d FROM ImageDerivative d WHERE d.createdAt < :cutoff " +
+            "AND NOT EXISTS (SELECT doc.documentId FROM Document doc WHERE doc.contentHash = d.sourceHash) " +
+            "AND NOT EXISTS (SELECT p.imageId FROM ProductImage p WHERE p.contentHash = d.sourceHash) " +
+            "AND NOT EXISTS (SELECT s.farmerSelfieEmployeeFarmerSurveyId FROM FarmerSelfieEmployeeFarmerSurvey s " +
+            "WHERE s.contentHash = d.sourceHash)")
+    List<ImageDerivative> findOrphaned(@Param("cutoff") long cutoff, Pageable pageable);
+}
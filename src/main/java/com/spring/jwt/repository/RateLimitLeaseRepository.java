@@ -0,0 +1,34 @@
+package com.spring.jwt.repository;
+
+import com.spring.jwt.entity.RateLimitLease;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface RateLimitLeaseRepository extends JpaRepository<RateLimitLease, String> {
+
+    /**
+     * Creates the window row unless another node already has
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO rate_limit_leases (lease_key, granted, expires_at) " +
+            "VALUES (:leaseKey, 0, :expiresAt)", nativeQuery = true)
+    int insertIfAbsent(@Param("leaseKey") String leaseKey, @Param("expiresAt") long expiresAt);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM RateLimitLease l WHERE l.leaseKey = :leaseKey")
+    Optional<RateLimitLease> findForUpdate(@Param("leaseKey") String leaseKey);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RateLimitLease l WHERE l.expiresAt < :now")
+    int deleteExpired(@Param("now") long now);
+}
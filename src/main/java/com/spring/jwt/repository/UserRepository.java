@@ -4,10 +4,13 @@ import com.spring.jwt.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -29,6 +32,62 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByUserIdAndAccountLockedTrue(Integer userId);
 
+    @Query("SELECT u.accountLockedUntil FROM User u WHERE u.email = :email")
+    Optional<LocalDateTime> findAccountLockedUntilByEmail(@Param("email") String email);
+
+    /**
+     * Counts a failed login and, when the count reaches the threshold, locks the account in
+     * the same statement. The lock columns are assigned before the counter because MySQL
+     * evaluates single-table SET clauses left to right against already-updated values.
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE User u SET
+            u.accountLocked = CASE WHEN COALESCE(u.failedLoginAttempts, 0) + 1 >= :maxAttempts
+                THEN TRUE ELSE u.accountLocked END,
+            u.accountLockedUntil = CASE WHEN COALESCE(u.failedLoginAttempts, 0) + 1 >= :maxAttempts
+                THEN :lockedUntil ELSE u.accountLockedUntil END,
+            u.failedLoginAttempts = COALESCE(u.failedLoginAttempts, 0) + 1
+        WHERE u.email = :email
+    """)
+    int incrementFailedLoginAttempts(@Param("email") String email,
+                                     @Param("maxAttempts") int maxAttempts,
+                                     @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * Clears the failure counter and any lockout-engine lock. An administrative lock
+     * (account_locked without an expiry) is left untouched, and rows that are already
+     * clean are not written at all.
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE User u SET
+            u.accountLocked = CASE WHEN u.accountLockedUntil IS NOT NULL
+                THEN FALSE ELSE u.accountLocked END,
+            u.accountLockedUntil = NULL,
+            u.failedLoginAttempts = 0
+        WHERE u.email = :email
+          AND (u.failedLoginAttempts <> 0 OR u.accountLockedUntil IS NOT NULL)
+    """)
+    int resetFailedLoginAttempts(@Param("email") String email);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.accountLocked = TRUE, u.accountLockedUntil = :lockedUntil WHERE u.email = :email")
+    int lockAccountUntil(@Param("email") String email, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * Stamps a successful login; the failure counter and lock are cleared by resetFailedLoginAttempts
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.lastLogin = :lastLogin, u.deviceFingerprint = :deviceFingerprint WHERE u.email = :email")
+    int recordSuccessfulLogin(@Param("email") String email,
+                              @Param("lastLogin") LocalDateTime lastLogin,
+                              @Param("deviceFingerprint") String deviceFingerprint);
+
     @Query("""
         SELECT DISTINCT u FROM User u
         JOIN u.roles r
@@ -0,0 +1,33 @@
+package com.spring.jwt.routing;
+
+import java.util.List;
+
+/**
+ * One authorization rule of the security filter chain, in the order it is applied
+ *
+ * @param role required role for {@link Access#ROLE}, otherwise null
+ */
+public record AccessRule(List<String> patterns, Access access, String role) {
+
+    public enum Access {
+        PERMIT_ALL,
+        AUTHENTICATED,
+        ROLE
+    }
+
+    static AccessRule permitAll(String... patterns) {
+        return new AccessRule(List.of(patterns), Access.PERMIT_ALL, null);
+    }
+
+    static AccessRule authenticated(String... patterns) {
+        return new AccessRule(List.of(patterns), Access.AUTHENTICATED, null);
+    }
+
+    static AccessRule hasRole(String role, String... patterns) {
+        return new AccessRule(List.of(patterns), Access.ROLE, role);
+    }
+
+    public String[] patternArray() {
+        return patterns.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,155 @@
+package com.spring.jwt.routing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trie over path segments for Ant-style patterns ("*", "?" and "**"), built once at startup.
+ * Literal segments are looked up by hash, so a path is classified in time proportional to its
+ * depth no matter how many patterns the table holds. Each pattern carries the index of the
+ * access rule it came from and a set of tag bits; a match reports the lowest rule index and
+ * the union of tags over every pattern the path matches.
+ */
+final class PathTrie {
+
+    static final int NO_RULE = Integer.MAX_VALUE;
+
+    private final Node root = new Node();
+
+    void add(String pattern, int rule, int tags) {
+        Node node = root;
+        for (String segment : segments(pattern)) {
+            node = node.child(segment);
+        }
+        node.rule = Math.min(node.rule, rule);
+        node.tags |= tags;
+    }
+
+    Match match(String path) {
+        Match match = new Match();
+        match(root, segments(path), 0, match);
+        return match;
+    }
+
+    private static void match(Node node, List<String> segments, int index, Match match) {
+        if (node.doubleWildcard != null) {
+            for (int i = index; i <= segments.size(); i++) {
+                match(node.doubleWildcard, segments, i, match);
+            }
+        }
+        if (index == segments.size()) {
+            match.rule = Math.min(match.rule, node.rule);
+            match.tags |= node.tags;
+            return;
+        }
+        String segment = segments.get(index);
+        Node literal = node.literals.get(segment);
+        if (literal != null) {
+            match(literal, segments, index + 1, match);
+        }
+        for (Node glob : node.globs) {
+            if (globMatches(glob.glob, segment)) {
+                match(glob, segments, index + 1, match);
+            }
+        }
+    }
+
+    private static List<String> segments(String path) {
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= path.length(); i++) {
+            if (i == path.length() || path.charAt(i) == '/') {
+                if (i > start) {
+                    segments.add(path.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * "*" matches any run of characters and "?" any one character within a segment
+     */
+    private static boolean globMatches(String glob, String segment) {
+        int g = 0;
+        int s = 0;
+        int star = -1;
+        int resume = 0;
+        while (s < segment.length()) {
+            if (g < glob.length() && (glob.charAt(g) == '?' || glob.charAt(g) == segment.charAt(s))) {
+                g++;
+                s++;
+            } else if (g < glob.length() && glob.charAt(g) == '*') {
+                star = g++;
+                resume = s;
+            } else if (star >= 0) {
+                g = star + 1;
+                s = ++resume;
+            } else {
+                return false;
+            }
+        }
+        while (g < glob.length() && glob.charAt(g) == '*') {
+            g++;
+        }
+        return g == glob.length();
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> literals = new HashMap<>();
+        private final List<Node> globs = new ArrayList<>();
+        private final String glob;
+        private Node doubleWildcard;
+        private int rule = NO_RULE;
+        private int tags;
+
+        Node() {
+            this(null);
+        }
+
+        Node(String glob) {
+            this.glob = glob;
+        }
+
+        Node child(String segment) {
+            if (segment.equals("**")) {
+                if (doubleWildcard == null) {
+                    doubleWildcard = new Node();
+                }
+                return doubleWildcard;
+            }
+            if (segment.indexOf('*') < 0 && segment.indexOf('?') < 0) {
+                return literals.computeIfAbsent(segment, s -> new Node());
+            }
+            for (Node existing : globs) {
+                if (existing.glob.equals(segment)) {
+                    return existing;
+                }
+            }
+            Node node = new Node(segment);
+            globs.add(node);
+            return node;
+        }
+    }
+
+    /**
+     * Lowest rule index (or NO_RULE) and union of tags over the matching patterns
+     */
+    static final class Match {
+
+        private int rule = NO_RULE;
+        private int tags;
+
+        int rule() {
+            return rule;
+        }
+
+        int tags() {
+            return tags;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.spring.jwt.routing;
+
+/**
+ * Classification of one request, computed once by {@link RouteClassifier}
+ */
+public final class Route {
+
+    private static final int PASS_THROUGH = RouteTag.STATIC.bit() | RouteTag.DOCS.bit() | RouteTag.HEALTH.bit();
+
+    private final int tags;
+
+    Route(int tags) {
+        this.tags = tags;
+    }
+
+    public boolean has(RouteTag tag) {
+        return (tags & tag.bit()) != 0;
+    }
+
+    /**
+     * Static, docs and health traffic, which skips the security chain and request wrappers
+     */
+    public boolean isPassThrough() {
+        return (tags & PASS_THROUGH) != 0;
+    }
+
+    Route with(RouteTag tag) {
+        return new Route(tags | tag.bit());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Route[");
+        for (RouteTag tag : RouteTag.values()) {
+            if (has(tag)) {
+                sb.append(sb.length() > 6 ? "," : "").append(tag);
+            }
+        }
+        return sb.append(']').toString();
+    }
+}
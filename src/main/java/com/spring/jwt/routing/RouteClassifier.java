@@ -0,0 +1,156 @@
+package com.spring.jwt.routing;
+
+import com.spring.jwt.jwt.JwtConfig;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Route table shared by the security filter chain and the servlet filters.
+ *
+ * The access rules below are the single source for AppConfig's authorizeHttpRequests, in the
+ * order Spring Security applies them. Together with the static, docs, health, auth and API
+ * patterns they are compiled into one {@link PathTrie} at startup, and each request is
+ * classified once and the result kept as a request attribute. Filters check tags instead of
+ * re-matching path strings.
+ */
+@Component
+@Slf4j
+public class RouteClassifier {
+
+    private static final String ROUTE_ATTRIBUTE = RouteClassifier.class.getName() + ".route";
+
+    private static final String[] STATIC_PATTERNS = {
+            "/static/**", "/css/**", "/js/**", "/images/**", "/webjars/**", "/favicon.ico"
+    };
+
+    private static final String[] DOCS_PATTERNS = {
+            "/v2/api-docs", "/v3/api-docs", "/v*/a*-docs/**", "/swagger-resources", "/swagger-resources/**",
+            "/configuration/ui", "/configuration/security", "/swagger-ui/**", "/swagger-ui.html"
+    };
+
+    private static final String[] HEALTH_PATTERNS = {
+            "/actuator/health", "/actuator/health/**", "/actuator/info"
+    };
+
+    private final List<AccessRule> accessRules;
+    private final PathTrie trie = new PathTrie();
+
+    public RouteClassifier(JwtConfig jwtConfig) {
+        this.accessRules = List.of(
+                AccessRule.permitAll(STATIC_PATTERNS),
+                AccessRule.permitAll(HEALTH_PATTERNS),
+                AccessRule.permitAll("/api/auth/**"),
+                AccessRule.permitAll(jwtConfig.getUrl()),
+                AccessRule.permitAll(jwtConfig.getRefreshUrl()),
+                AccessRule.permitAll("/api/v1/survey/**"),
+                AccessRule.permitAll("/api/v1/farmer-selfie/**"),
+                AccessRule.permitAll("/api/v1/farmer-form/**"),
+
+                AccessRule.permitAll("/api/auth/v1/register/**"),
+                AccessRule.permitAll("/api/v1/users/password/**"),
+                AccessRule.permitAll("/api/users/**"),
+
+                AccessRule.permitAll("/api/v1/exam/**"),
+
+                AccessRule.permitAll("/api/completeProfile/getProfile/**"),
+                AccessRule.permitAll("/api/v1/complete-profile/public/**"),
+                AccessRule.authenticated("/api/v1/interests/**"),
+
+                AccessRule.permitAll(
+                        "/v2/api-docs",
+                        "/v3/api-docs",
+                        "/v*/a*-docs/**",
+                        "/swagger-resources",
+                        "/swagger-resources/**",
+                        "/configuration/ui",
+                        "/configuration/security",
+                        "/swagger-ui/**",
+                        "/webjars/**",
+                        "/swagger-ui.html"
+                ),
+
+                AccessRule.permitAll("/api/public/**"),
+                AccessRule.permitAll("/user/**"),
+                AccessRule.permitAll("/api/v1/documents/uploadByUser"),
+                AccessRule.authenticated("/api/v1/documents/**"),
+                AccessRule.permitAll("/api/v1/employeeFarmerSurveys/**"),
+                AccessRule.hasRole("ADMIN", "/api/v1/admin/**"),
+                AccessRule.permitAll("/api/v1/**"),
+                AccessRule.permitAll("/api/v1/farmer_selfie_Survey/**"),
+                AccessRule.permitAll("/api/v1/lab_report/**"),
+                AccessRule.permitAll("/api/v1/products/**"),
+                AccessRule.permitAll("/api/v1/company-weekly-off/**"),
+                AccessRule.permitAll("/api/v1/attendance/**"),
+                AccessRule.permitAll("/api/v1/product-photo/**"),
+                AccessRule.permitAll("/api/v1/employees/**"),
+                AccessRule.permitAll("/api/v1/emp-documents")
+        );
+
+        for (int i = 0; i < accessRules.size(); i++) {
+            for (String pattern : accessRules.get(i).patterns()) {
+                trie.add(pattern, i, 0);
+            }
+        }
+        addTag(RouteTag.STATIC, STATIC_PATTERNS);
+        addTag(RouteTag.DOCS, DOCS_PATTERNS);
+        addTag(RouteTag.HEALTH, HEALTH_PATTERNS);
+        addTag(RouteTag.AUTH, "/api/auth/**", "/jwt/login", "/user/registerUser", jwtConfig.getUrl(), jwtConfig.getRefreshUrl());
+        addTag(RouteTag.API, "/api/**");
+        log.debug("Compiled route table with {} access rules", accessRules.size());
+    }
+
+    /**
+     * Authorization rules in the order the security filter chain applies them;
+     * requests matching none of them require authentication
+     */
+    public List<AccessRule> getAccessRules() {
+        return accessRules;
+    }
+
+    /**
+     * Classifies the request on first use and returns the same result for the rest of it
+     */
+    public Route classify(HttpServletRequest request) {
+        Object cached = request.getAttribute(ROUTE_ATTRIBUTE);
+        if (cached instanceof Route route) {
+            return route;
+        }
+        Route route = classify(pathOf(request));
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.regionMatches(true, 0, "multipart/", 0, 10)) {
+            route = route.with(RouteTag.UPLOAD);
+        }
+        request.setAttribute(ROUTE_ATTRIBUTE, route);
+        return route;
+    }
+
+    /**
+     * Classifies a path relative to the context root
+     */
+    public Route classify(String path) {
+        PathTrie.Match match = trie.match(path);
+        int tags = match.tags();
+        if (match.rule() != PathTrie.NO_RULE
+                && accessRules.get(match.rule()).access() == AccessRule.Access.PERMIT_ALL) {
+            tags |= RouteTag.PUBLIC.bit();
+        }
+        return new Route(tags);
+    }
+
+    private void addTag(RouteTag tag, String... patterns) {
+        for (String pattern : patterns) {
+            trie.add(pattern, PathTrie.NO_RULE, tag.bit());
+        }
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        return contextPath != null && !contextPath.isEmpty() && uri.startsWith(contextPath)
+                ? uri.substring(contextPath.length())
+                : uri;
+    }
+}
@@ -0,0 +1,46 @@
+package com.spring.jwt.routing;
+
+/**
+ * What a request is, as far as the security filters care
+ */
+public enum RouteTag {
+
+    /**
+     * Permitted without authentication by the first matching access rule
+     */
+    PUBLIC,
+
+    /**
+     * Static resources
+     */
+    STATIC,
+
+    /**
+     * Swagger UI and OpenAPI documents
+     */
+    DOCS,
+
+    /**
+     * Actuator health and info probes
+     */
+    HEALTH,
+
+    /**
+     * Login, registration and token refresh endpoints
+     */
+    AUTH,
+
+    /**
+     * Multipart request
+     */
+    UPLOAD,
+
+    /**
+     * Under /api
+     */
+    API;
+
+    final int bit() {
+        return 1 << ordinal();
+    }
+}
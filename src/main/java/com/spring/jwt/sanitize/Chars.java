@@ -0,0 +1,99 @@
+package com.spring.jwt.sanitize;
+
+/**
+ * Character classes with the same meaning as in java.util.regex, for the hand-written scanners
+ */
+final class Chars {
+
+    private Chars() {
+    }
+
+    /**
+     * Characters "." does not match without DOTALL
+     */
+    static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * \s
+     */
+    static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * \w
+     */
+    static boolean isWord(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    /**
+     * \b: a word character on exactly one side of index. As in java.util.regex, letters, digits
+     * and "_" are word characters, and so is a non-spacing mark that follows a letter or digit.
+     */
+    static boolean isBoundary(CharSequence input, int index) {
+        return isWordBefore(input, index) != isWordAt(input, index);
+    }
+
+    static boolean isWordAt(CharSequence input, int index) {
+        if (index >= input.length()) {
+            return false;
+        }
+        int c = Character.codePointAt(input, index);
+        return isBoundaryWord(c) || (Character.getType(c) == Character.NON_SPACING_MARK && hasBase(input, index));
+    }
+
+    static boolean isWordBefore(CharSequence input, int index) {
+        if (index <= 0) {
+            return false;
+        }
+        int c = Character.codePointBefore(input, index);
+        return isBoundaryWord(c) || (Character.getType(c) == Character.NON_SPACING_MARK && hasBase(input, index - 1));
+    }
+
+    private static boolean isBoundaryWord(int c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static boolean hasBase(CharSequence input, int index) {
+        for (int i = index; i >= 0; i--) {
+            int c = Character.codePointAt(input, i);
+            if (Character.isLetterOrDigit(c)) {
+                return true;
+            }
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The literal at from, folding ASCII case only
+     */
+    static boolean regionMatchesIgnoreCase(CharSequence input, int from, String literal) {
+        if (from + literal.length() > input.length()) {
+            return false;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (lower(input.charAt(from + i)) != lower(literal.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static char lower(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    static int skipSpaces(CharSequence input, int from) {
+        int i = from;
+        while (i < input.length() && isSpace(input.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,93 @@
+package com.spring.jwt.sanitize;
+
+import java.util.Arrays;
+
+/**
+ * Case-insensitive trie over ASCII literals, built once and matched anchored at a position.
+ * The walk from any position is bounded by the longest literal, so probing every position
+ * of an input stays linear in its length.
+ */
+final class LiteralTrie {
+
+    private static final int ALPHABET = 128;
+
+    private int[][] children = new int[1][];
+    private int[] terminals = {-1};
+    private int nodes = 1;
+    private final int[] lengths;
+
+    /**
+     * @param literals literal i is reported as id i
+     */
+    LiteralTrie(String... literals) {
+        lengths = new int[literals.length];
+        for (int id = 0; id < literals.length; id++) {
+            add(literals[id], id);
+            lengths[id] = literals[id].length();
+        }
+    }
+
+    /**
+     * @return length of literal id
+     */
+    int length(int id) {
+        return lengths[id];
+    }
+
+    /**
+     * @return id of the longest literal starting at from, or -1
+     */
+    int match(CharSequence input, int from) {
+        int node = 0;
+        int matched = -1;
+        for (int i = from; i < input.length(); i++) {
+            node = child(node, input.charAt(i));
+            if (node <= 0) {
+                break;
+            }
+            if (terminals[node] >= 0) {
+                matched = terminals[node];
+            }
+        }
+        return matched;
+    }
+
+    private int child(int node, char c) {
+        int lower = lower(c);
+        if (lower >= ALPHABET || children[node] == null) {
+            return -1;
+        }
+        return children[node][lower];
+    }
+
+    private void add(String literal, int id) {
+        int node = 0;
+        for (int i = 0; i < literal.length(); i++) {
+            int c = lower(literal.charAt(i));
+            if (c >= ALPHABET) {
+                throw new IllegalArgumentException("Only ASCII literals are supported: " + literal);
+            }
+            if (children[node] == null) {
+                children[node] = new int[ALPHABET];
+            }
+            if (children[node][c] == 0) {
+                children[node][c] = newNode();
+            }
+            node = children[node][c];
+        }
+        terminals[node] = id;
+    }
+
+    private int newNode() {
+        if (nodes == children.length) {
+            children = Arrays.copyOf(children, nodes * 2);
+            terminals = Arrays.copyOf(terminals, nodes * 2);
+        }
+        terminals[nodes] = -1;
+        return nodes++;
+    }
+
+    private static int lower(char c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+}
@@ -0,0 +1,26 @@
+package com.spring.jwt.sanitize;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Exempts a JSON request field (or every field of a type) from sanitization while it is
+ * deserialized. Use it for values that must reach the service byte for byte, such as
+ * passwords, tokens and secrets.
+ */
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface NoSanitize {
+
+    /**
+     * Checks to skip; all of them by default
+     */
+    Check[] value() default {Check.XSS, Check.SQL};
+
+    enum Check {
+        XSS,
+        SQL
+    }
+}
@@ -0,0 +1,94 @@
+package com.spring.jwt.sanitize;
+
+/**
+ * One step of a sanitizer chain: replaces every match of a rule over the whole input, left to
+ * right and without overlaps, the way Matcher.replaceAll does. A rule only decides where a
+ * match starting at a given position ends; lookaheads cache where they failed, so each pass
+ * stays linear in the input length. Input without a match is returned as is.
+ */
+abstract class ReplacePass {
+
+    protected final String input;
+    protected final int length;
+
+    ReplacePass(String input) {
+        this.input = input;
+        this.length = input.length();
+    }
+
+    /**
+     * @return end (exclusive) of the match starting at from, or -1
+     */
+    abstract int matchEnd(int from);
+
+    String replaceAll(String replacement) {
+        StringBuilder out = null;
+        int copied = 0;
+        int i = 0;
+        while (i < length) {
+            int end = matchEnd(i);
+            if (end < 0) {
+                i++;
+                continue;
+            }
+            if (out == null) {
+                out = new StringBuilder(length + 16);
+            }
+            out.append(input, copied, i).append(replacement);
+            i = end;
+            copied = end;
+        }
+        return out == null ? input : out.append(input, copied, length).toString();
+    }
+
+    /**
+     * ASCII-only case-insensitive literal at from, as CASE_INSENSITIVE matches without UNICODE_CASE
+     */
+    boolean matchesAt(int from, String literal) {
+        return Chars.regionMatchesIgnoreCase(input, from, literal);
+    }
+
+    /**
+     * A literal, then everything up to the first close character after it, across lines
+     */
+    static final class LiteralThenFirst extends ReplacePass {
+
+        private final String literal;
+        private final char close;
+        private final int lastClose;
+
+        LiteralThenFirst(String input, String literal, char close) {
+            super(input);
+            this.literal = literal;
+            this.close = close;
+            this.lastClose = input.lastIndexOf(close);
+        }
+
+        @Override
+        int matchEnd(int from) {
+            int after = from + literal.length();
+            if (after > lastClose || !matchesAt(from, literal)) {
+                return -1;
+            }
+            return input.indexOf(close, after) + 1;
+        }
+    }
+
+    /**
+     * A literal on its own
+     */
+    static final class Literal extends ReplacePass {
+
+        private final String literal;
+
+        Literal(String input, String literal) {
+            super(input);
+            this.literal = literal;
+        }
+
+        @Override
+        int matchEnd(int from) {
+            return matchesAt(from, literal) ? from + literal.length() : -1;
+        }
+    }
+}
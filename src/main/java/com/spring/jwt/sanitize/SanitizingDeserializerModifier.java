@@ -0,0 +1,30 @@
+package com.spring.jwt.sanitize;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+
+/**
+ * Wraps Jackson's String deserializer, which also serves String elements of collections,
+ * arrays and map values
+ */
+public class SanitizingDeserializerModifier extends BeanDeserializerModifier {
+
+    private final boolean xss;
+    private final boolean sql;
+
+    public SanitizingDeserializerModifier(boolean xss, boolean sql) {
+        this.xss = xss;
+        this.sql = sql;
+    }
+
+    @Override
+    public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDesc,
+                                                  JsonDeserializer<?> deserializer) {
+        if (beanDesc.getBeanClass() == String.class && (xss || sql)) {
+            return new SanitizingStringDeserializer(deserializer, xss, sql);
+        }
+        return deserializer;
+    }
+}
@@ -0,0 +1,440 @@
+package com.spring.jwt.sanitize;
+
+/**
+ * Neutralizes SQL injection payloads in request values.
+ *
+ * The rules of the regex chain this replaces run in the same order, each over the result of
+ * the previous one: statement keywords, comments, operators, aggregate calls, trailing
+ * statements, tautologies, stacked statements, UNION, time and error based probes and hex
+ * literals are each replaced with "INVALID", then quotes, separators and comment markers are
+ * stripped. Each rule is one hand-written linear pass; keywords are found on word boundaries
+ * through a trie.
+ */
+public final class SqlInjectionSanitizer {
+
+    private static final String INVALID = "INVALID";
+
+    private static final LiteralTrie STATEMENT_WORDS = new LiteralTrie(
+            "select", "insert", "update", "delete", "from", "where", "drop", "alter", "truncate",
+            "exec", "union", "create", "table", "into", "procedure", "schema");
+    private static final LiteralTrie OPERATOR_WORDS = new LiteralTrie(
+            "and", "or", "not", "like", "between", "in", "is", "null");
+    private static final LiteralTrie AGGREGATE_WORDS = new LiteralTrie(
+            "count", "sum", "avg", "min", "max");
+
+    private SqlInjectionSanitizer() {
+    }
+
+    public static String sanitize(String value) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        String s = new Keyword(value, STATEMENT_WORDS).replaceAll(INVALID);
+        s = new Comment(s).replaceAll(INVALID);
+        s = new Keyword(s, OPERATOR_WORDS).replaceAll(INVALID);
+        s = new AggregateCall(s).replaceAll(INVALID);
+        s = new TrailingStatement(s).replaceAll(INVALID);
+        s = new Tautology(s).replaceAll(INVALID);
+        s = new QuotedOrTautology(s).replaceAll(INVALID);
+        s = new StackedStatement(s).replaceAll(INVALID);
+        s = new UnionAllSelect(s).replaceAll(INVALID);
+        s = new TimeProbe(s).replaceAll(INVALID);
+        s = new ErrorProbe(s).replaceAll(INVALID);
+        s = new StackedStatement(s).replaceAll(INVALID);
+        s = new HexLiteral(s).replaceAll(INVALID);
+        return strip(s);
+    }
+
+    /**
+     * Removes quotes and separators, then comment markers and "#", each over the result of the previous step
+     */
+    private static String strip(String value) {
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\'' && c != '"' && c != ';') {
+                out.append(c);
+            }
+        }
+        removePairs(out, '-', '-');
+        removePairs(out, '/', '*');
+        removePairs(out, '*', '/');
+
+        int n = 0;
+        for (int i = 0; i < out.length(); i++) {
+            char c = out.charAt(i);
+            if (c != '#') {
+                out.setCharAt(n++, c);
+            }
+        }
+        out.setLength(n);
+        return out.toString();
+    }
+
+    private static void removePairs(StringBuilder value, char first, char second) {
+        int n = 0;
+        int i = 0;
+        while (i < value.length()) {
+            char c = value.charAt(i);
+            if (c == first && i + 1 < value.length() && value.charAt(i + 1) == second) {
+                i += 2;
+                continue;
+            }
+            value.setCharAt(n++, c);
+            i++;
+        }
+        value.setLength(n);
+    }
+
+    /**
+     * Where "$" matches without MULTILINE: before a final line terminator, otherwise at the end
+     */
+    private static int trailingTerminatorStart(String value) {
+        int length = value.length();
+        if (length >= 2 && value.charAt(length - 2) == '\r' && value.charAt(length - 1) == '\n') {
+            return length - 2;
+        }
+        if (length >= 1 && Chars.isLineTerminator(value.charAt(length - 1))) {
+            return length - 1;
+        }
+        return length;
+    }
+
+    /**
+     * Start of the last line: ".*?$" only reaches the end from a position past the last line terminator
+     */
+    private static int lastLineStart(String value, int contentEnd) {
+        for (int i = contentEnd - 1; i >= 0; i--) {
+            if (Chars.isLineTerminator(value.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Optional spaces, then "("
+     * @return position after the parenthesis, or -1
+     */
+    private static int openParenEnd(String input, int from) {
+        int open = Chars.skipSpaces(input, from);
+        return open < input.length() && input.charAt(open) == '(' ? open + 1 : -1;
+    }
+
+    /**
+     * \b(word|...)\b; none of a group's words is a prefix of another, so the longest is the only candidate
+     */
+    private static class Keyword extends ReplacePass {
+
+        private final LiteralTrie words;
+
+        Keyword(String input, LiteralTrie words) {
+            super(input);
+            this.words = words;
+        }
+
+        @Override
+        int matchEnd(int from) {
+            if (!Chars.isWord(input.charAt(from)) || Chars.isWordBefore(input, from)) {
+                return -1;
+            }
+            int word = words.match(input, from);
+            if (word < 0) {
+                return -1;
+            }
+            int end = from + words.length(word);
+            return Chars.isWordAt(input, end) ? -1 : end;
+        }
+    }
+
+    /**
+     * An aggregate word, then the first "(" and the first ")" after it, on the same line
+     */
+    private static final class AggregateCall extends Keyword {
+
+        // End of the line on which a call is known to be missing
+        private int failedUntil = -1;
+
+        AggregateCall(String input) {
+            super(input, AGGREGATE_WORDS);
+        }
+
+        @Override
+        int matchEnd(int from) {
+            int wordEnd = super.matchEnd(from);
+            if (wordEnd < 0 || wordEnd <= failedUntil) {
+                return -1;
+            }
+            boolean open = false;
+            for (int i = wordEnd; i < length; i++) {
+                char c = input.charAt(i);
+                if (Chars.isLineTerminator(c)) {
+                    failedUntil = i;
+                    return -1;
+                }
+                if (!open) {
+                    open = c == '(';
+                } else if (c == ')') {
+                    return i + 1;
+                }
+            }
+            failedUntil = length;
+            return -1;
+        }
+    }
+
+    /**
+     * A block comment closed on the same line, or "--" to the end of the last line
+     */
+    private static final class Comment extends ReplacePass {
+
+        private final int contentEnd;
+        private final int lastLineStart;
+
+        // End of the line on which a block comment is known to be unclosed
+        private int failedUntil = -1;
+
+        Comment(String input) {
+            super(input);
+            this.contentEnd = trailingTerminatorStart(input);
+            this.lastLineStart = lastLineStart(input, contentEnd);
+        }
+
+        @Override
+        int matchEnd(int from) {
+            char c = input.charAt(from);
+            if (c == '/' && from + 1 < length && input.charAt(from + 1) == '*') {
+                int end = blockCommentEnd(from + 2);
+                if (end >= 0) {
+                    return end;
+                }
+            }
+            if (c == '-' && from + 1 < length && input.charAt(from + 1) == '-' && from >= lastLineStart) {
+                return contentEnd;
+            }
+            return -1;
+        }
+
+        private int blockCommentEnd(int from) {
+            if (from <= failedUntil) {
+                return -1;
+            }
+            for (int i = from; i < length; i++) {
+                char c = input.charAt(i);
+                if (Chars.isLineTerminator(c)) {
+                    failedUntil = i;
+                    return -1;
+                }
+                if (c == '*' && i + 1 < length && input.charAt(i + 1) == '/') {
+                    return i + 2;
+                }
+            }
+            failedUntil = length;
+            return -1;
+        }
+    }
+
+    /**
+     * ";" to the end of the last line
+     */
+    private static final class TrailingStatement extends ReplacePass {
+
+        private final int contentEnd;
+        private final int lastLineStart;
+
+        TrailingStatement(String input) {
+            super(input);
+            this.contentEnd = trailingTerminatorStart(input);
+            this.lastLineStart = lastLineStart(input, contentEnd);
+        }
+
+        @Override
+        int matchEnd(int from) {
+            return input.charAt(from) == ';' && from >= lastLineStart ? contentEnd : -1;
+        }
+    }
+
+    /**
+     * ' = ' between optional spaces
+     */
+    private static final class Tautology extends ReplacePass {
+
+        Tautology(String input) {
+            super(input);
+        }
+
+        @Override
+        int matchEnd(int from) {
+            if (input.charAt(from) != '\'') {
+                return -1;
+            }
+            int equals = Chars.skipSpaces(input, from + 1);
+            if (equals >= length || input.charAt(equals) != '=') {
+                return -1;
+            }
+            int quote = Chars.skipSpaces(input, equals + 1);
+            return quote < length && input.charAt(quote) == '\'' ? quote + 1 : -1;
+        }
+    }
+
+    /**
+     * ' or ' ' = ' between optional spaces; "or" is matched case-sensitively, as it always was
+     */
+    private static final class QuotedOrTautology extends ReplacePass {
+
+        QuotedOrTautology(String input) {
+            super(input);
+        }
+
+        @Override
+        int matchEnd(int from) {
+            if (input.charAt(from) != '\'') {
+                return -1;
+            }
+            int or = Chars.skipSpaces(input, from + 1);
+            if (!input.startsWith("or", or)) {
+                return -1;
+            }
+            int i = expect(or + 2, '\'');
+            i = expect(i, '\'');
+            i = expect(i, '=');
+            return expect(i, '\'');
+        }
+
+        /**
+         * Optional spaces, then c
+         * @return position after c, or -1
+         */
+        private int expect(int from, char c) {
+            if (from < 0) {
+                return -1;
+            }
+            int i = Chars.skipSpaces(input, from);
+            return i < length && input.charAt(i) == c ? i + 1 : -1;
+        }
+    }
+
+    /**
+     * ";" then a word, possibly on a later line
+     */
+    private static final class StackedStatement extends ReplacePass {
+
+        StackedStatement(String input) {
+            super(input);
+        }
+
+        @Override
+        int matchEnd(int from) {
+            if (input.charAt(from) != ';') {
+                return -1;
+            }
+            int word = Chars.skipSpaces(input, from + 1);
+            int wordEnd = word;
+            while (wordEnd < length && Chars.isWord(input.charAt(wordEnd))) {
+                wordEnd++;
+            }
+            return wordEnd > word ? wordEnd : -1;
+        }
+    }
+
+    /**
+     * union, whitespace, all, whitespace, select
+     */
+    private static final class UnionAllSelect extends ReplacePass {
+
+        UnionAllSelect(String input) {
+            super(input);
+        }
+
+        @Override
+        int matchEnd(int from) {
+            if (!matchesAt(from, "union")) {
+                return -1;
+            }
+            int all = Chars.skipSpaces(input, from + 5);
+            if (all == from + 5 || !matchesAt(all, "all")) {
+                return -1;
+            }
+            int select = Chars.skipSpaces(input, all + 3);
+            return select > all + 3 && matchesAt(select, "select") ? select + 6 : -1;
+        }
+    }
+
+    /**
+     * sleep\s*\(\s*\d+\s*\) or benchmark\s*\(
+     */
+    private static final class TimeProbe extends ReplacePass {
+
+        TimeProbe(String input) {
+            super(input);
+        }
+
+        @Override
+        int matchEnd(int from) {
+            if (matchesAt(from, "benchmark")) {
+                return openParenEnd(input, from + 9);
+            }
+            if (!matchesAt(from, "sleep")) {
+                return -1;
+            }
+            int open = openParenEnd(input, from + 5);
+            if (open < 0) {
+                return -1;
+            }
+            int digits = Chars.skipSpaces(input, open);
+            int digitsEnd = digits;
+            while (digitsEnd < length && input.charAt(digitsEnd) >= '0' && input.charAt(digitsEnd) <= '9') {
+                digitsEnd++;
+            }
+            if (digitsEnd == digits) {
+                return -1;
+            }
+            int close = Chars.skipSpaces(input, digitsEnd);
+            return close < length && input.charAt(close) == ')' ? close + 1 : -1;
+        }
+    }
+
+    /**
+     * extractvalue\s*\( or updatexml\s*\(
+     */
+    private static final class ErrorProbe extends ReplacePass {
+
+        ErrorProbe(String input) {
+            super(input);
+        }
+
+        @Override
+        int matchEnd(int from) {
+            if (matchesAt(from, "extractvalue")) {
+                return openParenEnd(input, from + 12);
+            }
+            return matchesAt(from, "updatexml") ? openParenEnd(input, from + 9) : -1;
+        }
+    }
+
+    /**
+     * 0x and hex digits, in either case
+     */
+    private static final class HexLiteral extends ReplacePass {
+
+        HexLiteral(String input) {
+            super(input);
+        }
+
+        @Override
+        int matchEnd(int from) {
+            if (!matchesAt(from, "0x")) {
+                return -1;
+            }
+            int end = from + 2;
+            while (end < length && isHexDigit(input.charAt(end))) {
+                end++;
+            }
+            return end > from + 2 ? end : -1;
+        }
+
+        private static boolean isHexDigit(char c) {
+            return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+        }
+    }
+}
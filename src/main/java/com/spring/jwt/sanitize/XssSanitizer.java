@@ -0,0 +1,326 @@
+package com.spring.jwt.sanitize;
+
+/**
+ * Strips script vectors from request values and HTML-encodes what is left.
+ *
+ * The rules of the regex chain this replaces run in the same order, each over the result of
+ * the previous one: script blocks, src and on* attribute values, javascript: URLs, CSS
+ * expressions and behaviors, tags carrying attributes, eval/alert/document.write calls,
+ * document.cookie, then iframe and form blocks. Each rule is one hand-written linear pass, so
+ * the output is the chain's while the time stays linear in the input length.
+ *
+ * {@link #strip} drops the same constructs but copies everything else unchanged, for values
+ * that are stored and must not carry HTML entities.
+ */
+public final class XssSanitizer {
+
+    private static final int MAX_STRIP_PASSES = 8;
+
+    private XssSanitizer() {
+    }
+
+    public static String sanitize(String value) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        return encode(removeVectors(value));
+    }
+
+    /**
+     * Removes script vectors without encoding anything else. Removal can join the remains into a
+     * new vector, so the rules repeat until nothing changes; applying it again is a no-op.
+     */
+    public static String strip(String value) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        String current = value;
+        for (int pass = 0; pass < MAX_STRIP_PASSES; pass++) {
+            String stripped = removeVectors(current);
+            if (stripped.equals(current)) {
+                return stripped;
+            }
+            current = stripped;
+        }
+        return current;
+    }
+
+    private static String removeVectors(String value) {
+        String s = new ScriptBlock(value).replaceAll("");
+        s = new SrcValue(s, '\'').replaceAll("");
+        s = new SrcValue(s, '"').replaceAll("");
+        s = new EventHandler(s, '"').replaceAll("");
+        s = new EventHandler(s, '\'').replaceAll("");
+        s = new ReplacePass.Literal(s, "javascript:").replaceAll("");
+        s = new ReplacePass.LiteralThenFirst(s, "expression(", ')').replaceAll("");
+        s = new Behavior(s).replaceAll("");
+        s = new AttributeTag(s).replaceAll("");
+        s = new ReplacePass.LiteralThenFirst(s, "eval(", ')').replaceAll("");
+        s = new ReplacePass.LiteralThenFirst(s, "alert(", ')').replaceAll("");
+        s = new ReplacePass.LiteralThenFirst(s, "document.write(", ')').replaceAll("");
+        s = new ReplacePass.Literal(s, "document.cookie").replaceAll("");
+        s = new Block(s, "<iframe", "</iframe>").replaceAll("");
+        return new Block(s, "<form", "</form>").replaceAll("");
+    }
+
+    /**
+     * Same encoding the filter has always produced: markup characters are entity-encoded,
+     * then every ampersand, including those of the entities, is encoded again
+     */
+    private static String encode(String value) {
+        StringBuilder out = new StringBuilder(value.length() + 16);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&amp;lt;");
+                case '>' -> out.append("&amp;gt;");
+                case '"' -> out.append("&amp;quot;");
+                case '\'' -> out.append("&amp;#x27;");
+                case '&' -> out.append("&amp;");
+                case '/' -> out.append("&#x2F;");
+                default -> out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * &lt;script&gt; up to the first closing tag on the same line
+     */
+    private static final class ScriptBlock extends ReplacePass {
+
+        // End of the line on which the search for a closing tag is known to fail
+        private int failedUntil = -1;
+
+        ScriptBlock(String input) {
+            super(input);
+        }
+
+        @Override
+        int matchEnd(int from) {
+            int body = from + 8;
+            if (body <= failedUntil || !matchesAt(from, "<script>")) {
+                return -1;
+            }
+            for (int i = body; i < length; i++) {
+                char c = input.charAt(i);
+                if (Chars.isLineTerminator(c)) {
+                    failedUntil = i;
+                    return -1;
+                }
+                if (c == '<' && matchesAt(i, "</script>")) {
+                    return i + 9;
+                }
+            }
+            failedUntil = length;
+            return -1;
+        }
+    }
+
+    /**
+     * src, line breaks, "=", line breaks, then a quoted value that may span lines
+     */
+    private static final class SrcValue extends ReplacePass {
+
+        private final char quote;
+        private final int lastQuote;
+
+        SrcValue(String input, char quote) {
+            super(input);
+            this.quote = quote;
+            this.lastQuote = input.lastIndexOf(quote);
+        }
+
+        @Override
+        int matchEnd(int from) {
+            if (from + 5 > lastQuote || !matchesAt(from, "src")) {
+                return -1;
+            }
+            int equals = skipBreaks(from + 3);
+            if (equals >= length || input.charAt(equals) != '=') {
+                return -1;
+            }
+            int open = skipBreaks(equals + 1);
+            if (open >= lastQuote || input.charAt(open) != quote) {
+                return -1;
+            }
+            return input.indexOf(quote, open + 1) + 1;
+        }
+
+        /**
+         * [\r\n]*
+         */
+        private int skipBreaks(int from) {
+            int i = from;
+            while (i < length && (input.charAt(i) == '\r' || input.charAt(i) == '\n')) {
+                i++;
+            }
+            return i;
+        }
+    }
+
+    /**
+     * on\w+, "=" between optional spaces, then a quoted value closed on the same line
+     */
+    private static final class EventHandler extends ReplacePass {
+
+        private final char quote;
+
+        // Every "on" inside the same attribute name ends the same way as the first one
+        private int nameFailedUntil = -1;
+        // End of the line on which a closing quote is known to be missing
+        private int valueFailedUntil = -1;
+
+        EventHandler(String input, char quote) {
+            super(input);
+            this.quote = quote;
+        }
+
+        @Override
+        int matchEnd(int from) {
+            if (from < nameFailedUntil || !matchesAt(from, "on")) {
+                return -1;
+            }
+            int name = from + 2;
+            while (name < length && Chars.isWord(input.charAt(name))) {
+                name++;
+            }
+            if (name == from + 2) {
+                return -1;
+            }
+            int end = valueEnd(name);
+            if (end < 0) {
+                nameFailedUntil = name;
+            }
+            return end;
+        }
+
+        private int valueEnd(int name) {
+            int equals = Chars.skipSpaces(input, name);
+            if (equals >= length || input.charAt(equals) != '=') {
+                return -1;
+            }
+            int open = Chars.skipSpaces(input, equals + 1);
+            if (open >= length || input.charAt(open) != quote || open < valueFailedUntil) {
+                return -1;
+            }
+            for (int i = open + 1; i < length; i++) {
+                char c = input.charAt(i);
+                if (c == quote) {
+                    return i + 1;
+                }
+                if (Chars.isLineTerminator(c)) {
+                    valueFailedUntil = i;
+                    return -1;
+                }
+            }
+            valueFailedUntil = length;
+            return -1;
+        }
+    }
+
+    /**
+     * behavior, ":" between optional spaces, then url( up to the first ")" across lines
+     */
+    private static final class Behavior extends ReplacePass {
+
+        private final int lastCloseParen;
+
+        Behavior(String input) {
+            super(input);
+            this.lastCloseParen = input.lastIndexOf(')');
+        }
+
+        @Override
+        int matchEnd(int from) {
+            if (from + 12 > lastCloseParen || !matchesAt(from, "behavior")) {
+                return -1;
+            }
+            int colon = Chars.skipSpaces(input, from + 8);
+            if (colon >= length || input.charAt(colon) != ':') {
+                return -1;
+            }
+            int url = Chars.skipSpaces(input, colon + 1);
+            if (!matchesAt(url, "url(") || url + 4 > lastCloseParen) {
+                return -1;
+            }
+            return input.indexOf(')', url + 4) + 1;
+        }
+    }
+
+    /**
+     * A "&lt;" followed by whitespace, then "=", then "&gt;", across lines
+     */
+    private static final class AttributeTag extends ReplacePass {
+
+        // A later "<" only has less input to find the same three characters in
+        private boolean noMatch;
+
+        AttributeTag(String input) {
+            super(input);
+        }
+
+        @Override
+        int matchEnd(int from) {
+            if (noMatch || input.charAt(from) != '<') {
+                return -1;
+            }
+            int i = from + 1;
+            while (i < length && !Chars.isSpace(input.charAt(i))) {
+                i++;
+            }
+            while (i < length && input.charAt(i) != '=') {
+                i++;
+            }
+            while (i < length && input.charAt(i) != '>') {
+                i++;
+            }
+            if (i >= length) {
+                noMatch = true;
+                return -1;
+            }
+            return i + 1;
+        }
+    }
+
+    /**
+     * An opening tag up to its first "&gt;", then up to the first closing tag, across lines
+     */
+    private static final class Block extends ReplacePass {
+
+        private final String openingTag;
+        private final String closingTag;
+
+        // A later opening tag only has less input to find the same "&gt;" and closing tag in
+        private boolean noMatch;
+
+        Block(String input, String openingTag, String closingTag) {
+            super(input);
+            this.openingTag = openingTag;
+            this.closingTag = closingTag;
+        }
+
+        @Override
+        int matchEnd(int from) {
+            if (noMatch || !matchesAt(from, openingTag)) {
+                return -1;
+            }
+            int open = input.indexOf('>', from + openingTag.length());
+            int close = open < 0 ? -1 : indexOfIgnoreCase(closingTag, open + 1);
+            if (close < 0) {
+                noMatch = true;
+                return -1;
+            }
+            return close + closingTag.length();
+        }
+
+        private int indexOfIgnoreCase(String literal, int from) {
+            for (int i = from; i <= length - literal.length(); i++) {
+                if (input.charAt(i) == '<' && matchesAt(i, literal)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -1,79 +1,197 @@
 package com.spring.jwt.service.impl;
 
-import com.spring.jwt.entity.User;
 import com.spring.jwt.exception.BaseException;
 import com.spring.jwt.repository.UserRepository;
 import com.spring.jwt.utils.DataMaskingUtils;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Failed-login accounting and temporary lockout.
+ *
+ * Every account that recently failed a login has an in-memory sliding window of failure
+ * timestamps. A full window locks the account locally, so further attempts are rejected
+ * before the database or BCrypt is touched. The database is only written through
+ * single-statement conditional UPDATEs, never by loading and saving the User entity.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class AccountSecurityService {
 
+    public static final String ACCOUNT_LOCKED_MESSAGE =
+            "Account is temporarily locked due to multiple failed login attempts. Please try again later.";
+
     private final UserRepository userRepository;
+    private final int maxFailedAttempts;
+    private final long lockDurationMillis;
+    private final long windowMillis;
+    private final int maxTrackedAccounts;
+
+    private final Map<String, FailureWindow> windows = new ConcurrentHashMap<>();
+
+    public AccountSecurityService(
+            UserRepository userRepository,
+            @Value("${app.security.max-failed-attempts:5}") int maxFailedAttempts,
+            @Value("${app.security.account-lock-duration-minutes:30}") int lockDurationMinutes,
+            @Value("${app.security.failed-attempt-window-minutes:15}") int windowMinutes,
+            @Value("${app.security.failed-attempt-max-tracked:100000}") int maxTrackedAccounts) {
+        this.userRepository = userRepository;
+        this.maxFailedAttempts = Math.max(1, maxFailedAttempts);
+        this.lockDurationMillis = TimeUnit.MINUTES.toMillis(lockDurationMinutes);
+        this.windowMillis = TimeUnit.MINUTES.toMillis(windowMinutes);
+        this.maxTrackedAccounts = maxTrackedAccounts;
+    }
 
     public void checkAccountLock(String email) {
         if (isAccountLocked(email)) {
             log.warn("Login attempt on locked account: {}", DataMaskingUtils.maskEmail(email));
-            throw new BaseException(String.valueOf(HttpStatus.LOCKED.value()), 
-                "Account is temporarily locked due to multiple failed login attempts. Please try again later.");
+            throw new BaseException(String.valueOf(HttpStatus.LOCKED.value()), ACCOUNT_LOCKED_MESSAGE);
         }
     }
 
     public boolean isAccountLocked(String email) {
-        User user = userRepository.findByEmail(email);
-        if (user == null) {
+        if (email == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        FailureWindow window = windows.get(key(email));
+        if (window != null && window.isLocked(now)) {
+            return true;
+        }
+
+        LocalDateTime lockedUntil = userRepository.findAccountLockedUntilByEmail(email).orElse(null);
+        if (lockedUntil == null || !LocalDateTime.now().isBefore(lockedUntil)) {
             return false;
         }
-        
-        return user.getAccountLockedUntil() != null && 
-               LocalDateTime.now().isBefore(user.getAccountLockedUntil());
+        // Locked by another node or an earlier run; remember it so the next attempt skips the query
+        FailureWindow tracked = track(email);
+        if (tracked != null) {
+            tracked.lockUntil(lockedUntil.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        return true;
     }
 
-    @Transactional
     public void lockAccount(String email, int lockDurationMinutes) {
-        User user = userRepository.findByEmail(email);
-        if (user != null) {
-            user.setAccountLocked(true);
-            user.setAccountLockedUntil(LocalDateTime.now().plusMinutes(lockDurationMinutes));
-            userRepository.save(user);
+        LocalDateTime lockedUntil = LocalDateTime.now().plusMinutes(lockDurationMinutes);
+        FailureWindow window = track(email);
+        if (window != null) {
+            window.lockUntil(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(lockDurationMinutes));
+        }
+        if (userRepository.lockAccountUntil(email, lockedUntil) > 0) {
             log.warn("Account locked for email: {}", DataMaskingUtils.maskEmail(email));
         }
     }
 
-    @Transactional
     public void resetFailedAttempts(String email) {
-        User user = userRepository.findByEmail(email);
-        if (user != null) {
-            user.setFailedLoginAttempts(0);
-            user.setAccountLocked(false);
-            user.setAccountLockedUntil(null);
-            userRepository.save(user);
+        if (email == null) {
+            return;
         }
+        windows.remove(key(email));
+        userRepository.resetFailedLoginAttempts(email);
+    }
+
+    public void recordFailedAttempt(String email) {
+        incrementFailedAttempts(email, maxFailedAttempts);
     }
 
-    @Transactional
     public void incrementFailedAttempts(String email, int maxFailedAttempts) {
-        User user = userRepository.findByEmail(email);
-        if (user != null) {
-            int attempts = user.getFailedLoginAttempts() != null ? user.getFailedLoginAttempts() : 0;
-            attempts++;
-            user.setFailedLoginAttempts(attempts);
-            
-            if (attempts >= maxFailedAttempts) {
-                user.setAccountLocked(true);
-                user.setAccountLockedUntil(LocalDateTime.now().plusMinutes(30));
-                log.warn("Account locked for email: {}", DataMaskingUtils.maskEmail(email));
+        if (email == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        FailureWindow window = track(email);
+        boolean lockedLocally = window != null
+                && window.recordFailure(now, windowMillis, maxFailedAttempts, lockDurationMillis);
+
+        LocalDateTime lockedUntil = LocalDateTime.now().plus(Duration.ofMillis(lockDurationMillis));
+        int updated = userRepository.incrementFailedLoginAttempts(email, maxFailedAttempts, lockedUntil);
+        if (updated > 0 && lockedLocally) {
+            // The window can fill before the persisted counter does when earlier failures were cleared elsewhere
+            userRepository.lockAccountUntil(email, lockedUntil);
+        }
+        if (lockedLocally) {
+            log.warn("Account locked for email: {}", DataMaskingUtils.maskEmail(email));
+        }
+    }
+
+    /**
+     * Drop windows with no recent failures and no active lock
+     */
+    @Scheduled(fixedRate = 60000)
+    public void evictIdleWindows() {
+        long now = System.currentTimeMillis();
+        windows.entrySet().removeIf(entry -> entry.getValue().isIdle(now, windowMillis));
+    }
+
+    private FailureWindow track(String email) {
+        String key = key(email);
+        FailureWindow window = windows.get(key);
+        if (window != null) {
+            return window;
+        }
+        if (windows.size() >= maxTrackedAccounts) {
+            // Over capacity: fall back to the persisted counter rather than grow without bound
+            return null;
+        }
+        return windows.computeIfAbsent(key, k -> new FailureWindow(maxFailedAttempts));
+    }
+
+    private static String key(String email) {
+        return email.trim().toLowerCase();
+    }
+
+    /**
+     * Ring of the most recent failure timestamps for one account
+     */
+    private static final class FailureWindow {
+
+        private final long[] failures;
+        private int next;
+        private long lockedUntil;
+        private long lastFailure;
+
+        FailureWindow(int capacity) {
+            this.failures = new long[capacity];
+        }
+
+        synchronized boolean recordFailure(long now, long windowMillis, int maxAttempts, long lockMillis) {
+            failures[next] = now;
+            next = (next + 1) % failures.length;
+            lastFailure = now;
+
+            int recent = 0;
+            for (long failure : failures) {
+                if (failure > 0 && now - failure < windowMillis) {
+                    recent++;
+                }
+            }
+            if (recent >= Math.min(maxAttempts, failures.length) && lockedUntil <= now) {
+                lockedUntil = now + lockMillis;
+                return true;
             }
-            
-            userRepository.save(user);
+            return false;
+        }
+
+        synchronized void lockUntil(long until) {
+            lockedUntil = Math.max(lockedUntil, until);
+        }
+
+        synchronized boolean isLocked(long now) {
+            return lockedUntil > now;
+        }
+
+        synchronized boolean isIdle(long now, long windowMillis) {
+            return lockedUntil <= now && now - lastFailure >= windowMillis;
         }
     }
-}
\ No newline at end of file
+}
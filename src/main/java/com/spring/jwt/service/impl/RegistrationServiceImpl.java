@@ -4,6 +4,7 @@ import com.spring.jwt.dto.*;
 import com.spring.jwt.entity.Role;
 import com.spring.jwt.entity.User;
 import com.spring.jwt.exception.BaseException;
+import com.spring.jwt.exception.PasswordHashingUnavailableException;
 import com.spring.jwt.repository.RoleRepository;
 import com.spring.jwt.repository.UserRepository;
 import com.spring.jwt.service.SecureAuthenticationService;
@@ -113,8 +114,8 @@ public BaseResponseDTO registerUser(
         
         User user = authenticateCredentials(request);
         
-        accountSecurityService.resetFailedAttempts(user.getEmail());
         updateUserLoginInfo(user, httpRequest, request.getDeviceInfo());
+        accountSecurityService.resetFailedAttempts(user.getEmail());
         
         log.info("User authenticated successfully: {}", DataMaskingUtils.maskEmail(request.getEmail()));
         
@@ -171,7 +172,7 @@ public BaseResponseDTO registerUser(
 
             return createSuccessResponse(HttpStatus.CREATED, successMessage, Long.valueOf(savedUser.getUserId()));
 
-        } catch (BaseException e) {
+        } catch (BaseException | PasswordHashingUnavailableException e) {
             throw e;
         } catch (Exception e) {
             log.error("Error during {} registration: {}", roleName.toLowerCase(), e.getMessage(), e);
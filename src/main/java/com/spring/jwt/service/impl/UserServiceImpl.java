@@ -8,6 +8,7 @@ import com.spring.jwt.exception.UserNotFoundExceptions;
 import com.spring.jwt.repository.RoleRepository;
 import com.spring.jwt.repository.UserRepository;
 import com.spring.jwt.service.UserService;
+import com.spring.jwt.service.security.PrincipalCache;
 import com.spring.jwt.utils.BaseResponseDTO;
 import com.spring.jwt.utils.EmailService;
 import com.spring.jwt.utils.EmailVerificationService.EmailVerification;
@@ -51,6 +52,8 @@ public class UserServiceImpl implements UserService
 
     private final EmployeeRepository employeeRepository;
 
+    private final PrincipalCache principalCache;
+
 //    @Value("${app.url.password-reset}")
 //    private String passwordResetUrl;
 @Value("${app.url.password-reset:http://localhost:3000/reset-password}")
@@ -280,6 +283,7 @@ private String passwordResetUrl;
         user.setResetPasswordToken(null);
         user.setResetPasswordTokenExpiry(null);
         userRepository.save(user);
+        principalCache.evict(user.getEmail());
         log.info("Password successfully reset for user: {}", user.getEmail());
 
         return new ResponseDto(HttpStatus.OK.toString(), "Password reset successful");
@@ -404,6 +408,7 @@ private String passwordResetUrl;
         }
 
         User updatedUser = userRepository.save(user);
+        principalCache.evict(updatedUser.getEmail());
         return userMapper.toDTO(updatedUser);
     }
 
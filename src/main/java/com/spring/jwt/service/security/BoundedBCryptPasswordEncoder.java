@@ -0,0 +1,159 @@
+package com.spring.jwt.service.security;
+
+import com.spring.jwt.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt encoder that runs every hash and verification on a dedicated, size-limited
+ * CPU pool with a bounded queue, so a burst of logins cannot occupy every servlet
+ * worker thread. When the queue is full, or a task waits longer than the configured
+ * limit, callers get a PasswordHashingUnavailableException instead of queueing forever.
+ *
+ * Hashes whose cost factor differs from the configured strength report
+ * upgradeEncoding() == true, which lets DaoAuthenticationProvider rehash on login.
+ */
+@Slf4j
+public class BoundedBCryptPasswordEncoder extends BCryptPasswordEncoder implements DisposableBean {
+
+    private final int strength;
+    private final long maxWaitMillis;
+    private final long retryAfterSeconds;
+    private final ThreadPoolExecutor executor;
+
+    private Timer encodeTimer;
+    private Timer matchesTimer;
+    private Counter rejectedCounter;
+
+    public BoundedBCryptPasswordEncoder(int strength, int poolSize, int queueCapacity,
+                                        long maxWaitMillis, long retryAfterSeconds) {
+        super(strength);
+        this.strength = strength;
+        this.maxWaitMillis = maxWaitMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.prestartAllCoreThreads();
+
+        log.info("Password hashing pool started: {} threads, queue capacity {}, bcrypt strength {}",
+                threads, queueCapacity, strength);
+    }
+
+    public void bindMetrics(MeterRegistry meterRegistry) {
+        if (meterRegistry == null) {
+            return;
+        }
+        Gauge.builder("password.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing tasks currently running")
+                .register(meterRegistry);
+        encodeTimer = Timer.builder("password.hashing.duration")
+                .tag("operation", "encode")
+                .description("Time spent computing BCrypt hashes")
+                .register(meterRegistry);
+        matchesTimer = Timer.builder("password.hashing.duration")
+                .tag("operation", "matches")
+                .description("Time spent verifying BCrypt hashes")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("password.hashing.rejected")
+                .description("Password hashing tasks rejected because the pool was saturated")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> super.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> super.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    /**
+     * Upgrade in both directions, so lowering the cost factor also migrates stored hashes
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return false;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6)) != strength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    private <T> T submit(Callable<T> task, Timer timer) {
+        Callable<T> timed = timer != null ? () -> timer.recordCallable(task) : task;
+
+        Future<T> future;
+        try {
+            future = executor.submit(timed);
+        } catch (RejectedExecutionException e) {
+            throw rejected("Password hashing queue is full");
+        }
+
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw rejected("Password hashing did not complete within " + maxWaitMillis + " ms");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw rejected("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    private PasswordHashingUnavailableException rejected(String reason) {
+        if (rejectedCounter != null) {
+            rejectedCounter.increment();
+        }
+        log.warn("{} (active: {}, queued: {})", reason, executor.getActiveCount(), executor.getQueue().size());
+        return new PasswordHashingUnavailableException(
+                "Authentication service is busy. Please try again shortly.", retryAfterSeconds);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
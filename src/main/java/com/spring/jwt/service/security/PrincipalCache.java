@@ -0,0 +1,151 @@
+package com.spring.jwt.service.security;
+
+import com.spring.jwt.jwt.UserVersionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded, TTL based cache of authenticated principals keyed by username.
+ * Sits in front of UserDetailsServiceCustom so authenticated requests do not
+ * reload the user and its roles from the database on every call.
+ * Services that change a user's password, roles or lock state must call
+ * {@link #evict(String)} after the change, which also bumps the user's token
+ * version so claims-only access tokens issued before the change stop working.
+ * Inside a transaction the eviction is repeated after commit, since a concurrent
+ * request may reload and re-cache the user before the change is visible.
+ */
+@Component
+@Slf4j
+public class PrincipalCache {
+
+    private static final int EVICTION_SAMPLE_SIZE = 16;
+
+    private static final Map<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+
+    private final UserVersionService userVersionService;
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    public PrincipalCache(
+            UserVersionService userVersionService,
+            @Value("${app.security.principal-cache.enabled:true}") boolean enabled,
+            @Value("${app.security.principal-cache.max-size:10000}") int maxSize,
+            @Value("${app.security.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userVersionService = userVersionService;
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+    }
+
+    /**
+     * Shared authority instance for a role name, so cached principals do not each hold their own copies
+     */
+    public static GrantedAuthority internAuthority(String roleName) {
+        return AUTHORITIES.computeIfAbsent(roleName, SimpleGrantedAuthority::new);
+    }
+
+    public UserDetailsCustom get(String username) {
+        if (!enabled || username == null) {
+            return null;
+        }
+        CachedPrincipal cached = principals.get(username);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.isExpired(System.nanoTime())) {
+            principals.remove(username, cached);
+            return null;
+        }
+        return cached.principal();
+    }
+
+    public void put(UserDetailsCustom principal) {
+        if (!enabled || principal == null || principal.getUsername() == null) {
+            return;
+        }
+        if (principals.size() >= maxSize) {
+            evictSample();
+        }
+        principals.put(principal.getUsername(), new CachedPrincipal(principal, System.nanoTime() + ttlNanos));
+    }
+
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        evictNow(username);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictNow(username);
+            }
+        });
+    }
+
+    public void evictAll() {
+        principals.clear();
+    }
+
+    public int size() {
+        return principals.size();
+    }
+
+    private void evictNow(String username) {
+        userVersionService.bump(username);
+        if (principals.remove(username) != null) {
+            log.debug("Evicted cached principal for user: {}", username);
+        }
+    }
+
+    /**
+     * Drop expired entries from a small sample, falling back to the entry closest to expiry.
+     * Keeps eviction cost constant instead of scanning the whole map.
+     */
+    private void evictSample() {
+        long now = System.nanoTime();
+        String oldestKey = null;
+        long oldestExpiry = Long.MAX_VALUE;
+        int removed = 0;
+        int sampled = 0;
+
+        Iterator<Map.Entry<String, CachedPrincipal>> it = principals.entrySet().iterator();
+        while (it.hasNext() && sampled < EVICTION_SAMPLE_SIZE) {
+            Map.Entry<String, CachedPrincipal> entry = it.next();
+            sampled++;
+            long expiresAt = entry.getValue().expiresAt();
+            if (expiresAt - now <= 0) {
+                it.remove();
+                removed++;
+            } else if (expiresAt - oldestExpiry < 0) {
+                oldestExpiry = expiresAt;
+                oldestKey = entry.getKey();
+            }
+        }
+
+        if (removed == 0 && oldestKey != null) {
+            principals.remove(oldestKey);
+        }
+    }
+
+    private record CachedPrincipal(UserDetailsCustom principal, long expiresAt) {
+        boolean isExpired(long now) {
+            return expiresAt - now <= 0;
+        }
+    }
+}
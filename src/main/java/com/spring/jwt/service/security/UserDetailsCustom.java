@@ -1,25 +1,30 @@
 package com.spring.jwt.service.security;
 
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.List;
 
-@NoArgsConstructor
-@Data
+/**
+ * Immutable principal, safe to share between requests through the principal cache
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
 public class UserDetailsCustom implements UserDetails {
 
-    private String username;
-    @lombok.ToString.Exclude
-    private String password;
-    private String firstName;
-    private Long userId;
-    private Integer userProfileId;
+    private final String username;
+    @ToString.Exclude
+    private final String password;
+    private final String firstName;
+    private final Long userId;
+    private final Integer userProfileId;
 
-    private List<GrantedAuthority> authorities;
+    private final List<GrantedAuthority> authorities;
 
     public UserDetailsCustom(
             String username,
@@ -33,7 +38,7 @@ public class UserDetailsCustom implements UserDetails {
         this.firstName = firstName;
         this.userId = userId;
         this.userProfileId = userProfileId;
-        this.authorities = authorities;
+        this.authorities = authorities != null ? List.copyOf(authorities) : List.of();
     }
 
     public UserDetailsCustom(
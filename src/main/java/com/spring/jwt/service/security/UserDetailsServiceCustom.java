@@ -6,8 +6,8 @@ import com.spring.jwt.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -18,25 +18,61 @@ import java.util.stream.Collectors;
 
 @Service
 @Slf4j
-public class UserDetailsServiceCustom implements UserDetailsService {
+public class UserDetailsServiceCustom implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
-    public UserDetailsServiceCustom(UserRepository userRepository) {
+    public UserDetailsServiceCustom(UserRepository userRepository, PrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        UserDetailsCustom cached = principalCache.get(username);
+        if (cached != null) {
+            return cached;
+        }
+
         UserDetailsCustom userDetailsCustom = getUserDetails(username);
 
         if (ObjectUtils.isEmpty(userDetailsCustom)) {
             throw new BaseException(String.valueOf(HttpStatus.BAD_REQUEST.value()), "Invalid username or password!");
         }
 
+        principalCache.put(userDetailsCustom);
         return userDetailsCustom;
     }
 
+    /**
+     * Called by DaoAuthenticationProvider after a successful login when the stored hash
+     * was produced with a different BCrypt cost than the one currently configured.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User entity = userRepository.findByEmail(user.getUsername());
+        if (entity == null) {
+            return user;
+        }
+        entity.setPassword(newPassword);
+        userRepository.save(entity);
+        log.info("Rehashed password for user {} with the current cost factor", user.getUsername());
+
+        if (!(user instanceof UserDetailsCustom details)) {
+            return user;
+        }
+        UserDetailsCustom upgraded = new UserDetailsCustom(
+                details.getUsername(),
+                newPassword,
+                details.getFirstName(),
+                details.getUserId(),
+                details.getUserProfileId(),
+                List.copyOf(details.getAuthorities()));
+        principalCache.put(upgraded);
+        return upgraded;
+    }
+
     private UserDetailsCustom getUserDetails(String username) {
         User user = userRepository.findByEmail(username);
         if (ObjectUtils.isEmpty(user)) {
@@ -50,7 +86,7 @@ public class UserDetailsServiceCustom implements UserDetailsService {
                     if (!roleName.startsWith("ROLE_")) {
                         roleName = "ROLE_" + roleName;
                     }
-                    return new SimpleGrantedAuthority(roleName);
+                    return PrincipalCache.internAuthority(roleName);
                 })
                 .collect(Collectors.toList());
 
@@ -0,0 +1,178 @@
+package com.spring.jwt.thumbnail;
+
+import com.spring.jwt.Enums.ThumbnailSize;
+import com.spring.jwt.blob.BlobStore;
+import com.spring.jwt.download.DownloadContent;
+import com.spring.jwt.entity.ImageDerivative;
+import com.spring.jwt.repository.ImageDerivativeRepository;
+import com.spring.jwt.utils.ImageOptimizationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Precomputed {@link ThumbnailSize} renditions of uploaded images, so list and gallery screens
+ * fetch kilobytes instead of the full image. Renditions are keyed by the SHA-256 of the
+ * original and stored in the blob store beside it: identical uploads share them, and they are
+ * generated once at upload time. Originals uploaded before renditions existed get them on the
+ * first request. Renditions of originals no owner points at any more are collected by a sweep.
+ */
+@Service
+@Slf4j
+public class ThumbnailService {
+
+    private static final String CONTENT_TYPE = "image/jpeg";
+
+    private final ImageDerivativeRepository imageDerivativeRepository;
+    private final BlobStore blobStore;
+    private final ImageOptimizationService imageOptimizationService;
+    private final TransactionTemplate transactionTemplate;
+    private final long gracePeriodMillis;
+    private final int sweepBatchSize;
+
+    public ThumbnailService(
+            ImageDerivativeRepository imageDerivativeRepository,
+            BlobStore blobStore,
+            ImageOptimizationService imageOptimizationService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.thumbnail.grace-period-ms:3600000}") long gracePeriodMillis,
+            @Value("${app.thumbnail.sweep-batch-size:200}") int sweepBatchSize) {
+        this.imageDerivativeRepository = imageDerivativeRepository;
+        this.blobStore = blobStore;
+        this.imageOptimizationService = imageOptimizationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.gracePeriodMillis = gracePeriodMillis;
+        this.sweepBatchSize = Math.max(1, sweepBatchSize);
+    }
+
+    /**
+     * Generate the renditions of an image held outside the blob store
+     * @return SHA-256 of the image, for the owner row to keep
+     */
+    @Transactional
+    public String generate(byte[] original) {
+        String sourceHash = sha256(original);
+        generate(sourceHash, original);
+        return sourceHash;
+    }
+
+    /**
+     * Generate whichever renditions of the original are missing. Content that cannot be decoded
+     * as an image is skipped, never failing the upload that triggered it.
+     */
+    @Transactional
+    public void generate(String sourceHash, byte[] original) {
+        Set<ThumbnailSize> missing = EnumSet.allOf(ThumbnailSize.class);
+        imageDerivativeRepository.findSizesBySourceHash(sourceHash).forEach(missing::remove);
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        List<ImageOptimizationService.Rendition> renditions;
+        try {
+            renditions = imageOptimizationService.createRenditions(original,
+                    missing.stream().map(ThumbnailSize::getPixels).toList());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot create thumbnails of {}: {}", sourceHash, e.getMessage());
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        for (ImageOptimizationService.Rendition rendition : renditions) {
+            String contentHash = blobStore.put(rendition.data());
+            int inserted = imageDerivativeRepository.insertIfAbsent(sourceHash,
+                    ThumbnailSize.ofPixels(rendition.maxDimension()).name(), contentHash,
+                    rendition.width(), rendition.height(), rendition.data().length, now);
+            if (inserted == 0) {
+                blobStore.release(contentHash);
+            }
+        }
+        if (!renditions.isEmpty()) {
+            log.debug("Created {} thumbnails of {} in {}ms", renditions.size(), sourceHash,
+                    System.currentTimeMillis() - start);
+        }
+    }
+
+    public Optional<DownloadContent> find(String sourceHash, ThumbnailSize size) {
+        return imageDerivativeRepository.findBySourceHashAndSize(sourceHash, size)
+                .map(derivative -> toDownloadContent(derivative, size));
+    }
+
+    /**
+     * The rendition, generating the original's renditions first if it has none yet
+     * @param original loads the original; only called when the rendition is missing
+     * @return empty if the original is not a decodable image
+     */
+    @Transactional
+    public Optional<DownloadContent> getOrCreate(String sourceHash, ThumbnailSize size, Supplier<byte[]> original) {
+        Optional<DownloadContent> existing = find(sourceHash, size);
+        if (existing.isPresent()) {
+            return existing;
+        }
+        generate(sourceHash, original.get());
+        return find(sourceHash, size);
+    }
+
+    @Scheduled(fixedDelayString = "${app.thumbnail.sweep-interval-ms:3600000}")
+    public void sweep() {
+        List<ImageDerivative> orphans;
+        try {
+            orphans = imageDerivativeRepository.findOrphaned(System.currentTimeMillis() - gracePeriodMillis,
+                    PageRequest.of(0, sweepBatchSize));
+        } catch (RuntimeException e) {
+            log.warn("Failed to list orphaned thumbnails: {}", e.getMessage());
+            return;
+        }
+        int collected = 0;
+        for (ImageDerivative derivative : orphans) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    imageDerivativeRepository.delete(derivative);
+                    blobStore.release(derivative.getContentHash());
+                });
+                collected++;
+            } catch (RuntimeException e) {
+                log.warn("Failed to collect thumbnail {}: {}", derivative.getDerivativeId(), e.getMessage());
+            }
+        }
+        if (collected > 0) {
+            log.debug("Collected {} orphaned thumbnails", collected);
+        }
+    }
+
+    private DownloadContent toDownloadContent(ImageDerivative derivative, ThumbnailSize size) {
+        String hash = derivative.getContentHash();
+        String fileName = size.name().toLowerCase() + "-" + size.getPixels() + ".jpg";
+        Path file = blobStore.localPath(hash);
+        if (file != null) {
+            return DownloadContent.ofFile(file, derivative.getLength(), hash, CONTENT_TYPE, fileName);
+        }
+        return DownloadContent.ofStream(() -> blobStore.open(hash), derivative.getLength(), hash,
+                CONTENT_TYPE, fileName);
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
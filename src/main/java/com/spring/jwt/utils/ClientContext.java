@@ -0,0 +1,128 @@
+package com.spring.jwt.utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Client facts derived from request headers, resolved once per request and kept as a
+ * request attribute. Rate limiting, audit logging and device fingerprinting all read
+ * from here instead of re-parsing X-Forwarded-For and re-hashing the same headers.
+ */
+public final class ClientContext {
+
+    public static final String ATTRIBUTE = ClientContext.class.getName();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final String clientIp;
+    private final String fingerprintIp;
+    private final String userAgent;
+    private final String acceptLanguage;
+    private final String acceptEncoding;
+
+    private String deviceFingerprint;
+
+    private ClientContext(HttpServletRequest request) {
+        this.clientIp = resolveClientIp(request);
+        this.fingerprintIp = resolveFingerprintIp(request);
+        this.userAgent = request.getHeader("User-Agent");
+        this.acceptLanguage = request.getHeader("Accept-Language");
+        this.acceptEncoding = request.getHeader("Accept-Encoding");
+    }
+
+    /**
+     * Context for the request, resolving and storing it on first use
+     */
+    public static ClientContext from(HttpServletRequest request) {
+        Object existing = request.getAttribute(ATTRIBUTE);
+        if (existing instanceof ClientContext context) {
+            return context;
+        }
+        ClientContext context = new ClientContext(request);
+        request.setAttribute(ATTRIBUTE, context);
+        return context;
+    }
+
+    public String getClientIp() {
+        return clientIp;
+    }
+
+    /**
+     * Raw User-Agent header, may be null
+     */
+    public String getUserAgent() {
+        return userAgent;
+    }
+
+    public String getAcceptLanguage() {
+        return acceptLanguage;
+    }
+
+    public String getAcceptEncoding() {
+        return acceptEncoding;
+    }
+
+    /**
+     * Fingerprint stamped into tokens, computed on first use and memoized for the request
+     */
+    public String getDeviceFingerprint() {
+        String fingerprint = deviceFingerprint;
+        if (fingerprint == null) {
+            String deviceInfo = userAgent + "|" + fingerprintIp + "|" + acceptLanguage + "|" + acceptEncoding;
+            fingerprint = Base64.getEncoder().encodeToString(sha256(deviceInfo));
+            deviceFingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
+    /**
+     * SHA-256 using a per-thread digest instance
+     */
+    public static byte[] sha256(String value) {
+        MessageDigest digest = SHA_256.get();
+        digest.reset();
+        return digest.digest(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The address tokens have always been fingerprinted with: the first X-Forwarded-For entry
+     * as sent, else the remote address. Kept apart from the client IP so issued tokens keep
+     * matching whatever the rate limiter keys on.
+     */
+    private static String resolveFingerprintIp(HttpServletRequest request) {
+        String ip = request.getHeader("X-Forwarded-For");
+        if (ip != null && ip.contains(",")) {
+            ip = ip.split(",")[0].trim();
+        }
+        if (ip == null || ip.isBlank()) {
+            ip = request.getRemoteAddr();
+        }
+        return ip;
+    }
+
+    private static String resolveClientIp(HttpServletRequest request) {
+        String xff = request.getHeader("X-Forwarded-For");
+        if (xff != null && !xff.isBlank() && !xff.equalsIgnoreCase("unknown")) {
+            // First entry is the originating client (client, proxy1, proxy2)
+            int comma = xff.indexOf(',');
+            return (comma >= 0 ? xff.substring(0, comma) : xff).trim();
+        }
+
+        String realIp = request.getHeader("X-Real-IP");
+        if (realIp != null && !realIp.isBlank() && !realIp.equalsIgnoreCase("unknown")) {
+            return realIp.trim();
+        }
+
+        return request.getRemoteAddr();
+    }
+}
@@ -1,5 +1,6 @@
 package com.spring.jwt.utils.EmailVerificationService.EmailUtils;
 
+import com.spring.jwt.sanitize.NoSanitize;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
@@ -16,6 +17,7 @@ public class EmailVerificationDto {
 
     @NotBlank(message = "Email cannot be blank")
     @Email(message = "Invalid email format")
+    @NoSanitize
     private String email;
 
     private String status;
@@ -1,9 +1,11 @@
 package com.spring.jwt.utils.EmailVerificationService.EmailUtils;
 
+import com.spring.jwt.sanitize.NoSanitize;
 import lombok.Data;
 
 @Data
 public class EmailVerificationRequest {
+    @NoSanitize
     private String email;
     private String otp;
 }
\ No newline at end of file
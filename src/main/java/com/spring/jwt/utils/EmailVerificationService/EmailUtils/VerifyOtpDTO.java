@@ -1,5 +1,6 @@
 package com.spring.jwt.utils.EmailVerificationService.EmailUtils;
 
+import com.spring.jwt.sanitize.NoSanitize;
 import jakarta.persistence.Column;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -15,7 +16,9 @@ public class VerifyOtpDTO {
     @Email
     @Pattern(regexp = "^[\\w.-]+@[\\w.-]+\\.[a-zA-Z]{2,}$", message = "Invalid email format")
     @Column(name = "email", nullable = false, length = 250, unique = true)
+    @NoSanitize
     private String email;
+    @NoSanitize
     private String otp;
 
     public VerifyOtpDTO(String otp, String email) {
@@ -1,9 +1,12 @@
 package com.spring.jwt.utils.EmailVerificationService.EmailUtils;
 
+import com.spring.jwt.sanitize.NoSanitize;
 import lombok.Data;
 
 @Data
 public class VerifyOtpRequest {
+    @NoSanitize
     private String email;
+    @NoSanitize
     private String otp;
 }
\ No newline at end of file
@@ -4,7 +4,9 @@ import com.spring.jwt.dto.EmailVerificationMapper;
 import com.spring.jwt.exception.*;
 import com.spring.jwt.repository.UserRepository;
 import com.spring.jwt.utils.EmailVerificationService.EmailUtils.VerifyOtpDTO;
-import io.github.bucket4j.*;
+import com.spring.jwt.ratelimit.KeyedRateLimiter;
+import com.spring.jwt.ratelimit.RateLimiterFactory;
+import jakarta.annotation.PostConstruct;
 import jakarta.mail.*;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
@@ -21,8 +23,6 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Properties;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,6 +33,7 @@ public class EmailVerificationServiceImpl implements EmailVerificationService {
     private final EmailVerificationRepo emailVerificationRepo;
     private final UserRepository userRepository;
     private final EmailVerificationMapper emailVerificationMapper;
+    private final RateLimiterFactory rateLimiterFactory;
 
     @Value("${spring.mail.username}") private String emailUsername;
     @Value("${spring.mail.password}") private String emailPassword;
@@ -41,24 +42,25 @@ public class EmailVerificationServiceImpl implements EmailVerificationService {
     @Value("${spring.mail.properties.mail.smtp.ssl.enable}") private String emailSmtpSslEnable;
     @Value("${spring.mail.properties.mail.smtp.auth}") private String emailSmtpAuth;
 
-    private final ConcurrentMap<String, Bucket> emailRateLimiters = new ConcurrentHashMap<>();
+    private KeyedRateLimiter otpRateLimiter;
 
     private static final String STATUS_VERIFIED = "Verified";
     private static final String STATUS_NOT_VERIFIED = "Not Verified";
     private static final int OTP_EXPIRY_MINUTES = 3;
     private static final int OTP_RATE_LIMIT = 5;
+    private static final int OTP_RATE_LIMIT_MAX_TRACKED = 16384;
 
-    private Bucket getRateLimiterForEmail(String email) {
-        return emailRateLimiters.computeIfAbsent(email, key ->
-                Bucket.builder().addLimit(Bandwidth.classic(OTP_RATE_LIMIT, Refill.greedy(OTP_RATE_LIMIT, Duration.ofMinutes(5)))).build()
-        );
+    @PostConstruct
+    public void initRateLimiter() {
+        otpRateLimiter = rateLimiterFactory.create(
+                "rate.limiter.otp", OTP_RATE_LIMIT, Duration.ofMinutes(5).toMillis(), OTP_RATE_LIMIT_MAX_TRACKED);
     }
 
     @Override
     public void sendEmail(String email) {
         if (email == null || email.isBlank()) throw new EmptyFieldException("Email field is empty");
         if (userRepository.findByEmail(email) != null) throw new UserAlreadyExistException("User already exists");
-        if (!getRateLimiterForEmail(email).tryConsume(1)) throw new RuntimeException("Too many OTP requests. Try again later.");
+        if (otpRateLimiter.tryAcquire(email.trim().toLowerCase()) == KeyedRateLimiter.REJECTED) throw new RuntimeException("Too many OTP requests. Try again later.");
 
         String otp = OtpUtil.generateOtp(6);
         String salt = OtpUtil.generateSalt();
@@ -18,19 +18,21 @@ import lombok.extern.slf4j.Slf4j;
 import net.coobird.thumbnailator.Thumbnails;
 import org.springframework.stereotype.Service;
 
-import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
 import javax.imageio.ImageReadParam;
 import javax.imageio.ImageReader;
-import javax.imageio.ImageWriteParam;
-import javax.imageio.ImageWriter;
-import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.ImageInputStream;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -43,7 +45,14 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class ImageOptimizationService {
 
+    private static final long PDF_COMPRESSION_THRESHOLD_BYTES = 100 * 1024;
+
+    private static final double DOWNSCALE_MARGIN = 0.95;
+    private static final double MIN_DOWNSCALE = 0.5;
+    private static final double MAX_DOWNSCALE = 0.9;
+
     private final DocumentProperties documentProperties;
+    private final TargetSizeJpegEncoder jpegEncoder;
 
     static {
         ImageIO.setUseCache(false);
@@ -72,17 +81,57 @@ public class ImageOptimizationService {
         return fileData;
     }
 
+    /**
+     * Same as {@link #processDocument(byte[], String, String)} for a spooled upload: images are
+     * decoded and PDFs parsed straight from the file, and the original is only loaded when it is
+     * returned unchanged
+     */
+    public byte[] processDocument(Path source, long size, String contentType, String documentType)
+            throws IOException {
+        long targetSizeBytes = documentProperties.getFileSize().getTargetFileSizeKb() * 1024;
+
+        log.info("TIMING-START-DOC: Processing document type {}, size {}KB", documentType, size / 1024);
+
+        if (size <= targetSizeBytes) {
+            log.info("TIMING-SKIP: File size {}KB is already within target {}KB", size / 1024,
+                    targetSizeBytes / 1024);
+            return Files.readAllBytes(source);
+        }
+
+        byte[] processed = null;
+        if (contentType != null && contentType.startsWith("image/")) {
+            processed = compressDecoded(() -> ImageIO.createImageInputStream(source.toFile()), documentType,
+                    targetSizeBytes);
+        } else if ("application/pdf".equals(contentType)) {
+            processed = size < PDF_COMPRESSION_THRESHOLD_BYTES
+                    ? null
+                    : compressPdfDocument(new PdfReader(source.toString()), size);
+        }
+        return processed != null ? processed : Files.readAllBytes(source);
+    }
+
     /**
      * Optimized image compression V5: Source Subsampling + Efficient Resizing +
      * TIMING LOGS
      */
     private byte[] compressImageIteratively(byte[] originalImageBytes, String documentType, long targetSizeBytes)
             throws IOException {
-        long startTime = System.currentTimeMillis();
-
         if (originalImageBytes == null || originalImageBytes.length == 0)
             return originalImageBytes;
 
+        byte[] compressed = compressDecoded(
+                () -> ImageIO.createImageInputStream(new ByteArrayInputStream(originalImageBytes)),
+                documentType, targetSizeBytes);
+        return compressed != null ? compressed : originalImageBytes;
+    }
+
+    /**
+     * @return the compressed image, or null if the source cannot be decoded
+     */
+    private byte[] compressDecoded(ImageSource source, String documentType, long targetSizeBytes)
+            throws IOException {
+        long startTime = System.currentTimeMillis();
+
         int maxWidth = "PROFILE_PHOTO".equalsIgnoreCase(documentType)
                 ? documentProperties.getImage().getProfilePhotoSize()
                 : documentProperties.getImage().getMaxWidth();
@@ -91,64 +140,54 @@ public class ImageOptimizationService {
                 : documentProperties.getImage().getMaxHeight();
 
         long decodeStart = System.currentTimeMillis();
-        BufferedImage currentImage = decodeCompressed(originalImageBytes, maxWidth, maxHeight);
+        BufferedImage currentImage = decodeCompressed(source, maxWidth, maxHeight);
         long decodeTime = System.currentTimeMillis() - decodeStart;
 
         if (currentImage == null) {
             log.warn("Failed to decode image efficiently, falling back to original");
-            return originalImageBytes;
+            return null;
         }
 
         log.info("TIMING-DECODE: Decoded in {}ms. Resulting size: {}x{}", decodeTime, currentImage.getWidth(),
                 currentImage.getHeight());
 
-        int currentWidth = currentImage.getWidth();
-
-        byte[] compressedBytes = originalImageBytes;
-        // User requested > 1.3MB. Starting at 0.95 (High Quality).
-        float quality = 0.95f;
-
+        DocumentProperties.ImageConfig image = documentProperties.getImage();
         long compressStart = System.currentTimeMillis();
-        byte[] fastAttempt = compressWithFixedQuality(currentImage, quality);
-        long compressTime = System.currentTimeMillis() - compressStart;
-        log.info("TIMING-COMPRESS-1: First pass (Q={}) took {}ms. Size: {}KB", quality, compressTime,
-                fastAttempt.length / 1024);
-
-        if (fastAttempt.length <= targetSizeBytes) {
-            log.info("TIMING-TOTAL: Fnished in {}ms", System.currentTimeMillis() - startTime);
-            return fastAttempt;
-        }
+        TargetSizeJpegEncoder.Encoded encoded = encodeToTarget(currentImage, targetSizeBytes);
+        log.info("TIMING-COMPRESS-1: Q={} after {} full encodes took {}ms. Size: {}KB", encoded.quality(),
+                encoded.fullEncodes(), System.currentTimeMillis() - compressStart, encoded.data().length / 1024);
 
-        // Attempt 2: Drop to 0.85 (Medium) instead of drastic 0.70
-        quality = 0.85f;
-        currentImage = Thumbnails.of(currentImage).scale(0.9).asBufferedImage();
+        // Even the quality floor overshoots: shrink by the size ratio rather than fixed steps
+        for (int round = 2; !encoded.fits() && round <= 1 + image.getMaxDownscaleRounds(); round++) {
+            double scale = Math.sqrt((double) targetSizeBytes / encoded.data().length) * DOWNSCALE_MARGIN;
+            scale = Math.max(MIN_DOWNSCALE, Math.min(MAX_DOWNSCALE, scale));
+            currentImage = Thumbnails.of(currentImage).scale(scale).asBufferedImage();
 
-        compressStart = System.currentTimeMillis();
-        compressedBytes = compressWithFixedQuality(currentImage, quality);
-        log.info("TIMING-COMPRESS-2: Second pass (Q={}, Scale=0.9) took {}ms. Size: {}KB", quality,
-                System.currentTimeMillis() - compressStart, compressedBytes.length / 1024);
-
-        if (compressedBytes.length > targetSizeBytes) {
-            quality = 0.60f;
-            currentImage = Thumbnails.of(currentImage).scale(0.9).asBufferedImage();
             compressStart = System.currentTimeMillis();
-            byte[] lastAttempt = compressWithFixedQuality(currentImage, quality);
-            log.info("TIMING-COMPRESS-3: Third pass (Q={}, Scale=0.9) took {}ms. Size: {}KB", quality,
-                    System.currentTimeMillis() - compressStart, lastAttempt.length / 1024);
+            TargetSizeJpegEncoder.Encoded smaller = encodeToTarget(currentImage, targetSizeBytes);
+            log.info("TIMING-COMPRESS-{}: Q={}, Scale={} after {} full encodes took {}ms. Size: {}KB", round,
+                    smaller.quality(), String.format("%.2f", scale), smaller.fullEncodes(),
+                    System.currentTimeMillis() - compressStart, smaller.data().length / 1024);
 
-            if (lastAttempt.length < compressedBytes.length) {
-                compressedBytes = lastAttempt;
+            if (smaller.fits() || smaller.data().length < encoded.data().length) {
+                encoded = smaller;
             }
         }
 
-        log.info("TIMING-TOTAL: Loop finished in {}ms", System.currentTimeMillis() - startTime);
-        return compressedBytes;
+        log.info("TIMING-TOTAL: Finished in {}ms", System.currentTimeMillis() - startTime);
+        return encoded.data();
+    }
+
+    private TargetSizeJpegEncoder.Encoded encodeToTarget(BufferedImage image, long targetSizeBytes)
+            throws IOException {
+        DocumentProperties.ImageConfig config = documentProperties.getImage();
+        return jpegEncoder.encodeToTarget(image, targetSizeBytes, config.getMinQuality(), config.getHighQuality(),
+                config.getSizeTolerance(), config.getMaxFullEncodes());
     }
 
-    private BufferedImage decodeCompressed(byte[] imageBytes, int maxWidth, int maxHeight) throws IOException {
+    private BufferedImage decodeCompressed(ImageSource source, int maxWidth, int maxHeight) throws IOException {
         long start = System.currentTimeMillis();
-        try (ByteArrayInputStream bis = new ByteArrayInputStream(imageBytes);
-                javax.imageio.stream.ImageInputStream iis = ImageIO.createImageInputStream(bis)) {
+        try (ImageInputStream iis = source.open()) {
 
             Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
             if (!readers.hasNext())
@@ -177,38 +216,56 @@ public class ImageOptimizationService {
         } catch (Exception e) {
             log.warn("Subsampling decode failed after {}ms, trying standard read", System.currentTimeMillis() - start,
                     e);
-            return ImageIO.read(new ByteArrayInputStream(imageBytes));
+            try (ImageInputStream iis = source.open()) {
+                return ImageIO.read(iis);
+            }
         }
     }
 
     /**
-     * Simple one-shot compression (Legacy support / fallback)
+     * A JPEG rendition that fits within a square bounding box
      */
-    public byte[] compressImage(byte[] originalImageBytes, String documentType) throws IOException {
-        long targetSizeBytes = documentProperties.getFileSize().getTargetFileSizeKb() * 1024;
-        return compressImageIteratively(originalImageBytes, documentType, targetSizeBytes);
+    public record Rendition(int maxDimension, int width, int height, byte[] data) {
     }
 
-    private byte[] compressWithFixedQuality(BufferedImage image, float quality) throws IOException {
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpg");
-            if (!writers.hasNext())
-                throw new IllegalStateException("No JPEG writer found");
-
-            ImageWriter writer = writers.next();
-            try (ImageOutputStream ios = ImageIO.createImageOutputStream(outputStream)) {
-                writer.setOutput(ios);
-                ImageWriteParam param = writer.getDefaultWriteParam();
-                if (param.canWriteCompressed()) {
-                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
-                    param.setCompressionQuality(quality);
-                }
-                writer.write(null, new IIOImage(image, null, null), param);
-            } finally {
-                writer.dispose();
+    /**
+     * Renditions of an image for each bounding box. The image is decoded once with subsampling,
+     * and each rendition is scaled from the next larger one rather than from the full image;
+     * images already inside a box are encoded at their own size, never upscaled.
+     *
+     * @return renditions ordered largest first, or an empty list if the data cannot be decoded
+     */
+    public List<Rendition> createRenditions(byte[] imageData, List<Integer> maxDimensions) throws IOException {
+        if (imageData == null || imageData.length == 0 || maxDimensions.isEmpty())
+            return List.of();
+
+        List<Integer> boxes = new ArrayList<>(maxDimensions);
+        boxes.sort(Comparator.reverseOrder());
+        int decodeBox = boxes.get(0) * 2;
+
+        BufferedImage current = decodeCompressed(
+                () -> ImageIO.createImageInputStream(new ByteArrayInputStream(imageData)), decodeBox, decodeBox);
+        if (current == null)
+            return List.of();
+
+        float quality = documentProperties.getImage().getMediumQuality();
+        List<Rendition> renditions = new ArrayList<>(boxes.size());
+        for (int box : boxes) {
+            if (current.getWidth() > box || current.getHeight() > box) {
+                current = Thumbnails.of(current).size(box, box).asBufferedImage();
             }
-            return outputStream.toByteArray();
+            renditions.add(new Rendition(box, current.getWidth(), current.getHeight(),
+                    jpegEncoder.encode(current, quality)));
         }
+        return renditions;
+    }
+
+    /**
+     * Simple one-shot compression (Legacy support / fallback)
+     */
+    public byte[] compressImage(byte[] originalImageBytes, String documentType) throws IOException {
+        long targetSizeBytes = documentProperties.getFileSize().getTargetFileSizeKb() * 1024;
+        return compressImageIteratively(originalImageBytes, documentType, targetSizeBytes);
     }
 
     /**
@@ -217,15 +274,21 @@ public class ImageOptimizationService {
     public byte[] compressPdf(byte[] originalPdfBytes) throws IOException {
         // NOTE: Input size validation should happen before this method if strict limits
         // are needed.
-        long thresholdBytes = 100 * 1024;
-        if (originalPdfBytes.length < thresholdBytes) {
+        if (originalPdfBytes.length < PDF_COMPRESSION_THRESHOLD_BYTES) {
             return originalPdfBytes; // Already small
         }
 
-        try (ByteArrayInputStream inputStream = new ByteArrayInputStream(originalPdfBytes);
-                ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+        byte[] compressedBytes = compressPdfDocument(
+                new PdfReader(new ByteArrayInputStream(originalPdfBytes)), originalPdfBytes.length);
+        return compressedBytes != null ? compressedBytes : originalPdfBytes;
+    }
+
+    /**
+     * @return the recompressed PDF, or null if it came out larger than the original
+     */
+    private byte[] compressPdfDocument(PdfReader reader, long originalSize) throws IOException {
+        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
 
-            PdfReader reader = new PdfReader(inputStream);
             WriterProperties writerProps = new WriterProperties()
                     .setCompressionLevel(9)
                     .setFullCompressionMode(true);
@@ -239,10 +302,10 @@ public class ImageOptimizationService {
             pdfDoc.close();
 
             byte[] compressedBytes = outputStream.toByteArray();
-            log.info("PDF compressed from {}KB to {}KB", originalPdfBytes.length / 1024, compressedBytes.length / 1024);
+            log.info("PDF compressed from {}KB to {}KB", originalSize / 1024, compressedBytes.length / 1024);
 
-            if (compressedBytes.length > originalPdfBytes.length) {
-                return originalPdfBytes;
+            if (compressedBytes.length > originalSize) {
+                return null;
             }
             return compressedBytes;
         } catch (Exception e) {
@@ -305,7 +368,7 @@ public class ImageOptimizationService {
                 bi = Thumbnails.of(bi).size(1800, 1800).asBufferedImage();
             }
 
-            byte[] compressedBytes = compressWithFixedQuality(bi, 0.75f);
+            byte[] compressedBytes = jpegEncoder.encode(bi, documentProperties.getImage().getLowQuality());
 
             if (compressedBytes.length < imageBytes.length) {
                 ImageData newData = ImageDataFactory.create(compressedBytes);
@@ -326,4 +389,9 @@ public class ImageOptimizationService {
         long targetSizeBytes = documentProperties.getFileSize().getTargetFileSizeKb() * 1024;
         return fileSizeBytes > targetSizeBytes;
     }
+
+    @FunctionalInterface
+    private interface ImageSource {
+        ImageInputStream open() throws IOException;
+    }
 }
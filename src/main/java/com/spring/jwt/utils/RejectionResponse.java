@@ -0,0 +1,115 @@
+package com.spring.jwt.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Error response of a security filter, serialized once when it is created and written as raw
+ * bytes with a fixed Content-Length. Rejections are the hot path under attack, so writing one
+ * does no serialization and no encoding; only a correlation id, when the caller sent a usable
+ * one, is spliced in before the closing brace.
+ */
+public final class RejectionResponse {
+
+    public static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+
+    private static final String CORRELATION_ID_KEY = "correlationId";
+    private static final int MAX_CORRELATION_ID_LENGTH = 64;
+    private static final String CONTENT_TYPE = "application/json; charset=UTF-8";
+    private static final byte[] CORRELATION_FIELD =
+            (",\"" + CORRELATION_ID_KEY + "\":\"").getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CORRELATION_END = {'"', '}'};
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final int status;
+    private final byte[] body;
+    private final int prefixLength;
+
+    private RejectionResponse(int status, byte[] body) {
+        this.status = status;
+        this.body = body;
+        this.prefixLength = body.length - 1;
+    }
+
+    /**
+     * @param payload serialized to a JSON object now; later writes reuse the bytes
+     */
+    public static RejectionResponse of(int status, Object payload) {
+        try {
+            byte[] body = MAPPER.writeValueAsBytes(payload);
+            if (body.length < 2 || body[body.length - 1] != '}') {
+                throw new IllegalArgumentException("Rejection payload must serialize to a JSON object");
+            }
+            return new RejectionResponse(status, body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Rejection payload cannot be serialized", e);
+        }
+    }
+
+    /**
+     * The usual {code, message, userID} body of the authentication filters
+     */
+    public static RejectionResponse of(int status, String message) {
+        return of(status, new BaseResponseDTO(String.valueOf(status), message, null));
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void write(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String correlationId = correlationId(request);
+        response.setStatus(status);
+        response.setContentType(CONTENT_TYPE);
+        ServletOutputStream out = response.getOutputStream();
+        if (correlationId == null) {
+            response.setContentLength(body.length);
+            out.write(body);
+        } else {
+            response.setContentLength(prefixLength + CORRELATION_FIELD.length + correlationId.length()
+                    + CORRELATION_END.length);
+            out.write(body, 0, prefixLength);
+            out.write(CORRELATION_FIELD);
+            for (int i = 0; i < correlationId.length(); i++) {
+                out.write(correlationId.charAt(i));
+            }
+            out.write(CORRELATION_END);
+        }
+        out.flush();
+    }
+
+    /**
+     * The caller's X-Correlation-Id or the one in the logging context, if it is short and needs
+     * no JSON escaping; anything else is left out rather than encoded
+     */
+    private static String correlationId(HttpServletRequest request) {
+        String id = request.getHeader(CORRELATION_ID_HEADER);
+        if (id == null) {
+            id = MDC.get(CORRELATION_ID_KEY);
+        }
+        if (id == null || id.isEmpty() || id.length() > MAX_CORRELATION_ID_LENGTH) {
+            return null;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            boolean safe = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == ':';
+            if (!safe) {
+                return null;
+            }
+        }
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return status + " " + new String(body, StandardCharsets.UTF_8);
+    }
+}
@@ -107,19 +107,8 @@ public class SecurityAuditLogger {
         if (request == null) {
             return "unknown";
         }
-        
-        String xff = request.getHeader("X-Forwarded-For");
-        if (xff != null && !xff.isEmpty() && !xff.equalsIgnoreCase("unknown")) {
-            // Get the first IP if multiple are present (client, proxy1, proxy2)
-            return xff.contains(",") ? xff.split(",")[0].trim() : xff;
-        }
-        
-        String realIp = request.getHeader("X-Real-IP");
-        if (realIp != null && !realIp.isEmpty() && !realIp.equalsIgnoreCase("unknown")) {
-            return realIp;
-        }
-        
-        return request.getRemoteAddr();
+
+        return ClientContext.from(request).getClientIp();
     }
     
     /**
@@ -130,7 +119,7 @@ public class SecurityAuditLogger {
             return "unknown";
         }
         
-        String userAgent = request.getHeader("User-Agent");
+        String userAgent = ClientContext.from(request).getUserAgent();
         return userAgent != null ? userAgent : "unknown";
     }
     
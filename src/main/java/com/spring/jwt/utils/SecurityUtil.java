@@ -1,5 +1,6 @@
 package com.spring.jwt.utils;
 
+import com.spring.jwt.jwt.ValidatedToken;
 import com.spring.jwt.service.security.UserDetailsCustom;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -56,4 +57,32 @@ public final class SecurityUtil
 
     }
 
+    /**
+     * Username of the authenticated caller, or null for anonymous requests
+     */
+    public static String getCurrentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || !(authentication.getPrincipal() instanceof org.springframework.security.core.userdetails.UserDetails userDetails)) {
+            return null;
+        }
+        return userDetails.getUsername();
+    }
+
+    /**
+     * Token validated by the JWT filter for the current request, without parsing it again
+     */
+    public static ValidatedToken getCurrentToken() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getDetails() instanceof ValidatedToken validatedToken) {
+            return validatedToken;
+        }
+        return null;
+    }
+
+    public static String getCurrentTokenId() {
+        ValidatedToken validatedToken = getCurrentToken();
+        return validatedToken != null ? validatedToken.getTokenId() : null;
+    }
+
 }
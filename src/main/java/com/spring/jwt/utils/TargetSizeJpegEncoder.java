@@ -0,0 +1,282 @@
+package com.spring.jwt.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * JPEG encoder that searches for the highest quality whose output fits a byte budget.
+ *
+ * A nearest-neighbour sample of about {@value #SAMPLE_PIXELS} pixels keeps the texture of the
+ * full image, and its encoded size scaled by the pixel ratio predicts the full size; the
+ * quality is found by bisection on the cheap sample. Each full encode then recalibrates that
+ * prediction and narrows a [fits, too large] bracket, so most images need one or two full
+ * encodes. Every thread keeps its own ImageWriter and output buffer, so an encode does no
+ * service lookup and reuses the buffer it grew last time.
+ */
+@Component
+@Slf4j
+public class TargetSizeJpegEncoder {
+
+    private static final int SAMPLE_PIXELS = 128 * 1024;
+    private static final int SAMPLE_BISECTION_STEPS = 5;
+    private static final float MIN_QUALITY_STEP = 0.01f;
+    private static final int MAX_RETAINED_BUFFER_BYTES = 8 * 1024 * 1024;
+
+    private final ThreadLocal<PooledWriter> writers = ThreadLocal.withInitial(PooledWriter::new);
+
+    /**
+     * @param data       the encoded image; when {@code fits} is false, the smallest attempt
+     * @param quality    JPEG quality that produced it
+     * @param fullEncodes encodes of the full image the search needed
+     * @param fits       whether the data is within the target size
+     */
+    public record Encoded(byte[] data, float quality, int fullEncodes, boolean fits) {
+    }
+
+    /**
+     * One encode at a fixed quality
+     */
+    public byte[] encode(BufferedImage image, float quality) throws IOException {
+        PooledWriter writer = writers.get();
+        writer.encode(toRgb(image), quality);
+        return writer.copy();
+    }
+
+    /**
+     * Highest quality in [minQuality, maxQuality] whose output is at most targetBytes. The search
+     * stops early once a result is within tolerance (a fraction, e.g. 0.1) below the target.
+     */
+    public Encoded encodeToTarget(BufferedImage image, long targetBytes, float minQuality, float maxQuality,
+                                  double tolerance, int maxFullEncodes) throws IOException {
+        BufferedImage source = toRgb(image);
+        PooledWriter writer = writers.get();
+        Sample sample = Sample.of(source, writer);
+        long closeEnough = (long) (targetBytes * (1 - tolerance));
+        int attempts = Math.max(1, maxFullEncodes);
+
+        float lo = minQuality;
+        float hi = maxQuality;
+        byte[] best = null;
+        float bestQuality = 0;
+        byte[] smallest = null;
+        float smallestQuality = 0;
+        double calibration = 1.0;
+
+        float quality = sample != null ? sample.predictQuality(targetBytes, lo, hi, calibration) : hi;
+        int fullEncodes = 0;
+        while (fullEncodes < attempts) {
+            int size = writer.encode(source, quality);
+            fullEncodes++;
+
+            if (size <= targetBytes) {
+                if (best == null || size > best.length) {
+                    best = writer.copy();
+                    bestQuality = quality;
+                }
+                if (size >= closeEnough || quality >= hi) {
+                    break;
+                }
+                lo = quality;
+            } else {
+                if (smallest == null || size < smallest.length) {
+                    smallest = writer.copy();
+                    smallestQuality = quality;
+                }
+                if (quality <= lo) {
+                    break;
+                }
+                hi = quality;
+            }
+            if (hi - lo < MIN_QUALITY_STEP) {
+                break;
+            }
+
+            float next;
+            if (best == null && fullEncodes == attempts - 1) {
+                // Last chance: make sure the floor was tried before reporting a miss
+                next = lo;
+            } else if (sample != null) {
+                calibration = size / sample.predictedSize(quality, 1.0);
+                next = sample.predictQuality(targetBytes, lo, hi, calibration);
+                if (next <= lo || next >= hi) {
+                    next = (lo + hi) / 2;
+                }
+            } else {
+                next = (lo + hi) / 2;
+            }
+            quality = next;
+        }
+
+        if (best != null) {
+            return new Encoded(best, bestQuality, fullEncodes, true);
+        }
+        return new Encoded(smallest, smallestQuality, fullEncodes, false);
+    }
+
+    /**
+     * The JPEG writer accepts neither alpha nor indexed colour; such images are flattened onto white
+     */
+    private static BufferedImage toRgb(BufferedImage image) {
+        int type = image.getType();
+        if (type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_3BYTE_BGR
+                || type == BufferedImage.TYPE_BYTE_GRAY) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+
+    /**
+     * Downsampled copy of the image with its encoded sizes, memoised by quality
+     */
+    private static final class Sample {
+
+        private final BufferedImage image;
+        private final double pixelRatio;
+        private final PooledWriter writer;
+        private final Map<Float, Integer> sizes = new HashMap<>();
+
+        private Sample(BufferedImage image, double pixelRatio, PooledWriter writer) {
+            this.image = image;
+            this.pixelRatio = pixelRatio;
+            this.writer = writer;
+        }
+
+        /**
+         * @return null when the image is too small for a sample to be much cheaper
+         */
+        static Sample of(BufferedImage source, PooledWriter writer) {
+            long pixels = (long) source.getWidth() * source.getHeight();
+            if (pixels < 4L * SAMPLE_PIXELS) {
+                return null;
+            }
+            double scale = Math.sqrt((double) SAMPLE_PIXELS / pixels);
+            int width = Math.max(1, (int) (source.getWidth() * scale));
+            int height = Math.max(1, (int) (source.getHeight() * scale));
+
+            BufferedImage sample = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = sample.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+                g.drawImage(source, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            return new Sample(sample, (double) pixels / ((long) width * height), writer);
+        }
+
+        double predictedSize(float quality, double calibration) throws IOException {
+            Integer size = sizes.get(quality);
+            if (size == null) {
+                size = writer.encode(image, quality);
+                sizes.put(quality, size);
+            }
+            return size * pixelRatio * calibration;
+        }
+
+        /**
+         * Highest quality in [lo, hi] predicted to fit
+         */
+        float predictQuality(long targetBytes, float lo, float hi, double calibration) throws IOException {
+            if (predictedSize(hi, calibration) <= targetBytes) {
+                return hi;
+            }
+            float low = lo;
+            float high = hi;
+            for (int i = 0; i < SAMPLE_BISECTION_STEPS; i++) {
+                float mid = (low + high) / 2;
+                if (predictedSize(mid, calibration) > targetBytes) {
+                    high = mid;
+                } else {
+                    low = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * A thread's JPEG writer, its write parameters and an output buffer reused across encodes
+     */
+    private static final class PooledWriter {
+
+        private final ImageWriter writer;
+        private final ImageWriteParam param;
+        private ExposedBuffer buffer = new ExposedBuffer();
+
+        PooledWriter() {
+            Iterator<ImageWriter> available = ImageIO.getImageWritersByFormatName("jpg");
+            if (!available.hasNext()) {
+                throw new IllegalStateException("No JPEG writer found");
+            }
+            this.writer = available.next();
+            this.param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            }
+        }
+
+        /**
+         * Encode into the buffer, replacing what it held
+         * @return encoded size
+         */
+        int encode(BufferedImage image, float quality) throws IOException {
+            if (buffer.size() > MAX_RETAINED_BUFFER_BYTES) {
+                buffer = new ExposedBuffer();
+            }
+            buffer.reset();
+            if (param.canWriteCompressed()) {
+                param.setCompressionQuality(quality);
+            }
+            try (MemoryCacheImageOutputStream out = new MemoryCacheImageOutputStream(buffer)) {
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } catch (IOException | RuntimeException e) {
+                log.debug("JPEG encode failed at quality {}: {}", quality, e.getMessage());
+                throw e;
+            } finally {
+                writer.reset();
+            }
+            return buffer.size();
+        }
+
+        byte[] copy() {
+            return buffer.copy();
+        }
+    }
+
+    private static final class ExposedBuffer extends ByteArrayOutputStream {
+
+        ExposedBuffer() {
+            super(256 * 1024);
+        }
+
+        byte[] copy() {
+            return Arrays.copyOf(buf, count);
+        }
+    }
+}
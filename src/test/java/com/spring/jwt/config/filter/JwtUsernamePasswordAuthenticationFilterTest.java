@@ -0,0 +1,103 @@
+package com.spring.jwt.config.filter;
+
+import com.spring.jwt.exception.AuthenticationRateLimitedException;
+import com.spring.jwt.jwt.ActiveSessionService;
+import com.spring.jwt.jwt.JwtConfig;
+import com.spring.jwt.jwt.JwtService;
+import com.spring.jwt.ratelimit.SlidingWindowRateLimiter;
+import com.spring.jwt.repository.UserRepository;
+import com.spring.jwt.service.impl.AccountSecurityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtUsernamePasswordAuthenticationFilterTest {
+
+    private static final int LIMIT = 3;
+
+    private AuthenticationManager authenticationManager;
+    private AccountSecurityService accountSecurityService;
+    private JwtUsernamePasswordAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        JwtConfig jwtConfig = mock(JwtConfig.class);
+        when(jwtConfig.getUrl()).thenReturn("/jwt/login");
+        authenticationManager = mock(AuthenticationManager.class);
+        accountSecurityService = mock(AccountSecurityService.class);
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        filter = new JwtUsernamePasswordAuthenticationFilter(
+                authenticationManager,
+                jwtConfig,
+                mock(JwtService.class),
+                mock(UserRepository.class),
+                mock(ActiveSessionService.class),
+                accountSecurityService,
+                new SlidingWindowRateLimiter(LIMIT, 60_000, 64));
+    }
+
+    @Test
+    void rejectsTheAttemptAfterTheLimitWithoutCheckingThePassword() {
+        for (int i = 0; i < LIMIT; i++) {
+            assertThrows(BadCredentialsException.class,
+                    () -> filter.attemptAuthentication(loginRequest("10.0.0.1"), new MockHttpServletResponse()));
+        }
+
+        AuthenticationRateLimitedException rejected = assertThrows(AuthenticationRateLimitedException.class,
+                () -> filter.attemptAuthentication(loginRequest("10.0.0.1"), new MockHttpServletResponse()));
+
+        verify(authenticationManager, times(LIMIT)).authenticate(any(Authentication.class));
+        verify(accountSecurityService, times(LIMIT)).recordFailedAttempt("user@example.com");
+        assertTrue(rejected.getRetryAfterSeconds() >= 1);
+    }
+
+    @Test
+    void limitsEachClientIpSeparately() {
+        for (int i = 0; i < LIMIT; i++) {
+            assertThrows(BadCredentialsException.class,
+                    () -> filter.attemptAuthentication(loginRequest("10.0.0.1"), new MockHttpServletResponse()));
+        }
+
+        assertThrows(BadCredentialsException.class,
+                () -> filter.attemptAuthentication(loginRequest("10.0.0.2"), new MockHttpServletResponse()));
+    }
+
+    @Test
+    void answersRejectedAttemptsWith429AndRetryAfter() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.unsuccessfulAuthentication(loginRequest("10.0.0.1"), response,
+                new AuthenticationRateLimitedException("Too many authentication attempts", 42));
+
+        assertEquals(429, response.getStatus());
+        assertEquals("42", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertNotNull(response.getContentAsString());
+    }
+
+    private static MockHttpServletRequest loginRequest(String clientIp) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/jwt/login");
+        request.setRemoteAddr(clientIp);
+        request.setContentType("application/json");
+        request.setContent("{\"username\":\"user@example.com\",\"password\":\"wrong\"}"
+                .getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,288 @@
+package com.spring.jwt.sanitize;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the single-pass scanners produce exactly what the regex chains they replaced
+ * produced. The chains below are copied verbatim from the request filters they used to live in.
+ */
+class SanitizerEquivalenceTest {
+
+    private static final Pattern[] LEGACY_XSS_PATTERNS = {
+            Pattern.compile("<script>(.*?)</script>", Pattern.CASE_INSENSITIVE),
+            Pattern.compile("src[\r\n]*=[\r\n]*\\\'(.*?)\\\'", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+            Pattern.compile("src[\r\n]*=[\r\n]*\\\"(.*?)\\\"", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+            Pattern.compile("on\\w+\\s*=\\s*\".*?\"", Pattern.CASE_INSENSITIVE),
+            Pattern.compile("on\\w+\\s*=\\s*'.*?'", Pattern.CASE_INSENSITIVE),
+            Pattern.compile("javascript:", Pattern.CASE_INSENSITIVE),
+            Pattern.compile("expression\\(.*?\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+            Pattern.compile("behavior\\s*:\\s*url\\(.*?\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+            Pattern.compile("<.*?\\s+.*?\\s*=.*?>", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+            Pattern.compile("eval\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+            Pattern.compile("alert\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+            Pattern.compile("document\\.write\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+            Pattern.compile("document\\.cookie", Pattern.CASE_INSENSITIVE),
+            Pattern.compile("<iframe(.*?)>(.*?)</iframe>", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+            Pattern.compile("<form(.*?)>(.*?)</form>", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL)
+    };
+
+    private static final Pattern[] LEGACY_SQL_INJECTION_PATTERNS = {
+            Pattern.compile("(?i)\\b(select|insert|update|delete|from|where|drop|alter|truncate|exec|union|create|table|into|procedure|schema)\\b.*?\\b(.*?)\\b"),
+            Pattern.compile("(?i)/\\*.*?\\*/|--.*?$"),
+            Pattern.compile("(?i)\\b(and|or|not|like|between|in|is|null)\\b.*?\\b(.*?)\\b"),
+            Pattern.compile("(?i)\\b(count|sum|avg|min|max)\\b.*?\\(.*?\\)"),
+            Pattern.compile(";.*?$"),
+            Pattern.compile("'\\s*=\\s*'"),
+            Pattern.compile("'\\s*or\\s*'\\s*'\\s*=\\s*'"),
+            Pattern.compile(";\\s*\\w+.*?"),
+            Pattern.compile("(?i)union\\s+all\\s+select"),
+            Pattern.compile("(?i)sleep\\s*\\(\\s*\\d+\\s*\\)|benchmark\\s*\\("),
+            Pattern.compile("(?i)extractvalue\\s*\\(|updatexml\\s*\\("),
+            Pattern.compile(";\\s*\\w+.*?"),
+            Pattern.compile("(?i)0x[0-9a-f]+")
+    };
+
+    private static final String[] XSS_CORPUS = {
+            "",
+            "plain text",
+            "O'Brien & Sons, 12/4 \"quoted\"",
+            "<b>bold</b>",
+            "<script>alert(1)</script>",
+            "<script>a</script>b<script>c</script>",
+            "<script>one\n</script>",
+            "<script>never closed",
+            "<script><script>x</script></script>",
+            "<img src='x.png'>",
+            "<img src=\"x.png\" onerror=\"alert(1)\">",
+            "src=\r\n'multi\nline'",
+            "src='unterminated",
+            "src=\"a' b\"",
+            "<a onclick='go()' onmouseover=\"x\">link</a>",
+            "onclick = 'x'",
+            "on='x'",
+            "onload='first\nsecond'",
+            "button onon onclick='x' on",
+            "javascript:alert(1)",
+            "JaVaScRiPt:void(0)",
+            "javascript:javascript:",
+            "width: expression(alert(1))",
+            "expression(never closed",
+            "behavior : url(x.htc)",
+            "behavior: notaurl(x)",
+            "eval(code) eval(more",
+            "alert(alert(1))",
+            "document.write('<p>') document.cookie",
+            "DOCUMENT.COOKIE and document.cook",
+            "<iframe src=x>inner</iframe>",
+            "<iframe>\nmulti\n</iframe> tail",
+            "<iframe never closed",
+            "<iframe>open but no end",
+            "<form action=x><input></form>",
+            "<form>a</form><form>b</form>",
+            "<form unterminated",
+            "<div class=x>",
+            "< div = >",
+            "<p\n=\n>",
+            "<<a b=c>>",
+            "<a b=c",
+            "a < b = c > d",
+            "a <b",
+            "<",
+            ">",
+            "&lt;script&gt;alert(1)&lt;/script&gt;",
+            "&#60;script&#62;alert(1)&#60;/script&#62;",
+            "&#x3C;img src=x onerror=alert(1)&#x3E;",
+            "%3Cscript%3Ealert(1)%3C%2Fscript%3E",
+            "&amp;lt;b&amp;gt;",
+            "&quot;onclick=&quot;x&quot;",
+            "<scr<script>ipt>alert(1)</script>",
+            "java<script>x</script>script:",
+            "srsrc='x'c='y'",
+            "on<b>click</b>='x'",
+            "eval(alert(1)) expression(eval(2))",
+            "<iframe><form></iframe></form>",
+            "<form><iframe></form></iframe>",
+            "\"'\"'",
+            "''''",
+            "\r\n\t \u2028\u0085",
+            "src\n\n=\n\n\"x\"",
+            "ondblclick  =  \"x\"  onfocus='y'"
+    };
+
+    private static final String[] SQL_CORPUS = {
+            "",
+            "plain text",
+            "O'Brien",
+            "admin' OR '1'='1",
+            "' or ''='",
+            "1; DROP TABLE users",
+            "1;DROP TABLE users --",
+            "SELECT * FROM users WHERE id = 1",
+            "select\nfrom\nwhere",
+            "UNION ALL SELECT password FROM users",
+            "union  all\tselect",
+            "insertion selection updated",
+            "count(*) sum(x) avg (y) min( max(",
+            "count\n(x)",
+            "MAX(a) and min(b)",
+            "/* comment */ text",
+            "/* unterminated comment",
+            "-- trailing comment",
+            "a -- b\nc -- d",
+            "line1\nline2 -- tail\n",
+            "x;\ny;",
+            "x; y; z",
+            ";",
+            ";;",
+            "a;",
+            "sleep(5)",
+            "SLEEP ( 10 )",
+            "sleep(x)",
+            "benchmark(1000000,md5(1))",
+            "extractvalue(1,concat(0x7e,version()))",
+            "UPDATEXML(1,2,3)",
+            "0x41424344",
+            "0X7E and 0xZZ",
+            "value#fragment",
+            "\"double\" 'single'",
+            "null is not in between like",
+            "NULL",
+            "island android orange",
+            "in",
+            "a in b",
+            "where;",
+            "from--x",
+            "'='",
+            "' = '",
+            "select'or'",
+            "&#39; OR &#39;1&#39;=&#39;1",
+            "%27%20OR%20%271%27%3D%271",
+            "&apos;;DROP TABLE t;--",
+            "sel/**/ect",
+            "un/*x*/ion select",
+            "/*/",
+            "*/ stray close",
+            "--",
+            "a\r\nb -- c\r\n",
+            "line\u2028sep -- x",
+            "trailing newline;\n",
+            "selectfrom fromselect",
+            "drop_table table_drop",
+            "sleepy benchmarking",
+            "O'Reilly; Smith -- note /* x */ #tag 0xFF"
+    };
+
+    private static final String[] FRAGMENTS = {
+            "<script>", "</script>", "<SCRIPT>", "<iframe", "</iframe>", "<form", "</form>",
+            "<", ">", "=", "'", "\"", "(", ")", ";", "--", "/*", "*/", "#", "\n", "\r\n", " ", "\t",
+            "src", "on", "click", "javascript:", "expression(", "behavior", ":", "url(", "eval(",
+            "alert(", "document.write(", "document.cookie", "&lt;", "&#x27;", "&amp;",
+            "select", "FROM", "or", "and", "in", "null", "count", "max", "union", "all",
+            "sleep", "benchmark(", "extractvalue(", "updatexml(", "0x1f", "0xg", "1", "abc", "_"
+    };
+
+    private static final int RANDOM_INPUTS = 20000;
+
+    @Test
+    void xssScannerMatchesRegexChain() {
+        for (String input : corpus(XSS_CORPUS)) {
+            assertEquals(legacyXss(input), XssSanitizer.sanitize(input), () -> "XSS input: " + escape(input));
+        }
+    }
+
+    @Test
+    void sqlInjectionScannerMatchesRegexChain() {
+        for (String input : corpus(SQL_CORPUS)) {
+            assertEquals(legacySqlInjection(input), SqlInjectionSanitizer.sanitize(input),
+                    () -> "SQL input: " + escape(input));
+        }
+    }
+
+    @Test
+    void scannersMatchRegexChainsOnRandomInput() {
+        Random random = new Random(20261017L);
+        for (int n = 0; n < RANDOM_INPUTS; n++) {
+            StringBuilder builder = new StringBuilder();
+            int parts = 1 + random.nextInt(12);
+            for (int p = 0; p < parts; p++) {
+                builder.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            String input = builder.toString();
+            assertEquals(legacyXss(input), XssSanitizer.sanitize(input), () -> "XSS input: " + escape(input));
+            assertEquals(legacySqlInjection(input), SqlInjectionSanitizer.sanitize(input),
+                    () -> "SQL input: " + escape(input));
+        }
+    }
+
+    @Test
+    void literalTrieFindsLongestCaseInsensitiveMatch() {
+        LiteralTrie trie = new LiteralTrie("on", "once", "one");
+        assertEquals(2, trie.match("ONE", 0));
+        assertEquals(1, trie.match("Oncer", 0));
+        assertEquals(0, trie.match("xOnly", 1));
+        assertEquals(-1, trie.match("o", 0));
+        assertEquals(-1, trie.match("no", 0));
+    }
+
+    /**
+     * Every entry as written, upper-cased and in alternating case
+     */
+    private static List<String> corpus(String[] entries) {
+        List<String> inputs = new ArrayList<>();
+        for (String entry : entries) {
+            inputs.add(entry);
+            inputs.add(entry.toUpperCase());
+            inputs.add(alternateCase(entry));
+        }
+        return inputs;
+    }
+
+    private static String alternateCase(String value) {
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            builder.append(i % 2 == 0 ? Character.toUpperCase(c) : Character.toLowerCase(c));
+        }
+        return builder.toString();
+    }
+
+    private static String legacyXss(String value) {
+        String sanitizedValue = value;
+        for (Pattern pattern : LEGACY_XSS_PATTERNS) {
+            sanitizedValue = pattern.matcher(sanitizedValue).replaceAll("");
+        }
+        return sanitizedValue
+                .replaceAll("<", "&lt;")
+                .replaceAll(">", "&gt;")
+                .replaceAll("\"", "&quot;")
+                .replaceAll("'", "&#x27;")
+                .replaceAll("&", "&amp;")
+                .replaceAll("/", "&#x2F;");
+    }
+
+    private static String legacySqlInjection(String value) {
+        String sanitizedValue = value;
+        for (Pattern pattern : LEGACY_SQL_INJECTION_PATTERNS) {
+            sanitizedValue = pattern.matcher(sanitizedValue).replaceAll("INVALID");
+        }
+        return sanitizedValue
+                .replaceAll("'", "")
+                .replaceAll("\"", "")
+                .replaceAll(";", "")
+                .replaceAll("--", "")
+                .replaceAll("/\\*", "")
+                .replaceAll("\\*/", "")
+                .replaceAll("#", "");
+    }
+
+    private static String escape(String value) {
+        return value.replace("\r", "\\r").replace("\n", "\\n").replace("\t", "\\t");
+    }
+}
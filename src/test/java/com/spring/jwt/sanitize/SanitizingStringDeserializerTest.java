@@ -0,0 +1,104 @@
+package com.spring.jwt.sanitize;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks how the request sanitization module is applied while JSON is deserialized
+ */
+class SanitizingStringDeserializerTest {
+
+    private static final String SCRIPT = "<script>alert(1)</script>hello";
+    private static final String SQL = "name' OR 1=1 --";
+
+    private final ObjectMapper mapper = mapper(true, true);
+
+    @Test
+    void sanitizesPlainStrings() throws Exception {
+        Plain plain = mapper.readValue("{\"value\":\"" + SCRIPT + "\"}", Plain.class);
+
+        assertEquals("hello", plain.value);
+        assertEquals("hello", mapper.readValue("\"" + SCRIPT + "\"", String.class));
+    }
+
+    @Test
+    void sanitizesCollectionElementsAndMapValues() throws Exception {
+        Plain plain = mapper.readValue(
+                "{\"values\":[\"" + SCRIPT + "\",\"plain\"],\"attributes\":{\"note\":\"" + SCRIPT + "\"}}",
+                Plain.class);
+
+        assertEquals(List.of("hello", "plain"), plain.values);
+        assertEquals(Map.of("note", "hello"), plain.attributes);
+        assertEquals(List.of("hello"),
+                mapper.readValue("[\"" + SCRIPT + "\"]", new TypeReference<List<String>>() { }));
+    }
+
+    @Test
+    void appliesTheSqlCheckWhenEnabled() throws Exception {
+        Plain plain = mapper.readValue("{\"value\":\"" + SQL + "\"}", Plain.class);
+
+        assertEquals(XssSanitizer.strip(SqlInjectionSanitizer.sanitize(SQL)), plain.value);
+        assertEquals(SQL, mapper(true, false).readValue("{\"value\":\"" + SQL + "\"}", Plain.class).value);
+    }
+
+    @Test
+    void leavesFieldsMarkedNoSanitizeUntouched() throws Exception {
+        FieldOptOut optOut = mapper.readValue(
+                "{\"password\":\"" + SCRIPT + "\",\"comment\":\"" + SCRIPT + "\"}", FieldOptOut.class);
+
+        assertEquals(SCRIPT, optOut.password);
+        assertEquals("hello", optOut.comment);
+    }
+
+    @Test
+    void keepsTheChecksAFieldDidNotOptOutOf() throws Exception {
+        FieldOptOut optOut = mapper.readValue(
+                "{\"query\":\"" + SCRIPT + " " + SQL + "\"}", FieldOptOut.class);
+
+        assertEquals(XssSanitizer.strip(SCRIPT + " " + SQL), optOut.query);
+    }
+
+    @Test
+    void leavesEveryFieldOfATypeMarkedNoSanitizeUntouched() throws Exception {
+        TypeOptOut optOut = mapper.readValue(
+                "{\"token\":\"" + SCRIPT + "\",\"secrets\":[\"" + SCRIPT + "\"]}", TypeOptOut.class);
+
+        assertEquals(SCRIPT, optOut.token);
+        assertEquals(List.of(SCRIPT), optOut.secrets);
+    }
+
+    private static ObjectMapper mapper(boolean xss, boolean sql) {
+        SimpleModule module = new SimpleModule("RequestSanitization");
+        module.setDeserializerModifier(new SanitizingDeserializerModifier(xss, sql));
+        return new ObjectMapper().registerModule(module);
+    }
+
+    public static class Plain {
+        public String value;
+        public List<String> values;
+        public Map<String, String> attributes;
+    }
+
+    public static class FieldOptOut {
+        @NoSanitize
+        public String password;
+
+        public String comment;
+
+        @NoSanitize(NoSanitize.Check.SQL)
+        public String query;
+    }
+
+    @NoSanitize
+    public static class TypeOptOut {
+        public String token;
+        public List<String> secrets;
+    }
+}